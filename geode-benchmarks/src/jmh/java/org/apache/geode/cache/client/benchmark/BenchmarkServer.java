@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.benchmark;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.START_LOCATOR;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.execute.Function;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.apache.geode.cache.partition.PartitionRegionHelper;
+import org.apache.geode.cache.server.CacheServer;
+
+/**
+ * A cache server for the client/server benchmarks. Only one cache can be created per JVM, so each
+ * server runs in a child JVM started by {@link #start}. The servers host the partitioned
+ * {@link #REGION_NAME} region with an index on the id of its values and the {@link GetFunction}.
+ * The server that starts the locator has to be started first.
+ * It writes its cache server port to stdout and closes its cache once its stdin is closed.
+ */
+public class BenchmarkServer {
+
+  public static final String REGION_NAME = "region";
+
+  private static final String PORT_PREFIX = "port=";
+
+  private final Process process;
+
+  private final int port;
+
+  private BenchmarkServer(Process process, int port) {
+    this.process = process;
+    this.port = port;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * Starts a server in a child JVM with the classpath of this JVM.
+   *
+   * @param locatorPort the port of the locator of the servers
+   * @param startLocator whether this server should host the locator
+   */
+  public static BenchmarkServer start(int locatorPort, boolean startLocator)
+      throws IOException, InterruptedException {
+    String java =
+        System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    List<String> command = new ArrayList<>();
+    command.add(java);
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(BenchmarkServer.class.getName());
+    command.add(String.valueOf(locatorPort));
+    command.add(String.valueOf(startLocator));
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+    BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+    StringBuilder output = new StringBuilder();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      output.append(line).append(System.lineSeparator());
+      if (line.startsWith(PORT_PREFIX)) {
+        int port = Integer.parseInt(line.substring(PORT_PREFIX.length()));
+        // keep draining the output so the server never blocks writing to it
+        Thread drainer = new Thread(() -> {
+          try {
+            while (reader.readLine() != null) {
+            }
+          } catch (IOException ignore) {
+          }
+        }, "BenchmarkServer output");
+        drainer.setDaemon(true);
+        drainer.start();
+        return new BenchmarkServer(process, port);
+      }
+    }
+    throw new IOException(
+        "Benchmark server exited with " + process.waitFor() + System.lineSeparator() + output);
+  }
+
+  /**
+   * Stops the server, waiting for it to close its cache.
+   */
+  public void stop() throws InterruptedException {
+    try {
+      process.getOutputStream().close();
+    } catch (IOException ignore) {
+    }
+    if (!process.waitFor(30, TimeUnit.SECONDS)) {
+      process.destroyForcibly();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    int locatorPort = Integer.parseInt(args[0]);
+    boolean startLocator = Boolean.parseBoolean(args[1]);
+
+    CacheFactory cacheFactory = new CacheFactory().set(MCAST_PORT, "0")
+        .set(LOCATORS, "localhost[" + locatorPort + "]").set(LOG_LEVEL, "warning");
+    if (startLocator) {
+      cacheFactory.set(START_LOCATOR, "localhost[" + locatorPort + "]");
+    }
+    Cache cache = cacheFactory.create();
+
+    Region<Object, Object> region =
+        cache.createRegionFactory(RegionShortcut.PARTITION).create(REGION_NAME);
+    if (startLocator) {
+      // partitioned region indexes are created on all the members hosting the region
+      cache.getQueryService().createIndex("idIndex", "r.id", "/" + REGION_NAME + " r");
+    }
+    FunctionService.registerFunction(new GetFunction());
+
+    CacheServer server = cache.addCacheServer();
+    server.setPort(0);
+    server.start();
+
+    System.out.println(PORT_PREFIX + server.getPort());
+    System.out.flush();
+
+    // run until the benchmark closes our stdin
+    while (System.in.read() != -1) {
+    }
+    cache.close();
+    System.exit(0);
+  }
+
+  /**
+   * Returns the values of the filter keys from the local primary buckets.
+   */
+  public static class GetFunction implements Function<Object> {
+    public static final String ID = "BenchmarkGetFunction";
+
+    @Override
+    public void execute(FunctionContext<Object> context) {
+      RegionFunctionContext regionContext = (RegionFunctionContext) context;
+      Region<Object, Object> region = PartitionRegionHelper.getLocalDataForContext(regionContext);
+      List<Object> values = new ArrayList<>();
+      for (Object key : regionContext.getFilter()) {
+        values.add(region.get(key));
+      }
+      context.getResultSender().lastResult(values);
+    }
+
+    @Override
+    public String getId() {
+      return ID;
+    }
+
+    @Override
+    public boolean optimizeForWrite() {
+      return true;
+    }
+
+    @Override
+    public boolean isHA() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.benchmark;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.junit.Assert.assertEquals;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.client.ClientCacheFactory;
+import org.apache.geode.cache.client.ClientRegionShortcut;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.internal.AvailablePort;
+import org.apache.geode.pdx.PdxReader;
+import org.apache.geode.pdx.PdxSerializable;
+import org.apache.geode.pdx.PdxWriter;
+
+/**
+ * Measures the client/server request path: a client pool talking over loopback to two cache
+ * servers that host a partitioned region. Covers single key and bulk operations, function
+ * execution and queries for different value sizes, with PDX or DataSerializable values and with
+ * single hop enabled or disabled.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ClientServerBenchmark {
+
+  private static final int ENTRIES = 1000;
+
+  private static final int BATCH_SIZE = 100;
+
+  private static final int QUERY_RANGE = 10;
+
+  @State(Scope.Benchmark)
+  public static class ClientState {
+    @Param({"100", "10000"})
+    private int valueSize;
+
+    @Param({"PDX", "DATA_SERIALIZABLE"})
+    private String serialization;
+
+    @Param({"true", "false"})
+    private boolean singleHop;
+
+    private final List<BenchmarkServer> servers = new ArrayList<>();
+
+    private ClientCache clientCache;
+
+    private Region<Integer, Object> region;
+
+    private Object[] values;
+
+    private Query query;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      int locatorPort = AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET);
+      servers.add(BenchmarkServer.start(locatorPort, true));
+      servers.add(BenchmarkServer.start(locatorPort, false));
+
+      clientCache = new ClientCacheFactory().set(LOG_LEVEL, "warning")
+          .addPoolLocator("localhost", locatorPort).setPoolPRSingleHopEnabled(singleHop).create();
+      region = clientCache.<Integer, Object>createClientRegionFactory(ClientRegionShortcut.PROXY)
+          .create(BenchmarkServer.REGION_NAME);
+
+      values = new Object[ENTRIES];
+      Map<Integer, Object> batch = new HashMap<>();
+      for (int i = 0; i < ENTRIES; i++) {
+        values[i] = createValue(i);
+        batch.put(i, values[i]);
+        if (batch.size() == BATCH_SIZE) {
+          region.putAll(batch);
+          batch.clear();
+        }
+      }
+
+      query = clientCache.getQueryService().newQuery(
+          "select * from /" + BenchmarkServer.REGION_NAME + " r where r.id >= $1 and r.id < $2");
+
+      // Make sure the operations are actually returning results
+      assertEquals(ENTRIES, region.keySetOnServer().size());
+      assertEquals(QUERY_RANGE, query(0).size());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      if (clientCache != null) {
+        clientCache.close();
+      }
+      for (BenchmarkServer server : servers) {
+        server.stop();
+      }
+      servers.clear();
+    }
+
+    private Object createValue(int id) {
+      byte[] payload = new byte[valueSize];
+      ThreadLocalRandom.current().nextBytes(payload);
+      if (serialization.equals("PDX")) {
+        return new PdxValue(id, payload);
+      }
+      return new DataSerializableValue(id, payload);
+    }
+
+    private SelectResults query(int start) throws Exception {
+      return (SelectResults) query.execute(new Object[] {start, start + QUERY_RANGE});
+    }
+  }
+
+  @Benchmark
+  public Object get(ClientState state) {
+    return state.region.get(randomKey());
+  }
+
+  @Benchmark
+  public Object put(ClientState state) {
+    int key = randomKey();
+    return state.region.put(key, state.values[key]);
+  }
+
+  @Benchmark
+  public Object getAll(ClientState state) {
+    List<Integer> keys = new ArrayList<>(BATCH_SIZE);
+    int start = ThreadLocalRandom.current().nextInt(ENTRIES - BATCH_SIZE);
+    for (int i = start; i < start + BATCH_SIZE; i++) {
+      keys.add(i);
+    }
+    return state.region.getAll(keys);
+  }
+
+  @Benchmark
+  public void putAll(ClientState state) {
+    Map<Integer, Object> batch = new HashMap<>();
+    int start = ThreadLocalRandom.current().nextInt(ENTRIES - BATCH_SIZE);
+    for (int i = start; i < start + BATCH_SIZE; i++) {
+      batch.put(i, state.values[i]);
+    }
+    state.region.putAll(batch);
+  }
+
+  @Benchmark
+  public Object executeFunction(ClientState state) {
+    return FunctionService.onRegion(state.region)
+        .withFilter(Collections.singleton(randomKey())).execute(BenchmarkServer.GetFunction.ID)
+        .getResult();
+  }
+
+  @Benchmark
+  public Object query(ClientState state) throws Exception {
+    return state.query(ThreadLocalRandom.current().nextInt(ENTRIES - QUERY_RANGE));
+  }
+
+  private static int randomKey() {
+    return ThreadLocalRandom.current().nextInt(ENTRIES);
+  }
+
+  public static class PdxValue implements PdxSerializable {
+    private int id;
+
+    private byte[] payload;
+
+    public PdxValue() {}
+
+    public PdxValue(int id, byte[] payload) {
+      this.id = id;
+      this.payload = payload;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    @Override
+    public void toData(PdxWriter writer) {
+      writer.writeInt("id", id);
+      writer.writeByteArray("payload", payload);
+    }
+
+    @Override
+    public void fromData(PdxReader reader) {
+      id = reader.readInt("id");
+      payload = reader.readByteArray("payload");
+    }
+  }
+
+  public static class DataSerializableValue implements DataSerializable {
+    private int id;
+
+    private byte[] payload;
+
+    public DataSerializableValue() {}
+
+    public DataSerializableValue(int id, byte[] payload) {
+      this.id = id;
+      this.payload = payload;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      out.writeInt(id);
+      DataSerializer.writeByteArray(payload, out);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      id = in.readInt();
+      payload = DataSerializer.readByteArray(in);
+    }
+  }
+}
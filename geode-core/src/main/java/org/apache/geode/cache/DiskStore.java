@@ -194,6 +194,15 @@ public interface DiskStore {
    */
   public float getDiskUsageCriticalPercentage();
 
+  /**
+   * Returns the maximum number of milliseconds a synchronous write waits to be forced to disk
+   * together with other writes. A negative value means group commit is disabled.
+   *
+   * @return the group commit max latency in milliseconds
+   * @since Geode 1.4
+   */
+  public long getGroupCommitMaxLatency();
+
   /**
    * Sets the value of the disk usage warning percentage.
    *
@@ -130,6 +130,15 @@ public interface DiskStoreFactory {
    */
   public static final float DEFAULT_DISK_USAGE_CRITICAL_PERCENTAGE = 99;
 
+  /**
+   * The default group commit max latency in milliseconds. A negative value disables group commit.
+   * <p>
+   * Current value: <code>-1</code>.
+   *
+   * @since Geode 1.4
+   */
+  public static final long DEFAULT_GROUP_COMMIT_MAX_LATENCY = -1;
+
   /**
    * Set to <code>true</code> to cause the disk files to be automatically compacted. Set to
    * <code>false</code> if no compaction is needed or manual compaction will be used.
@@ -246,6 +255,21 @@ public interface DiskStoreFactory {
    */
   public DiskStoreFactory setDiskUsageCriticalPercentage(float criticalPercent);
 
+  /**
+   * Enables group commit for synchronous writes and sets the maximum number of milliseconds a
+   * writer may wait for other writers to join its commit. When group commit is enabled a
+   * synchronous write does not return until its oplog record has been forced to disk, but the
+   * records of all writers that arrive while a force is in progress, or within the max latency
+   * window, are forced together with a single sync. A value of <code>0</code> batches only the
+   * writers that arrive while a force is in progress. A negative value disables group commit.
+   *
+   * @param groupCommitMaxLatency maximum number of milliseconds a synchronous write waits to be
+   *        committed together with other writes
+   * @return a reference to <code>this</code>
+   * @since Geode 1.4
+   */
+  public DiskStoreFactory setGroupCommitMaxLatency(long groupCommitMaxLatency);
+
   /**
    * Create a new disk store or find an existing one. In either case the returned disk store's
    * configuration will be the same as this factory's configuration.
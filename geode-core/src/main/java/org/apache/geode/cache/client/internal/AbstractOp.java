@@ -17,6 +17,7 @@ package org.apache.geode.cache.client.internal;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
 
 import org.apache.logging.log4j.Logger;
 
@@ -192,10 +193,25 @@ public abstract class AbstractOp implements Op {
    * @throws Exception if the execute failed
    */
   protected Object attemptReadResponse(Connection cnx) throws Exception {
+    return attemptReadResponse(cnx, cnx.getCommBuffer());
+  }
+
+  /**
+   * Attempts to read a response to this operation like {@link #attemptReadResponse(Connection)}
+   * but reads it through the given buffer instead of the comm buffer of the connection, so that
+   * other messages can be sent on the connection while the response is being read.
+   *
+   * @param cnx the connection to read the response from
+   * @param commBuffer the buffer to read the response through
+   * @return the result of the operation or <code>null</code> if the operation has no result.
+   * @throws Exception if the execute failed
+   * @see OpPipeline
+   */
+  protected Object attemptReadResponse(Connection cnx, ByteBuffer commBuffer) throws Exception {
     Message msg = createResponseMessage();
     if (msg != null) {
-      msg.setComms(cnx.getSocket(), cnx.getInputStream(), cnx.getOutputStream(),
-          cnx.getCommBuffer(), cnx.getStats());
+      msg.setComms(cnx.getSocket(), cnx.getInputStream(), cnx.getOutputStream(), commBuffer,
+          cnx.getStats());
       if (msg instanceof ChunkedMessage) {
         try {
           return processResponse(msg, cnx);
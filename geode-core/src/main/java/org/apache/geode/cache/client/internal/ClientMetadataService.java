@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +37,7 @@ import org.apache.geode.cache.FixedPartitionResolver;
 import org.apache.geode.cache.Operation;
 import org.apache.geode.cache.PartitionResolver;
 import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.internal.ClientPartitionAdvisor.PrimaryServerTable;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.internal.cache.BucketServerLocation66;
@@ -239,6 +241,71 @@ public class ClientMetadataService {
     return serverToKeysMap;
   }
 
+  /**
+   * Groups the given keys by the server hosting the primary of their bucket, for bulk ops that
+   * send each server only the keys it owns. The primary of each bucket is looked up in the table
+   * cached by the {@link ClientPartitionAdvisor} of the region, and the keys are appended straight
+   * to the list of their server instead of being grouped by bucket first.
+   *
+   * Keys whose bucket has no known primary are added to the smallest group; the server that
+   * receives them forwards them to their primary.
+   *
+   * @return the keys to send to each server, or null if the primaries of none of the keys are
+   *         known
+   */
+  public Map<ServerLocation, List> groupByPrimaryServer(final Collection keys,
+      final Region region) {
+    ClientPartitionAdvisor prAdvisor = this.getClientPartitionAdvisor(region.getFullPath());
+    if (prAdvisor == null || prAdvisor.adviseRandomServerLocation() == null) {
+      scheduleGetPRMetaData((LocalRegion) region, false);
+      return null;
+    }
+    PrimaryServerTable primaries = prAdvisor.getPrimaryServerTable();
+    int totalNumberOfBuckets = prAdvisor.getTotalNumBuckets();
+    List[] keysByServer = new List[primaries.getNumServers()];
+    List unroutedKeys = null;
+    for (Object key : keys) {
+      int bucketId = extractBucketID(region, prAdvisor, totalNumberOfBuckets, key);
+      int serverIndex = primaries.getServerIndex(bucketId);
+      if (serverIndex < 0) {
+        if (unroutedKeys == null) {
+          unroutedKeys = new ArrayList();
+        }
+        unroutedKeys.add(key);
+        continue;
+      }
+      List serverKeys = keysByServer[serverIndex];
+      if (serverKeys == null) {
+        serverKeys = new ArrayList();
+        keysByServer[serverIndex] = serverKeys;
+      }
+      serverKeys.add(key);
+    }
+
+    Map<ServerLocation, List> serverToKeys = new LinkedHashMap<ServerLocation, List>();
+    List smallest = null;
+    for (int i = 0; i < keysByServer.length; i++) {
+      List serverKeys = keysByServer[i];
+      if (serverKeys != null) {
+        serverToKeys.put(primaries.getServer(i), serverKeys);
+        if (smallest == null || serverKeys.size() < smallest.size()) {
+          smallest = serverKeys;
+        }
+      }
+    }
+    if (smallest == null) {
+      return null;
+    }
+    if (unroutedKeys != null) {
+      smallest.addAll(unroutedKeys);
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("Grouped {} keys by primary server, {} of them without a known primary : {}",
+          keys.size(), unroutedKeys == null ? 0 : unroutedKeys.size(), serverToKeys.keySet());
+    }
+    return serverToKeys;
+  }
+
   public HashMap<ServerLocation, HashSet<Integer>> groupByServerToAllBuckets(Region region,
       boolean primaryOnly) {
     final String regionFullPath = region.getFullPath();
@@ -15,7 +15,9 @@
 package org.apache.geode.cache.client.internal;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +25,7 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.Logger;
 
@@ -65,6 +68,18 @@ public class ClientPartitionAdvisor {
 
   private Random random = new Random();
 
+  /**
+   * The primary server of each bucket, built from {@link #bucketServerLocationsMap} when it is
+   * first needed and dropped whenever the locations of a bucket change.
+   */
+  private volatile PrimaryServerTable primaryServerTable;
+
+  /**
+   * Incremented whenever the locations of a bucket change, so that a table built while they
+   * changed is not kept.
+   */
+  private final AtomicLong locationsVersion = new AtomicLong();
+
   @SuppressWarnings("unchecked")
   public ClientPartitionAdvisor(int totalNumBuckets, String colocatedWith,
       String partitionResolverName, Set<FixedPartitionAttributes> fpaSet) {
@@ -183,6 +198,7 @@ public class ClientPartitionAdvisor {
     }
 
     this.bucketServerLocationsMap.put(bucketId, locations);
+    locationsChanged();
   }
 
   public void removeBucketServerLocation(ServerLocation serverLocation) {
@@ -202,6 +218,29 @@ public class ClientPartitionAdvisor {
         newLocations = new ArrayList<BucketServerLocation66>(oldLocations);
       }
     }
+    locationsChanged();
+  }
+
+  private void locationsChanged() {
+    this.locationsVersion.incrementAndGet();
+    this.primaryServerTable = null;
+  }
+
+  /**
+   * Returns the primary server of each bucket, as an index into a table of the distinct servers
+   * hosting primaries. The table is cached until the locations of a bucket change, so bulk ops can
+   * route their keys without a map lookup per bucket.
+   */
+  PrimaryServerTable getPrimaryServerTable() {
+    PrimaryServerTable table = this.primaryServerTable;
+    if (table == null) {
+      long version = this.locationsVersion.get();
+      table = new PrimaryServerTable(this.totalNumBuckets, this.bucketServerLocationsMap);
+      if (this.locationsVersion.get() == version) {
+        this.primaryServerTable = table;
+      }
+    }
+    return table;
   }
 
   public Map<Integer, List<BucketServerLocation66>> getBucketServerLocationsMap_TEST_ONLY() {
@@ -278,4 +317,60 @@ public class ClientPartitionAdvisor {
   public boolean isFPAAttrsComplete() {
     return this.fpaAttrsCompletes;
   }
+
+  /**
+   * Maps each bucket to the index of the server hosting its primary.
+   */
+  static class PrimaryServerTable {
+    private final ServerLocation[] servers;
+
+    /** The index of the primary server of each bucket, or -1 if the primary is not known */
+    private final int[] bucketToServer;
+
+    PrimaryServerTable(int totalNumBuckets,
+        Map<Integer, List<BucketServerLocation66>> bucketServerLocations) {
+      this.bucketToServer = new int[totalNumBuckets];
+      Arrays.fill(this.bucketToServer, -1);
+      List<ServerLocation> serverList = new ArrayList<ServerLocation>();
+      Map<ServerLocation, Integer> serverIndexes = new HashMap<ServerLocation, Integer>();
+      for (Map.Entry<Integer, List<BucketServerLocation66>> entry : bucketServerLocations
+          .entrySet()) {
+        int bucketId = entry.getKey();
+        if (bucketId < 0 || bucketId >= totalNumBuckets) {
+          continue;
+        }
+        for (BucketServerLocation66 location : entry.getValue()) {
+          if (location.isPrimary()) {
+            Integer index = serverIndexes.get(location);
+            if (index == null) {
+              index = serverList.size();
+              serverList.add(new ServerLocation(location.getHostName(), location.getPort()));
+              serverIndexes.put(location, index);
+            }
+            this.bucketToServer[bucketId] = index;
+            break;
+          }
+        }
+      }
+      this.servers = serverList.toArray(new ServerLocation[serverList.size()]);
+    }
+
+    /**
+     * Returns the index of the primary server of the given bucket, or -1 if it is not known.
+     */
+    int getServerIndex(int bucketId) {
+      if (bucketId < 0 || bucketId >= this.bucketToServer.length) {
+        return -1;
+      }
+      return this.bucketToServer[bucketId];
+    }
+
+    ServerLocation getServer(int index) {
+      return this.servers[index];
+    }
+
+    int getNumServers() {
+      return this.servers.length;
+    }
+  }
 }
@@ -71,6 +71,7 @@ public class ConnectionImpl implements Connection {
   private Socket theSocket;
   private ByteBuffer commBuffer;
   private ByteBuffer commBufferForAsyncRead;
+  private int socketBufferSize;
   private ServerQueueStatus status;
   private volatile boolean connectFinished;
   private final AtomicBoolean destroyed = new AtomicBoolean();
@@ -119,6 +120,7 @@ public class ConnectionImpl implements Connection {
     in = theSocket.getInputStream();
     this.status = handShake.handshakeWithServer(this, location, communicationMode);
     commBuffer = ServerConnection.allocateCommBuffer(socketBufferSize, theSocket);
+    this.socketBufferSize = socketBufferSize;
     if (sender != null) {
       commBufferForAsyncRead = ServerConnection.allocateCommBuffer(socketBufferSize, theSocket);
     }
@@ -332,6 +334,10 @@ public class ConnectionImpl implements Connection {
       // a SocketException.
       throw new SocketException("socket was closed");
     }
+    if (commBufferForAsyncRead == null) {
+      // only gateway senders read asynchronously from the start; pipelined ops need it later
+      commBufferForAsyncRead = ServerConnection.allocateCommBuffer(socketBufferSize, theSocket);
+    }
     return commBufferForAsyncRead;
   }
 
@@ -15,10 +15,8 @@
 package org.apache.geode.cache.client.internal;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.apache.logging.log4j.Logger;
 
@@ -60,76 +58,89 @@ public class GetAllOp {
     return ((VersionedObjectList) pool.execute(op)).setKeys(keys);
   }
 
+  /**
+   * Does a region getAll on the servers hosting the primaries of the keys, sending each server only
+   * the keys it owns. The sub-batches are sent concurrently. If a server can not be reached only
+   * its keys are retried: once more on the servers now known to host their primaries and, failing
+   * that, through any server of the pool.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param region the region to do the getAll on
+   * @param keys list of keys to get
+   * @param retryAttempts zero if the keys of a server that can not be reached are not retried
+   * @return the map of values found by the getAll if any
+   */
   public static VersionedObjectList execute(ExecutablePool pool, Region region, List keys,
       int retryAttempts, Object callback) {
-    AbstractOp op = new GetAllOpImpl(region.getFullPath(), keys, callback);
     ClientMetadataService cms = ((LocalRegion) region).getCache().getClientMetadataService();
 
-    Map<ServerLocation, HashSet> serverToFilterMap = cms.getServerToFilterMap(keys, region, true);
+    Map<ServerLocation, List> serverToKeys = cms.groupByPrimaryServer(keys, region);
+
+    if (serverToKeys == null || serverToKeys.isEmpty()) {
+      return execute(pool, region.getFullPath(), keys, callback);
+    }
 
-    if (serverToFilterMap == null || serverToFilterMap.isEmpty()) {
-      op.initMessagePart();
-      return ((VersionedObjectList) pool.execute(op)).setKeys(keys);
-    } else {
-      VersionedObjectList result = null;
+    VersionedObjectList result = null;
+    for (boolean isRetry = false;; isRetry = true) {
       ServerConnectivityException se = null;
       List retryList = new ArrayList();
       List callableTasks =
-          constructGetAllTasks(region.getFullPath(), serverToFilterMap, (PoolImpl) pool, callback);
-      Map<ServerLocation, Object> results = SingleHopClientExecutor.submitGetAll(serverToFilterMap,
-          callableTasks, cms, (LocalRegion) region);
-      for (ServerLocation server : results.keySet()) {
-        Object serverResult = results.get(server);
+          constructGetAllTasks(region.getFullPath(), serverToKeys, (PoolImpl) pool, callback);
+      Map<ServerLocation, Object> results =
+          SingleHopClientExecutor.submitGetAll(callableTasks, cms, (LocalRegion) region);
+      if (results == null) {
+        // the cache is closing
+        return result;
+      }
+      for (Map.Entry<ServerLocation, Object> entry : results.entrySet()) {
+        Object serverResult = entry.getValue();
         if (serverResult instanceof ServerConnectivityException) {
           se = (ServerConnectivityException) serverResult;
-          retryList.addAll(serverToFilterMap.get(server));
+          retryList.addAll(serverToKeys.get(entry.getKey()));
         } else {
-          if (result == null) {
-            result = (VersionedObjectList) serverResult;
-          } else {
-            result.addAll((VersionedObjectList) serverResult);
-          }
+          result = addAll(result, (VersionedObjectList) serverResult);
         }
       }
 
-      if (se != null) {
-        if (retryAttempts == 0) {
-          throw se;
-        } else {
-          VersionedObjectList retryResult =
-              GetAllOp.execute(pool, region.getFullPath(), retryList, callback);
-          if (result == null) {
-            result = retryResult;
-          } else {
-            result.addAll(retryResult);
-          }
-        }
+      if (se == null) {
+        return result;
       }
+      if (retryAttempts == 0) {
+        throw se;
+      }
+      serverToKeys = isRetry ? null : cms.groupByPrimaryServer(retryList, region);
+      if (serverToKeys == null || serverToKeys.isEmpty()) {
+        return addAll(result, GetAllOp.execute(pool, region.getFullPath(), retryList, callback));
+      }
+    }
+  }
 
-      return result;
+  private static VersionedObjectList addAll(VersionedObjectList result,
+      VersionedObjectList serverResult) {
+    if (result == null) {
+      return serverResult;
     }
+    result.addAll(serverResult);
+    return result;
   }
 
   private GetAllOp() {
     // no instances allowed
   }
 
-  static List constructGetAllTasks(String region,
-      final Map<ServerLocation, HashSet> serverToFilterMap, final PoolImpl pool,
-      final Object callback) {
+  static List constructGetAllTasks(String region, final Map<ServerLocation, List> serverToKeys,
+      final PoolImpl pool, final Object callback) {
     final List<SingleHopOperationCallable> tasks = new ArrayList<SingleHopOperationCallable>();
-    ArrayList<ServerLocation> servers = new ArrayList<ServerLocation>(serverToFilterMap.keySet());
 
     if (logger.isDebugEnabled()) {
-      logger.debug("Constructing tasks for the servers {}", servers);
+      logger.debug("Constructing tasks for the servers {}", serverToKeys.keySet());
     }
-    for (ServerLocation server : servers) {
-      Set filterSet = serverToFilterMap.get(server);
-      AbstractOp getAllOp = new GetAllOpImpl(region, new ArrayList(filterSet), callback);
+    for (Map.Entry<ServerLocation, List> entry : serverToKeys.entrySet()) {
+      // the result of the op takes its keys, so it gets a copy of them
+      AbstractOp getAllOp = new GetAllOpImpl(region, new ArrayList(entry.getValue()), callback);
 
-      SingleHopOperationCallable task =
-          new SingleHopOperationCallable(new ServerLocation(server.getHostName(), server.getPort()),
-              pool, getAllOp, UserAttributes.userAttributes.get());
+      SingleHopOperationCallable task = new SingleHopOperationCallable(entry.getKey(), pool,
+          getAllOp, UserAttributes.userAttributes.get());
       tasks.add(task);
     }
     return tasks;
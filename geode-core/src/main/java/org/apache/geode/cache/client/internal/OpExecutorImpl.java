@@ -22,6 +22,7 @@ import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.nio.BufferUnderflowException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.Logger;
 
@@ -579,6 +580,56 @@ public class OpExecutorImpl implements ExecutablePool {
     }
   }
 
+  /**
+   * Executes the given ops on a single connection to the given server, or to any server if it is
+   * null, sending their requests back to back instead of waiting for each response.
+   *
+   * @return the futures of the results of the ops, in the order of the ops
+   * @see OpPipeline
+   */
+  public List<CompletableFuture<Object>> executePipelined(ServerLocation server,
+      List<? extends Op> ops) {
+    if (this.serverAffinity.get()) {
+      // transactional ops go through the failover logic of the affinity server one at a time
+      return executeSequentially(server, ops);
+    }
+    Connection conn = server == null ? connectionManager.borrowConnection(serverTimeout)
+        : connectionManager.borrowConnection(server, serverTimeout, false);
+    if (conn.getServer().getRequiresCredentials()) {
+      // each secure request needs the connection id sent back in the response to the previous one
+      connectionManager.returnConnection(conn);
+      return executeSequentially(server, ops);
+    }
+    List<AbstractOp> abstractOps = new ArrayList<>(ops.size());
+    for (Op op : ops) {
+      abstractOps.add((AbstractOp) op);
+    }
+    return new OpPipeline(this, conn, this.connectionManager.getConnection(conn), abstractOps)
+        .execute();
+  }
+
+  private List<CompletableFuture<Object>> executeSequentially(ServerLocation server,
+      List<? extends Op> ops) {
+    List<CompletableFuture<Object>> futures = new ArrayList<>(ops.size());
+    for (Op op : ops) {
+      CompletableFuture<Object> future = new CompletableFuture<>();
+      try {
+        future.complete(server == null ? execute(op) : executeOn(server, op));
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+      futures.add(future);
+    }
+    return futures;
+  }
+
+  /**
+   * Gives back a connection used by an {@link OpPipeline}.
+   */
+  void returnConnection(Connection conn) {
+    this.connectionManager.returnConnection(conn);
+  }
+
   /**
    * Used by GatewayBatchOp
    */
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.client.ServerConnectivityException;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * Executes independent ops on a single pooled connection without waiting for the response to one
+ * op before sending the next. The thread that calls {@link #execute} sends the requests back to
+ * back while a reader thread reads the responses as they arrive and completes the future of each
+ * op, so the connection is never idle waiting for a round trip.
+ *
+ * A server processes the requests of a connection one at a time, so the responses arrive in the
+ * order the requests were sent in and are matched to their ops by that order. The transaction id
+ * of a message can not be used to tag requests because servers use it to find the client
+ * transaction a request belongs to.
+ *
+ * Pipelined ops are not retried: once a request has been sent there is no way to tell whether the
+ * server applied it before the connection failed. The futures of the ops that did not get a
+ * response complete exceptionally instead, and it is up to the caller to retry them.
+ *
+ * @since Geode 1.4
+ */
+class OpPipeline implements Runnable {
+  private static final Logger logger = LogService.getLogger();
+
+  /** Marks the end of the sent ops */
+  private static final int END = -1;
+
+  private static final ExecutorService readers =
+      Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger threadNum = new AtomicInteger();
+
+        public Thread newThread(final Runnable r) {
+          ThreadGroup group =
+              LoggingThreadGroup.createThreadGroup("OpPipelineReaderThreadGroup", logger);
+          Thread result =
+              new Thread(group, r, "Op Pipeline Reader Thread-" + threadNum.incrementAndGet());
+          result.setDaemon(true);
+          return result;
+        }
+      });
+
+  private final OpExecutorImpl executor;
+
+  /** The connection borrowed from the pool */
+  private final Connection pooledConnection;
+
+  /** The connection the ops are executed on */
+  private final Connection cnx;
+
+  private final List<AbstractOp> ops;
+
+  private final List<CompletableFuture<Object>> futures;
+
+  private final long[] startTimes;
+
+  /** The indexes of the ops that have been sent, in the order they were sent in */
+  private final BlockingQueue<Integer> sent = new LinkedBlockingQueue<>();
+
+  /** Why the ops that were not sent failed. Read by the reader once it has taken {@link #END}. */
+  private RuntimeException sendFailure;
+
+  OpPipeline(OpExecutorImpl executor, Connection pooledConnection, Connection cnx,
+      List<AbstractOp> ops) {
+    this.executor = executor;
+    this.pooledConnection = pooledConnection;
+    this.cnx = cnx;
+    this.ops = ops;
+    this.futures = new ArrayList<>(ops.size());
+    for (int i = 0; i < ops.size(); i++) {
+      this.futures.add(new CompletableFuture<>());
+    }
+    this.startTimes = new long[ops.size()];
+  }
+
+  /**
+   * Sends the requests of all the ops and returns once they have been sent. The connection is
+   * given back to the pool by the reader thread once it has read the last response.
+   *
+   * @return the futures of the ops, in the order of the ops
+   */
+  List<CompletableFuture<Object>> execute() {
+    readers.execute(this);
+    ConnectionStats stats = this.cnx.getStats();
+    try {
+      for (int i = 0; i < this.ops.size(); i++) {
+        AbstractOp op = this.ops.get(i);
+        op.failed = true;
+        op.timedOut = false;
+        long start = op.startAttempt(stats);
+        try {
+          op.attemptSend(this.cnx);
+          op.failed = false;
+        } catch (Exception e) {
+          op.endSendAttempt(stats, start);
+          op.endAttempt(stats, start);
+          this.sendFailure = handleException(e);
+          break;
+        }
+        op.endSendAttempt(stats, start);
+        this.startTimes[i] = start;
+        this.sent.add(i);
+      }
+    } finally {
+      this.sent.add(END);
+    }
+    return this.futures;
+  }
+
+  /**
+   * Reads the responses to the sent ops.
+   */
+  @Override
+  public void run() {
+    ConnectionStats stats = this.cnx.getStats();
+    RuntimeException readFailure = null;
+    try {
+      for (;;) {
+        int i = this.sent.take();
+        if (i == END) {
+          break;
+        }
+        CompletableFuture<Object> future = this.futures.get(i);
+        if (readFailure != null) {
+          this.ops.get(i).failed = true;
+          this.ops.get(i).endAttempt(stats, this.startTimes[i]);
+          future.completeExceptionally(readFailure);
+          continue;
+        }
+        AbstractOp op = this.ops.get(i);
+        op.failed = true;
+        try {
+          Object result = op.attemptReadResponse(this.cnx, getCommBufferForAsyncRead());
+          op.failed = false;
+          future.complete(result);
+        } catch (Exception e) {
+          if (e instanceof SocketTimeoutException) {
+            op.failed = false;
+            op.timedOut = true;
+          }
+          RuntimeException failure = handleException(e);
+          future.completeExceptionally(failure);
+          if (this.pooledConnection.isDestroyed()) {
+            // the connection is out of step with the responses still to come
+            readFailure = failure;
+          }
+        } finally {
+          op.endAttempt(stats, this.startTimes[i]);
+        }
+      }
+    } catch (InterruptedException e) {
+      readFailure =
+          new ServerConnectivityException("Interrupted while reading pipelined responses", e);
+      this.pooledConnection.destroy();
+      Thread.currentThread().interrupt();
+    } finally {
+      RuntimeException failure = this.sendFailure != null ? this.sendFailure : readFailure;
+      for (CompletableFuture<Object> future : this.futures) {
+        if (!future.isDone()) {
+          future.completeExceptionally(failure != null ? failure
+              : new ServerConnectivityException("Pipelined op was not sent"));
+        }
+      }
+      this.executor.returnConnection(this.pooledConnection);
+    }
+  }
+
+  private ByteBuffer getCommBufferForAsyncRead() throws SocketException {
+    return ((ConnectionImpl) this.cnx).getCommBufferForAsyncRead();
+  }
+
+  /**
+   * Returns the exception the given failure of an op is reported with. Destroys the connection if
+   * the failure left it unusable.
+   */
+  private RuntimeException handleException(Exception e) {
+    try {
+      this.executor.handleException(e, this.pooledConnection, 0, true);
+    } catch (RuntimeException converted) {
+      return converted;
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("Pipelined op on {} failed", this.pooledConnection, e);
+    }
+    return new ServerConnectivityException("Pipelined op failed", e);
+  }
+}
@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
@@ -788,6 +789,44 @@ public class PoolImpl implements InternalPool {
     return executor.execute(op, retries);
   }
 
+  /**
+   * Execute the given independent ops on one of the servers that this pool connects to, sending
+   * them back to back on a single connection without waiting for the response to one op before
+   * sending the next. Returns once all the requests have been sent; the futures are completed as
+   * the responses arrive, on a thread that reads the responses, so actions that block should be
+   * chained with the async methods of the futures.
+   *
+   * Unlike {@link #execute(Op)} the ops are not retried if the connection fails, since there is no
+   * telling which of them the server applied. The futures of the ops that got no response complete
+   * with a {@link ServerConnectivityException}.
+   *
+   * @param ops the operations to execute
+   * @return the futures of the results of the ops, in the order of the ops
+   * @since Geode 1.4
+   */
+  public List<CompletableFuture<Object>> executePipelined(List<? extends Op> ops) {
+    for (Op op : ops) {
+      authenticateIfRequired(op);
+    }
+    return executor.executePipelined(null, ops);
+  }
+
+  /**
+   * Execute the given independent ops on the given server like {@link #executePipelined(List)}.
+   *
+   * @param server the server to do the execution on
+   * @param ops the operations to execute
+   * @return the futures of the results of the ops, in the order of the ops
+   * @since Geode 1.4
+   */
+  public List<CompletableFuture<Object>> executePipelinedOn(ServerLocation server,
+      List<? extends Op> ops) {
+    for (Op op : ops) {
+      authenticateIfRequired(server, op);
+    }
+    return executor.executePipelined(server, ops);
+  }
+
   /**
    * Execute the given op on the given server.
    *
@@ -16,16 +16,19 @@ package org.apache.geode.cache.client.internal;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.Logger;
 
+import org.apache.geode.InternalGemFireException;
 import org.apache.geode.cache.CacheClosedException;
 import org.apache.geode.cache.DataPolicy;
 import org.apache.geode.cache.Region;
@@ -90,10 +93,9 @@ public class PutAllOp {
       EventID eventId, boolean skipCallbacks, int retryAttempts, Object callbackArg) {
     ClientMetadataService cms = ((LocalRegion) region).getCache().getClientMetadataService();
 
-    Map<ServerLocation, HashSet> serverToFilterMap =
-        cms.getServerToFilterMap(map.keySet(), region, true);
+    Map<ServerLocation, List> serverToKeys = cms.groupByPrimaryServer(map.keySet(), region);
 
-    if (serverToFilterMap == null || serverToFilterMap.isEmpty()) {
+    if (serverToKeys == null || serverToKeys.isEmpty()) {
       AbstractOp op = new PutAllOpImpl(region, map, eventId,
           ((PoolImpl) pool).getPRSingleHopEnabled(), skipCallbacks, callbackArg);
       op.initMessagePart();
@@ -101,7 +103,7 @@ public class PutAllOp {
     }
 
     List callableTasks = constructAndGetPutAllTasks(region, map, eventId, skipCallbacks,
-        serverToFilterMap, (PoolImpl) pool, callbackArg);
+        serverToKeys, (PoolImpl) pool, callbackArg);
 
     final boolean isDebugEnabled = logger.isDebugEnabled();
     if (isDebugEnabled) {
@@ -152,10 +154,9 @@ public class PutAllOp {
         // succeedKeySet is used to send back to client in PartialResult case
         // so it's not a must to use LinkedHashSet
         Set succeedKeySet = new LinkedHashSet();
-        Set<ServerLocation> serverSet = serverToFilterMap.keySet();
-        for (ServerLocation server : serverSet) {
-          if (!failedServers.containsKey(server)) {
-            succeedKeySet.addAll(serverToFilterMap.get(server));
+        for (Map.Entry<ServerLocation, List> entry : serverToKeys.entrySet()) {
+          if (!failedServers.containsKey(entry.getKey())) {
+            succeedKeySet.addAll(entry.getValue());
           }
         }
 
@@ -166,12 +167,13 @@ public class PutAllOp {
       // send maps for the failed servers one by one instead of merging
       // them into one big map. The reason is, we have to keep the same event
       // ids for each sub map. There is a unit test in PutAllCSDUnitTest for
-      // the otherwise case.
+      // the otherwise case. The sub maps are independent of each other, so
+      // they are retried concurrently.
       boolean oneSubMapRetryFailed = false;
-      Set<ServerLocation> failedServerSet = failedServers.keySet();
-      for (ServerLocation failedServer : failedServerSet) {
-        // Throwable failedServers.values().iterator().next();
-        RuntimeException savedRTE = failedServers.get(failedServer);
+      List<Map> retryMaps = new ArrayList<Map>();
+      List<Callable> retryTasks = new ArrayList<Callable>();
+      for (Map.Entry<ServerLocation, RuntimeException> entry : failedServers.entrySet()) {
+        RuntimeException savedRTE = entry.getValue();
         if (savedRTE instanceof PutAllPartialResultException) {
           // will not retry for PutAllPartialResultException
           // but it means at least one sub map ever failed
@@ -179,32 +181,52 @@ public class PutAllOp {
           continue;
         }
         Map newMap = new LinkedHashMap();
-        Set keySet = serverToFilterMap.get(failedServer);
-        for (Object key : keySet) {
+        for (Object key : serverToKeys.get(entry.getKey())) {
           newMap.put(key, map.get(key));
         }
+        retryMaps.add(newMap);
+        retryTasks.add(new RetryPutAllTask(pool, region, newMap, eventId, skipCallbacks,
+            callbackArg, UserAttributes.userAttributes.get()));
+      }
 
+      List<Future> retryFutures;
+      try {
+        retryFutures = SingleHopClientExecutor.invokeBounded(retryTasks,
+            SingleHopClientExecutor.MAX_BULK_OP_PARALLELISM);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InternalGemFireException(e.getMessage());
+      }
+      for (int i = 0; i < retryFutures.size(); i++) {
+        Map newMap = retryMaps.get(i);
         try {
-          VersionedObjectList v =
-              PutAllOp.execute(pool, region, newMap, eventId, skipCallbacks, true, callbackArg);
+          VersionedObjectList v = (VersionedObjectList) retryFutures.get(i).get();
           if (v == null) {
-            result.addKeys(keySet);
+            result.addKeys(newMap.keySet());
           } else {
             result.addKeysAndVersions(v);
           }
-        } catch (PutAllPartialResultException pre) {
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InternalGemFireException(e.getMessage());
+        } catch (ExecutionException ee) {
           oneSubMapRetryFailed = true;
-          if (logger.isDebugEnabled()) {
-            logger.debug("Retry failed with PutAllPartialResultException: {} Before retry: {}", pre,
-                result.getKeyListString());
+          Throwable cause = ee.getCause();
+          if (cause instanceof PutAllPartialResultException) {
+            PutAllPartialResultException pre = (PutAllPartialResultException) cause;
+            if (logger.isDebugEnabled()) {
+              logger.debug("Retry failed with PutAllPartialResultException: {} Before retry: {}",
+                  pre, result.getKeyListString());
+            }
+            result.consolidate(pre.getResult());
+          } else if (cause instanceof Error) {
+            throw (Error) cause;
+          } else {
+            Object firstKey = newMap.keySet().iterator().next();
+            result.saveFailedKey(firstKey, (Exception) cause);
           }
-          result.consolidate(pre.getResult());
-        } catch (Exception rte) {
-          oneSubMapRetryFailed = true;
-          Object firstKey = newMap.keySet().iterator().next();
-          result.saveFailedKey(firstKey, rte);
         }
-      } // for failedServer
+      }
 
       // If all retries succeeded, the PRE in first tries can be ignored
       if (oneSubMapRetryFailed && result.hasFailure()) {
@@ -222,32 +244,64 @@ public class PutAllOp {
 
 
   static List constructAndGetPutAllTasks(Region region, final Map map, final EventID eventId,
-      boolean skipCallbacks, final Map<ServerLocation, HashSet> serverToFilterMap,
-      final PoolImpl pool, Object callbackArg) {
+      boolean skipCallbacks, final Map<ServerLocation, List> serverToKeys, final PoolImpl pool,
+      Object callbackArg) {
     final List<SingleHopOperationCallable> tasks = new ArrayList<SingleHopOperationCallable>();
-    ArrayList<ServerLocation> servers = new ArrayList<ServerLocation>(serverToFilterMap.keySet());
 
     if (logger.isDebugEnabled()) {
-      logger.debug("Constructing tasks for the servers {}", servers);
+      logger.debug("Constructing tasks for the servers {}", serverToKeys.keySet());
     }
-    for (ServerLocation server : servers) {
-      Set filterSet = serverToFilterMap.get(server);
+    for (Map.Entry<ServerLocation, List> entry : serverToKeys.entrySet()) {
       Map newKeysValuesMap = new LinkedHashMap();
-      // iterator 1: for single hop, both iterator filterSet and newKeysValuesMap
-      for (Object key : filterSet) {
+      // iterator 1: for single hop, both iterator the keys and newKeysValuesMap
+      for (Object key : entry.getValue()) {
         newKeysValuesMap.put(key, map.get(key));
       }
       AbstractOp putAllOp =
           new PutAllOpImpl(region, newKeysValuesMap, eventId, true, skipCallbacks, callbackArg);
 
-      SingleHopOperationCallable task =
-          new SingleHopOperationCallable(new ServerLocation(server.getHostName(), server.getPort()),
-              pool, putAllOp, UserAttributes.userAttributes.get());
+      SingleHopOperationCallable task = new SingleHopOperationCallable(entry.getKey(), pool,
+          putAllOp, UserAttributes.userAttributes.get());
       tasks.add(task);
     }
     return tasks;
   }
 
+  /**
+   * Retries the sub map of a server that could not be reached through any server of the pool,
+   * keeping the event id of the original putAll.
+   */
+  private static class RetryPutAllTask implements Callable<VersionedObjectList> {
+    private final ExecutablePool pool;
+    private final Region region;
+    private final Map map;
+    private final EventID eventId;
+    private final boolean skipCallbacks;
+    private final Object callbackArg;
+    private final UserAttributes securityAttributes;
+
+    RetryPutAllTask(ExecutablePool pool, Region region, Map map, EventID eventId,
+        boolean skipCallbacks, Object callbackArg, UserAttributes securityAttributes) {
+      this.pool = pool;
+      this.region = region;
+      this.map = map;
+      this.eventId = eventId;
+      this.skipCallbacks = skipCallbacks;
+      this.callbackArg = callbackArg;
+      this.securityAttributes = securityAttributes;
+    }
+
+    public VersionedObjectList call() throws Exception {
+      try {
+        UserAttributes.userAttributes.set(this.securityAttributes);
+        return PutAllOp.execute(this.pool, this.region, this.map, this.eventId, this.skipCallbacks,
+            true, this.callbackArg);
+      } finally {
+        UserAttributes.userAttributes.set(null);
+      }
+    }
+  }
+
   private static class PutAllOpImpl extends AbstractOp {
 
     private boolean prSingleHopEnabled = false;
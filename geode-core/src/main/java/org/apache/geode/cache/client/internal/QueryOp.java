@@ -15,22 +15,37 @@
 package org.apache.geode.cache.client.internal;
 
 import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.SerializationException;
 import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.QueryResultStream;
 import org.apache.geode.cache.query.internal.QueryUtils;
 import org.apache.geode.cache.query.internal.StructImpl;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
 import org.apache.geode.cache.query.types.CollectionType;
 import org.apache.geode.cache.query.types.ObjectType;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.sockets.ChunkedMessage;
 import org.apache.geode.internal.cache.tier.sockets.Message;
 import org.apache.geode.internal.cache.tier.sockets.ObjectPartList;
 import org.apache.geode.internal.cache.tier.sockets.Part;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
 
 /**
  * Does a region query on a server
@@ -38,6 +53,28 @@ import org.apache.geode.internal.cache.tier.sockets.Part;
  * @since GemFire 5.7
  */
 public class QueryOp {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * The number of response chunks of a streamed query that are read ahead of the consumer.
+   */
+  static final int STREAMING_QUEUE_SIZE = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "QueryOp.STREAMING_QUEUE_SIZE", 4);
+
+  private static final ExecutorService readers =
+      Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger threadNum = new AtomicInteger();
+
+        public Thread newThread(final Runnable r) {
+          ThreadGroup group =
+              LoggingThreadGroup.createThreadGroup("QueryStreamReaderThreadGroup", logger);
+          Thread result =
+              new Thread(group, r, "Query Stream Reader Thread-" + threadNum.incrementAndGet());
+          result.setDaemon(true);
+          return result;
+        }
+      });
+
   /**
    * Does a region query on a server using connections from the given pool to communicate with the
    * server.
@@ -59,6 +96,50 @@ public class QueryOp {
     return (SelectResults) pool.execute(op);
   }
 
+  /**
+   * Does a region query on a server and hands out its results as the server sends them, instead of
+   * collecting them all first. The response is read by a separate thread; the results of at most
+   * {@link #STREAMING_QUEUE_SIZE} chunks are kept waiting for the consumer.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param queryPredicate A query language boolean query predicate
+   * @return the results of the query, which must be closed if not read to the end
+   * @since Geode 1.4
+   */
+  public static QueryResultStream executeStreaming(final ExecutablePool pool,
+      String queryPredicate, Object[] queryParams) {
+    final StreamingQueryOpImpl op;
+    if (queryParams != null && queryParams.length > 0) {
+      op = new StreamingQueryOpImpl(queryPredicate, queryParams);
+    } else {
+      op = new StreamingQueryOpImpl(queryPredicate);
+    }
+    return executeStreaming(pool, op);
+  }
+
+  /**
+   * Executes the given streaming query op on a reader thread.
+   */
+  static QueryResultStream executeStreaming(final ExecutablePool pool,
+      final StreamingQueryOpImpl op) {
+    final UserAttributes userAttributes = UserAttributes.userAttributes.get();
+    readers.execute(new Runnable() {
+      public void run() {
+        Throwable failure = null;
+        try {
+          UserAttributes.userAttributes.set(userAttributes);
+          pool.execute(op);
+        } catch (Throwable t) {
+          failure = t;
+        } finally {
+          UserAttributes.userAttributes.set(null);
+          op.finish(failure);
+        }
+      }
+    });
+    return new QueryResultStream(op, -1);
+  }
+
   private QueryOp() {
     // no instances allowed
   }
@@ -104,6 +185,22 @@ public class QueryOp {
     @Override
     protected Object processResponse(Message msg) throws Exception {
       final SelectResults[] resultRef = new SelectResults[1];
+      processQueryResponse(msg, new QueryResultsHandler() {
+        public void handle(CollectionType collectionType, Object queryResult) {
+          resultRef[0] = addResults(resultRef[0], collectionType, queryResult);
+        }
+      });
+      return resultRef[0];
+    }
+
+    /**
+     * Reads the chunks of a query response and hands the results of each chunk to the given
+     * handler.
+     *
+     * @throws Exception the failure the server reported for the query
+     */
+    protected void processQueryResponse(Message msg, final QueryResultsHandler handler)
+        throws Exception {
       final Exception[] exceptionRef = new Exception[1];
       ChunkHandler ch = new ChunkHandler() {
         public void handle(ChunkedMessage cm) throws Exception {
@@ -128,54 +225,64 @@ public class QueryOp {
             String s = "While performing a remote " + getOpName();
             exceptionRef[0] = new ServerOperationException(s, (Throwable) queryResult);
             return;
-          } else if (queryResult instanceof Integer) {
-            // Create the appropriate SelectResults instance if necessary
-            if (resultRef[0] == null) {
-              resultRef[0] = QueryUtils.getEmptySelectResults(TypeUtils.OBJECT_TYPE, null);
-            }
-            resultRef[0].add(queryResult);
-          } else { // typical query result
-            // Create the appropriate SelectResults instance if necessary
-            if (resultRef[0] == null) {
-              resultRef[0] = QueryUtils.getEmptySelectResults(collectionType, null);
-            }
-            SelectResults selectResults = resultRef[0];
-            ObjectType objectType = collectionType.getElementType();
-            Object[] resultArray;
-            // for select * queries, the serialized object byte arrays are
-            // returned as part of ObjectPartList
-            boolean isObjectPartList = false;
-            if (queryResult instanceof ObjectPartList) {
-              isObjectPartList = true;
-              resultArray = ((ObjectPartList) queryResult).getObjects().toArray();
-            } else {
-              // Add the results to the SelectResults
-              resultArray = (Object[]) queryResult;
-            }
-            if (objectType.isStructType()) {
-              for (int i = 0; i < resultArray.length; i++) {
-                if (isObjectPartList) {
-                  selectResults.add(new StructImpl((StructTypeImpl) objectType,
-                      ((ObjectPartList) resultArray[i]).getObjects().toArray()));
-                } else {
-                  selectResults
-                      .add(new StructImpl((StructTypeImpl) objectType, (Object[]) resultArray[i]));
-                }
-              }
-            } else {
-              selectResults.addAll(Arrays.asList(resultArray));
-            }
           }
+          handler.handle(collectionType, queryResult);
         }
       };
       processChunkedResponse((ChunkedMessage) msg, getOpName(), ch);
       if (exceptionRef[0] != null) {
         throw exceptionRef[0];
-      } else {
-        return resultRef[0];
       }
     }
 
+    /**
+     * Adds the results of a chunk of a query response to the given results, creating them if they
+     * are null.
+     *
+     * @return the results the chunk was added to
+     */
+    static SelectResults addResults(SelectResults selectResults, CollectionType collectionType,
+        Object queryResult) {
+      if (queryResult instanceof Integer) {
+        // Create the appropriate SelectResults instance if necessary
+        if (selectResults == null) {
+          selectResults = QueryUtils.getEmptySelectResults(TypeUtils.OBJECT_TYPE, null);
+        }
+        selectResults.add(queryResult);
+      } else { // typical query result
+        // Create the appropriate SelectResults instance if necessary
+        if (selectResults == null) {
+          selectResults = QueryUtils.getEmptySelectResults(collectionType, null);
+        }
+        ObjectType objectType = collectionType.getElementType();
+        Object[] resultArray;
+        // for select * queries, the serialized object byte arrays are
+        // returned as part of ObjectPartList
+        boolean isObjectPartList = false;
+        if (queryResult instanceof ObjectPartList) {
+          isObjectPartList = true;
+          resultArray = ((ObjectPartList) queryResult).getObjects().toArray();
+        } else {
+          // Add the results to the SelectResults
+          resultArray = (Object[]) queryResult;
+        }
+        if (objectType.isStructType()) {
+          for (int i = 0; i < resultArray.length; i++) {
+            if (isObjectPartList) {
+              selectResults.add(new StructImpl((StructTypeImpl) objectType,
+                  ((ObjectPartList) resultArray[i]).getObjects().toArray()));
+            } else {
+              selectResults
+                  .add(new StructImpl((StructTypeImpl) objectType, (Object[]) resultArray[i]));
+            }
+          }
+        } else {
+          selectResults.addAll(Arrays.asList(resultArray));
+        }
+      }
+      return selectResults;
+    }
+
     protected String getOpName() {
       return "query";
     }
@@ -201,4 +308,112 @@ public class QueryOp {
       stats.endQuery(start, hasTimedOut(), hasFailed());
     }
   }
+
+  /**
+   * Receives the results of each chunk of a query response.
+   */
+  protected interface QueryResultsHandler {
+    void handle(CollectionType collectionType, Object queryResult) throws Exception;
+  }
+
+  /**
+   * A query whose results are handed to a {@link QueryResultStream} chunk by chunk, as they are
+   * read from the connection. At most {@link #STREAMING_QUEUE_SIZE} chunks are kept waiting for
+   * the consumer; beyond that the reading thread stops reading until the consumer catches up,
+   * which in turn holds back the server. If the consumer closes the stream, the rest of the
+   * response is read and dropped.
+   */
+  static class StreamingQueryOpImpl extends QueryOpImpl implements QueryResultStream.BatchSource {
+    /** Marks the end of the results */
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> batches =
+        new ArrayBlockingQueue<Object>(STREAMING_QUEUE_SIZE);
+
+    private volatile boolean closed;
+
+    /** Whether any results have been handed to the consumer */
+    private volatile boolean delivered;
+
+    StreamingQueryOpImpl(String queryPredicate) {
+      super(queryPredicate);
+    }
+
+    StreamingQueryOpImpl(String queryPredicate, Object[] queryParams) {
+      super(queryPredicate, queryParams);
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      // results handed out by an earlier attempt can not be taken back, so a retried attempt
+      // only reads its response to keep the connection usable
+      final boolean retried = this.delivered;
+      processQueryResponse(msg, new QueryResultsHandler() {
+        public void handle(CollectionType collectionType, Object queryResult) throws Exception {
+          if (!retried) {
+            publish(addResults(null, collectionType, queryResult));
+          }
+        }
+      });
+      if (retried) {
+        throw new ServerOperationException(
+            "The connection failed after part of the " + getOpName() + " results were received");
+      }
+      return null;
+    }
+
+    /**
+     * Hands the results of a chunk to the consumer, waiting for room if it is behind.
+     */
+    private void publish(Object batch) throws InterruptedException {
+      if (batch != END) {
+        this.delivered = true;
+      }
+      while (!this.closed) {
+        if (this.batches.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+          return;
+        }
+      }
+    }
+
+    void finish(Throwable failure) {
+      try {
+        publish(failure != null ? failure : END);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public SelectResults nextBatch() throws QueryException {
+      Object batch;
+      try {
+        batch = this.batches.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new QueryInvocationTargetException("Interrupted while waiting for query results", e);
+      }
+      if (batch == END) {
+        return null;
+      }
+      if (batch instanceof RuntimeException) {
+        throw (RuntimeException) batch;
+      }
+      if (batch instanceof Error) {
+        throw (Error) batch;
+      }
+      if (batch instanceof Throwable) {
+        throw new ServerOperationException("While performing a remote " + getOpName(),
+            (Throwable) batch);
+      }
+      return (SelectResults) batch;
+    }
+
+    @Override
+    public void close() {
+      this.closed = true;
+      // wake up the reader if it is waiting for room
+      this.batches.clear();
+    }
+  }
 }
@@ -17,6 +17,7 @@ package org.apache.geode.cache.client.internal;
 import java.util.List;
 
 import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.QueryResultStream;
 import org.apache.geode.distributed.internal.ServerLocation;
 
 /**
@@ -70,4 +71,15 @@ public class ServerProxy {
     return QueryOp.execute(this.pool, queryPredicate, queryParams);
   }
 
+  /**
+   * Does a query on a server, handing out the results as the server sends them
+   *
+   * @param queryPredicate A query language boolean query predicate
+   * @return the results of the query, which must be closed if not read to the end
+   * @since Geode 1.4
+   */
+  public QueryResultStream queryStreaming(String queryPredicate, Object[] queryParams) {
+    return QueryOp.executeStreaming(this.pool, queryPredicate, queryParams);
+  }
+
 }
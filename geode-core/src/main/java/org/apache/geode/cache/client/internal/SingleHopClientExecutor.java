@@ -14,13 +14,16 @@
  */
 package org.apache.geode.cache.client.internal;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -40,6 +43,7 @@ import org.apache.geode.cache.execute.Function;
 import org.apache.geode.cache.execute.FunctionException;
 import org.apache.geode.cache.execute.FunctionInvocationTargetException;
 import org.apache.geode.cache.execute.ResultCollector;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.PutAllPartialResultException;
@@ -67,6 +71,13 @@ public class SingleHopClientExecutor {
     }
   });
 
+  /**
+   * The most sub-batches of one bulk op that are sent at the same time. The others are sent as the
+   * ones in flight complete. Zero or less means no limit.
+   */
+  static final int MAX_BULK_OP_PARALLELISM = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "SingleHopClientExecutor.MAX_BULK_OP_PARALLELISM", 16);
+
   static void submitAll(List callableTasks) {
     if (callableTasks != null && !callableTasks.isEmpty()) {
       List futures = null;
@@ -237,7 +248,7 @@ public class SingleHopClientExecutor {
       boolean anyPartialResults = false;
       List futures = null;
       try {
-        futures = execService.invokeAll(callableTasks);
+        futures = invokeBounded(callableTasks, MAX_BULK_OP_PARALLELISM);
       } catch (RejectedExecutionException rejectedExecutionEx) {
         throw rejectedExecutionEx;
       } catch (InterruptedException e) {
@@ -311,14 +322,14 @@ public class SingleHopClientExecutor {
     return null;
   }
 
-  static Map<ServerLocation, Object> submitGetAll(Map<ServerLocation, HashSet> serverToFilterMap,
-      List callableTasks, ClientMetadataService cms, LocalRegion region) {
+  static Map<ServerLocation, Object> submitGetAll(List callableTasks, ClientMetadataService cms,
+      LocalRegion region) {
 
     if (callableTasks != null && !callableTasks.isEmpty()) {
       Map<ServerLocation, Object> resultMap = new HashMap<ServerLocation, Object>();
       List futures = null;
       try {
-        futures = execService.invokeAll(callableTasks);
+        futures = invokeBounded(callableTasks, MAX_BULK_OP_PARALLELISM);
       } catch (RejectedExecutionException rejectedExecutionEx) {
         throw rejectedExecutionEx;
       } catch (InterruptedException e) {
@@ -387,6 +398,41 @@ public class SingleHopClientExecutor {
     return null;
   }
 
+  /**
+   * Runs the given tasks on {@link #execService}, at most {@code maxParallelism} of them at a time,
+   * and waits for all of them to complete.
+   *
+   * @return the completed futures of the tasks, in the order of the tasks
+   */
+  static List<Future> invokeBounded(List<? extends Callable> callableTasks, int maxParallelism)
+      throws InterruptedException {
+    List<Future> futures = new ArrayList<Future>(callableTasks.size());
+    CompletionService completionService = new ExecutorCompletionService(execService);
+    int inFlight = 0;
+    boolean done = false;
+    try {
+      for (Callable task : callableTasks) {
+        if (maxParallelism > 0 && inFlight >= maxParallelism) {
+          completionService.take();
+          inFlight--;
+        }
+        futures.add(completionService.submit(task));
+        inFlight++;
+      }
+      for (; inFlight > 0; inFlight--) {
+        completionService.take();
+      }
+      done = true;
+    } finally {
+      if (!done) {
+        for (Future future : futures) {
+          future.cancel(true);
+        }
+      }
+    }
+    return futures;
+  }
+
   static void submitTask(Runnable task) {
     execService.execute(task);
   }
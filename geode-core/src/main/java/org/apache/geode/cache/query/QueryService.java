@@ -408,6 +408,41 @@ public interface QueryService {
       String imports) throws IndexInvalidException, IndexNameConflictException,
       IndexExistsException, RegionNotFoundException, UnsupportedOperationException;
 
+  /**
+   * Create an index that can be used when executing queries and that keeps copies of the given
+   * fields of the indexed values alongside its keys. Queries that use the index and only project
+   * covered fields of the values are answered from the index without reading the values. Fields
+   * are only covered by indexes on region values with a single iterator, other indexes ignore
+   * them.
+   *
+   * @param indexName the name of this index.
+   * @param indexedExpression refers to the field of the region values that are referenced by the
+   *        regionPath.
+   * @param regionPath that resolves to region values or nested collections of region values which
+   *        will correspond to the FROM clause in a query.
+   * @param imports string containing imports (in the query language syntax, each import statement
+   *        separated by a semicolon), may be null.
+   * @param coveredFields the names of the fields of the values that the index keeps, may be null.
+   *
+   *        Example: Query: "Select p.id, p.status from /portfolio p where p.id > 25" For index on
+   *        id field covering status: indexExpression: "p.id" regionPath: "/portfolio p"
+   *        coveredFields: {"id", "status"}
+   * @return the newly created Index
+   * @throws QueryInvalidException if the argument query language strings have invalid syntax
+   * @throws IndexInvalidException if the arguments do not correctly specify an index
+   * @throws IndexNameConflictException if an index with this name already exists
+   * @throws IndexExistsException if an index with these parameters already exists with a different
+   *         name
+   * @throws RegionNotFoundException if the region referred to in the fromClause doesn't exist
+   * @throws UnsupportedOperationException If Index is being created on a region which does not
+   *         support indexes.
+   * @since Geode 1.4
+   */
+  public Index createIndex(String indexName, String indexedExpression, String regionPath,
+      String imports, String[] coveredFields) throws IndexInvalidException,
+      IndexNameConflictException, IndexExistsException, RegionNotFoundException,
+      UnsupportedOperationException;
+
   /**
    * Create a key index that can be used when executing queries. The key index expression indicates
    * query engine to use region key as index for query evaluation. They are used to make use of the
@@ -209,37 +209,6 @@ public abstract class AbstractGroupOrRangeJunction extends AbstractCompiledValue
     return result;
   }
 
-
-
-  private List getCondtionsSortedOnIncreasingEstimatedIndexResultSize(ExecutionContext context)
-      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
-      QueryInvocationTargetException {
-    // The checks before this function is invoked
-    // have ensured that all the operands are of type ComparisonQueryInfo
-    // and of the form var = constant. Also need for sorting will not arise
-    // if there are only two operands
-
-    List sortedList = new ArrayList(this._operands.length);
-    int len = this._operands.length;
-    for (int i = 0; i < len; ++i) {
-      Filter toSort = (Filter) this._operands[i];
-      int indxRsltToSort = toSort.getSizeEstimate(context);
-      int sortedListLen = sortedList.size();
-      int j = 0;
-      for (; j < sortedListLen; ++j) {
-        Filter currSorted = (Filter) sortedList.get(j);
-        if (currSorted.getSizeEstimate(context) > indxRsltToSort) {
-          break;
-        }
-      }
-      sortedList.add(j, toSort);
-    }
-    return sortedList;
-
-  }
-
-
-
   /**
    * Asif : This function is always invoked on a DummyGroupJunction object formed as a part of
    * organization of operands of a GroupJunction . This also guranatees that the operands are all of
@@ -253,8 +222,10 @@ public abstract class AbstractGroupOrRangeJunction extends AbstractCompiledValue
     // using the intermediate results so far (passed in)
     // put results into new intermediate results
 
+    int[] sortedEstimates = new int[this._operands.length];
     List sortedConditionsList =
-        this.getCondtionsSortedOnIncreasingEstimatedIndexResultSize(context);
+        QueryUtils.sortOnIncreasingSizeEstimate(this._operands, context, sortedEstimates);
+    int numEvaluated = 0;
 
     // Sort the operands in increasing order of resultset size
     Iterator i = sortedConditionsList.iterator();
@@ -278,6 +249,7 @@ public abstract class AbstractGroupOrRangeJunction extends AbstractCompiledValue
       // RangeJunction then the Filter is a RangeJunctionEvaluator
       SelectResults filterResults = null;
       Filter filter = (Filter) i.next();
+      numEvaluated++;
       boolean isConditioningNeeded = filter.isConditioningNeededForIndex(
           this.indpndntItr.length == 1 ? this.indpndntItr[0] : null, context,
           this.completeExpansion);
@@ -306,6 +278,12 @@ public abstract class AbstractGroupOrRangeJunction extends AbstractCompiledValue
             // iter evaluation
             break;
           }
+          if (numEvaluated < sortedEstimates.length && QueryUtils
+              .isIterationCheaper(intermediateResults, sortedEstimates[numEvaluated])) {
+            // The remaining filters would select far more entries than there are results left,
+            // so apply them to the results by iteration instead of intersecting
+            break;
+          }
         }
       } else {
         // Asif : In case of OR clause, the filterEvaluate cannot return a
@@ -15,11 +15,15 @@
 
 package org.apache.geode.cache.query.internal;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -52,7 +56,18 @@ public class AttributeDescriptor {
   private final MethodInvocationAuthorizer _methodInvocationAuthorizer;
   /** cache for remembering the correct Member for a class and attribute */
   private static final ConcurrentMap<List, Member> _localCache = new ConcurrentHashMap();
-
+  /**
+   * cache for remembering, per class, the accessor that reads each attribute through a method
+   * handle. Being attached to the class it is found without creating a key for every read.
+   */
+  private static final ClassValue<ConcurrentMap<String, ReadAccessor>> _accessorCache =
+      new ClassValue<ConcurrentMap<String, ReadAccessor>>() {
+        @Override
+        protected ConcurrentMap<String, ReadAccessor> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<String, ReadAccessor>();
+        }
+      };
+  private static final MethodType READ_TYPE = MethodType.methodType(Object.class, Object.class);
 
 
   public AttributeDescriptor(MethodInvocationAuthorizer methodInvocationAuthorizer, String name) {
@@ -94,7 +109,16 @@ public class AttributeDescriptor {
     }
 
     Class resolutionClass = target.getClass();
-    Member m = getReadMember(resolutionClass);
+    Member m;
+    if (DefaultQueryService.USE_METHOD_HANDLES) {
+      ReadAccessor accessor = getReadAccessor(resolutionClass);
+      if (accessor.handle != null) {
+        return readWithHandle(accessor, target);
+      }
+      m = accessor.member;
+    } else {
+      m = getReadMember(resolutionClass);
+    }
     try {
       if (m instanceof Method) {
         try {
@@ -138,6 +162,49 @@ public class AttributeDescriptor {
     }
   }
 
+  private Object readWithHandle(ReadAccessor accessor, Object target)
+      throws QueryInvocationTargetException {
+    if (accessor.member instanceof Method) {
+      _methodInvocationAuthorizer.authorizeMethodInvocation((Method) accessor.member, target);
+    }
+    try {
+      return (Object) accessor.handle.invokeExact(target);
+    } catch (EntryDestroyedException e) {
+      // eat the exception
+      return QueryService.UNDEFINED;
+    } catch (Throwable t) {
+      throw new QueryInvocationTargetException(t);
+    }
+  }
+
+  private ReadAccessor getReadAccessor(Class targetClass) throws NameNotFoundException {
+    ConcurrentMap<String, ReadAccessor> accessors = _accessorCache.get(targetClass);
+    ReadAccessor accessor = accessors.get(_name);
+    if (accessor == null) {
+      Member m = getReadMember(targetClass);
+      accessor = new ReadAccessor(m, createReadHandle(m));
+      accessors.putIfAbsent(_name, accessor);
+    }
+    return accessor;
+  }
+
+  /**
+   * Returns a handle of type (Object)Object reading the given field or invoking the given getter,
+   * or null if no handle can be created, in which case the attribute is read through reflection.
+   */
+  private static MethodHandle createReadHandle(Member m) {
+    try {
+      MethodHandle handle = m instanceof Method ? MethodHandles.lookup().unreflect((Method) m)
+          : MethodHandles.lookup().unreflectGetter((Field) m);
+      if (Modifier.isStatic(m.getModifiers())) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      return handle.asType(READ_TYPE);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
+  }
+
   Member getReadMember(Class targetClass) throws NameNotFoundException {
 
     // mapping: public field (same name), method (getAttribute()),
@@ -306,6 +373,14 @@ public class AttributeDescriptor {
     return false;
   }
 
+  /** The member reading an attribute of a class, and the handle invoking it */
+  private static class ReadAccessor {
+    private final Member member;
+    private final MethodHandle handle;
 
-
+    ReadAccessor(Member member, MethodHandle handle) {
+      this.member = member;
+      this.handle = handle;
+    }
+  }
 }
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.internal.cache.PartitionedRegion;
+
+/**
+ * Produces the results of a query on a partitioned region by executing it on a few buckets at a
+ * time, so that only the results of those buckets are held in memory at once. The buckets are the
+ * ones that had been created when the source was created.
+ *
+ * @since Geode 1.4
+ */
+class BucketBatchSource implements QueryResultStream.BatchSource {
+
+  private final DefaultQuery query;
+
+  private final PartitionedRegion region;
+
+  private final Object[] parameters;
+
+  private final int[] bucketIds;
+
+  private final int bucketsPerBatch;
+
+  private int nextBucket;
+
+  private boolean executed;
+
+  private boolean closed;
+
+  BucketBatchSource(DefaultQuery query, PartitionedRegion region, Object[] parameters,
+      int bucketsPerBatch) {
+    this.query = query;
+    this.region = region;
+    this.parameters = parameters;
+    this.bucketsPerBatch = Math.max(1, bucketsPerBatch);
+    List<Integer> buckets = new ArrayList<Integer>(region.getRegionAdvisor().getBucketSet());
+    this.bucketIds = new int[buckets.size()];
+    for (int i = 0; i < this.bucketIds.length; i++) {
+      this.bucketIds[i] = buckets.get(i);
+    }
+  }
+
+  @Override
+  public SelectResults nextBatch() throws QueryException {
+    // without any bucket the query is still executed once, for empty results of the right type
+    if (this.closed || (this.executed && this.nextBucket >= this.bucketIds.length)) {
+      return null;
+    }
+    this.executed = true;
+    Set<Integer> batch = new HashSet<Integer>();
+    int end = Math.min(this.bucketIds.length, this.nextBucket + this.bucketsPerBatch);
+    for (; this.nextBucket < end; this.nextBucket++) {
+      batch.add(this.bucketIds[this.nextBucket]);
+    }
+    return this.query.executeOnBuckets(this.region, this.parameters, batch);
+  }
+
+  @Override
+  public void close() {
+    this.closed = true;
+  }
+}
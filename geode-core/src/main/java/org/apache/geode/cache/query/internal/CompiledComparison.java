@@ -38,6 +38,8 @@ import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.cache.query.types.StructType;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
 import org.apache.geode.pdx.internal.PdxString;
 
 /**
@@ -79,7 +81,22 @@ public class CompiledComparison extends AbstractCompiledValue
 
   public Object evaluate(ExecutionContext context) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
-    Object left = _left.evaluate(context);
+    Object left;
+    if (_left.getType() == PATH
+        && (_right.getType() == LITERAL || _right.getType() == QUERY_PARAM)) {
+      CompiledPath path = (CompiledPath) _left;
+      Object receiver = path.getReceiver().evaluate(context);
+      if (receiver != null && receiver.getClass() == PdxInstanceImpl.class) {
+        Boolean result =
+            compareSerializedField((PdxInstanceImpl) receiver, path.getTailID(), context);
+        if (result != null) {
+          return result;
+        }
+      }
+      left = path.evaluate(context, receiver);
+    } else {
+      left = _left.evaluate(context);
+    }
     Object right = _right.evaluate(context);
 
     if (context.isCqQueryContext() && left instanceof Region.Entry) {
@@ -135,6 +152,85 @@ public class CompiledComparison extends AbstractCompiledValue
     return TypeUtils.compare(left, right, _operator);
   }
 
+  /**
+   * Compares a field of a PdxInstance with the constant on the right directly on the serialized
+   * bytes of the instance, which neither boxes the value of the field nor creates a PdxString for
+   * it. Only integral and String fields compared with a value of the same kind are handled.
+   *
+   * @return the result of the comparison, or null if it has to be evaluated on the field value
+   */
+  private Boolean compareSerializedField(PdxInstanceImpl pdx, String fieldName,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    PdxField field = pdx.getPdxField(fieldName);
+    if (field == null || field.isDeleted()) {
+      return null;
+    }
+    Object value = _right.evaluate(context);
+    int result;
+    switch (field.getFieldType()) {
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+        if (!(value instanceof Integer || value instanceof Long || value instanceof Short
+            || value instanceof Byte)) {
+          return null;
+        }
+        result = Long.compare(readIntegralField(pdx, field), ((Number) value).longValue());
+        break;
+      case STRING:
+        if (!(value instanceof String)) {
+          return null;
+        }
+        PdxString pdxString;
+        if (_right.getType() == LITERAL) {
+          pdxString = ((CompiledLiteral) _right).getSavedPdxString();
+        } else if (context instanceof QueryExecutionContext) {
+          pdxString = ((CompiledBindArgument) _right).getSavedPdxString(context);
+        } else {
+          return null;
+        }
+        Integer comparison = pdx.compareStringField(field, pdxString);
+        if (comparison == null) {
+          return null;
+        }
+        result = comparison;
+        break;
+      default:
+        return null;
+    }
+    switch (_operator) {
+      case TOK_EQ:
+        return result == 0;
+      case TOK_NE:
+        return result != 0;
+      case TOK_LT:
+        return result < 0;
+      case TOK_LE:
+        return result <= 0;
+      case TOK_GT:
+        return result > 0;
+      case TOK_GE:
+        return result >= 0;
+      default:
+        return null;
+    }
+  }
+
+  private static long readIntegralField(PdxInstanceImpl pdx, PdxField field) {
+    switch (field.getFieldType()) {
+      case BYTE:
+        return pdx.readByte(field);
+      case SHORT:
+        return pdx.readShort(field);
+      case INT:
+        return pdx.readInt(field);
+      default:
+        return pdx.readLong(field);
+    }
+  }
+
   /**
    * Asif : Evaluates as a filter taking advantage of indexes if appropriate. This function has a
    * meaningful implementation only in CompiledComparison & CompiledUndefined . It is unsupported in
@@ -657,7 +753,7 @@ public class CompiledComparison extends AbstractCompiledValue
    * get the path to see if there's an index for, and also determine which CompiledValue is the key
    * while we're at it
    */
-  private PathAndKey getPathAndKey(ExecutionContext context)
+  PathAndKey getPathAndKey(ExecutionContext context)
       throws TypeMismatchException, AmbiguousNameException {
     // RuntimeIterator lIter = context.findRuntimeIterator(_left);
     // RuntimeIterator rIter = context.findRuntimeIterator(_right);
@@ -777,6 +873,13 @@ public class CompiledComparison extends AbstractCompiledValue
       return thisSize <= thatSize;
     }
 
+    // Prefer the filter that the index statistics estimate to select far fewer entries; the
+    // rules on the operators below only decide between filters of about the same cost.
+    Boolean isThisCheaper = QueryUtils.compareSizeEstimates(thisSize, thatSize);
+    if (isThisCheaper != null) {
+      return isThisCheaper;
+    }
+
     // There may be some hard rules that give unoptimal selections based on these switch cases.
     if (this._operator == TOK_EQ || this._operator == TOK_NE || this._operator == TOK_NE_ALT) {
       switch (thatOperator) {
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.geode.cache.query.AmbiguousNameException;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.CompositeIndexKey;
+
+/**
+ * The indexed expression of a composite index: a list of expressions that evaluates to a
+ * {@link CompositeIndexKey} holding the value of each of them.
+ *
+ * @since Geode 1.4
+ */
+public class CompiledCompositeKey extends AbstractCompiledValue {
+
+  private final CompiledValue[] expressions;
+
+  public CompiledCompositeKey(CompiledValue[] expressions) {
+    this.expressions = expressions;
+  }
+
+  public CompiledValue[] getExpressions() {
+    return this.expressions;
+  }
+
+  @Override
+  public List getChildren() {
+    return Arrays.asList(this.expressions);
+  }
+
+  @Override
+  public int getType() {
+    return COMPOSITE_KEY;
+  }
+
+  @Override
+  public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    Object[] values = new Object[this.expressions.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = this.expressions[i].evaluate(context);
+    }
+    return CompositeIndexKey.forValues(values);
+  }
+
+  @Override
+  public Set computeDependencies(ExecutionContext context)
+      throws TypeMismatchException, AmbiguousNameException, NameResolutionException {
+    for (CompiledValue expression : this.expressions) {
+      context.addDependencies(this, expression.computeDependencies(context));
+    }
+    return context.getDependencySet(this, true);
+  }
+
+  @Override
+  public void generateCanonicalizedExpression(StringBuilder clauseBuffer, ExecutionContext context)
+      throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
+    for (int i = this.expressions.length - 1; i > 0; i--) {
+      this.expressions[i].generateCanonicalizedExpression(clauseBuffer, context);
+      clauseBuffer.insert(0, ", ");
+    }
+    this.expressions[0].generateCanonicalizedExpression(clauseBuffer, context);
+  }
+}
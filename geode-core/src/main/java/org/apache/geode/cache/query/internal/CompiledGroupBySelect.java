@@ -23,6 +23,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
 import org.apache.geode.cache.query.Aggregator;
 import org.apache.geode.cache.query.AmbiguousNameException;
 import org.apache.geode.cache.query.FunctionDomainException;
@@ -38,7 +42,9 @@ import org.apache.geode.cache.query.internal.types.TypeUtils;
 import org.apache.geode.cache.query.internal.utils.PDXUtils;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.cache.query.types.StructType;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.pdx.internal.PdxString;
 
 /**
  *
@@ -46,6 +52,13 @@ import org.apache.geode.internal.i18n.LocalizedStrings;
  */
 public class CompiledGroupBySelect extends CompiledSelect {
 
+  /**
+   * Whether the rows of a group by query are grouped by hashing them on the group by columns rather
+   * than by sorting them on those columns. Not final so that tests can compare both.
+   */
+  static boolean HASH_GROUP_BY =
+      !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Query.DISABLE_HASH_GROUP_BY");
+
   private final BitSet aggregateColsPos;
   private final CompiledAggregateFunction[] aggregateFunctions;
   private final boolean isDistinct;
@@ -160,10 +173,113 @@ public class CompiledGroupBySelect extends CompiledSelect {
   public SelectResults evaluate(ExecutionContext context) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     SelectResults sr = super.evaluate(context);
+    if (isHashGrouped()) {
+      return this.applyHashGroupBy(sr, context);
+    }
     return this.applyAggregateAndGroupBy(sr, context);
 
   }
 
+  /**
+   * Rows that are grouped by hashing do not have to be sorted on the group by columns first, only
+   * the groups are.
+   */
+  @Override
+  protected boolean isOrderedEvaluation() {
+    return super.isOrderedEvaluation() && !isHashGrouped();
+  }
+
+  private boolean isHashGrouped() {
+    return HASH_GROUP_BY && this.orderByAttrs != null && this.groupBy != null
+        && !this.groupBy.isEmpty();
+  }
+
+  /**
+   * Groups the unordered rows of the select in an open addressing hash table keyed by the group by
+   * columns and accumulates each row into the aggregators of its group. The groups are then sorted
+   * on the group by columns and terminated, so the results are the same as those of
+   * {@link #applyAggregateAndGroupBy} on rows sorted on the group by columns, but the sort is over
+   * the groups rather than over all the rows.
+   */
+  private SelectResults applyHashGroupBy(SelectResults baseResults, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    ObjectType elementType = baseResults.getCollectionType().getElementType();
+    boolean isStruct = elementType != null && elementType.isStructType();
+    boolean isBucketNodes = context.getBucketList() != null;
+    boolean[] objectChangedMarker = new boolean[] {false};
+    int limitValue = evaluateLimitValue(context, limit);
+    SelectResults newResults = createResultSet(context, elementType, isStruct, isBucketNodes);
+
+    boolean isSingleOrderBy = this.orderByAttrs.size() <= 1;
+    Object[] orderByTupleHolder = isSingleOrderBy ? null : new Object[this.orderByAttrs.size()];
+    Map<Object, Group> groups = isSingleOrderBy ? new Object2ObjectOpenHashMap<>()
+        : new Object2ObjectOpenCustomHashMap<>(ObjectArrayHashStrategy.INSTANCE);
+    Iterator iter = isStruct && baseResults instanceof StructFields
+        ? ((StructFields) baseResults).fieldValuesIterator() : baseResults.iterator();
+    while (iter.hasNext()) {
+      Object current = iter.next();
+      if (isStruct && current instanceof Struct) {
+        current = ((Struct) current).getFieldValues();
+      }
+      Object orderByTuple = getOrderByEvaluatedTuple(context, isSingleOrderBy,
+          orderByTupleHolder, current, objectChangedMarker);
+      Group group = groups.get(orderByTuple);
+      if (group == null) {
+        Aggregator[] aggregators = new Aggregator[this.aggregateFunctions.length];
+        refreshAggregators(aggregators, context);
+        group = new Group(current, aggregators);
+        groups.put(isSingleOrderBy ? orderByTuple : orderByTupleHolder.clone(), group);
+      }
+      accumulate(isStruct, group.aggregators, current, objectChangedMarker);
+    }
+
+    Group[] sortedGroups = groups.values().toArray(new Group[groups.size()]);
+    Comparator rowComparator = new OrderByComparator(this.orderByAttrs, elementType, context);
+    Arrays.sort(sortedGroups, (group1, group2) -> rowComparator.compare(group1.row, group2.row));
+    StructTypeImpl structType = isStruct ? (StructTypeImpl) elementType : null;
+    for (Group group : sortedGroups) {
+      if (!terminateAndAddToResults(isStruct, newResults, group.aggregators, group.row,
+          structType, context, !isBucketNodes, limitValue)) {
+        break;
+      }
+    }
+    applyLimit(newResults, context, limitValue);
+    return newResults;
+  }
+
+  /**
+   * The first row of a group, whose non aggregate columns are those of the group, and the
+   * aggregators of the group
+   */
+  private static class Group {
+    private final Object row;
+    private final Aggregator[] aggregators;
+
+    private Group(Object row, Aggregator[] aggregators) {
+      this.row = row;
+      this.aggregators = aggregators;
+    }
+  }
+
+  /**
+   * Hashes group by tuples by their contents.
+   */
+  private static class ObjectArrayHashStrategy implements Hash.Strategy<Object> {
+    private static final ObjectArrayHashStrategy INSTANCE = new ObjectArrayHashStrategy();
+
+    @Override
+    public int hashCode(Object tuple) {
+      return Arrays.hashCode((Object[]) tuple);
+    }
+
+    @Override
+    public boolean equals(Object tuple1, Object tuple2) {
+      return tuple1 == tuple2 || tuple1 != null && tuple2 != null
+          && Arrays.equals((Object[]) tuple1, (Object[]) tuple2);
+    }
+  }
+
   public SelectResults applyAggregateAndGroupBy(SelectResults baseResults, ExecutionContext context)
       throws FunctionDomainException, TypeMismatchException, NameResolutionException,
       QueryInvocationTargetException {
@@ -186,10 +302,13 @@ public class CompiledGroupBySelect extends CompiledSelect {
       boolean unterminated = iter.hasNext();
       while (iter.hasNext()) {
         current = iter.next();
-        accumulate(isStruct, aggregators, current, objectChangedMarker);
+        accumulate(isStruct, aggregators, isStruct ? ((Struct) current).getFieldValues() : current,
+            objectChangedMarker);
       }
       if (unterminated) {
-        this.terminateAndAddToResults(isStruct, newResults, aggregators, current, context,
+        this.terminateAndAddToResults(isStruct, newResults, aggregators,
+            isStruct ? ((Struct) current).getFieldValues() : current,
+            isStruct ? (StructTypeImpl) ((Struct) current).getStructType() : null, context,
             !createOrderedResultSet, limitValue);
       }
     }
@@ -283,15 +402,19 @@ public class CompiledGroupBySelect extends CompiledSelect {
     Object prev = null;
     boolean unterminated = false;
     boolean keepAdding = true;
+    StructTypeImpl structType = null;
     while (iter.hasNext() && keepAdding) {
       Object current = iter.next();
+      if (isStruct) {
+        structType = (StructTypeImpl) ((Struct) current).getStructType();
+        current = ((Struct) current).getFieldValues();
+      }
       if (isSingleOrderBy) {
-        orderByCurrent = this.getOrderByEvaluatedTuple(context, isSingleOrderBy, null,
-            isStruct ? ((Struct) current).getFieldValues() : current, objectChangedMarker);
+        orderByCurrent = this.getOrderByEvaluatedTuple(context, isSingleOrderBy, null, current,
+            objectChangedMarker);
       } else {
         orderByTupleHolderCurrent = (Object[]) this.getOrderByEvaluatedTuple(context,
-            isSingleOrderBy, orderByTupleHolderCurrent,
-            isStruct ? ((Struct) current).getFieldValues() : current, objectChangedMarker);
+            isSingleOrderBy, orderByTupleHolderCurrent, current, objectChangedMarker);
       }
       if (isFirst || areOrderByTupleEqual(isSingleOrderBy, orderByPrev, orderByCurrent,
           orderByTupleHolderPrev, orderByTupleHolderCurrent)) {
@@ -299,8 +422,9 @@ public class CompiledGroupBySelect extends CompiledSelect {
         unterminated = true;
         isFirst = false;
       } else {
-        keepAdding = terminateAndAddToResults(isStruct, newResults, aggregators, prev, context,
-            isStructFields, limitValue);
+        keepAdding = terminateAndAddToResults(isStruct, newResults, aggregators, prev,
+            structType, context, isStructFields, limitValue);
+        refreshAggregators(aggregators, context);
         this.accumulate(isStruct, aggregators, current, objectChangedMarker);
         unterminated = true;
       }
@@ -312,21 +436,27 @@ public class CompiledGroupBySelect extends CompiledSelect {
       prev = current;
     }
     if (unterminated && keepAdding) {
-      this.terminateAndAddToResults(isStruct, newResults, aggregators, prev, context,
+      this.terminateAndAddToResults(isStruct, newResults, aggregators, prev, structType, context,
           isStructFields, limitValue);
     }
+    applyLimit(newResults, context, limitValue);
+  }
 
+  private void applyLimit(SelectResults newResults, ExecutionContext context, int limitValue) {
     if (this.originalOrderByClause != null && limitValue > 0
         && (context.getIsPRQueryNode() || context.getBucketList() == null)) {
       ((Bag) newResults).applyLimit(limitValue);
     }
   }
 
+  /**
+   * @param prev the last row of the group, its field values if the rows are structs
+   */
   private boolean terminateAndAddToResults(boolean isStruct, SelectResults newResults,
-      Aggregator[] aggregators, Object prev, ExecutionContext context, boolean isStrucFields,
-      int limitValue) throws FunctionDomainException, TypeMismatchException,
-      NameResolutionException, QueryInvocationTargetException {
-    Object[] newRowArray = isStruct ? copyStruct((Struct) prev) : null;
+      Aggregator[] aggregators, Object prev, StructTypeImpl structType, ExecutionContext context,
+      boolean isStrucFields, int limitValue) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    Object[] newRowArray = isStruct ? ((Object[]) prev).clone() : null;
     Object newObject = null;
     int bitstart = 0;
     if (limitValue == 0) {
@@ -348,8 +478,7 @@ public class CompiledGroupBySelect extends CompiledSelect {
       if (isStrucFields) {
         ((StructFields) newResults).addFieldValues(newRowArray);
       } else {
-        newResults
-            .add(new StructImpl((StructTypeImpl) ((Struct) prev).getStructType(), newRowArray));
+        newResults.add(new StructImpl(structType, newRowArray));
       }
     } else {
       newResults.add(newObject);
@@ -360,8 +489,6 @@ public class CompiledGroupBySelect extends CompiledSelect {
         && newResults.size() == limitValue) {
       keepAdding = false;
     }
-    // rfresh the aggregators
-    refreshAggregators(aggregators, context);
     return keepAdding;
   }
 
@@ -375,13 +502,9 @@ public class CompiledGroupBySelect extends CompiledSelect {
     }
   }
 
-  private Object[] copyStruct(Struct struct) {
-    Object[] prevValues = struct.getFieldValues();
-    Object[] newRow = new Object[prevValues.length];
-    System.arraycopy(prevValues, 0, newRow, 0, prevValues.length);
-    return newRow;
-  }
-
+  /**
+   * @param current the row, its field values if the rows are structs
+   */
   private void accumulate(boolean isStruct, Aggregator[] aggregators, Object current,
       boolean[] objectChangedMarker) {
     int bitstart = 0;
@@ -389,8 +512,7 @@ public class CompiledGroupBySelect extends CompiledSelect {
       if (isStruct) {
         int pos = this.aggregateColsPos.nextSetBit(bitstart);
         bitstart = pos + 1;
-        Struct struct = (Struct) current;
-        Object scalar = PDXUtils.convertPDX(struct.getFieldValues()[pos], false, true, true, true,
+        Object scalar = PDXUtils.convertPDX(((Object[]) current)[pos], false, true, true, true,
             objectChangedMarker, isStruct);
 
         aggregator.accumulate(scalar);
@@ -418,21 +540,48 @@ public class CompiledGroupBySelect extends CompiledSelect {
 
   }
 
+  /**
+   * Evaluates the group by columns of a row into keys that are equal whenever the columns compare
+   * equal in {@link OrderByComparator}, so that the hashed and the sorted grouping agree.
+   */
   private Object getOrderByEvaluatedTuple(ExecutionContext context, boolean isOrderByTupleSingle,
       Object[] holder, Object data, boolean[] objectChangedMarker) {
     if (isOrderByTupleSingle) {
-      return PDXUtils.convertPDX(this.orderByAttrs.get(0).evaluate(data, context), false, true,
-          true, true, objectChangedMarker, false);
+      return toGroupKey(PDXUtils.convertPDX(this.orderByAttrs.get(0).evaluate(data, context),
+          false, true, true, true, objectChangedMarker, false));
     } else {
       int i = 0;
       for (CompiledSortCriterion csc : this.orderByAttrs) {
-        holder[i++] = PDXUtils.convertPDX(csc.evaluate(data, context), false, true, true, true,
-            objectChangedMarker, false);
+        holder[i++] = toGroupKey(PDXUtils.convertPDX(csc.evaluate(data, context), false, true,
+            true, true, objectChangedMarker, false));
       }
       return holder;
     }
   }
 
+  /**
+   * Returns the key a group by column value is grouped on. Numbers of different types compare by
+   * their double values, so integral values are widened to Long and floating point values to
+   * Double, or to Long if they are integral. PdxStrings compare equal to the same Strings.
+   */
+  static Object toGroupKey(Object value) {
+    if (value instanceof Long || value instanceof String || value == null) {
+      return value;
+    } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    } else if (value instanceof Double || value instanceof Float) {
+      double doubleValue = ((Number) value).doubleValue();
+      long longValue = (long) doubleValue;
+      if (Double.doubleToLongBits(doubleValue) == Double.doubleToLongBits((double) longValue)) {
+        return longValue;
+      }
+      return doubleValue;
+    } else if (value instanceof PdxString) {
+      return value.toString();
+    }
+    return value;
+  }
+
   @Override
   public boolean isGroupBy() {
     return true;
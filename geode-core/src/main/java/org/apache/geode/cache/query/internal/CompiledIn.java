@@ -699,6 +699,13 @@ public class CompiledIn extends AbstractCompiledValue implements Indexable {
       return thisSize <= thatSize;
     }
 
+    // Prefer the filter that the index statistics estimate to select far fewer entries; the
+    // rules on the operators below only decide between filters of about the same cost.
+    Boolean isThisCheaper = QueryUtils.compareSizeEstimates(thisSize, thatSize);
+    if (isThisCheaper != null) {
+      return isThisCheaper;
+    }
+
     switch (thatOperator) {
       case TOK_EQ:
       case TOK_NE:
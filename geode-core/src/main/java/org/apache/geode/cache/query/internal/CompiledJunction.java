@@ -87,6 +87,12 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
   private int _operator = 0;
   private List unevaluatedFilterOperands = null;
 
+  /**
+   * Key of the operands to plan the evaluation of an AND junction with in the execution cache, as
+   * they depend on the composite indexes available to the execution
+   */
+  private final Object planOperandsKey = new Object();
+
   // A token to place into the samesort map. This is to let the engine know there is more than one
   // index
   // being used for this junction but allows actual operands to form range junctions if enough
@@ -227,30 +233,6 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     return result;
   }
 
-  private List getCondtionsSortedOnIncreasingEstimatedIndexResultSize(ExecutionContext context)
-      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
-      QueryInvocationTargetException {
-    // The checks invoked before this function have ensured that all the
-    // operands are of type ComparisonQueryInfo and of the form 'var = constant'.
-    // Also need for sorting will not arise if there are only two operands
-    int len = this._operands.length;
-    List sortedList = new ArrayList(len);
-    for (int i = 0; i < len; ++i) {
-      Filter toSort = (Filter) this._operands[i];
-      int indxRsltToSort = toSort.getSizeEstimate(context);
-      int sortedListLen = sortedList.size();
-      int j = 0;
-      for (; j < sortedListLen; ++j) {
-        Filter currSorted = (Filter) sortedList.get(j);
-        if (currSorted.getSizeEstimate(context) > indxRsltToSort) {
-          break;
-        }
-      }
-      sortedList.add(j, toSort);
-    }
-    return sortedList;
-  }
-
   /**
    * invariant: all operands are known to be evaluated as a filter no operand organization is
    * necessary
@@ -262,8 +244,10 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     // evaluate the result set from the indexed values
     // using the intermediate results so far (passed in)
     // put results into new intermediate results
+    int[] sortedEstimates = new int[this._operands.length];
     List sortedConditionsList =
-        this.getCondtionsSortedOnIncreasingEstimatedIndexResultSize(context);
+        QueryUtils.sortOnIncreasingSizeEstimate(this._operands, context, sortedEstimates);
+    int numEvaluated = 0;
 
     // Sort the operands in increasing order of resultset size
     Iterator sortedConditionsItr = sortedConditionsList.iterator();
@@ -282,6 +266,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       // to be corrupted , if the intermediateResultset contains some value.
       SelectResults filterResults =
           ((Filter) sortedConditionsItr.next()).filterEvaluate(context, null);
+      numEvaluated++;
       if (_operator == LITERAL_and) {
         if (filterResults != null && filterResults.isEmpty()) {
           return filterResults;
@@ -297,6 +282,12 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
             // iter evaluation
             break;
           }
+          if (numEvaluated < sortedEstimates.length && QueryUtils
+              .isIterationCheaper(intermediateResults, sortedEstimates[numEvaluated])) {
+            // The remaining filters would select far more entries than there are results left,
+            // so apply them to the results by iteration instead of intersecting
+            break;
+          }
         }
       } else {
         // Asif : In case of OR clause, the filterEvaluate cannot return a
@@ -412,8 +403,15 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     // for LITERAL_and operator, if any say yes to filter,
     // then change default evalAsFilter from false to true
     // of LITERAL_or operator, if any say no to filter, change to false
-    for (int i = 0; i < _operands.length; i++) {
-      PlanInfo opPlanInfo = _operands[i].getPlanInfo(context);
+    CompiledValue[] operands = getPlanOperands(context);
+    for (int i = 0; i < operands.length; i++) {
+      PlanInfo opPlanInfo = operands[i].getPlanInfo(context);
+      if (operands[i].getType() == COMPOSITE_INDEX_CONDITION) {
+        // the indexes of the comparisons replaced by the condition have been read locked too
+        for (Object comparison : operands[i].getChildren()) {
+          resultPlanInfo.indexes.addAll(((CompiledValue) comparison).getPlanInfo(context).indexes);
+        }
+      }
       resultPlanInfo.indexes.addAll(opPlanInfo.indexes);
       if (!isOr && opPlanInfo.evalAsFilter) {
         resultPlanInfo.evalAsFilter = true;
@@ -424,6 +422,25 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     return resultPlanInfo;
   }
 
+  /**
+   * Returns the operands to plan the evaluation of this junction with. For an AND junction, the
+   * comparisons that a composite index answers together are replaced with a single
+   * {@link CompositeIndexCondition}.
+   */
+  private CompiledValue[] getPlanOperands(ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    if (_operator != LITERAL_and) {
+      return _operands;
+    }
+    CompiledValue[] planOperands = (CompiledValue[]) context.cacheGet(this.planOperandsKey);
+    if (planOperands == null) {
+      planOperands = CompositeIndexCondition.useCompositeIndexes(_operands, context);
+      context.cachePut(this.planOperandsKey, planOperands);
+    }
+    return planOperands;
+  }
+
   /* Package methods */
   public int getOperator() {
     return _operator;
@@ -455,11 +472,12 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     // get the list of operands to evaluate, and evaluate operands that can use
     // indexes first.
-    List evalOperands = new ArrayList(_operands.length);
+    CompiledValue[] operands = getPlanOperands(context);
+    List evalOperands = new ArrayList(operands.length);
     int indexCount = 0;
     // TODO: Check if we can defer the creation of this array list only
     // if there exists an eval operand
-    List compositeIterOperands = new ArrayList(_operands.length);
+    List compositeIterOperands = new ArrayList(operands.length);
     // Asif: This Map will contain as key the composite filter operand & as
     // value , the set containing independent RuntimeIterators ( which will
     // necessarily be two )
@@ -469,7 +487,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     boolean isJunctionNeeded = false;
     boolean indexExistsOnNonJoinOp = false;
 
-    for (int i = 0; i < _operands.length; i++) {
+    for (int i = 0; i < operands.length; i++) {
       // Asif : If we are inside this function this itself indicates
       // that there exists at least on operand which can be evaluated
       // as an auxFilterEvaluate. If any operand even if its flag of
@@ -486,7 +504,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       // We are here itself implies, that any independent operand can be
       // either true or false for an AND junction but always false for an
       // OR Junction.
-      operand = this._operands[i];
+      operand = operands[i];
       if (!operand.isDependentOnCurrentScope(context)) {
         indexCount++;
         // Asif Ensure that independent operands are always at the start
@@ -1052,10 +1070,11 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
   public boolean isProjectionEvaluationAPossibility(ExecutionContext context)
       throws FunctionDomainException, TypeMismatchException, NameResolutionException,
       QueryInvocationTargetException {
-    for (int i = 0; i < this._operands.length; ++i) {
+    CompiledValue[] operands = getPlanOperands(context);
+    for (int i = 0; i < operands.length; ++i) {
       // LIKE gives rise to a JUNCTION in CompiledLike whether wildcard is present or not
-      if ((this._operands[i].getType() == JUNCTION || this._operands[i].getType() == LIKE)
-          && this._operands[i].getPlanInfo(context).evalAsFilter) {
+      if ((operands[i].getType() == JUNCTION || operands[i].getType() == LIKE)
+          && operands[i].getPlanInfo(context).evalAsFilter) {
         return false;
       }
     }
@@ -1107,11 +1126,12 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       // hard coded to use 1 index
       // we can for the time being return true if there exists atleast one indexable condition
       boolean foundIndex = false;
-      for (int i = 0; i < this._operands.length; ++i) {
-        if (this._operands[i].getPlanInfo(context).evalAsFilter
-            && this._operands[i].getType() == JUNCTION) {
+      CompiledValue[] operands = getPlanOperands(context);
+      for (int i = 0; i < operands.length; ++i) {
+        if (operands[i].getPlanInfo(context).evalAsFilter
+            && operands[i].getType() == JUNCTION) {
           return false;
-        } else if (this._operands[i].getPlanInfo(context).evalAsFilter) {
+        } else if (operands[i].getPlanInfo(context).evalAsFilter) {
           foundIndex = true;
         }
       }
@@ -1126,14 +1146,20 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     if (this._operator == LITERAL_and) {
       // Set<IndexProtocol> usedIndex = new HashSet<IndexProtocol>();
       boolean foundRightIndex = false;
-      for (int i = 0; i < this._operands.length; ++i) {
-        PlanInfo pi = this._operands[i].getPlanInfo(context);
-        if (pi.evalAsFilter && this._operands[i].getType() == JUNCTION) {
+      CompiledValue[] operands = getPlanOperands(context);
+      for (int i = 0; i < operands.length; ++i) {
+        PlanInfo pi = operands[i].getPlanInfo(context);
+        if (pi.evalAsFilter && operands[i].getType() == JUNCTION) {
           return false;
         } else if (pi.evalAsFilter) {
           if (!foundRightIndex) {
-            IndexProtocol ip =
-                (IndexProtocol) this._operands[i].getPlanInfo(context).indexes.get(0);
+            if (operands[i].getType() == COMPOSITE_INDEX_CONDITION) {
+              // a composite index is ordered on the expression following the equality conditions
+              foundRightIndex = pi.isPreferred && ((Filter) operands[i])
+                  .isOrderByApplicableAtIndexLevel(context, canonicalizedOrderByClause);
+              continue;
+            }
+            IndexProtocol ip = (IndexProtocol) pi.indexes.get(0);
             if (ip.getCanonicalizedIndexedExpression().equals(canonicalizedOrderByClause)
                 && pi.isPreferred) {
               foundRightIndex = true;
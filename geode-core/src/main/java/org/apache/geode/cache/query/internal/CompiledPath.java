@@ -90,7 +90,14 @@ public class CompiledPath extends AbstractCompiledValue {
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     CompiledValue rcvr = getReceiver();
     Object evalRcvr = rcvr.evaluate(context);
+    return evaluate(context, evalRcvr);
+  }
 
+  /**
+   * Evaluates this path on the already evaluated value of its receiver.
+   */
+  Object evaluate(ExecutionContext context, Object evalRcvr) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     if (context.isCqQueryContext()
         && (evalRcvr instanceof Region.Entry || evalRcvr instanceof CqEntry)) {
       try {
@@ -139,6 +139,14 @@ public class CompiledSelect extends AbstractCompiledValue {
     return this.orderByAttrs != null;
   }
 
+  /**
+   * Returns true if the results of evaluating this select are ordered on the order by attributes.
+   * A group by select may leave its rows unordered and group them by hashing instead.
+   */
+  protected boolean isOrderedEvaluation() {
+    return this.orderByAttrs != null;
+  }
+
   public void setDistinct(boolean distinct) {
     this.distinct = distinct;
   }
@@ -456,7 +464,7 @@ public class CompiledSelect extends AbstractCompiledValue {
           // Check the numer of independent iterators
           int numInd = context.getAllIndependentIteratorsOfCurrentScope().size();
           // If order by clause is defined, then the first column should be the preferred index
-          if (this.orderByAttrs != null && numInd == 1) {
+          if (isOrderedEvaluation() && numInd == 1) {
             CompiledSortCriterion csc = orderByAttrs.get(0);
             StringBuilder preferredIndexCondn = new StringBuilder();
             this.evalCanonicalizedExpressionForCSC(csc, context, preferredIndexCondn);
@@ -490,7 +498,7 @@ public class CompiledSelect extends AbstractCompiledValue {
                 context.cachePut(CAN_APPLY_LIMIT_AT_INDEX, Boolean.TRUE);
               }
               StringBuilder temp = null;
-              if (this.orderByAttrs != null) {
+              if (isOrderedEvaluation()) {
                 temp = new StringBuilder();
                 CompiledSortCriterion csc = this.orderByAttrs.get(0);
                 this.evalCanonicalizedExpressionForCSC(csc, context, temp);
@@ -523,7 +531,7 @@ public class CompiledSelect extends AbstractCompiledValue {
               context.cachePut(RESULT_LIMIT, limitValue);
               if (numInd == 1
                   && ((Filter) this.whereClause).isProjectionEvaluationAPossibility(context)
-                  && (this.orderByAttrs == null
+                  && (!isOrderedEvaluation()
                       || (canApplyOrderByAtIndex && !needsTopLevelOrdering))
                   && this.projAttrs != null) {
                 // Possibility of evaluating the resultset as filter itself
@@ -691,7 +699,7 @@ public class CompiledSelect extends AbstractCompiledValue {
           rIter.setCurrent(currObj);
           QueryObserver observer = QueryObserverHolder.getInstance();
           observer.beforeIterationEvaluation(rIter, currObj);
-          applyProjectionAndAddToResultSet(context, results, this.orderByAttrs == null);
+          applyProjectionAndAddToResultSet(context, results, !isOrderedEvaluation());
         }
         return results;
       }
@@ -795,7 +803,7 @@ public class CompiledSelect extends AbstractCompiledValue {
       }
       if (addToResults) {
         int occurrence =
-            applyProjectionAndAddToResultSet(context, results, this.orderByAttrs == null);
+            applyProjectionAndAddToResultSet(context, results, !isOrderedEvaluation());
         // If the occurrence is greater than 1, then only in case of
         // non distinct query should it be treated as contributing to size
         // else duplication will be eliminated when making it distinct using
@@ -842,7 +850,7 @@ public class CompiledSelect extends AbstractCompiledValue {
         numElementsInResult = doNestedIterations(level + 1, results, context, evaluateWhereClause,
             numElementsInResult);
         Integer limitValue = evaluateLimitValue(context, this.limit);
-        if (this.orderByAttrs == null && limitValue > -1 && numElementsInResult == limitValue) {
+        if (!isOrderedEvaluation() && limitValue > -1 && numElementsInResult == limitValue) {
           break;
         }
       }
@@ -854,7 +862,7 @@ public class CompiledSelect extends AbstractCompiledValue {
       ExecutionContext context, boolean ignoreOrderBy) throws TypeMismatchException,
       FunctionDomainException, NameResolutionException, QueryInvocationTargetException {
     List iterators = context.getCurrentIterators();
-    if (projAttrs == null && (this.orderByAttrs == null || ignoreOrderBy)) {
+    if (projAttrs == null && (!isOrderedEvaluation() || ignoreOrderBy)) {
       // If the projection attribute is null (ie specified as *) & there is only one Runtime
       // Iterator we can return the set as it is. But if the projection attribute is null & multiple
       // Iterators are defined we need to rectify the StructBag that is returned. It is to be noted
@@ -876,7 +884,7 @@ public class CompiledSelect extends AbstractCompiledValue {
         Iterator resultsIter = resultSet.iterator();
         // Apply limit if there is no order by
         Integer limitValue = evaluateLimitValue(context, this.limit);
-        while (((this.orderByAttrs != null && !ignoreOrderBy) || limitValue < 0
+        while (((isOrderedEvaluation() && !ignoreOrderBy) || limitValue < 0
             || (numElementsAdded < limitValue)) && resultsIter.hasNext()) {
           // Check if query execution on this thread is canceled
           QueryMonitor.isQueryExecutionCanceled();
@@ -898,7 +906,7 @@ public class CompiledSelect extends AbstractCompiledValue {
         Iterator resultsIter = resultSet.iterator();
         // Apply limit if there is no order by.
         Integer limitValue = evaluateLimitValue(context, this.limit);
-        while (((this.orderByAttrs != null && !ignoreOrderBy) || limitValue < 0
+        while (((isOrderedEvaluation() && !ignoreOrderBy) || limitValue < 0
             || (numElementsAdded < limitValue)) && resultsIter.hasNext()) {
           rIter.setCurrent(resultsIter.next());
           int occurrence = applyProjectionAndAddToResultSet(context, pResultSet, ignoreOrderBy);
@@ -956,7 +964,8 @@ public class CompiledSelect extends AbstractCompiledValue {
   }
 
   private SelectResults prepareEmptyResultSet(ExecutionContext context, boolean ignoreOrderBy)
-      throws TypeMismatchException, AmbiguousNameException {
+      throws TypeMismatchException, FunctionDomainException, NameResolutionException,
+      QueryInvocationTargetException {
     // If no projection attributes or '*' as projection attribute & more than one/RunTimeIterator
     // then create a StructSet.
     // If attribute is null or '*' & only one RuntimeIterator then create a ResultSet.
@@ -977,9 +986,12 @@ public class CompiledSelect extends AbstractCompiledValue {
     }
 
     // Potential edge-case: Could this be non-null but empty?
-    boolean nullValuesAtStart = orderByAttrs != null && !orderByAttrs.get(0).getCriterion();
+    boolean nullValuesAtStart = isOrderedEvaluation() && !orderByAttrs.get(0).getCriterion();
     OrderByComparator comparator;
-    boolean isOrdered = this.orderByAttrs != null;
+    boolean isOrdered = isOrderedEvaluation();
+    // The results sorted here keep only as many rows as the limit, the greater ones can never be
+    // returned
+    int maxSize = isOrdered && !ignoreOrderBy ? evaluateLimitValue(context, this.limit) : -1;
 
     switch (DataContainerType.determineDataContainerType(isOrdered, distinct,
         elementType.isStructType(), ignoreOrderBy)) {
@@ -1000,12 +1012,22 @@ public class CompiledSelect extends AbstractCompiledValue {
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        return new SortedStructSet(comparator, (StructTypeImpl) elementType);
+        SortedStructSet sortedStructSet =
+            new SortedStructSet(comparator, (StructTypeImpl) elementType);
+        if (maxSize > 0) {
+          sortedStructSet.setMaxSize(maxSize);
+        }
+        return sortedStructSet;
       case ORDERED_INDISTINCT_STRUCT_UNIGNORED:
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        return new SortedStructBag(comparator, (StructType) elementType, nullValuesAtStart);
+        SortedStructBag sortedStructBag =
+            new SortedStructBag(comparator, (StructType) elementType, nullValuesAtStart);
+        if (maxSize > 0) {
+          sortedStructBag.setMaxSize(maxSize);
+        }
+        return sortedStructBag;
       case ORDERED_DISTINCT_RESULTS_IGNORED:
         results = new LinkedResultSet();
         results.setElementType(elementType);
@@ -1018,16 +1040,22 @@ public class CompiledSelect extends AbstractCompiledValue {
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        results = new SortedResultSet(comparator);
-        results.setElementType(elementType);
-        return results;
+        SortedResultSet sortedResultSet = new SortedResultSet(comparator);
+        sortedResultSet.setElementType(elementType);
+        if (maxSize > 0) {
+          sortedResultSet.setMaxSize(maxSize);
+        }
+        return sortedResultSet;
       case ORDERED_INDISTINCT_RESULTS_UNIGNORED:
         comparator = this.hasUnmappedOrderByCols
             ? new OrderByComparatorMapped(this.orderByAttrs, elementType, context)
             : new OrderByComparator(this.orderByAttrs, elementType, context);
-        results = new SortedResultsBag(comparator, nullValuesAtStart);
-        results.setElementType(elementType);
-        return results;
+        SortedResultsBag sortedResultsBag = new SortedResultsBag(comparator, nullValuesAtStart);
+        sortedResultsBag.setElementType(elementType);
+        if (maxSize > 0) {
+          sortedResultsBag.setMaxSize(maxSize);
+        }
+        return sortedResultsBag;
     }
     throw new TypeMismatchException("Logical inconsistency in CompiledSelect");
   }
@@ -1156,7 +1184,7 @@ public class CompiledSelect extends AbstractCompiledValue {
     ArrayList evaluatedOrderByClause = null;
     OrderByComparator comparator = null;
     boolean applyOrderBy = false;
-    if (this.orderByAttrs != null && !ignoreOrderBy) {
+    if (isOrderedEvaluation() && !ignoreOrderBy) {
       // In case PR order-by will get applied on the coordinator node
       // on the cumulative results. Apply the order-by on PR only if
       // limit is specified.
@@ -1167,7 +1195,7 @@ public class CompiledSelect extends AbstractCompiledValue {
       applyOrderBy = true;
     }
 
-    if (this.orderByAttrs != null && !ignoreOrderBy) {
+    if (isOrderedEvaluation() && !ignoreOrderBy) {
       comparator = (OrderByComparator) ((Ordered) resultSet).comparator();
     }
     if (projAttrs == null) {
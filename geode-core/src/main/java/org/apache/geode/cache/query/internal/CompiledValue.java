@@ -46,6 +46,8 @@ public interface CompiledValue {
   int LIKE = -15;
   int FIELD = -16;
   int GROUP_BY_SELECT = -17;
+  int COMPOSITE_KEY = -18;
+  int COMPOSITE_INDEX_CONDITION = -19;
   int INDEX_RESULT_THRESHOLD_DEFAULT = 100;
   String INDX_THRESHOLD_PROP_STR = DistributionConfig.GEMFIRE_PREFIX + "Query.INDEX_THRESHOLD_SIZE";
   String INDEX_INFO = "index_info";
@@ -0,0 +1,478 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.geode.cache.query.AmbiguousNameException;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.CompiledComparison.PathAndKey;
+import org.apache.geode.cache.query.internal.index.AbstractIndex;
+import org.apache.geode.cache.query.internal.index.CompositeIndexKey;
+import org.apache.geode.cache.query.internal.index.IndexData;
+import org.apache.geode.cache.query.internal.index.IndexManager;
+import org.apache.geode.cache.query.internal.index.IndexProtocol;
+import org.apache.geode.cache.query.internal.index.PartitionedIndex;
+import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.cache.query.types.ObjectType;
+
+/**
+ * Filter for the comparisons of an AND junction that are answered together by a composite index:
+ * equality conditions on the leading expressions of the index, optionally followed by a lower
+ * and an upper bound on the next expression. The conditions are evaluated with a single range
+ * scan of the index instead of a lookup per condition and an intersection of the results.
+ *
+ * The conditions are created during the planning of an AND junction, for the execution at hand.
+ *
+ * @since Geode 1.4
+ */
+class CompositeIndexCondition extends AbstractCompiledValue implements Indexable {
+
+  /** The comparisons answered by the index, as a single condition */
+  private final CompiledValue conditions;
+
+  private final List<CompiledComparison> comparisons;
+
+  /** The path of the first comparison, which is rooted at the iterator of the index */
+  private final CompiledValue indexedPath;
+
+  /** The keys of the equality conditions on the leading expressions of the index */
+  private final CompiledValue[] equalityKeys;
+
+  private final CompiledValue lowerKey;
+
+  private final int lowerOperator;
+
+  private final CompiledValue upperKey;
+
+  private final int upperOperator;
+
+  private final IndexInfo indexInfo;
+
+  /** The canonicalized expressions of the index */
+  private final String[] keyExpressions;
+
+  private CompositeIndexCondition(List<CompiledComparison> comparisons, CompiledValue indexedPath,
+      CompiledValue[] equalityKeys, CompiledValue lowerKey, int lowerOperator,
+      CompiledValue upperKey, int upperOperator, IndexData indexData) {
+    this.comparisons = comparisons;
+    this.indexedPath = indexedPath;
+    this.conditions = comparisons.size() == 1 ? comparisons.get(0)
+        : new CompiledJunction(comparisons.toArray(new CompiledValue[comparisons.size()]),
+            LITERAL_and);
+    this.equalityKeys = equalityKeys;
+    this.lowerKey = lowerKey;
+    this.lowerOperator = lowerOperator;
+    this.upperKey = upperKey;
+    this.upperOperator = upperOperator;
+    AbstractIndex index = (AbstractIndex) indexData.getIndex();
+    this.keyExpressions = index.getCompositeKeyExpressions();
+    // index entries whose update is in progress are checked against all the conditions
+    this.indexInfo = new IndexInfo(new CompiledLiteral(Boolean.TRUE), this, index,
+        indexData.getMatchLevel(), indexData.getMapping(), TOK_EQ);
+  }
+
+  /**
+   * Replaces the comparisons of an AND junction that a composite index can answer together with a
+   * single condition using that index. The comparisons are grouped by the independent iterator
+   * they depend on, and each group uses the composite index matching the most of its comparisons.
+   *
+   * @param operands the operands of the AND junction
+   * @param context ExecutionContext object
+   * @return the operands to plan the evaluation of the junction with, which are the given operands
+   *         if no composite index can be used
+   */
+  static CompiledValue[] useCompositeIndexes(CompiledValue[] operands, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    Map<RuntimeIterator, List<CompiledComparison>> groups = new LinkedHashMap<>();
+    for (CompiledValue operand : operands) {
+      if (!(operand instanceof CompiledComparison) || operand instanceof CompiledLike
+          || !operand.isDependentOnCurrentScope(context)) {
+        continue;
+      }
+      CompiledComparison comparison = (CompiledComparison) operand;
+      PathAndKey pathAndKey = comparison.getPathAndKey(context);
+      if (pathAndKey == null
+          || !isCompositeOperator(comparison.reflectOnOperator(pathAndKey._key))) {
+        continue;
+      }
+      Set set = QueryUtils.getCurrentScopeUltimateRuntimeIteratorsIfAny(comparison, context);
+      if (set.size() != 1) {
+        continue;
+      }
+      RuntimeIterator rIter = (RuntimeIterator) set.iterator().next();
+      List<CompiledComparison> group = groups.get(rIter);
+      if (group == null) {
+        group = new ArrayList<>();
+        groups.put(rIter, group);
+      }
+      group.add(comparison);
+    }
+    List<CompiledValue> planOperands = null;
+    for (Map.Entry<RuntimeIterator, List<CompiledComparison>> group : groups.entrySet()) {
+      CompositeIndexCondition condition = create(group.getKey(), group.getValue(), context);
+      if (condition == null) {
+        continue;
+      }
+      List<CompiledValue> newOperands = new ArrayList<>(operands.length);
+      for (CompiledValue operand : planOperands == null ? Arrays.asList(operands) : planOperands) {
+        if (!condition.comparisons.contains(operand)) {
+          newOperands.add(operand);
+        } else if (!newOperands.contains(condition)) {
+          // the condition takes the place of the first comparison it answers
+          newOperands.add(condition);
+        }
+      }
+      planOperands = newOperands;
+    }
+    if (planOperands == null) {
+      return operands;
+    }
+    return planOperands.toArray(new CompiledValue[planOperands.size()]);
+  }
+
+  private static boolean isCompositeOperator(int operator) {
+    return operator == TOK_EQ || operator == TOK_LT || operator == TOK_LE || operator == TOK_GT
+        || operator == TOK_GE;
+  }
+
+  private static CompositeIndexCondition create(RuntimeIterator rIter,
+      List<CompiledComparison> group, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    Map<String, CompiledComparison> equalities = new LinkedHashMap<>();
+    Map<String, CompiledComparison> lowerBounds = new LinkedHashMap<>();
+    Map<String, CompiledComparison> upperBounds = new LinkedHashMap<>();
+    for (CompiledComparison comparison : group) {
+      PathAndKey pathAndKey = comparison.getPathAndKey(context);
+      StringBuilder sb = new StringBuilder();
+      pathAndKey._path.generateCanonicalizedExpression(sb, context);
+      String path = sb.toString();
+      int operator = comparison.reflectOnOperator(pathAndKey._key);
+      Map<String, CompiledComparison> comparisons = operator == TOK_EQ ? equalities
+          : operator == TOK_GT || operator == TOK_GE ? lowerBounds : upperBounds;
+      if (!comparisons.containsKey(path)) {
+        comparisons.put(path, comparison);
+      }
+    }
+    List<String> rangeExpressions = new ArrayList<>(lowerBounds.keySet());
+    rangeExpressions.addAll(upperBounds.keySet());
+    IndexData indexData = QueryUtils.getAvailableCompositeIndexIfAny(rIter, equalities.keySet(),
+        rangeExpressions, context);
+    if (indexData == null) {
+      return null;
+    }
+    String[] keyExpressions = ((AbstractIndex) indexData.getIndex()).getCompositeKeyExpressions();
+    List<CompiledComparison> comparisons = new ArrayList<>();
+    List<CompiledValue> equalityKeys = new ArrayList<>();
+    int k = 0;
+    while (k < keyExpressions.length && equalities.containsKey(keyExpressions[k])) {
+      CompiledComparison comparison = equalities.get(keyExpressions[k++]);
+      comparisons.add(comparison);
+      equalityKeys.add(comparison.getPathAndKey(context)._key);
+    }
+    CompiledComparison lower = null;
+    CompiledComparison upper = null;
+    if (k < keyExpressions.length) {
+      lower = lowerBounds.get(keyExpressions[k]);
+      upper = upperBounds.get(keyExpressions[k]);
+    }
+    CompiledValue lowerKey = null;
+    CompiledValue upperKey = null;
+    int lowerOperator = TOK_GE;
+    int upperOperator = TOK_LE;
+    if (lower != null) {
+      comparisons.add(lower);
+      lowerKey = lower.getPathAndKey(context)._key;
+      lowerOperator = lower.reflectOnOperator(lowerKey);
+    }
+    if (upper != null) {
+      comparisons.add(upper);
+      upperKey = upper.getPathAndKey(context)._key;
+      upperOperator = upper.reflectOnOperator(upperKey);
+    }
+    // a comparison which has an index of its own is better off using that index
+    if (comparisons.size() == 1 && comparisons.get(0).getPlanInfo(context).evalAsFilter) {
+      releaseReadLock(indexData.getIndex());
+      return null;
+    }
+    CompositeIndexCondition condition = new CompositeIndexCondition(comparisons,
+        comparisons.get(0).getPathAndKey(context)._path,
+        equalityKeys.toArray(new CompiledValue[equalityKeys.size()]), lowerKey, lowerOperator,
+        upperKey, upperOperator, indexData);
+    condition.computeDependencies(context);
+    return condition;
+  }
+
+  /**
+   * Releases the read lock acquired on a composite index which is not going to be used after all.
+   */
+  private static void releaseReadLock(IndexProtocol index) {
+    Index prIndex = ((AbstractIndex) index).getPRIndex();
+    if (prIndex != null) {
+      ((PartitionedIndex) prIndex).releaseIndexReadLockForRemove();
+    } else {
+      ((AbstractIndex) index).releaseIndexReadLockForRemove();
+    }
+  }
+
+  /**
+   * Returns the lower and upper bound of the range of the index holding the entries that satisfy
+   * the conditions, or null if no entry can satisfy them.
+   */
+  private CompositeIndexKey[] getBounds(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    int k = this.equalityKeys.length;
+    Object[] prefix = new Object[k + 1];
+    for (int i = 0; i < k; i++) {
+      prefix[i] = this.equalityKeys[i].evaluate(context);
+      if (prefix[i] == QueryService.UNDEFINED) {
+        return null;
+      }
+    }
+    Object[] equalities = Arrays.copyOf(prefix, k);
+    CompositeIndexKey lowerBound;
+    if (this.lowerKey != null) {
+      prefix[k] = this.lowerKey.evaluate(context);
+      if (prefix[k] == null || prefix[k] == QueryService.UNDEFINED) {
+        return null;
+      }
+      lowerBound = this.lowerOperator == TOK_GE ? CompositeIndexKey.lowerBound(prefix)
+          : CompositeIndexKey.upperBound(prefix);
+    } else if (this.upperKey != null) {
+      // null and UNDEFINED do not satisfy a range condition, and sort before all the other values
+      prefix[k] = IndexManager.NULL;
+      lowerBound = CompositeIndexKey.upperBound(prefix);
+    } else {
+      lowerBound = CompositeIndexKey.lowerBound(equalities);
+    }
+    CompositeIndexKey upperBound;
+    if (this.upperKey != null) {
+      prefix[k] = this.upperKey.evaluate(context);
+      if (prefix[k] == null || prefix[k] == QueryService.UNDEFINED) {
+        return null;
+      }
+      upperBound = this.upperOperator == TOK_LE ? CompositeIndexKey.upperBound(prefix)
+          : CompositeIndexKey.lowerBound(prefix);
+    } else {
+      upperBound = CompositeIndexKey.upperBound(equalities);
+    }
+    if (lowerBound.compareTo(upperBound) > 0) {
+      return null;
+    }
+    return new CompositeIndexKey[] {lowerBound, upperBound};
+  }
+
+  @Override
+  public SelectResults filterEvaluate(ExecutionContext context, SelectResults intermediateResults)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    RuntimeIterator indpndntItr = null;
+    List currentScopeIndpndntItrs = context.getAllIndependentIteratorsOfCurrentScope();
+    Set rntmItrs = QueryUtils.getCurrentScopeUltimateRuntimeIteratorsIfAny(this, context);
+    if (rntmItrs.size() == 1 && currentScopeIndpndntItrs.size() == 1) {
+      indpndntItr = (RuntimeIterator) rntmItrs.iterator().next();
+    }
+    return filterEvaluate(context, intermediateResults, true,
+        null, indpndntItr != null ? new RuntimeIterator[] {indpndntItr} : null, true, true, false);
+  }
+
+  @Override
+  public SelectResults filterEvaluate(ExecutionContext context, SelectResults iterationLimit,
+      boolean completeExpansionNeeded, CompiledValue iterOperands, RuntimeIterator[] indpndntItrs,
+      boolean isIntersection, boolean conditioningNeeded, boolean evalProj)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    ObjectType resultType = this.indexInfo._index.getResultSetType();
+    int indexFieldsSize;
+    SelectResults set;
+    Boolean orderByClause = (Boolean) context.cacheGet(CompiledValue.CAN_APPLY_ORDER_BY_AT_INDEX);
+    boolean useLinkedDataStructure = false;
+    boolean nullValuesAtStart = true;
+    if (orderByClause != null && orderByClause) {
+      List orderByAttrs = (List) context.cacheGet(CompiledValue.ORDERBY_ATTRIB);
+      useLinkedDataStructure = orderByAttrs.size() == 1;
+      nullValuesAtStart = !((CompiledSortCriterion) orderByAttrs.get(0)).getCriterion();
+    }
+    if (resultType instanceof StructTypeImpl) {
+      if (useLinkedDataStructure) {
+        set = context.isDistinct() ? new LinkedStructSet((StructTypeImpl) resultType)
+            : new SortedResultsBag((StructTypeImpl) resultType, nullValuesAtStart);
+      } else {
+        set = QueryUtils.createStructCollection(context, (StructTypeImpl) resultType);
+      }
+      indexFieldsSize = ((StructTypeImpl) resultType).getFieldNames().length;
+    } else {
+      if (useLinkedDataStructure) {
+        set = context.isDistinct() ? new LinkedResultSet(resultType)
+            : new SortedResultsBag(resultType, nullValuesAtStart);
+      } else {
+        set = QueryUtils.createResultCollection(context, resultType);
+      }
+      indexFieldsSize = 1;
+    }
+    CompositeIndexKey[] bounds = getBounds(context);
+    if (bounds != null) {
+      // the iter operands are applied after the index lookup, so the limit can not be applied in
+      // the index
+      context.cachePut(CompiledValue.CAN_APPLY_LIMIT_AT_INDEX, Boolean.FALSE);
+      QueryObserver observer = QueryObserverHolder.getInstance();
+      try {
+        observer.beforeIndexLookup(this.indexInfo._index, TOK_GE, bounds[0], TOK_LE, bounds[1],
+            null);
+        context.cachePut(CompiledValue.INDEX_INFO, this.indexInfo);
+        this.indexInfo._index.query(bounds[0], TOK_GE, bounds[1], TOK_LE, set, null, context);
+      } finally {
+        observer.afterIndexLookup(set);
+      }
+    }
+    return QueryUtils.getConditionedIndexResults(set, this.indexInfo, context, indexFieldsSize,
+        completeExpansionNeeded, iterOperands, indpndntItrs);
+  }
+
+  @Override
+  public SelectResults auxFilterEvaluate(ExecutionContext context,
+      SelectResults intermediateResults) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    Support.assertionFailed(
+        " This auxFilterEvaluate of CompositeIndexCondition should never have got invoked.");
+    return null;
+  }
+
+  @Override
+  public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    return this.conditions.evaluate(context);
+  }
+
+  @Override
+  public Set computeDependencies(ExecutionContext context)
+      throws TypeMismatchException, AmbiguousNameException, NameResolutionException {
+    return context.addDependencies(this, this.conditions.computeDependencies(context));
+  }
+
+  @Override
+  protected PlanInfo protGetPlanInfo(ExecutionContext context) {
+    PlanInfo result = new PlanInfo();
+    result.evalAsFilter = true;
+    result.indexes.add(this.indexInfo._index);
+    result.isPreferred = isOrderedBy((String) context.cacheGet(PREF_INDEX_COND));
+    return result;
+  }
+
+  /**
+   * Returns true if the entries of the range scanned by this condition are ordered on the given
+   * canonicalized expression, which is the expression of the index following the equality
+   * conditions.
+   */
+  private boolean isOrderedBy(String canonicalizedExpression) {
+    int k = this.equalityKeys.length;
+    return canonicalizedExpression != null && k < this.keyExpressions.length
+        && this.keyExpressions[k].equals(canonicalizedExpression);
+  }
+
+  @Override
+  public IndexInfo[] getIndexInfo(ExecutionContext context) {
+    return new IndexInfo[] {this.indexInfo};
+  }
+
+  @Override
+  public boolean isRangeEvaluatable() {
+    return false;
+  }
+
+  @Override
+  public int getSizeEstimate(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    CompositeIndexKey[] bounds = getBounds(context);
+    if (bounds == null) {
+      return 0;
+    }
+    int size = this.indexInfo._index.getSizeEstimate(bounds[0], TOK_GE, bounds[1], TOK_LE,
+        this.indexInfo._matchLevel);
+    // without statistics, the condition answering several comparisons is taken to be selective
+    return size < 0 ? 1 : size;
+  }
+
+  @Override
+  public boolean isBetterFilter(Filter comparedTo, ExecutionContext context, int thisSize)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    int thatSize = comparedTo.getSizeEstimate(context);
+    if (context instanceof QueryExecutionContext && ((QueryExecutionContext) context).hasHints()) {
+      return thisSize <= thatSize;
+    }
+    Boolean isThisCheaper = QueryUtils.compareSizeEstimates(thisSize, thatSize);
+    return isThisCheaper == null || isThisCheaper;
+  }
+
+  @Override
+  public int getOperator() {
+    return LITERAL_and;
+  }
+
+  @Override
+  public boolean isProjectionEvaluationAPossibility(ExecutionContext context) {
+    return true;
+  }
+
+  @Override
+  public boolean isConditioningNeededForIndex(RuntimeIterator independentIter,
+      ExecutionContext context, boolean completeExpnsNeeded) {
+    return true;
+  }
+
+  @Override
+  public boolean isLimitApplicableAtIndexLevel(ExecutionContext context) {
+    return true;
+  }
+
+  @Override
+  public boolean isOrderByApplicableAtIndexLevel(ExecutionContext context,
+      String canonicalizedOrderByClause) {
+    return isOrderedBy(canonicalizedOrderByClause);
+  }
+
+  /**
+   * Returns the path of the first comparison answered by the index, which leads to the iterator
+   * the index is on.
+   */
+  @Override
+  public CompiledValue getReceiver() {
+    return this.indexedPath;
+  }
+
+  @Override
+  public List getChildren() {
+    return this.comparisons;
+  }
+
+  @Override
+  public int getType() {
+    return COMPOSITE_INDEX_CONDITION;
+  }
+}
@@ -48,6 +48,7 @@ import org.apache.geode.cache.query.RegionNotFoundException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.cq.InternalCqQuery;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.NanoTimer;
 import org.apache.geode.internal.cache.BucketRegion;
@@ -102,6 +103,13 @@ public class DefaultQuery implements Query {
    */
   public static final Object NULL_RESULT = new Object();
 
+  /**
+   * The number of buckets of a partitioned region {@link #executeStreaming} executes a query on at
+   * a time.
+   */
+  public static final int STREAMING_BUCKETS_PER_BATCH = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.STREAMING_BUCKETS_PER_BATCH", 16);
+
   private volatile boolean isCanceled = false;
 
   private CacheRuntimeException canceledException;
@@ -337,6 +345,34 @@ public class DefaultQuery implements Query {
       return executeOnServer(params);
     }
 
+    QueryResultCache resultCache = this.cache.getQueryResultCache();
+    QueryResultCache.Key resultKey = null;
+    if (resultCache != null) {
+      resultKey = resultCache.createKey(this, params);
+      if (resultKey != null) {
+        long startTime = CachePerfStats.getStatTime();
+        Object result = resultCache.get(resultKey);
+        if (result != null) {
+          // a cached result still counts as an execution of the query
+          QueryObserver observer = QueryObserverHolder.getInstance();
+          observer.startQuery(this);
+          observer.afterQueryEvaluation(result);
+          observer.endQuery();
+          updateStatistics(CachePerfStats.getStatTime() - startTime);
+          return result;
+        }
+      }
+    }
+
+    Object result = executeLocally(params);
+    if (resultKey != null) {
+      resultCache.put(resultKey, result);
+    }
+    return result;
+  }
+
+  private Object executeLocally(Object[] params) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     long startTime = 0L;
     if (this.traceOn && this.cache != null) {
       startTime = NanoTimer.getTime();
@@ -461,6 +497,97 @@ public class DefaultQuery implements Query {
     return result;
   }
 
+  /**
+   * Executes the query and hands out its results as they are produced. A query on a partitioned
+   * region that {@link #isStreamable can be streamed} is executed a few buckets at a time, each
+   * batch only once the previous one has been consumed, so only the results of those buckets are
+   * held in memory and the query stops as soon as its LIMIT has been reached or the stream is
+   * closed. A query run on a server streams the results the server sends, as they arrive. Other
+   * queries are executed in full and their results handed out from memory.
+   *
+   * @param params the bind parameters of the query, not null
+   * @return the results of the query, which must be closed if not read to the end
+   * @since Geode 1.4
+   */
+  public QueryResultStream executeStreaming(Object[] params) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    if (params == null) {
+      throw new IllegalArgumentException(
+          LocalizedStrings.DefaultQuery_PARAMETERS_CANNOT_BE_NULL.toLocalizedString());
+    }
+
+    if (this.serverProxy != null) {
+      return executeStreamingOnServer(params);
+    }
+
+    if (isStreamable()) {
+      QueryExecutor qe = checkQueryOnPR(params);
+      if (qe instanceof PartitionedRegion) {
+        return new QueryResultStream(new BucketBatchSource(this, (PartitionedRegion) qe, params,
+            STREAMING_BUCKETS_PER_BATCH), getLimit(params));
+      }
+    }
+
+    Object result = execute(params);
+    if (!(result instanceof SelectResults)) {
+      SelectResults results = new ResultsBag();
+      results.setElementType(TypeUtils.OBJECT_TYPE);
+      results.add(result);
+      result = results;
+    }
+    return QueryResultStream.of((SelectResults) result);
+  }
+
+  /**
+   * Returns true if the results of this query on a partitioned region are just the results it has
+   * on each bucket put together, so that they can be produced a few buckets at a time. That is not
+   * the case if the results need to be sorted, made distinct, grouped or counted across buckets.
+   */
+  public boolean isStreamable() {
+    CompiledSelect select = getSimpleSelect();
+    return select != null && !this.isCqQuery && !this.isQueryWithFunctionContext
+        && !select.isDistinct() && !select.isOrderBy() && !select.isGroupBy() && !select.isCount();
+  }
+
+  /**
+   * Executes this query on some of the buckets of the given region, wherever they are hosted.
+   */
+  SelectResults executeOnBuckets(PartitionedRegion pr, Object[] params, Set<Integer> bucketIds)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    try {
+      setPdxReadSerialized(this.cache, true);
+      SelectResults result = (SelectResults) pr.executeQueryOnBuckets(this, params, bucketIds);
+      if (needsPDXDeserializationWrapper(true /* is query on PR */)) {
+        result = new ResultsCollectionPdxDeserializerWrapper(result, false);
+      }
+      return result;
+    } catch (QueryExecutionCanceledException ignore) {
+      if (this.canceledException != null) {
+        throw this.canceledException;
+      } else {
+        throw new QueryExecutionCanceledException(
+            "Query was canceled. It may be due to low memory or the query was running longer than the MAX_QUERY_EXECUTION_TIME.");
+      }
+    } finally {
+      setPdxReadSerialized(this.cache, false);
+    }
+  }
+
+  private QueryResultStream executeStreamingOnServer(Object[] parameters) {
+    if (this.proxyCache != null) {
+      if (this.proxyCache.isClosed()) {
+        throw new CacheClosedException("Cache is closed for this user.");
+      }
+      UserAttributes.userAttributes.set(this.proxyCache.getUserAttributes());
+    }
+    try {
+      return this.serverProxy.queryStreaming(this.queryString, parameters);
+    } finally {
+      UserAttributes.userAttributes.set(null);
+    }
+  }
+
   /**
    * Execute a PR Query on the specified bucket. Assumes query already meets restrictions for PR
    * Query, and the first iterator in the FROM clause can be replaced with the BucketRegion.
@@ -67,6 +67,15 @@ public class DefaultQueryService implements InternalQueryService {
   public static boolean ALLOW_UNTRUSTED_METHOD_INVOCATION = Boolean.getBoolean(
       DistributionConfig.GEMFIRE_PREFIX + "QueryService.allowUntrustedMethodInvocation");
 
+  /**
+   * System property to read attributes and invoke methods of query expressions through method
+   * handles created once per class, instead of through reflection on every evaluation. By default
+   * its set to true.
+   */
+  public static boolean USE_METHOD_HANDLES = Boolean
+      .valueOf(System.getProperty(
+          DistributionConfig.GEMFIRE_PREFIX + "QueryService.useMethodHandles", "true"))
+      .booleanValue();
 
   /** Test purpose only */
   public static boolean TEST_QUERY_HETEROGENEOUS_OBJECTS = false;
@@ -153,6 +162,13 @@ public class DefaultQueryService implements InternalQueryService {
     return createIndex(indexName, IndexType.FUNCTIONAL, indexedExpression, fromClause, imports);
   }
 
+  public Index createIndex(String indexName, String indexedExpression, String fromClause,
+      String imports, String[] coveredFields)
+      throws IndexNameConflictException, IndexExistsException, RegionNotFoundException {
+    return createIndex(indexName, IndexType.FUNCTIONAL, indexedExpression, fromClause, imports,
+        true, null, coveredFields);
+  }
+
   public Index createKeyIndex(String indexName, String indexedExpression, String fromClause)
       throws IndexNameConflictException, IndexExistsException, RegionNotFoundException {
     return createIndex(indexName, IndexType.PRIMARY_KEY, indexedExpression, fromClause, null);
@@ -174,6 +190,14 @@ public class DefaultQueryService implements InternalQueryService {
   public Index createIndex(String indexName, IndexType indexType, String indexedExpression,
       String fromClause, String imports, boolean loadEntries, Region region)
       throws IndexNameConflictException, IndexExistsException, RegionNotFoundException {
+    return createIndex(indexName, indexType, indexedExpression, fromClause, imports, loadEntries,
+        region, null);
+  }
+
+  public Index createIndex(String indexName, IndexType indexType, String indexedExpression,
+      String fromClause, String imports, boolean loadEntries, Region region,
+      String[] coveredFields)
+      throws IndexNameConflictException, IndexExistsException, RegionNotFoundException {
 
 
     if (pool != null) {
@@ -205,7 +229,7 @@ public class DefaultQueryService implements InternalQueryService {
     if (region instanceof PartitionedRegion) {
       try {
         parIndex = (PartitionedIndex) ((PartitionedRegion) region).createIndex(false, indexType,
-            indexName, indexedExpression, fromClause, imports, loadEntries);
+            indexName, indexedExpression, fromClause, imports, loadEntries, true, coveredFields);
       } catch (ForceReattemptException ex) {
         region.getCache().getLoggerI18n().info(
             LocalizedStrings.DefaultQueryService_EXCEPTION_WHILE_CREATING_INDEX_ON_PR_DEFAULT_QUERY_PROCESSOR,
@@ -221,7 +245,7 @@ public class DefaultQueryService implements InternalQueryService {
 
       IndexManager indexManager = IndexUtils.getIndexManager(region, true);
       Index index = indexManager.createIndex(indexName, indexType, indexedExpression, fromClause,
-          imports, null, null, loadEntries);
+          imports, null, null, loadEntries, coveredFields);
 
       return index;
     }
@@ -918,7 +942,8 @@ public class DefaultQueryService implements InternalQueryService {
         // the region is not PR. For PR creation and population is done in
         // the PartitionedRegion#createDefinedIndexes
         indexes.add(createIndex(icd.getIndexName(), icd.getIndexType(), icd.getIndexExpression(),
-            icd.getIndexFromClause(), icd.getIndexImportString(), false, region));
+            icd.getIndexFromClause(), icd.getIndexImportString(), false, region,
+            icd.getCoveredFields()));
       } catch (Exception ex) {
         // If an index creation fails, add the exception to the map and
         // continue creating rest of the indexes.The failed indexes will
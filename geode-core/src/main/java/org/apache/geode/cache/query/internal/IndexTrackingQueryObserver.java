@@ -28,7 +28,9 @@ import java.util.Set;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 
 import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.index.CompactMapRangeIndex;
+import org.apache.geode.cache.query.internal.index.IndexProtocol;
 import org.apache.geode.cache.query.internal.index.MapRangeIndex;
 import org.apache.geode.internal.cache.PartitionedRegionQueryEvaluator.TestHook;
 
@@ -58,6 +60,14 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
       iInfo = new IndexInfo();
     }
     iInfo.addRegionId(index.getRegion().getFullPath());
+    if (index instanceof IndexProtocol && !(key instanceof Object[])) {
+      try {
+        iInfo.addEstimate(index.getRegion().getFullPath(),
+            ((IndexProtocol) index).getSizeEstimate(key, oper, 0));
+      } catch (TypeMismatchException | RuntimeException ignore) {
+        // the lookup is traced without an estimate
+      }
+    }
     indexMap.put(indexName, iInfo);
     this.lastIndexUsed.set(index);
     this.lastKeyUsed.set(key);
@@ -82,6 +92,15 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
       iInfo = new IndexInfo();
     }
     iInfo.addRegionId(index.getRegion().getFullPath());
+    if (index instanceof IndexProtocol && NotEqualKeys == null) {
+      try {
+        iInfo.addEstimate(index.getRegion().getFullPath(), ((IndexProtocol) index)
+            .getSizeEstimate(lowerBoundKey, lowerBoundOperator, upperBoundKey,
+                upperBoundOperator, 0));
+      } catch (TypeMismatchException | RuntimeException ignore) {
+        // the lookup is traced without an estimate
+      }
+    }
     indexMap.put(index.getName(), iInfo);
     this.lastIndexUsed.set(index);
     if (th != null) {
@@ -164,10 +183,27 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
     // A {RegionFullPath, results} map for an Index lookup on a Region.
     private Map<String, Integer> results = new Object2ObjectOpenHashMap();
 
+    // A {RegionFullPath, estimated results} map, for the lookups the index could estimate
+    private Map<String, Integer> estimates = new Object2ObjectOpenHashMap();
+
     public Map getResults() {
       return results;
     }
 
+    public Map getEstimates() {
+      return estimates;
+    }
+
+    /**
+     * Records the number of results the index estimated the lookup on a Region to return, which
+     * the query planner used to order the lookups.
+     */
+    public void addEstimate(String regionId, int estimate) {
+      if (estimate >= 0) {
+        this.estimates.put(regionId, estimate);
+      }
+    }
+
     /**
      * Adds a results map (mostly a bucket index lookup results) to the "this" IndexInfo.
      *
@@ -194,11 +230,19 @@ public class IndexTrackingQueryObserver extends QueryObserverAdapter {
       for (Integer i : results.values()) {
         total += i.intValue();
       }
-      return "(Results: " + total + ")";
+      if (estimates.isEmpty()) {
+        return "(Results: " + total + ")";
+      }
+      long estimated = 0;
+      for (Integer i : estimates.values()) {
+        estimated += i.intValue();
+      }
+      return "(Results: " + total + ", Estimated: " + estimated + ")";
     }
 
     public void merge(IndexInfo src) {
       this.addResults(src.getResults());
+      this.estimates.putAll(src.getEstimates());
     }
   }
 
@@ -16,8 +16,12 @@
 package org.apache.geode.cache.query.internal;
 
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -39,10 +43,14 @@ import org.apache.geode.internal.i18n.LocalizedStrings;
  */
 
 public class MethodDispatch {
+  private static final MethodType INVOKE_TYPE =
+      MethodType.methodType(Object.class, Object.class, Object[].class);
+
   private Class _targetClass;
   private String _methodName;
   private Class[] _argTypes;
   private Method _method; // remember the right method
+  private MethodHandle _methodHandle; // invokes the method, null to invoke it through reflection
   private MethodInvocationAuthorizer _methodInvocationAuthorizer;
 
   public MethodDispatch(MethodInvocationAuthorizer methodInvocationAuthorizer, Class targetClass,
@@ -56,12 +64,46 @@ public class MethodDispatch {
     // override security in case this is a method on a nonpublic class
     // with a public method
     _method.setAccessible(true);
+    if (DefaultQueryService.USE_METHOD_HANDLES) {
+      _methodHandle = createMethodHandle(_method);
+    }
+  }
+
+  /**
+   * Returns a handle of type (Object, Object[])Object invoking the given method, or null if the
+   * method is to be invoked through reflection. Reflection is kept for methods with primitive
+   * parameters, as it widens the arguments passed for them where a method handle does not.
+   */
+  private static MethodHandle createMethodHandle(Method method) {
+    Class[] parameterTypes = method.getParameterTypes();
+    for (Class parameterType : parameterTypes) {
+      if (parameterType.isPrimitive()) {
+        return null;
+      }
+    }
+    try {
+      MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+      if (Modifier.isStatic(method.getModifiers())) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      return handle.asSpreader(Object[].class, parameterTypes.length).asType(INVOKE_TYPE);
+    } catch (IllegalAccessException e) {
+      return null;
+    }
   }
 
   public Object invoke(Object target, List args)
       throws NameNotFoundException, QueryInvocationTargetException {
     Object[] argsArray = args.toArray();
 
+    if (_methodHandle != null) {
+      _methodInvocationAuthorizer.authorizeMethodInvocation(_method, target);
+      try {
+        return (Object) _methodHandle.invokeExact(target, argsArray);
+      } catch (Throwable t) {
+        throw new QueryInvocationTargetException(t);
+      }
+    }
     try {
       _methodInvocationAuthorizer.authorizeMethodInvocation(_method, target);
       return _method.invoke(target, argsArray);
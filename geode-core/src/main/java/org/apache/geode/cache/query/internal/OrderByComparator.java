@@ -138,6 +138,13 @@ public class OrderByComparator implements Comparator {
     // No op
   }
 
+  /**
+   * Forgets the sort criteria evaluated for a row that has been dropped from the results.
+   */
+  void removeEvaluatedSortCriteria(Object row) {
+    // No op
+  }
+
   private int compareHelperMethod(Object obj1, Object obj2) {
     if (obj1 == null || obj2 == null) {
       return compareIfOneOrMoreNull(obj1, obj2);
@@ -50,6 +50,11 @@ public class OrderByComparatorMapped extends OrderByComparator {
     this.orderByMap.put(row, this.calculateSortCriteria(context, row));
   }
 
+  @Override
+  void removeEvaluatedSortCriteria(Object row) {
+    this.orderByMap.remove(row);
+  }
+
   @Override
   public int evaluateSortCriteria(Object obj1, Object obj2) {
     int result = -1;
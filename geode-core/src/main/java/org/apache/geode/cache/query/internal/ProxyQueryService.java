@@ -124,6 +124,14 @@ public class ProxyQueryService implements QueryService {
         "Index creation on the server is not supported from the client.");
   }
 
+  public Index createIndex(String indexName, String indexedExpression, String fromClause,
+      String imports, String[] coveredFields) throws IndexInvalidException,
+      IndexNameConflictException, IndexExistsException, RegionNotFoundException,
+      UnsupportedOperationException {
+    throw new UnsupportedOperationException(
+        "Index creation on the server is not supported from the client.");
+  }
+
   public Index createKeyIndex(String indexName, String indexedExpression, String fromClause)
       throws IndexInvalidException, IndexNameConflictException, IndexExistsException,
       RegionNotFoundException, UnsupportedOperationException {
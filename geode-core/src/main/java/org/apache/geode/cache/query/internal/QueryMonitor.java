@@ -172,6 +172,26 @@ public class QueryMonitor implements Runnable {
     }
   }
 
+  /**
+   * Returns the cancellation status of the query executed by the current thread, for threads that
+   * help to execute the query to share with {@link #setQueryExecutionStatus}.
+   */
+  public static AtomicBoolean getQueryExecutionStatus() {
+    return queryExecutionStatus.get();
+  }
+
+  /**
+   * Makes the current thread share the given cancellation status, so that
+   * {@link #isQueryExecutionCanceled()} throws once the query is canceled.
+   *
+   * @return the previous status of the thread, to be restored once it is done with the query
+   */
+  public static AtomicBoolean setQueryExecutionStatus(AtomicBoolean status) {
+    AtomicBoolean previous = queryExecutionStatus.get();
+    queryExecutionStatus.set(status);
+    return previous;
+  }
+
   /**
    * Stops query monitoring.
    */
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+
+/**
+ * Caches the results of local queries keyed by the query string and its bind parameters. A cached
+ * result is only returned while none of the regions the query reads from has been changed in this
+ * member since the query was executed, which {@link LocalRegion#getModificationCount()} tells. A
+ * partitioned region is only cached while this member is its only data store, and regions with
+ * asynchronous index maintenance are not cached at all. Nothing is cached while the cache copies on
+ * read, since the results would share the values they return.
+ *
+ * The cache is disabled unless {@link #SIZE_PROPERTY} is set to the maximum number of results to
+ * keep, and about the least recently used result is dropped once it is full. Results returned from
+ * the cache are shared by all the queries that hit it, so they must not be modified. Queries whose
+ * results depend on something other than the contents of their regions, such as the time or a
+ * method with side effects, should not be run with the cache enabled.
+ *
+ * @since Geode 1.4
+ */
+public class QueryResultCache {
+
+  /**
+   * System property to set the maximum number of query results cached by each cache. By default
+   * query results are not cached.
+   */
+  public static final String SIZE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "Query.RESULT_CACHE_SIZE";
+
+  private final InternalCache cache;
+
+  private final int maxSize;
+
+  private final Map<Key, CachedResult> results = new ConcurrentHashMap<>();
+
+  public QueryResultCache(InternalCache cache, int maxSize) {
+    this.cache = cache;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Creates the key of the result of a query, recording the current modification counts of the
+   * regions the query reads from.
+   *
+   * @return the key, or null if the result of the query cannot be cached
+   */
+  public Key createKey(DefaultQuery query, Object[] params) {
+    if (query.isCqQuery() || query.isQueryWithFunctionContext() || this.cache.getCopyOnRead()) {
+      return null;
+    }
+    for (Object param : params) {
+      if (!isImmutable(param)) {
+        return null;
+      }
+    }
+    Set regionPaths = query.getRegionsInQuery(params);
+    if (regionPaths.isEmpty()) {
+      return null;
+    }
+    LocalRegion[] regions = new LocalRegion[regionPaths.size()];
+    long[] modificationCounts = new long[regions.length];
+    int i = 0;
+    for (Object path : regionPaths) {
+      Region region = this.cache.getRegion((String) path);
+      if (!(region instanceof LocalRegion) || !isLocal((LocalRegion) region)
+          || !region.getAttributes().getIndexMaintenanceSynchronous()) {
+        // with asynchronous index maintenance an index may not reflect the changes counted yet
+        return null;
+      }
+      regions[i] = (LocalRegion) region;
+      modificationCounts[i] = regions[i].getModificationCount();
+      i++;
+    }
+    return new Key(query, params.clone(), regions, modificationCounts);
+  }
+
+  /**
+   * Returns the cached result for a key, or null if there is none or the regions of the query
+   * have been changed since it was cached.
+   */
+  public Object get(Key key) {
+    CachedResult cached = this.results.get(key);
+    if (cached != null && !cached.isValidFor(key)) {
+      this.results.remove(key, cached);
+      cached = null;
+    }
+    CachePerfStats stats = this.cache.getCachePerfStats();
+    if (cached == null) {
+      stats.incQueryResultCacheMisses();
+      return null;
+    }
+    cached.lastUsed = System.nanoTime();
+    stats.incQueryResultCacheHits();
+    return cached.result;
+  }
+
+  /**
+   * Caches the result of a query that was executed after its key was created.
+   */
+  public void put(Key key, Object result) {
+    if (!(result instanceof SelectResults)) {
+      return;
+    }
+    this.results.put(key, new CachedResult(result, key.regions, key.modificationCounts));
+    while (this.results.size() > this.maxSize) {
+      if (!removeLeastRecentlyUsed(key)) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Removes the result, other than the one of the given key, that was used the longest time ago.
+   * Results used concurrently may be seen as less recently used than they are.
+   *
+   * @return false if there was no other result
+   */
+  private boolean removeLeastRecentlyUsed(Key keep) {
+    Map.Entry<Key, CachedResult> eldest = null;
+    for (Map.Entry<Key, CachedResult> entry : this.results.entrySet()) {
+      if (!entry.getKey().equals(keep)
+          && (eldest == null || entry.getValue().lastUsed < eldest.getValue().lastUsed)) {
+        eldest = entry;
+      }
+    }
+    if (eldest == null) {
+      return false;
+    }
+    this.results.remove(eldest.getKey(), eldest.getValue());
+    return true;
+  }
+
+  /**
+   * Removes the results of the queries that read from a region, so that they do not keep it from
+   * being garbage collected once it is destroyed.
+   */
+  public void removeResultsOf(LocalRegion region) {
+    this.results.values().removeIf(cached -> Arrays.asList(cached.regions).contains(region));
+  }
+
+  public void clear() {
+    this.results.clear();
+  }
+
+  public int size() {
+    return this.results.size();
+  }
+
+  private static boolean isImmutable(Object param) {
+    return param == null || param instanceof String || param instanceof Integer
+        || param instanceof Long || param instanceof Short || param instanceof Byte
+        || param instanceof Double || param instanceof Float || param instanceof Boolean
+        || param instanceof Character || param instanceof Enum;
+  }
+
+  /**
+   * Returns whether every change to the data a query on the region sees is applied in this
+   * member, and so counted by its modification count.
+   */
+  private static boolean isLocal(LocalRegion region) {
+    if (region.isDestroyed()) {
+      return false;
+    }
+    if (region instanceof PartitionedRegion) {
+      PartitionedRegion pr = (PartitionedRegion) region;
+      return pr.getDataStore() != null && pr.getRegionAdvisor().adviseDataStore().isEmpty();
+    }
+    return true;
+  }
+
+  /**
+   * The query string and bind parameters of a cached result, along with the regions the query
+   * reads from and their modification counts when the key was created.
+   */
+  public static class Key {
+    private final String queryString;
+
+    private final Object[] params;
+
+    private final boolean remoteQuery;
+
+    private final boolean keepSerialized;
+
+    private final LocalRegion[] regions;
+
+    private final long[] modificationCounts;
+
+    private final int hashCode;
+
+    Key(DefaultQuery query, Object[] params, LocalRegion[] regions, long[] modificationCounts) {
+      this.queryString = query.getQueryString();
+      this.params = params;
+      this.remoteQuery = query.isRemoteQuery();
+      this.keepSerialized = query.isKeepSerialized();
+      this.regions = regions;
+      this.modificationCounts = modificationCounts;
+      this.hashCode = 31 * this.queryString.hashCode() + Arrays.hashCode(params);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return this.queryString.equals(key.queryString) && Arrays.equals(this.params, key.params)
+          && this.remoteQuery == key.remoteQuery && this.keepSerialized == key.keepSerialized;
+    }
+  }
+
+  private static class CachedResult {
+    private final Object result;
+
+    private final LocalRegion[] regions;
+
+    private final long[] modificationCounts;
+
+    /** when the result was last returned, in nanoseconds, to drop the least recently used one */
+    private volatile long lastUsed = System.nanoTime();
+
+    CachedResult(Object result, LocalRegion[] regions, long[] modificationCounts) {
+      this.result = result;
+      this.regions = regions;
+      this.modificationCounts = modificationCounts;
+    }
+
+    /**
+     * Returns whether the key refers to the same regions, with the same modification counts, as
+     * when this result was cached.
+     */
+    boolean isValidFor(Key key) {
+      return Arrays.equals(this.regions, key.regions)
+          && Arrays.equals(this.modificationCounts, key.modificationCounts);
+    }
+  }
+}
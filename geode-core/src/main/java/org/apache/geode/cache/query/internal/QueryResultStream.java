@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.types.CollectionType;
+
+/**
+ * The results of a query, handed out as they are produced instead of being collected into one
+ * {@link SelectResults} first. The results are produced a batch at a time by a {@link BatchSource},
+ * and the next batch is only asked for once the consumer has gone through the previous one. A slow
+ * consumer therefore holds back the execution of the query, and a consumer that stops early, or a
+ * LIMIT that has been reached, stops it altogether.
+ *
+ * A stream must be {@link #close closed} if it is not read to its end.
+ *
+ * @since Geode 1.4
+ */
+public class QueryResultStream implements AutoCloseable {
+
+  /**
+   * Produces the results of a query a batch at a time.
+   */
+  public interface BatchSource {
+    /**
+     * Returns the next batch of results, or null once there are no more.
+     */
+    SelectResults nextBatch() throws QueryException;
+
+    /**
+     * Stops producing results. Called once, either after the last batch or when the consumer
+     * stops early.
+     */
+    void close();
+  }
+
+  private final BatchSource source;
+
+  /** The most results to hand out, or -1 if there is no limit */
+  private final int limit;
+
+  private int count;
+
+  private CollectionType collectionType;
+
+  private Iterator current;
+
+  private boolean closed;
+
+  public QueryResultStream(BatchSource source, int limit) {
+    this.source = source;
+    this.limit = limit;
+  }
+
+  /**
+   * Returns a stream over results that have already been collected.
+   */
+  public static QueryResultStream of(final SelectResults results) {
+    return new QueryResultStream(new BatchSource() {
+      private boolean done;
+
+      @Override
+      public SelectResults nextBatch() {
+        if (this.done) {
+          return null;
+        }
+        this.done = true;
+        return results;
+      }
+
+      @Override
+      public void close() {
+        // nothing to release
+      }
+    }, -1);
+  }
+
+  /**
+   * Returns the collection type of the results, executing the first batch if it has not been
+   * executed yet. Null if the query produced no batch at all.
+   */
+  public CollectionType getCollectionType() throws QueryException {
+    if (this.collectionType == null && !this.closed) {
+      nextBatch();
+    }
+    return this.collectionType;
+  }
+
+  public boolean hasNext() throws QueryException {
+    while (!this.closed && (this.current == null || !this.current.hasNext())) {
+      nextBatch();
+    }
+    return !this.closed;
+  }
+
+  public Object next() throws QueryException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    this.count++;
+    return this.current.next();
+  }
+
+  private void nextBatch() throws QueryException {
+    if (this.limit >= 0 && this.count >= this.limit) {
+      // no need to execute the query any further
+      close();
+      return;
+    }
+    SelectResults batch;
+    try {
+      batch = this.source.nextBatch();
+    } catch (QueryException | RuntimeException | Error e) {
+      close();
+      throw e;
+    }
+    if (batch == null) {
+      close();
+      return;
+    }
+    if (this.collectionType == null) {
+      this.collectionType = batch.getCollectionType();
+    }
+    this.current = batch.iterator();
+    if (this.limit >= 0) {
+      this.current = new LimitedIterator(this.current, this.limit - this.count);
+    }
+  }
+
+  /**
+   * Stops the query and releases what it holds. Does nothing if the stream is already closed.
+   */
+  @Override
+  public void close() {
+    if (!this.closed) {
+      this.closed = true;
+      this.current = null;
+      this.source.close();
+    }
+  }
+
+  public boolean isClosed() {
+    return this.closed;
+  }
+
+  private static class LimitedIterator implements Iterator {
+    private final Iterator iterator;
+
+    private int remaining;
+
+    LimitedIterator(Iterator iterator, int remaining) {
+      this.iterator = iterator;
+      this.remaining = remaining;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.remaining > 0 && this.iterator.hasNext();
+    }
+
+    @Override
+    public Object next() {
+      if (this.remaining <= 0) {
+        throw new NoSuchElementException();
+      }
+      this.remaining--;
+      return this.iterator.next();
+    }
+  }
+}
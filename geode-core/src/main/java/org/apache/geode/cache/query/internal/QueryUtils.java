@@ -15,6 +15,7 @@
 package org.apache.geode.cache.query.internal;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -25,6 +26,7 @@ import java.util.Set;
 
 import org.apache.logging.log4j.Logger;
 
+import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.AmbiguousNameException;
 import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.Index;
@@ -46,6 +48,7 @@ import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.types.CollectionType;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.cache.query.types.StructType;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.cache.CachePerfStats;
@@ -57,6 +60,66 @@ import org.apache.geode.internal.logging.LogService;
 public class QueryUtils {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * How many times more entries an index lookup has to select than another filter, or than the
+   * results it would be intersected with, before the other filter, or iterating over the results,
+   * is taken to be cheaper.
+   */
+  static final int COST_FACTOR =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.COST_FACTOR", 4);
+
+  /**
+   * Compares the size estimates of two filters. Returns TRUE if the first is clearly cheaper than
+   * the second, FALSE if the second is clearly cheaper and null if neither is by enough to decide,
+   * or if either estimate is unknown.
+   */
+  static Boolean compareSizeEstimates(int thisSize, int thatSize) {
+    if (thisSize < 0 || thatSize < 0 || thisSize == Integer.MAX_VALUE
+        || thatSize == Integer.MAX_VALUE) {
+      return null;
+    }
+    if ((long) thisSize * COST_FACTOR < thatSize) {
+      return Boolean.TRUE;
+    }
+    if ((long) thatSize * COST_FACTOR < thisSize) {
+      return Boolean.FALSE;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the given filters sorted on increasing size estimate, and their estimates in the same
+   * order in sortedEstimates. Each estimate is asked for only once.
+   */
+  static List sortOnIncreasingSizeEstimate(CompiledValue[] filters, ExecutionContext context,
+      int[] sortedEstimates) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    List sortedList = new ArrayList(filters.length);
+    for (int i = 0; i < filters.length; ++i) {
+      Filter toSort = (Filter) filters[i];
+      int estimate = toSort.getSizeEstimate(context);
+      int j = i;
+      // keep filters with equal estimates in their original order
+      while (j > 0 && sortedEstimates[j - 1] > estimate) {
+        sortedEstimates[j] = sortedEstimates[j - 1];
+        --j;
+      }
+      sortedEstimates[j] = estimate;
+      sortedList.add(j, toSort);
+    }
+    return sortedList;
+  }
+
+  /**
+   * Returns true if intersecting the results of an AND junction so far with those of the next
+   * filter, whose index lookup is estimated to select nextEstimate entries, would cost more than
+   * leaving the filter to be applied to the results by iteration.
+   */
+  static boolean isIterationCheaper(SelectResults intermediateResults, int nextEstimate) {
+    return nextEstimate >= 0 && nextEstimate != Integer.MAX_VALUE
+        && nextEstimate > (long) intermediateResults.size() * COST_FACTOR;
+  }
+
   /**
    * Return a SelectResults that is the intersection of c1 and c2. May or may not return a modified
    * c1 or c2.
@@ -947,6 +1010,39 @@ public class QueryUtils {
     return indexData;
   }
 
+  /**
+   * Returns the composite index, if any, that can be used for the most of the given conditions of
+   * the group of the independent iterator.
+   *
+   * @param rIter the independent iterator the paths of the conditions depend on
+   * @param equalityExpressions the canonicalized paths of the equality conditions
+   * @param rangeExpressions the canonicalized paths of the range conditions
+   * @param context ExecutionContext object
+   * @return IndexData of the composite index or null
+   */
+  static IndexData getAvailableCompositeIndexIfAny(RuntimeIterator rIter,
+      Collection<String> equalityExpressions, Collection<String> rangeExpressions,
+      ExecutionContext context) {
+    String regionPath;
+    if (!IndexUtils.indexesEnabled
+        || rIter.getScopeID() != context.currentScope().getScopeID()
+        || (regionPath = context.getRegionPathForIndependentRuntimeIterator(rIter)) == null) {
+      return null;
+    }
+    List groupRuntimeItrs = context.getCurrScopeDpndntItrsBasedOnSingleIndpndntItr(rIter);
+    String[] definitions = new String[groupRuntimeItrs.size()];
+    for (int i = 0; i < definitions.length; i++) {
+      definitions[i] = ((RuntimeIterator) groupRuntimeItrs.get(i)).getDefinition();
+    }
+    Region region = context.getCache().getRegion(regionPath);
+    IndexManager indexManager = region == null ? null : IndexUtils.getIndexManager(region, false);
+    if (indexManager == null) {
+      return null;
+    }
+    return indexManager.getBestMatchCompositeIndex(definitions, equalityExpressions,
+        rangeExpressions, context);
+  }
+
   /**
    * Conditions the raw index result obtained on a non composite condition ( i.e a condition with a
    * format of variable = constant . A constant may be either a CompiledLiteral or an expression
@@ -33,6 +33,7 @@ import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.IndexProtocol;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
@@ -114,9 +115,18 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
     // return the one with lower size estimate is better
     boolean isThisBetter = true;
 
+    int thatSize = comparedTo.getSizeEstimate(context);
+
     // Go with the lowest cost when hint is used.
     if (context instanceof QueryExecutionContext && ((QueryExecutionContext) context).hasHints()) {
-      return thisSize <= comparedTo.getSizeEstimate(context);
+      return thisSize <= thatSize;
+    }
+
+    // Prefer the filter that the index statistics estimate to select far fewer entries; the
+    // rules on the operators below only decide between filters of about the same cost.
+    Boolean isThisCheaper = QueryUtils.compareSizeEstimates(thisSize, thatSize);
+    if (isThisCheaper != null) {
+      return isThisCheaper;
     }
 
     int thatOperator = comparedTo.getOperator();
@@ -517,11 +527,25 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
     Support.assertionFailed("Should not have come here");
   }
 
-  public int getSizeEstimate(ExecutionContext context) {
-    // TODO:Asif:Try to estimate better
+  public int getSizeEstimate(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    // The conditions are combined into the evaluator that will be used for them, which asks the
+    // index for the number of entries in the range
+    OrganizedOperands organized = organizeOperands(context);
+    if (organized.isSingleFilter) {
+      return organized.filterOperand.getSizeEstimate(context);
+    }
     return RANGE_SIZE_ESTIMATE;
   }
 
+  /**
+   * Returns the estimate an index gave for a range, or the fixed range estimate if the index could
+   * not estimate it.
+   */
+  private static int toRangeSizeEstimate(int indexEstimate) {
+    return indexEstimate < 0 ? RANGE_SIZE_ESTIMATE : indexEstimate;
+  }
+
   /*
    * private organizeOperandsForORJunction() { }
    */
@@ -821,8 +845,14 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       return NOTEQUALCONDITIONEVALUATOR;
     }
 
-    public int getSizeEstimate(ExecutionContext context) {
-      return RANGE_SIZE_ESTIMATE;
+    public int getSizeEstimate(ExecutionContext context) throws TypeMismatchException {
+      if (this.notEqualTypeKeys == null || this.notEqualTypeKeys.isEmpty()) {
+        return RANGE_SIZE_ESTIMATE;
+      }
+      // the entries not equal to one of the keys are an upper bound for those equal to none
+      Object key = this.notEqualTypeKeys.iterator().next();
+      return toRangeSizeEstimate(
+          this.indxInfo._index.getSizeEstimate(key, TOK_NE, this.indxInfo._matchLevel));
     }
 
     @Override
@@ -843,10 +873,19 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
 
       int thatOperator = comparedTo.getOperator();
 
+      int thatSize = comparedTo.getSizeEstimate(context);
+
       // Go with the lowest cost when hint is used.
       if (context instanceof QueryExecutionContext
           && ((QueryExecutionContext) context).hasHints()) {
-        return thisSize <= comparedTo.getSizeEstimate(context);
+        return thisSize <= thatSize;
+      }
+
+      // Prefer the filter that the index statistics estimate to select far fewer entries; the
+      // rules on the operators below only decide between filters of about the same cost.
+      Boolean isThisCheaper = QueryUtils.compareSizeEstimates(thisSize, thatSize);
+      if (isThisCheaper != null) {
+        return isThisCheaper;
       }
 
       switch (thatOperator) {
@@ -902,6 +941,12 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       this.condnKey = key;
     }
 
+    @Override
+    public int getSizeEstimate(ExecutionContext context) throws TypeMismatchException {
+      return toRangeSizeEstimate(this.indxInfo._index.getSizeEstimate(this.condnKey, this.condnOp,
+          this.indxInfo._matchLevel));
+    }
+
     @Override
     public SelectResults filterEvaluate(ExecutionContext context, SelectResults iterationLimit,
         boolean completeExpansionNeeded, CompiledValue iterOperands, RuntimeIterator[] indpndntItrs,
@@ -1031,6 +1076,24 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       this.greaterCondnKey = greaterCondnKey;
     }
 
+    @Override
+    public int getSizeEstimate(ExecutionContext context) throws TypeMismatchException {
+      IndexProtocol index = this.indxInfo._index;
+      int matchLevel = this.indxInfo._matchLevel;
+      int size = index.getSizeEstimate(this.greaterCondnKey, this.greaterCondnOp,
+          this.lessCondnKey, this.lessCondnOp, matchLevel);
+      if (size < 0) {
+        // the range holds no more entries than either of its open ended halves
+        int greaterSize = index.getSizeEstimate(this.greaterCondnKey, this.greaterCondnOp,
+            matchLevel);
+        int lessSize = index.getSizeEstimate(this.lessCondnKey, this.lessCondnOp, matchLevel);
+        if (greaterSize >= 0 && lessSize >= 0) {
+          size = Math.min(greaterSize, lessSize);
+        }
+      }
+      return toRangeSizeEstimate(size);
+    }
+
     @Override
     public SelectResults filterEvaluate(ExecutionContext context, SelectResults iterationLimit)
         throws FunctionDomainException, TypeMismatchException, NameResolutionException,
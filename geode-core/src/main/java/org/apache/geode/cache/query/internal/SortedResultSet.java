@@ -37,6 +37,8 @@ public class SortedResultSet extends TreeSet
   private static final long serialVersionUID = 5184711453750319224L;
 
   private ObjectType elementType;
+  /** The number of elements kept when the set is bounded by a limit, zero if it is not */
+  private transient int maxSize;
 
   public SortedResultSet() {}
 
@@ -58,6 +60,33 @@ public class SortedResultSet extends TreeSet
     super(c);
   }
 
+  /**
+   * Bounds this set to the given number of elements, dropping the greatest one whenever an addition
+   * exceeds it, so that an ORDER BY with a LIMIT keeps only the results it returns instead of
+   * sorting all of them.
+   *
+   * @param maxSize the number of elements to keep, zero for no bound
+   */
+  void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  @Override
+  public boolean add(Object element) {
+    if (!super.add(element)) {
+      return false;
+    }
+    if (this.maxSize > 0 && size() > this.maxSize) {
+      Object greatest = pollLast();
+      Comparator comparator = comparator();
+      if (comparator instanceof OrderByComparator) {
+        ((OrderByComparator) comparator).removeEvaluatedSortCriteria(greatest);
+      }
+      return greatest != element;
+    }
+    return true;
+  }
+
   @Override
   public boolean equals(Object other) {
     if (!(other instanceof SortedResultSet)) {
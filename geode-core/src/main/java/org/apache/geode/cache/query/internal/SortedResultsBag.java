@@ -40,6 +40,8 @@ public class SortedResultsBag<E> extends Bag implements Ordered {
   private final Map<E, Integer> sortedMap;
   private final boolean orderedDataAddition;
   private final boolean emitNullAtStart;
+  /** The number of results kept when the bag is bounded by a limit, zero if it is not */
+  private int maxSize;
 
   /**
    * Constructor for unordered input
@@ -150,6 +152,56 @@ public class SortedResultsBag<E> extends Bag implements Ordered {
     return false;
   }
 
+  /**
+   * Bounds this bag to the given number of results, dropping the greatest result whenever an
+   * addition exceeds it, so that an ORDER BY with a LIMIT keeps only the results it returns
+   * instead of sorting all of them. Only applies to a bag sorted by a comparator.
+   *
+   * @param maxSize the number of results to keep, zero for no bound
+   */
+  void setMaxSize(int maxSize) {
+    assert !this.orderedDataAddition;
+    this.maxSize = maxSize;
+  }
+
+  @Override
+  public boolean add(Object element) {
+    boolean added = super.add(element);
+    if (this.maxSize > 0 && this.size > this.maxSize) {
+      removeGreatest();
+    }
+    return added;
+  }
+
+  @Override
+  public int addAndGetOccurence(Object element) {
+    int occurence = super.addAndGetOccurence(element);
+    if (this.maxSize > 0 && this.size > this.maxSize) {
+      removeGreatest();
+    }
+    return occurence;
+  }
+
+  private void removeGreatest() {
+    if (this.numNulls > 0 && (!this.emitNullAtStart || this.sortedMap.isEmpty())) {
+      this.numNulls--;
+    } else {
+      Map.Entry<E, Integer> greatest = ((TreeMap<E, Integer>) this.sortedMap).lastEntry();
+      int count = greatest.getValue();
+      if (count == 1) {
+        this.sortedMap.remove(greatest.getKey());
+        Comparator comparator = comparator();
+        if (comparator instanceof OrderByComparator) {
+          ((OrderByComparator) comparator).removeEvaluatedSortCriteria(greatest.getKey());
+        }
+      } else {
+        this.sortedMap.put(greatest.getKey(), count - 1);
+      }
+    }
+    this.size--;
+    assert this.size >= 0 : this.size;
+  }
+
   @Override
   protected int mapGet(Object element) {
     Integer count = this.sortedMap.get(element);
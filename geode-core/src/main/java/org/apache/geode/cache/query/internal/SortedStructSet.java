@@ -42,6 +42,8 @@ public class SortedStructSet extends TreeSet
    * Holds value of property modifiable.
    */
   private boolean modifiable = true;
+  /** The number of structs kept when the set is bounded by a limit, zero if it is not */
+  private transient int maxSize;
 
   /** Creates a new instance of StructSet */
   public SortedStructSet() {};
@@ -70,6 +72,17 @@ public class SortedStructSet extends TreeSet
     this.structType = structType;
   }
 
+  /**
+   * Bounds this set to the given number of structs, dropping the greatest one whenever an addition
+   * exceeds it, so that an ORDER BY with a LIMIT keeps only the results it returns instead of
+   * sorting all of them.
+   *
+   * @param maxSize the number of structs to keep, zero for no bound
+   */
+  void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
   @Override
   public boolean equals(Object other) {
     if (!(other instanceof SortedStructSet)) {
@@ -102,7 +115,18 @@ public class SortedStructSet extends TreeSet
    * For internal use. Just add the Object[] values for a struct with same type
    */
   public boolean addFieldValues(Object[] fieldValues) {
-    return super.add(fieldValues);
+    if (!super.add(fieldValues)) {
+      return false;
+    }
+    if (this.maxSize > 0 && size() > this.maxSize) {
+      Object greatest = pollLast();
+      Comparator comparator = comparator();
+      if (comparator instanceof OrderByComparator) {
+        ((OrderByComparator) comparator).removeEvaluatedSortCriteria(greatest);
+      }
+      return greatest != fieldValues;
+    }
+    return true;
   }
 
   /**
@@ -25,7 +25,7 @@ public abstract class AbstractAggregator implements Aggregator {
 
   public static Number downCast(double value) {
     Number retVal;
-    if (value % 1 == 0) {
+    if (value % 1 == 0 && Math.abs(value) < 0x1p63) {
       long longValue = (long) value;
       if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
         retVal = Integer.valueOf((int) longValue);
@@ -41,4 +41,11 @@ public abstract class AbstractAggregator implements Aggregator {
     }
     return retVal;
   }
+
+  public static Number downCast(long value) {
+    if (value <= Integer.MAX_VALUE && value >= Integer.MIN_VALUE) {
+      return Integer.valueOf((int) value);
+    }
+    return Long.valueOf(value);
+  }
 }
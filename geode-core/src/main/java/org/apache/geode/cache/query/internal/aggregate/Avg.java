@@ -39,8 +39,7 @@ public class Avg extends Sum {
 
   @Override
   public Object terminate() {
-    double sum = ((Number) super.terminate()).doubleValue();
-    double result = sum / num;
+    double result = getSum() / num;
     return downCast(result);
   }
 
@@ -23,16 +23,46 @@ import org.apache.geode.cache.query.QueryService;
  */
 public class Sum extends AbstractAggregator {
 
+  /** The sum as long as all the values are integral and it does not overflow */
+  private long longResult = 0;
+
   private double result = 0;
 
+  private boolean isIntegral = true;
+
   @Override
   public void accumulate(Object value) {
     if (value != null && value != QueryService.UNDEFINED) {
       Number number = (Number) value;
-      result += number.doubleValue();
+      if (this.isIntegral) {
+        if (isIntegral(number)) {
+          long longValue = number.longValue();
+          long sum = this.longResult + longValue;
+          // the sum overflows if it has a different sign than both of the values added
+          if (((this.longResult ^ sum) & (longValue ^ sum)) >= 0) {
+            this.longResult = sum;
+            return;
+          }
+        }
+        this.isIntegral = false;
+        this.result = this.longResult;
+      }
+      this.result += number.doubleValue();
     }
   }
 
+  private static boolean isIntegral(Number number) {
+    return number instanceof Integer || number instanceof Long || number instanceof Short
+        || number instanceof Byte;
+  }
+
+  /**
+   * Returns the sum of the values accumulated so far.
+   */
+  protected double getSum() {
+    return this.isIntegral ? this.longResult : this.result;
+  }
+
   @Override
   public void init() {
 
@@ -40,6 +70,6 @@ public class Sum extends AbstractAggregator {
 
   @Override
   public Object terminate() {
-    return downCast(result);
+    return this.isIntegral ? downCast(this.longResult) : downCast(this.result);
   }
 }
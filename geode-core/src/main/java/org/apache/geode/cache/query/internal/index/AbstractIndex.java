@@ -61,6 +61,7 @@ import org.apache.geode.cache.query.internal.Support;
 import org.apache.geode.cache.query.internal.index.IndexStore.IndexStoreEntry;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.cache.BucketRegion;
@@ -138,6 +139,18 @@ public abstract class AbstractIndex implements IndexProtocol {
   /** Flag to indicate if the index is populated with data */
   volatile boolean isPopulated = false;
 
+  /**
+   * The canonicalized expressions of a composite index, whose keys are {@link CompositeIndexKey}s.
+   * Null for an index on a single expression.
+   */
+  private String[] compositeKeyExpressions;
+
+  /**
+   * The fields of the indexed values this index keeps alongside its keys, null if none. Only
+   * compact range indexes on region values keep them, but every index remembers its definition.
+   */
+  private String[] coveredFields;
+
   AbstractIndex(String indexName, Region region, String fromClause, String indexedExpression,
       String projectionAttributes, String originalFromClause, String originalIndexedExpression,
       String[] defintions, IndexStatistics stats) {
@@ -264,6 +277,7 @@ public abstract class AbstractIndex implements IndexProtocol {
           if (bucketIndex == null) {
             continue;
           }
+          bucketIndex.waitForPendingUpdates();
           bucketIndex.lockedQuery(key, operator, results, null/* No Keys to be removed */, context);
 
         }
@@ -273,6 +287,7 @@ public abstract class AbstractIndex implements IndexProtocol {
     } else {
       long start = updateIndexUseStats();
       try {
+        waitForPendingUpdates();
         lockedQuery(key, operator, results, null/* No Keys to be removed */, context);
       } finally {
         updateIndexUseEndStats(start);
@@ -297,6 +312,7 @@ public abstract class AbstractIndex implements IndexProtocol {
           if (bucketIndex == null) {
             continue;
           }
+          bucketIndex.waitForPendingUpdates();
           bucketIndex.lockedQuery(key, operator, results, iterOp, indpndntItr, context, projAttrib,
               intermediateResults, isIntersection);
         }
@@ -306,6 +322,7 @@ public abstract class AbstractIndex implements IndexProtocol {
     } else {
       long start = updateIndexUseStats();
       try {
+        waitForPendingUpdates();
         lockedQuery(key, operator, results, iterOp, indpndntItr, context, projAttrib,
             intermediateResults, isIntersection);
       } finally {
@@ -330,6 +347,7 @@ public abstract class AbstractIndex implements IndexProtocol {
           if (bucketIndex == null) {
             continue;
           }
+          bucketIndex.waitForPendingUpdates();
           bucketIndex.lockedQuery(key, operator, results, keysToRemove, context);
         }
       } finally {
@@ -338,6 +356,7 @@ public abstract class AbstractIndex implements IndexProtocol {
     } else {
       long start = updateIndexUseStats();
       try {
+        waitForPendingUpdates();
         lockedQuery(key, operator, results, keysToRemove, context);
       } finally {
         updateIndexUseEndStats(start);
@@ -363,6 +382,7 @@ public abstract class AbstractIndex implements IndexProtocol {
           if (bucketIndex == null) {
             continue;
           }
+          bucketIndex.waitForPendingUpdates();
           bucketIndex.lockedQuery(temp, OQLLexerTokenTypes.TOK_NE, results,
               iterator.hasNext() ? keysToRemove : null, context);
         }
@@ -372,6 +392,7 @@ public abstract class AbstractIndex implements IndexProtocol {
     } else {
       long start = updateIndexUseStats();
       try {
+        waitForPendingUpdates();
         lockedQuery(temp, OQLLexerTokenTypes.TOK_NE, results,
             iterator.hasNext() ? keysToRemove : null, context);
       } finally {
@@ -397,6 +418,7 @@ public abstract class AbstractIndex implements IndexProtocol {
             if (bucketIndex == null) {
               continue;
             }
+            bucketIndex.waitForPendingUpdates();
             bucketIndex.lockedQuery(lowerBoundKey, lowerBoundOperator, upperBoundKey,
                 upperBoundOperator, results, keysToRemove, context);
           }
@@ -407,6 +429,7 @@ public abstract class AbstractIndex implements IndexProtocol {
     } else {
       long start = updateIndexUseStats();
       try {
+        waitForPendingUpdates();
         lockedQuery(lowerBoundKey, lowerBoundOperator, upperBoundKey, upperBoundOperator, results,
             keysToRemove, context);
       } finally {
@@ -415,6 +438,21 @@ public abstract class AbstractIndex implements IndexProtocol {
     }
   }
 
+  /**
+   * Waits for the pending updates of the index if the region maintains its indexes
+   * asynchronously and queries are configured to wait for them.
+   *
+   * @see IndexManager#ASYNC_UPDATE_WAIT_TIME
+   */
+  void waitForPendingUpdates() {
+    if (IndexManager.ASYNC_UPDATE_WAIT_TIME > 0) {
+      IndexManager indexManager = IndexUtils.getIndexManager(this.region, false);
+      if (indexManager != null) {
+        indexManager.waitForPendingUpdates();
+      }
+    }
+  }
+
   @Override
   public List queryEquijoinCondition(IndexProtocol index, ExecutionContext context)
       throws TypeMismatchException, FunctionDomainException, NameResolutionException,
@@ -461,6 +499,34 @@ public abstract class AbstractIndex implements IndexProtocol {
     return this.indexedExpression;
   }
 
+  /**
+   * Returns the canonicalized expressions of a composite index, or null if this index is on a
+   * single expression.
+   */
+  public String[] getCompositeKeyExpressions() {
+    return this.compositeKeyExpressions;
+  }
+
+  void setCompositeKeyExpressions(String[] compositeKeyExpressions) {
+    this.compositeKeyExpressions = compositeKeyExpressions;
+  }
+
+  /**
+   * Returns the fields of the indexed values this index was created to keep alongside its keys,
+   * or null if it was created without covered fields.
+   */
+  public String[] getCoveredFields() {
+    return this.coveredFields;
+  }
+
+  /**
+   * Sets the fields of the indexed values to keep alongside the keys. Has to be called before the
+   * index evaluator is instantiated.
+   */
+  public void setCoveredFields(String[] coveredFields) {
+    this.coveredFields = coveredFields;
+  }
+
   /**
    * Get the original fromClause for this index.
    */
@@ -662,6 +728,30 @@ public abstract class AbstractIndex implements IndexProtocol {
     }
   }
 
+  /**
+   * Adds a result whose projection attributes have already been evaluated, like
+   * {@link #applyProjection} does for the ones it evaluates.
+   *
+   * @param values the values of the projection attributes, in their order
+   */
+  void applyProjectedValues(Object[] values, ExecutionContext context, Collection result,
+      SelectResults intermediateResults, boolean isIntersection)
+      throws QueryInvocationTargetException {
+    boolean isStruct = result instanceof SelectResults
+        && ((SelectResults) result).getCollectionType().getElementType() != null
+        && ((SelectResults) result).getCollectionType().getElementType().isStructType();
+    if (isStruct) {
+      for (int i = 0; i < values.length; i++) {
+        values[i] = deserializePdxForLocalDistinctQuery(context, values[i]);
+      }
+      this.addToStructsWithUnionOrIntersection(result, intermediateResults, isIntersection,
+          values);
+    } else {
+      this.addToResultsWithUnionOrIntersection(result, intermediateResults, isIntersection,
+          deserializePdxForLocalDistinctQuery(context, values[0]));
+    }
+  }
+
   /**
    * For local queries with distinct, deserialize all PdxInstances as we do not have a way to
    * compare Pdx and non Pdx objects in case the cache has a mix of pdx and non pdx objects. We
@@ -1537,6 +1627,8 @@ public abstract class AbstractIndex implements IndexProtocol {
       return getReceiverNameFromPath(path.getReceiver());
     } else if (path instanceof CompiledIndexOperation) {
       return getReceiverNameFromPath(path.getReceiver());
+    } else if (path.getType() == CompiledValue.COMPOSITE_INDEX_CONDITION) {
+      return getReceiverNameFromPath(path.getReceiver());
     }
     return "";
   }
@@ -2031,6 +2123,47 @@ public abstract class AbstractIndex implements IndexProtocol {
     return key;
   }
 
+  /**
+   * Returns the histogram of the keys of this index, or null if it does not keep one.
+   */
+  KeyHistogram getKeyHistogram() {
+    return null;
+  }
+
+  /**
+   * Returns the number of entries whose key satisfies {@code key operator bound}, estimated from
+   * the histogram of the keys of this index, or -1 if it can not be estimated that way.
+   */
+  int estimateFromHistogram(Object bound, int operator) throws TypeMismatchException {
+    KeyHistogram histogram = getKeyHistogram();
+    if (histogram == null || isNullOrUndefined(bound)) {
+      return -1;
+    }
+    return histogram.estimate(getPdxStringForIndexedPdxKeys(TypeUtils.indexKeyFor(bound)),
+        operator);
+  }
+
+  public int getSizeEstimate(Object lowerBoundKey, int lowerBoundOperator, Object upperBoundKey,
+      int upperBoundOperator, int matchLevel) throws TypeMismatchException {
+    KeyHistogram histogram = getKeyHistogram();
+    if (histogram == null || matchLevel > 0 || isNullOrUndefined(lowerBoundKey)
+        || isNullOrUndefined(upperBoundKey)) {
+      return -1;
+    }
+    long start = updateIndexUseStats(false);
+    try {
+      return histogram.estimate(
+          getPdxStringForIndexedPdxKeys(TypeUtils.indexKeyFor(lowerBoundKey)), lowerBoundOperator,
+          getPdxStringForIndexedPdxKeys(TypeUtils.indexKeyFor(upperBoundKey)), upperBoundOperator);
+    } finally {
+      updateIndexUseEndStats(start, false);
+    }
+  }
+
+  private static boolean isNullOrUndefined(Object key) {
+    return key == null || key == IndexManager.NULL || key == QueryService.UNDEFINED;
+  }
+
   boolean acquireIndexReadLockForRemove() {
     boolean success = this.removeIndexLock.readLock().tryLock();
     if (success) {
@@ -15,6 +15,7 @@
 package org.apache.geode.cache.query.internal.index;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -22,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.logging.log4j.Logger;
 
@@ -30,6 +33,7 @@ import org.apache.geode.cache.EntryDestroyedException;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.AmbiguousNameException;
 import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameNotFoundException;
 import org.apache.geode.cache.query.IndexStatistics;
 import org.apache.geode.cache.query.IndexType;
 import org.apache.geode.cache.query.NameResolutionException;
@@ -38,6 +42,7 @@ import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.CompiledBindArgument;
+import org.apache.geode.cache.query.internal.CompiledID;
 import org.apache.geode.cache.query.internal.CompiledIteratorDef;
 import org.apache.geode.cache.query.internal.CompiledLiteral;
 import org.apache.geode.cache.query.internal.CompiledPath;
@@ -46,6 +51,7 @@ import org.apache.geode.cache.query.internal.CompiledValue;
 import org.apache.geode.cache.query.internal.CqEntry;
 import org.apache.geode.cache.query.internal.ExecutionContext;
 import org.apache.geode.cache.query.internal.IndexInfo;
+import org.apache.geode.cache.query.internal.PathUtils;
 import org.apache.geode.cache.query.internal.QRegion;
 import org.apache.geode.cache.query.internal.QueryMonitor;
 import org.apache.geode.cache.query.internal.QueryObserver;
@@ -66,6 +72,7 @@ import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeap;
 import org.apache.geode.internal.cache.persistence.query.CloseableIterator;
 import org.apache.geode.internal.i18n.LocalizedStrings;
@@ -93,6 +100,16 @@ public class CompactRangeIndex extends AbstractIndex {
 
   private IndexStore indexStore;
 
+  /** Histogram of the keys of a MemoryIndexStore, for estimating the size of range lookups */
+  private final KeyHistogram keyHistogram;
+
+  /**
+   * The values of the {@linkplain #getCoveredFields() covered fields} of each indexed entry, null
+   * if the index is not covering. An entry without values is not covered and queries read its
+   * value instead.
+   */
+  private ConcurrentMap<RegionEntry, Object[]> coveredValues;
+
   static boolean TEST_ALWAYS_UPDATE_IN_PROGRESS = false;
 
   public CompactRangeIndex(String indexName, Region region, String fromClause,
@@ -104,7 +121,20 @@ public class CompactRangeIndex extends AbstractIndex {
       indexStore = new MapIndexStore(
           ((LocalRegion) region).getIndexMap(indexName, indexedExpression, origFromClause), region);
     } else {
-      indexStore = new MemoryIndexStore(region, internalIndexStats);
+      indexStore = new MemoryIndexStore(region, internalIndexStats,
+          IndexManager.isOffHeapIndex(indexName, region));
+    }
+    this.keyHistogram = indexStore instanceof MemoryIndexStore
+        ? new KeyHistogram(((MemoryIndexStore) indexStore)::scanKeys) : null;
+  }
+
+  @Override
+  public void destroy() {
+    super.destroy();
+    if (indexStore instanceof MemoryIndexStore
+        && ((MemoryIndexStore) indexStore).hasOffHeapEntries()) {
+      // free the off-heap memory of the index
+      indexStore.clear();
     }
   }
 
@@ -138,6 +168,7 @@ public class CompactRangeIndex extends AbstractIndex {
   void addMapping(RegionEntry entry) throws IMQException {
     this.evaluator.evaluate(entry, true);
     this.internalIndexStats.incNumUpdates();
+    histogramChanged();
   }
 
   /**
@@ -162,14 +193,108 @@ public class CompactRangeIndex extends AbstractIndex {
       }
       this.evaluator.evaluate(entry, false);
       this.internalIndexStats.incNumUpdates();
+      histogramChanged();
+    }
+  }
+
+  private void histogramChanged() {
+    if (this.keyHistogram != null) {
+      this.keyHistogram.changed(1);
     }
   }
 
+  @Override
+  KeyHistogram getKeyHistogram() {
+    return this.keyHistogram;
+  }
+
   void removeMapping(Object key, RegionEntry entry) throws IMQException {
     indexStore.removeMapping(key, entry);
+    if (this.coveredValues != null) {
+      this.coveredValues.remove(entry);
+    }
+  }
+
+  /**
+   * Keeps the values of the covered fields of the given value of an entry.
+   */
+  private void saveCoveredValues(RegionEntry entry, Object value, ExecutionContext context) {
+    if (value == null || value instanceof Token) {
+      this.coveredValues.remove(entry);
+      return;
+    }
+    String[] coveredFields = getCoveredFields();
+    Object[] values = new Object[coveredFields.length];
+    try {
+      for (int i = 0; i < values.length; i++) {
+        Object fieldValue = PathUtils.evaluateAttribute(context, value, coveredFields[i]);
+        // a PdxString refers to the serialized bytes of the whole value
+        values[i] = fieldValue instanceof PdxString ? fieldValue.toString() : fieldValue;
+      }
+    } catch (NameNotFoundException | QueryInvocationTargetException ignore) {
+      // the value does not have the fields, queries read it instead
+      this.coveredValues.remove(entry);
+      return;
+    }
+    this.coveredValues.put(entry, values);
+  }
+
+  /**
+   * Returns the positions in the covered fields of the given projection attributes, or null if
+   * they are not all covered fields of the iterator of this index and the query has to read the
+   * values.
+   */
+  private int[] getCoveredProjection(List projAttrib, CompiledValue iterOps,
+      RuntimeIterator runtimeItr, ExecutionContext context) {
+    if (this.coveredValues == null || projAttrib == null || iterOps != null || runtimeItr == null
+        || context.isCqQueryContext() || IndexManager.IS_TEST_EXPANSION
+        || TEST_ALWAYS_UPDATE_IN_PROGRESS || IndexManager.isObjectModificationInplace()) {
+      return null;
+    }
+    int[] projection = new int[projAttrib.size()];
+    for (int i = 0; i < projection.length; i++) {
+      CompiledValue projected = (CompiledValue) ((Object[]) projAttrib.get(i))[1];
+      try {
+        if (projected instanceof CompiledID) {
+          projected = context.resolve(((CompiledID) projected).getId());
+        }
+        if (!(projected instanceof CompiledPath)) {
+          return null;
+        }
+        CompiledValue receiver = ((CompiledPath) projected).getReceiver();
+        if (receiver instanceof CompiledID) {
+          receiver = context.resolve(((CompiledID) receiver).getId());
+        }
+        if (receiver != runtimeItr) {
+          return null;
+        }
+      } catch (TypeMismatchException | AmbiguousNameException ignore) {
+        return null;
+      }
+      projection[i] = Arrays.asList(getCoveredFields())
+          .indexOf(((CompiledPath) projected).getTailID());
+      if (projection[i] < 0) {
+        return null;
+      }
+    }
+    return projection;
+  }
+
+  /**
+   * Returns the values of the covered fields of the entry of the given index entry, or null if
+   * the entry is not covered or is being updated.
+   */
+  private Object[] getCoveredValues(IndexStoreEntry indexEntry) {
+    if (!(indexEntry instanceof MemoryIndexStoreEntry) || indexEntry.isUpdateInProgress()) {
+      return null;
+    }
+    return this.coveredValues.get(((MemoryIndexStoreEntry) indexEntry).getRegionEntry());
   }
 
   public boolean clear() {
+    if (this.coveredValues != null) {
+      this.coveredValues.clear();
+    }
     return indexStore.clear();
   }
 
@@ -308,12 +433,18 @@ public class CompactRangeIndex extends AbstractIndex {
           break;
         case OQLLexerTokenTypes.TOK_LE:
         case OQLLexerTokenTypes.TOK_LT:
-          if (matchLevel <= 0 && (key instanceof Number)) {
-
-            int totalSize = indexStore.size();
+          if (matchLevel <= 0) {
             if (CompactRangeIndex.testHook != null) {
               CompactRangeIndex.testHook.hook(1);
             }
+            size = estimateFromHistogram(key, operator);
+            if (size >= 0) {
+              break;
+            }
+          }
+          if (matchLevel <= 0 && (key instanceof Number)) {
+
+            int totalSize = indexStore.size();
             if (totalSize > 1) {
               Number keyAsNum = (Number) key;
               int x = 0;
@@ -372,11 +503,17 @@ public class CompactRangeIndex extends AbstractIndex {
 
         case OQLLexerTokenTypes.TOK_GE:
         case OQLLexerTokenTypes.TOK_GT:
-          if (matchLevel <= 0 && (key instanceof Number)) {
-            int totalSize = indexStore.size();
+          if (matchLevel <= 0) {
             if (CompactRangeIndex.testHook != null) {
               CompactRangeIndex.testHook.hook(2);
             }
+            size = estimateFromHistogram(key, operator);
+            if (size >= 0) {
+              break;
+            }
+          }
+          if (matchLevel <= 0 && (key instanceof Number)) {
+            int totalSize = indexStore.size();
             if (totalSize > 1) {
               Number keyAsNum = (Number) key;
               int x = 0;
@@ -732,6 +869,7 @@ public class CompactRangeIndex extends AbstractIndex {
     if (IndexManager.IS_TEST_EXPANSION) {
       seenKey = new HashSet();
     }
+    int[] coveredProjection = getCoveredProjection(projAttrib, iterOps, runtimeItr, context);
 
     while (entriesIter.hasNext()) {
       try {
@@ -754,6 +892,22 @@ public class CompactRangeIndex extends AbstractIndex {
           continue;
         }
 
+        if (coveredProjection != null) {
+          Object[] covered = getCoveredValues(indexEntry);
+          if (covered != null) {
+            Object[] values = new Object[coveredProjection.length];
+            for (int i = 0; i < values.length; i++) {
+              values[i] = covered[coveredProjection[i]];
+            }
+            applyProjectedValues(values, context, result, intermediateResults, isIntersection);
+            if (verifyLimit(result, limit)) {
+              observer.limitAppliedAtIndexLevel(this, limit, result);
+              return;
+            }
+            continue;
+          }
+        }
+
         Object value = indexEntry.getDeserializedValue();
 
         if (IndexManager.IS_TEST_EXPANSION) {
@@ -927,6 +1081,12 @@ public class CompactRangeIndex extends AbstractIndex {
 
   void recreateIndexData() throws IMQException {
     indexStore.clear();
+    if (this.coveredValues != null) {
+      this.coveredValues.clear();
+    }
+    if (this.keyHistogram != null) {
+      this.keyHistogram.clear();
+    }
     int numKeys = (int) this.internalIndexStats.getNumberOfKeys();
     if (numKeys > 0) {
       this.internalIndexStats.incNumKeys(-numKeys);
@@ -1139,6 +1299,10 @@ public class CompactRangeIndex extends AbstractIndex {
           indexStore.setIndexOnValues(true);
         }
       }
+      if (getCoveredFields() != null && indexStore instanceof MemoryIndexStore && indexOnValues
+          && this.iteratorSize == 1) {
+        coveredValues = new ConcurrentHashMap<>();
+      }
     }
 
     public String getIndexedExpression() {
@@ -1470,6 +1634,9 @@ public class CompactRangeIndex extends AbstractIndex {
             .evaluate(this.initContext));
       }
       RegionEntry re = temp.getRegionEntry();
+      if (coveredValues != null) {
+        saveCoveredValues(re, additionalProj.evaluate(this.initContext), this.initContext);
+      }
       indexStore.addMapping(indexKey, re);
     }
 
@@ -1527,6 +1694,12 @@ public class CompactRangeIndex extends AbstractIndex {
           oldKey = oldKeyValuePair.getOldKey();
           oldValue = oldKeyValuePair.getOldValue();
         }
+        if (coveredValues != null) {
+          // saved before the new key is, so that queries never find the entry with old values
+          saveCoveredValues(entry,
+              ((RuntimeIterator) context.getCurrentIterators().get(0)).evaluate(context),
+              context);
+        }
 
         // Add new index entries
         // A null oldKey means this is a create
@@ -1547,6 +1720,9 @@ public class CompactRangeIndex extends AbstractIndex {
           oldKeyValuePair.setOldKeyValuePair(indexKey, entry);
         } else {
           indexStore.removeMapping(indexKey, entry);
+          if (coveredValues != null) {
+            coveredValues.remove(entry);
+          }
         }
       }
     }
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.NullToken;
+import org.apache.geode.cache.query.internal.Undefined;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.pdx.internal.PdxString;
+
+/**
+ * The key of a composite index, holding the values of all its indexed expressions. Keys are
+ * ordered lexicographically, so the entries that agree on the leading values of a key are
+ * contiguous in the index and ordered by the value that follows.
+ *
+ * A key that holds fewer values than the index has expressions is a bound: it sorts either before
+ * or after all the keys that start with its values, which lets an equality condition on the
+ * leading expressions, optionally followed by a range condition on the next one, be answered with
+ * a single range scan of the index.
+ *
+ * @since Geode 1.4
+ */
+public final class CompositeIndexKey implements Comparable {
+
+  private static final Comparator COMPARATOR = TypeUtils.getExtendedNumericComparator();
+
+  /** Sorts before all the keys that start with the values of the bound */
+  private static final int BEFORE = -1;
+
+  private static final int EXACT = 0;
+
+  /** Sorts after all the keys that start with the values of the bound */
+  private static final int AFTER = 1;
+
+  private final Object[] values;
+
+  private final int position;
+
+  private CompositeIndexKey(Object[] values, int position) {
+    this.values = values;
+    this.position = position;
+  }
+
+  /**
+   * Returns the key of an index entry whose indexed expressions evaluated to the given values.
+   */
+  public static CompositeIndexKey forValues(Object[] values) throws TypeMismatchException {
+    return new CompositeIndexKey(toIndexKeys(values), EXACT);
+  }
+
+  /**
+   * Returns a bound that sorts before all the keys that start with the given values.
+   */
+  public static CompositeIndexKey lowerBound(Object[] values) throws TypeMismatchException {
+    return new CompositeIndexKey(toIndexKeys(values), BEFORE);
+  }
+
+  /**
+   * Returns a bound that sorts after all the keys that start with the given values.
+   */
+  public static CompositeIndexKey upperBound(Object[] values) throws TypeMismatchException {
+    return new CompositeIndexKey(toIndexKeys(values), AFTER);
+  }
+
+  private static Object[] toIndexKeys(Object[] values) throws TypeMismatchException {
+    Object[] keys = new Object[values.length];
+    for (int i = 0; i < values.length; i++) {
+      Object value = values[i];
+      if (value == null) {
+        keys[i] = IndexManager.NULL;
+      } else if (value instanceof PdxString) {
+        // the string is compared with the values of the query conditions, which are strings
+        keys[i] = value.toString();
+      } else {
+        keys[i] = TypeUtils.indexKeyFor(value);
+      }
+    }
+    return keys;
+  }
+
+  public int size() {
+    return this.values.length;
+  }
+
+  public Object get(int index) {
+    return this.values[index];
+  }
+
+  @Override
+  public int compareTo(Object other) {
+    CompositeIndexKey that = (CompositeIndexKey) other;
+    int length = Math.min(this.values.length, that.values.length);
+    for (int i = 0; i < length; i++) {
+      int result = compareValues(this.values[i], that.values[i]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    if (this.values.length == that.values.length) {
+      return Integer.compare(this.position, that.position);
+    }
+    // the shorter key is a prefix of the longer one, its position decides the order
+    if (this.values.length < that.values.length) {
+      return this.position == AFTER ? 1 : -1;
+    }
+    return that.position == AFTER ? -1 : 1;
+  }
+
+  /**
+   * Compares two values of a key, ordering UNDEFINED before null and both before all other values,
+   * as the other range indexes do.
+   */
+  private static int compareValues(Object value, Object other) {
+    int rank = rank(value);
+    int otherRank = rank(other);
+    if (rank != otherRank) {
+      return Integer.compare(rank, otherRank);
+    }
+    if (rank < 2) {
+      return 0;
+    }
+    return COMPARATOR.compare(value, other);
+  }
+
+  private static int rank(Object value) {
+    if (value instanceof Undefined) {
+      return 0;
+    }
+    if (value instanceof NullToken) {
+      return 1;
+    }
+    return 2;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof CompositeIndexKey)) {
+      return false;
+    }
+    CompositeIndexKey that = (CompositeIndexKey) other;
+    return this.position == that.position && Arrays.equals(this.values, that.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(this.values) + this.position;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("(");
+    for (int i = 0; i < this.values.length; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(this.values[i]);
+    }
+    if (this.position == BEFORE) {
+      sb.append(", <");
+    } else if (this.position == AFTER) {
+      sb.append(", >");
+    }
+    return sb.append(')').toString();
+  }
+}
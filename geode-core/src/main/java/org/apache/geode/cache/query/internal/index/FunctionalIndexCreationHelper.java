@@ -23,9 +23,11 @@ import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.AmbiguousNameException;
 import org.apache.geode.cache.query.IndexInvalidException;
 import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvalidException;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.CompiledBindArgument;
 import org.apache.geode.cache.query.internal.CompiledComparison;
+import org.apache.geode.cache.query.internal.CompiledCompositeKey;
 import org.apache.geode.cache.query.internal.CompiledFunction;
 import org.apache.geode.cache.query.internal.CompiledID;
 import org.apache.geode.cache.query.internal.CompiledIndexOperation;
@@ -69,6 +71,11 @@ class FunctionalIndexCreationHelper extends IndexCreationHelper {
 
   Object[] mapKeys;
 
+  /**
+   * The canonicalized expressions of a composite index, null if the index is on a single expression
+   */
+  String[] compositeKeyExpressions;
+
   /**
    * The Iterators for index creation are different then those which are used for index updates as
    * in case of Index creation the 0th iterator is modified such that it always represents
@@ -441,16 +448,13 @@ class FunctionalIndexCreationHelper extends IndexCreationHelper {
    * TODO: refactor large method prepareIndexExpression
    */
   private void prepareIndexExpression(String indexedExpression) throws IndexInvalidException {
-    CompiledValue expr = this.compiler.compileQuery(indexedExpression);
-    if (expr == null) {
-      throw new IndexInvalidException(
-          LocalizedStrings.FunctionalIndexCreationHelper_INVALID_INDEXED_EXPRESSION_0
-              .toLocalizedString(indexedExpression));
+    List compositeKeyProjections = compileCompositeKeyExpressions(indexedExpression);
+    if (compositeKeyProjections != null) {
+      prepareCompositeKeyExpression(indexedExpression, compositeKeyProjections);
+      return;
     }
-
-    if (expr instanceof CompiledUndefined || expr instanceof CompiledLiteral
-        || expr instanceof CompiledComparison || expr instanceof CompiledBindArgument
-        || expr instanceof CompiledNegation) {
+    CompiledValue expr = this.compiler.compileQuery(indexedExpression);
+    if (expr == null || !isIndexableExpression(expr)) {
       throw new IndexInvalidException(
           LocalizedStrings.FunctionalIndexCreationHelper_INVALID_INDEXED_EXPRESSION_0
               .toLocalizedString(indexedExpression));
@@ -519,6 +523,75 @@ class FunctionalIndexCreationHelper extends IndexCreationHelper {
     this.indexedExpr = expr;
   }
 
+  private static boolean isIndexableExpression(CompiledValue expr) {
+    return !(expr instanceof CompiledUndefined || expr instanceof CompiledLiteral
+        || expr instanceof CompiledComparison || expr instanceof CompiledBindArgument
+        || expr instanceof CompiledNegation);
+  }
+
+  /**
+   * Returns the expressions of the indexed expression of a composite index, which is a comma
+   * separated list of expressions, or null if the indexed expression is a single expression.
+   */
+  private List compileCompositeKeyExpressions(String indexedExpression) {
+    if (indexedExpression.indexOf(',') < 0) {
+      return null;
+    }
+    List projections;
+    try {
+      projections = this.compiler.compileProjectionAttributes(indexedExpression);
+    } catch (QueryInvalidException ignore) {
+      // not a list of expressions, e.g. a map index on all the keys
+      return null;
+    }
+    return projections != null && projections.size() > 1 ? projections : null;
+  }
+
+  /**
+   * Prepares the indexed expression of a composite index. Each of its expressions is canonicalized
+   * and, like the indexed expression of other indexes, made derivable from the 0th iterator.
+   */
+  private void prepareCompositeKeyExpression(String indexedExpression, List projections)
+      throws IndexInvalidException {
+    int size = projections.size();
+    CompiledValue[] expressions = new CompiledValue[size];
+    CompiledValue[] modifiedExpressions = new CompiledValue[size];
+    String[] canonicalizedExpressions = new String[size];
+    try {
+      for (int i = 0; i < size; i++) {
+        Object[] projection = (Object[]) projections.get(i);
+        CompiledValue expr = (CompiledValue) projection[1];
+        if (projection[0] != null || !isIndexableExpression(expr) || (expr instanceof MapIndexable
+            && ((MapIndexable) expr).getIndexingKeys().size() != 1)) {
+          throw new IndexInvalidException(
+              LocalizedStrings.FunctionalIndexCreationHelper_INVALID_INDEXED_EXPRESSION_0
+                  .toLocalizedString(indexedExpression));
+        }
+        StringBuilder sb = new StringBuilder();
+        expr.generateCanonicalizedExpression(sb, this.context);
+        canonicalizedExpressions[i] = sb.toString();
+        expressions[i] = expr;
+        modifiedExpressions[i] = expr;
+        if (!this.isFirstIteratorRegionEntry
+            && canonicalizedExpressions[i].contains(this.canonicalizedIteratorNames[0])) {
+          modifiedExpressions[i] =
+              getModifiedDependentCompiledValue(this.context, -1, expr, true);
+        }
+      }
+    } catch (IndexInvalidException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IndexInvalidException(
+          LocalizedStrings.FunctionalIndexCreationHelper_INVALID_INDEXED_EXPRESSION_0
+              .toLocalizedString(indexedExpression),
+          e);
+    }
+    this.compositeKeyExpressions = canonicalizedExpressions;
+    this.indexedExpression = String.join(", ", canonicalizedExpressions);
+    this.indexedExpr = new CompiledCompositeKey(expressions);
+    this.modifiedIndexExpr = new CompiledCompositeKey(modifiedExpressions);
+  }
+
   private void prepareProjectionAttributes(String projectionAttributes)
       throws IndexInvalidException {
     if (projectionAttributes != null && !projectionAttributes.equals("*")) {
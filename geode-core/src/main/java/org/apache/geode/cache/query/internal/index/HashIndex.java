@@ -139,7 +139,7 @@ public class HashIndex extends AbstractIndex {
     RegionAttributes ra = region.getAttributes();
 
 
-    if (IndexManager.isObjectModificationInplace()) {
+    if (IndexManager.isReverseMapRequired(region)) {
       entryToValuesMap = new ConcurrentHashMap(ra.getInitialCapacity(), ra.getLoadFactor(),
           ra.getConcurrencyLevel());
     } else {
@@ -201,11 +201,9 @@ public class HashIndex extends AbstractIndex {
           // meaning we do not have an old mapping
           // we will continue to remove the old mapping to be safe and log a fine level message
           Object oldKey = null;
-          if (IndexManager.isObjectModificationInplace()
-              && this.entryToValuesMap.containsKey(entry)) {
+          if (this.entryToValuesMap != null && this.entryToValuesMap.containsKey(entry)) {
             oldKey = this.entryToValuesMap.get(entry);
-          } else if (!IndexManager.isObjectModificationInplace()
-              && this.entryToOldKeysMap != null) {
+          } else if (this.entryToOldKeysMap != null) {
             Map oldKeyMap = this.entryToOldKeysMap.get();
             if (oldKeyMap != null) {
               oldKey = TypeUtils.indexKeyFor(oldKeyMap.get(entry));
@@ -231,7 +229,7 @@ public class HashIndex extends AbstractIndex {
 
       if (indexSlot >= 0) {
         // Update the reverse map
-        if (IndexManager.isObjectModificationInplace()) {
+        if (this.entryToValuesMap != null) {
           this.entryToValuesMap.put(entry, newKey);
         }
         if (newKey != null && oldKey != null) {
@@ -248,9 +246,9 @@ public class HashIndex extends AbstractIndex {
 
   private Object getOldKey(RegionEntry entry) throws TypeMismatchException {
     Object oldKey = null;
-    if (IndexManager.isObjectModificationInplace() && this.entryToValuesMap.containsKey(entry)) {
+    if (this.entryToValuesMap != null && this.entryToValuesMap.containsKey(entry)) {
       oldKey = this.entryToValuesMap.get(entry);
-    } else if (!IndexManager.isObjectModificationInplace() && this.entryToOldKeysMap != null) {
+    } else if (this.entryToOldKeysMap != null) {
       Map oldKeyMap = this.entryToOldKeysMap.get();
       if (oldKeyMap != null) {
         oldKey = TypeUtils.indexKeyFor(oldKeyMap.get(entry));
@@ -267,7 +265,7 @@ public class HashIndex extends AbstractIndex {
     // + entry );
     if (opCode == BEFORE_UPDATE_OP) {
       // Either take key from reverse map OR evaluate it using IMQEvaluator.
-      if (!IndexManager.isObjectModificationInplace()) {
+      if (this.entryToOldKeysMap != null) {
         // It will always contain 1 element only, for this thread.
         entryToOldKeysMap.set(new Object2ObjectOpenHashMap(1));
         this.evaluator.evaluate(entry, false);
@@ -302,7 +300,14 @@ public class HashIndex extends AbstractIndex {
     // it's current capacity is..so we trim after every
     // removal
     try {
-      Object newKey = TypeUtils.indexKeyFor(key);
+      Object newKey = null;
+      if (this.entryToValuesMap != null) {
+        // the value of the entry may no longer be the one it was indexed with
+        newKey = this.entryToValuesMap.get(entry);
+      }
+      if (newKey == null) {
+        newKey = TypeUtils.indexKeyFor(key);
+      }
       removeFromEntriesSet(newKey, entry, updateReverseMap);
     } catch (TypeMismatchException ex) {
       throw new IMQException("Could not add object of type " + key.getClass().getName(), ex);
@@ -316,7 +321,7 @@ public class HashIndex extends AbstractIndex {
   private void removeFromEntriesSet(Object newKey, RegionEntry entry, boolean updateReverseMap,
       int ignoreThisSlot) {
     if (this.entriesSet.remove(newKey, entry, ignoreThisSlot)) {
-      if (updateReverseMap && IndexManager.isObjectModificationInplace()) {
+      if (updateReverseMap && this.entryToValuesMap != null) {
         entryToValuesMap.remove(entry);
       }
       internalIndexStats.incNumValues(-1);
@@ -773,7 +778,7 @@ public class HashIndex extends AbstractIndex {
   void recreateIndexData() throws IMQException {
     // Mark the data maps to null & call the initialization code of index
     this.entriesSet.clear();
-    if (IndexManager.isObjectModificationInplace()) {
+    if (this.entryToValuesMap != null) {
       entryToValuesMap.clear();
     }
     int numKeys = (int) this.internalIndexStats.getNumberOfKeys();
@@ -24,6 +24,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.util.List;
 
+import org.apache.geode.DataSerializer;
 import org.apache.geode.cache.query.IndexType;
 import org.apache.geode.internal.DataSerializableFixedID;
 import org.apache.geode.internal.Version;
@@ -42,6 +43,7 @@ public class IndexCreationData implements DataSerializableFixedID {
   private String importStr = null;
   private PartitionedIndex partitionedIndex = null;
   private boolean loadEntries = false;
+  private String[] coveredFields = null;
 
   public IndexCreationData() {
 
@@ -75,6 +77,17 @@ public class IndexCreationData implements DataSerializableFixedID {
     this.loadEntries = loadEntries;
   }
 
+  public void setCoveredFields(String[] coveredFields) {
+    this.coveredFields = coveredFields;
+  }
+
+  /**
+   * Returns the fields of the indexed values the index keeps alongside its keys, null if none.
+   */
+  public String[] getCoveredFields() {
+    return this.coveredFields;
+  }
+
   public void setPartitionedIndex(PartitionedIndex index) {
     this.partitionedIndex = index;
   }
@@ -105,7 +118,7 @@ public class IndexCreationData implements DataSerializableFixedID {
 
   @Override
   public Version[] getSerializationVersions() {
-    return null;
+    return new Version[] {Version.GEODE_140};
   }
 
   @Override
@@ -115,6 +128,11 @@ public class IndexCreationData implements DataSerializableFixedID {
 
   @Override
   public void toData(DataOutput out) throws IOException {
+    toDataPre_GEODE_1_4_0_0(out);
+    DataSerializer.writeStringArray(this.coveredFields, out);
+  }
+
+  public void toDataPre_GEODE_1_4_0_0(DataOutput out) throws IOException {
     out.writeUTF(this.name);
     out.writeUTF(this.expression);
     out.writeUTF(this.fromClause);
@@ -139,6 +157,11 @@ public class IndexCreationData implements DataSerializableFixedID {
 
   @Override
   public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    fromDataPre_GEODE_1_4_0_0(in);
+    this.coveredFields = DataSerializer.readStringArray(in);
+  }
+
+  public void fromDataPre_GEODE_1_4_0_0(DataInput in) throws IOException, ClassNotFoundException {
     this.name = in.readUTF();
     this.expression = in.readUTF();
     this.fromClause = in.readUTF();
@@ -23,7 +23,6 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
@@ -32,6 +31,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.Logger;
@@ -50,6 +50,7 @@ import org.apache.geode.cache.query.MultiIndexCreationException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.CompiledCompositeKey;
 import org.apache.geode.cache.query.internal.CompiledPath;
 import org.apache.geode.cache.query.internal.CompiledValue;
 import org.apache.geode.cache.query.internal.DefaultQuery;
@@ -108,6 +109,16 @@ public class IndexManager {
   private final int INDEX_MAINTENANCE_BUFFER =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreshold", -1);
 
+  /**
+   * System property for the number of milliseconds a query that uses an index of a region with
+   * asynchronous index maintenance waits for the index updates that are pending when it uses the
+   * index. By default queries do not wait and may miss entries whose index update is pending.
+   *
+   * @since Geode 1.4
+   */
+  public static final long ASYNC_UPDATE_WAIT_TIME =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "index.ASYNC_UPDATE_WAIT_TIME", 0);
+
   public static boolean JOIN_OPTIMIZATION =
       !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.DisableJoinOptimization");
 
@@ -144,6 +155,14 @@ public class IndexManager {
       Integer.parseInt(System.getProperty(INDEX_ELEMARRAY_THRESHOLD_PROP, "100"));
   public static final int INDEX_ELEMARRAY_SIZE =
       Integer.parseInt(System.getProperty(INDEX_ELEMARRAY_SIZE_PROP, "5"));
+  /**
+   * System property naming the compact range indexes, comma separated or "*" for all of them, that
+   * keep the entries of their index keys in off-heap memory when their region is off-heap.
+   *
+   * @since Geode 1.4
+   */
+  public static final String OFF_HEAP_INDEXES_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "index.OFF_HEAP_INDEXES";
   public static final AtomicLong SAFE_QUERY_TIME = new AtomicLong(0);
   public static boolean ENABLE_UPDATE_IN_PROGRESS_INDEX_CALCULATION = true;
   /** The NULL constant */
@@ -260,12 +279,29 @@ public class IndexManager {
    *        individually.
    * @param origFromClause expression that evaluates to the collection(s) that will be queried over,
    *        must contain one and only one region path.
+   * @param prIndex the partitioned index a bucket index is created for, whose covered fields the
+   *        bucket index keeps
    * @return the newly created Index
    */
   public Index createIndex(String indexName, IndexType indexType, String origIndexedExpression,
       String origFromClause, String imports, ExecutionContext externalContext,
       PartitionedIndex prIndex, boolean loadEntries)
       throws IndexNameConflictException, IndexExistsException, IndexInvalidException {
+    return createIndex(indexName, indexType, origIndexedExpression, origFromClause, imports,
+        externalContext, prIndex, loadEntries, prIndex == null ? null : prIndex.getCoveredFields());
+  }
+
+  /**
+   * Creates an index that keeps the given fields of the indexed values alongside its keys.
+   *
+   * @param coveredFields the fields of the indexed values to keep, null for none
+   * @see #createIndex(String, IndexType, String, String, String, ExecutionContext,
+   *      PartitionedIndex, boolean)
+   */
+  public Index createIndex(String indexName, IndexType indexType, String origIndexedExpression,
+      String origFromClause, String imports, ExecutionContext externalContext,
+      PartitionedIndex prIndex, boolean loadEntries, String[] coveredFields)
+      throws IndexNameConflictException, IndexExistsException, IndexInvalidException {
 
     if (QueryMonitor.isLowMemory()) {
       throw new IndexInvalidException(
@@ -315,11 +351,6 @@ public class IndexManager {
       if (!isCompactOrHash && indexType != IndexType.PRIMARY_KEY) {
 
         if (indexType == IndexType.HASH) {
-          if (!isIndexMaintenanceTypeSynchronous()) {
-            throw new UnsupportedOperationException(
-                LocalizedStrings.DefaultQueryService_HASH_INDEX_CREATION_IS_NOT_SUPPORTED_FOR_ASYNC_MAINTENANCE
-                    .toLocalizedString());
-          }
           throw new UnsupportedOperationException(
               LocalizedStrings.DefaultQueryService_HASH_INDEX_CREATION_IS_NOT_SUPPORTED_FOR_MULTIPLE_ITERATORS
                   .toLocalizedString());
@@ -361,7 +392,7 @@ public class IndexManager {
       }
 
       IndexTask indexTask = new IndexTask(indexName, indexType, origFromClause,
-          origIndexedExpression, helper, isCompactOrHash, prIndex, loadEntries);
+          origIndexedExpression, helper, isCompactOrHash, prIndex, loadEntries, coveredFields);
       FutureTask<Index> indexFutureTask = new FutureTask<Index>(indexTask);
       Object oldIndex = this.indexes.putIfAbsent(indexTask, indexFutureTask);
 
@@ -437,47 +468,65 @@ public class IndexManager {
     }
   }
 
+  /**
+   * Returns the type of the node at the root of the given path expression.
+   */
+  private static int getRootNodeType(CompiledValue cv) {
+    int nodeType;
+    do {
+      nodeType = cv.getType();
+      if (nodeType == CompiledValue.PATH) {
+        cv = ((CompiledPath) cv).getReceiver();
+      }
+    } while (nodeType == CompiledValue.PATH);
+    return nodeType;
+  }
+
   /**
    * Return true if we should create CompactRangeIndex Required conditions: indexedExpression is a
    * path expression, fromClause has only one iterator and it is directly on the region values.
-   * Currently we have to use the "fat" implementation when asynchronous index updates are on.
+   * Off-heap regions have to use the "fat" implementation when asynchronous index updates are on.
    */
   private boolean shouldCreateCompactIndex(FunctionalIndexCreationHelper helper) {
     if (RANGEINDEX_ONLY || TEST_RANGEINDEX_ONLY) {
       return false;
     }
 
-    // compact range index is not supported on asynchronous index maintenance.
-    // since compact range index maintains reference to region entry, in case of
-    // asynchronous updates the window between cache operation updating the
-    // index increases causing query thread to return new value before doing
-    // index evaluation (resulting in wrong value. There is still a small window
-    // which can be addressed by the sys property:
-    // gemfire.index.acquireCompactIndexLocksWithRegionEntryLocks
-    if (!getRegion().getAttributes().getIndexMaintenanceSynchronous()) {
+    // compact range indexes keep references to the region entries, so with asynchronous index
+    // maintenance the value of an entry can change before its index key does. They then keep the
+    // index key of each entry in a reverse map, and the entries whose index update is pending are
+    // marked as being updated, which makes queries evaluate them again. Off-heap regions do not
+    // support asynchronous maintenance.
+    if (!getRegion().getAttributes().getIndexMaintenanceSynchronous() && isOffHeap()) {
       return false;
     }
 
     // indexedExpression requirement
     CompiledValue cv = helper.getCompiledIndexedExpression();
-    int nodeType;
-    do {
-      nodeType = cv.getType();
-      if (nodeType == CompiledValue.PATH) {
-        cv = ((CompiledPath) cv).getReceiver();
+    if (cv instanceof CompiledCompositeKey) {
+      // the expressions of a composite index have been checked to be single key expressions
+      for (CompiledValue expression : ((CompiledCompositeKey) cv).getExpressions()) {
+        int nodeType = getRootNodeType(expression);
+        if (nodeType != OQLLexerTokenTypes.Identifier && nodeType != OQLLexerTokenTypes.METHOD_INV
+            && nodeType != OQLLexerTokenTypes.TOK_LBRACK) {
+          return false;
+        }
       }
-    } while (nodeType == CompiledValue.PATH);
-    // end of path, nodeType at this point should be an Identifier
-    if (nodeType != OQLLexerTokenTypes.Identifier && nodeType != OQLLexerTokenTypes.METHOD_INV) {
-      if (nodeType == OQLLexerTokenTypes.TOK_LBRACK && !helper.isMapTypeIndex()
-          && helper.modifiedIndexExpr instanceof MapIndexable) {
-        if (((MapIndexable) helper.modifiedIndexExpr).getIndexingKeys().size() == 1) {
+    } else {
+      int nodeType = getRootNodeType(cv);
+      // end of path, nodeType at this point should be an Identifier
+      if (nodeType != OQLLexerTokenTypes.Identifier
+          && nodeType != OQLLexerTokenTypes.METHOD_INV) {
+        if (nodeType == OQLLexerTokenTypes.TOK_LBRACK && !helper.isMapTypeIndex()
+            && helper.modifiedIndexExpr instanceof MapIndexable) {
+          if (((MapIndexable) helper.modifiedIndexExpr).getIndexingKeys().size() == 1) {
 
+          } else {
+            return false;
+          }
         } else {
           return false;
         }
-      } else {
-        return false;
       }
     }
 
@@ -737,6 +786,85 @@ public class IndexManager {
         ? new IndexData((IndexProtocol) bestIndex, bestIndexMatchLevel, bestMapping) : null;
   }
 
+  /**
+   * Returns the composite index that can be used for the most of the given conditions: equality
+   * conditions on its leading expressions, optionally followed by a range condition on the next
+   * expression. Only the indexes whose iterators exactly match the definitions are considered. As
+   * with {@link #getBestMatchIndex}, the index is read locked so that it is not removed while the
+   * query uses it.
+   *
+   * @param definitions the canonicalized definitions of the iterators of the group
+   * @param equalityExpressions the canonicalized paths of the equality conditions
+   * @param rangeExpressions the canonicalized paths of the range conditions
+   * @param context ExecutionContext object
+   * @return the IndexData of the composite index, or null if there is none for the conditions
+   */
+  public IndexData getBestMatchCompositeIndex(String[] definitions,
+      Collection<String> equalityExpressions, Collection<String> rangeExpressions,
+      ExecutionContext context) {
+    AbstractIndex bestIndex = null;
+    PartitionedIndex bestPRIndex = null;
+    int[] bestMapping = null;
+    int bestMatchedExpressions = 0;
+    for (Object ind : this.indexes.values()) {
+      // skip the indexes that are still being created
+      if (ind instanceof FutureTask || !((AbstractIndex) ind).isPopulated()
+          || ((Index) ind).getType() != IndexType.FUNCTIONAL) {
+        continue;
+      }
+      AbstractIndex index = (AbstractIndex) ind;
+      PartitionedIndex prIndex = null;
+      if (index instanceof PartitionedIndex) {
+        prIndex = (PartitionedIndex) index;
+        index = (AbstractIndex) prIndex.getBucketIndex();
+        if (index == null) {
+          continue;
+        }
+      }
+      String[] keyExpressions = index.getCompositeKeyExpressions();
+      if (keyExpressions == null || !index.isValid()) {
+        continue;
+      }
+      int matchedExpressions = 0;
+      while (matchedExpressions < keyExpressions.length
+          && equalityExpressions.contains(keyExpressions[matchedExpressions])) {
+        matchedExpressions++;
+      }
+      if (matchedExpressions < keyExpressions.length
+          && rangeExpressions.contains(keyExpressions[matchedExpressions])) {
+        matchedExpressions++;
+      }
+      if (matchedExpressions <= bestMatchedExpressions) {
+        continue;
+      }
+      int[] mapping = new int[definitions.length];
+      if (getMatchLevel(definitions, index.getCanonicalizedIteratorDefinitions(), mapping) == 0) {
+        bestIndex = index;
+        bestPRIndex = prIndex;
+        bestMapping = mapping;
+        bestMatchedExpressions = matchedExpressions;
+      }
+    }
+    if (bestIndex == null) {
+      return null;
+    }
+    if (bestPRIndex != null) {
+      if (!bestPRIndex.acquireIndexReadLockForRemove()) {
+        return null;
+      }
+      try {
+        // the index needs to be available on all the query buckets
+        bestPRIndex.verifyAndCreateMissingIndex(context.getBucketList());
+      } catch (Exception ignored) {
+        bestPRIndex.releaseIndexReadLockForRemove();
+        return null;
+      }
+    } else if (!bestIndex.acquireIndexReadLockForRemove()) {
+      return null;
+    }
+    return new IndexData(bestIndex, 0, bestMapping);
+  }
+
   /*
    * Asif : This function returns the best match index. The crietria used to identify best match
    * index is based currently , relative to the query from clause. If the iterators of query from
@@ -990,11 +1118,28 @@ public class IndexManager {
     if (entry == null)
       return;
     if (isIndexMaintenanceTypeSynchronous()) {
-      // System.out.println("Synchronous update");
       processAction(entry, action, opCode);
-    } else {
-      // System.out.println("Aynchronous update");
-      updater.addTask(action, entry, opCode);
+    } else if (action == REMOVE_ENTRY && opCode == IndexProtocol.BEFORE_UPDATE_OP) {
+      // the indexes keep the old keys of the entries, the update that follows replaces them
+    } else if (!updater.addTask(action, entry, opCode)) {
+      processAction(entry, action, opCode);
+    }
+  }
+
+  /**
+   * Waits, for at most {@link #ASYNC_UPDATE_WAIT_TIME} milliseconds, until the asynchronous index
+   * updates that are pending have been applied.
+   */
+  void waitForPendingUpdates() {
+    if (ASYNC_UPDATE_WAIT_TIME > 0 && !isIndexMaintenanceTypeSynchronous()) {
+      try {
+        if (!updater.waitUntilProcessed(ASYNC_UPDATE_WAIT_TIME) && logger.isDebugEnabled()) {
+          logger.debug("Index updates of region {} still pending after {} ms",
+              this.region.getFullPath(), ASYNC_UPDATE_WAIT_TIME);
+        }
+      } catch (InterruptedException ignore) {
+        Thread.currentThread().interrupt();
+      }
     }
   }
 
@@ -1358,6 +1503,36 @@ public class IndexManager {
     return (INPLACE_OBJECT_MODIFICATION || INPLACE_OBJECT_MODIFICATION_FOR_TEST);
   }
 
+  /**
+   * Returns true if the indexes of the given region have to keep the index key of each entry
+   * (reverse map), as the value an entry was indexed with may have changed by the time the index
+   * is updated. That is the case for in-place modifications and for asynchronous index
+   * maintenance.
+   */
+  static boolean isReverseMapRequired(Region region) {
+    return isObjectModificationInplace()
+        || !region.getAttributes().getIndexMaintenanceSynchronous();
+  }
+
+  /**
+   * Returns true if the named index on the given region should keep its entries off-heap.
+   *
+   * @see #OFF_HEAP_INDEXES_PROPERTY
+   */
+  static boolean isOffHeapIndex(String indexName, Region region) {
+    String indexNames = System.getProperty(OFF_HEAP_INDEXES_PROPERTY);
+    if (indexNames == null || !region.getAttributes().getOffHeap()) {
+      return false;
+    }
+    for (String name : indexNames.split(",")) {
+      name = name.trim();
+      if (name.equals("*") || name.equals(indexName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Asif : This function is used exclusively by Index Manager. It gets the unique Iterator name for
    * a Iterator definition, if it already exists, else creates a unqiue name & also stores it in a
@@ -1403,13 +1578,41 @@ public class IndexManager {
 
   ////////////////////// Inner Classes //////////////////////
 
+  /**
+   * Applies the index updates of a region with asynchronous index maintenance. The updates are
+   * queued by the threads changing the entries and applied in batches. An update of an entry that
+   * is still pending is conflated into it, as the pending update reads the latest value of the
+   * entry when it is applied. The number of entries with pending updates is bounded; once it is
+   * reached the threads changing other entries apply their updates themselves.
+   *
+   * Entries are marked as being updated while they have an update pending, so that indexes
+   * holding them evaluate them again when they are queried.
+   */
   public class IndexUpdaterThread extends Thread {
 
+    /** The most updates applied in one batch */
+    private static final int BATCH_SIZE = 1000;
+
     private volatile boolean running = true;
 
     private volatile boolean shutdownRequested = false;
 
-    private volatile BlockingQueue pendingTasks;
+    private final BlockingQueue<IndexUpdateTask> pendingTasks = new LinkedBlockingQueue<>();
+
+    /** The pending update of each entry, which later updates of the entry are conflated into */
+    private final ConcurrentMap<RegionEntry, IndexUpdateTask> pendingEntryTasks =
+        new ConcurrentHashMap<>();
+
+    /** Bounds the number of entries with pending updates, null if they are not bounded */
+    private final Semaphore capacity;
+
+    /** Guards the numbering and queuing of tasks, so that they are queued in sequence */
+    private final Object queueLock = new Object();
+
+    private long numTasksQueued;
+
+    /** The sequence number of the last task that was applied, guarded by itself */
+    private final AtomicLong lastTaskProcessed = new AtomicLong();
 
     /**
      * Creates instance of IndexUpdaterThread
@@ -1417,22 +1620,76 @@ public class IndexManager {
     IndexUpdaterThread(ThreadGroup group, int updateThreshold, String threadName) {
       super(group, threadName);
       // Check if threshold is set.
-      if (updateThreshold > 0) {
-        // Create a bounded queue.
-        pendingTasks = new ArrayBlockingQueue(updateThreshold);
-      } else {
-        // Create non-bounded queue.
-        pendingTasks = new LinkedBlockingQueue();
-      }
+      this.capacity = updateThreshold > 0 ? new Semaphore(updateThreshold) : null;
       this.setDaemon(true);
     }
 
-    public void addTask(int action, RegionEntry entry, int opCode) {
-      Object[] task = new Object[3];
-      task[0] = action;
-      task[1] = entry;
-      task[2] = opCode;
-      pendingTasks.add(task);
+    /**
+     * Queues an index update.
+     *
+     * @return false if the update could not be queued and has to be applied by the caller
+     */
+    public boolean addTask(int action, RegionEntry entry, int opCode) {
+      if (entry == null) {
+        queue(new IndexUpdateTask(action, null, opCode));
+        return true;
+      }
+      if (this.shutdownRequested) {
+        return false;
+      }
+      IndexUpdateTask[] newTask = new IndexUpdateTask[1];
+      boolean[] full = new boolean[1];
+      this.pendingEntryTasks.compute(entry, (e, pending) -> {
+        if (pending != null) {
+          if (pending.conflate(action, opCode)) {
+            return pending;
+          }
+          // has to be applied after the pending update, so it is queued even if the queue is full
+          newTask[0] = new IndexUpdateTask(action, e, opCode);
+        } else if (this.capacity == null || this.capacity.tryAcquire()) {
+          newTask[0] = new IndexUpdateTask(action, e, opCode);
+          newTask[0].holdsCapacity = this.capacity != null;
+        } else {
+          full[0] = true;
+          return null;
+        }
+        e.setUpdateInProgress(true);
+        return newTask[0];
+      });
+      if (newTask[0] != null) {
+        queue(newTask[0]);
+      }
+      return !full[0];
+    }
+
+    private void queue(IndexUpdateTask task) {
+      synchronized (this.queueLock) {
+        task.sequence = ++this.numTasksQueued;
+        this.pendingTasks.add(task);
+      }
+    }
+
+    /**
+     * Waits until the updates queued so far have been applied, for at most the given time.
+     *
+     * @return true if the updates have been applied
+     */
+    boolean waitUntilProcessed(long timeoutMillis) throws InterruptedException {
+      long target;
+      synchronized (this.queueLock) {
+        target = this.numTasksQueued;
+      }
+      long deadline = System.currentTimeMillis() + timeoutMillis;
+      synchronized (this.lastTaskProcessed) {
+        while (this.lastTaskProcessed.get() < target && this.running) {
+          long remaining = deadline - System.currentTimeMillis();
+          if (remaining <= 0) {
+            return false;
+          }
+          this.lastTaskProcessed.wait(remaining);
+        }
+      }
+      return this.lastTaskProcessed.get() >= target;
     }
 
     /**
@@ -1454,9 +1711,8 @@ public class IndexManager {
 
     @Override
     public void run() {
-      // async writers main loop
-      // logger.debug("DiskRegion writer started (writer=" + this + ")");
       org.apache.geode.CancelCriterion stopper = ((LocalRegion) region).getCancelCriterion();
+      List<IndexUpdateTask> batch = new ArrayList<>(BATCH_SIZE);
       try {
         while (!this.shutdownRequested) {
           // Termination checks
@@ -1465,54 +1721,114 @@ public class IndexManager {
             break;
           }
           try {
-            Object[] task = (Object[]) pendingTasks.take();
+            batch.add(this.pendingTasks.take());
+            this.pendingTasks.drainTo(batch, BATCH_SIZE - 1);
             if (this.shutdownRequested) {
               break;
             }
-            updateIndexes(task);
+            for (IndexUpdateTask task : batch) {
+              updateIndexes(task);
+            }
+            synchronized (this.lastTaskProcessed) {
+              this.lastTaskProcessed.set(batch.get(batch.size() - 1).sequence);
+              this.lastTaskProcessed.notifyAll();
+            }
+            batch.clear();
           } catch (InterruptedException ignore) {
             return; // give up (exit the thread)
           }
         }
       } finally {
         this.running = false;
+        synchronized (this.lastTaskProcessed) {
+          this.lastTaskProcessed.notifyAll();
+        }
       }
     }
 
-    private void updateIndexes(Object[] task) {
-      int action = (Integer) task[0];
-      RegionEntry entry = (RegionEntry) task[1];
-      int opCode = (Integer) task[2];
-      // System.out.println("entry = "+entry.getKey());
-      if (entry != null || action == RECREATE_INDEX) {
-        try {
-          if (action == RECREATE_INDEX) {
+    private void updateIndexes(IndexUpdateTask task) {
+      RegionEntry entry = task.entry;
+      if (entry == null) {
+        if (task.action == RECREATE_INDEX) {
+          try {
             recreateAllIndexesForRegion();
-          } else {
-            if (entry != null) {
-              entry.setUpdateInProgress(true);
-            }
-            processAction(entry, action, opCode);
-          }
-        } catch (Exception e) {
-          e.printStackTrace();
-        } finally {
-          if (entry != null && action != RECREATE_INDEX) {
-            entry.setUpdateInProgress(false);
+          } catch (Exception e) {
+            logger.warn("Recreating the indexes of " + region.getFullPath() + " failed", e);
           }
         }
+        return;
+      }
+      // later updates of the entry are queued again from now on
+      this.pendingEntryTasks.remove(entry, task);
+      if (task.holdsCapacity) {
+        this.capacity.release();
+      }
+      try {
+        int action;
+        int opCode;
+        synchronized (task) {
+          action = task.action;
+          opCode = task.opCode;
+        }
+        processAction(entry, action, opCode);
+      } catch (Exception e) {
+        logger.warn("Updating the indexes of " + region.getFullPath() + " for "
+            + entry.getKey() + " failed", e);
+      } finally {
+        // queries that started while the index was behind the entry have to evaluate it again
+        setIndexBufferTime(entry.getLastModified(), ((LocalRegion) region).cacheTimeMillis());
+        this.pendingEntryTasks.compute(entry, (e, pending) -> {
+          if (pending == null) {
+            e.setUpdateInProgress(false);
+          }
+          return pending;
+        });
       }
     }
 
     /**
-     * Used by tests to determine if the updater thread has finished updating its indexes. The list
-     * is cleared without synchronization, which makes this methods somewhat unsafe from a threading
-     * point of view.
+     * Used by tests to determine if the updater thread has finished updating its indexes.
      */
-    public synchronized boolean isDone() {
-      return this.pendingTasks.size() == 0;
+    public boolean isDone() {
+      synchronized (this.queueLock) {
+        return this.lastTaskProcessed.get() >= this.numTasksQueued;
+      }
+    }
+
+  }
+
+  /**
+   * An index update queued by the {@link IndexUpdaterThread}
+   */
+  private static class IndexUpdateTask {
+    private final RegionEntry entry;
+    private int action;
+    private int opCode;
+    private long sequence;
+    private boolean holdsCapacity;
+
+    IndexUpdateTask(int action, RegionEntry entry, int opCode) {
+      this.action = action;
+      this.entry = entry;
+      this.opCode = opCode;
     }
 
+    /**
+     * Conflates a later update of the entry into this one, which is possible if both add the
+     * current value of the entry to the indexes.
+     *
+     * @return false if the update has to be applied on its own
+     */
+    synchronized boolean conflate(int newAction, int newOpCode) {
+      if (this.action == REMOVE_ENTRY || newAction == REMOVE_ENTRY) {
+        return false;
+      }
+      if (newAction == UPDATE_ENTRY) {
+        this.action = newAction;
+        this.opCode = newOpCode;
+      }
+      return true;
+    }
   }
 
   /**
@@ -1541,9 +1857,11 @@ public class IndexManager {
 
     public boolean loadEntries;
 
+    public String[] coveredFields;
+
     IndexTask(String indexName, IndexType type, String origFromClause, String origIndexedExpression,
         IndexCreationHelper helper, boolean isCompactOrHash, PartitionedIndex prIndex,
-        boolean loadEntries) {
+        boolean loadEntries, String[] coveredFields) {
       this.indexName = indexName;
       this.indexType = type;
       this.origFromClause = origFromClause;
@@ -1552,6 +1870,7 @@ public class IndexManager {
       this.isCompactOrHash = isCompactOrHash;
       this.prIndex = prIndex;
       this.loadEntries = loadEntries;
+      this.coveredFields = coveredFields;
     }
 
     /* For name based index search */
@@ -1657,9 +1976,14 @@ public class IndexManager {
         }
       }
       ((AbstractIndex) index).setPRIndex(prIndex);
+      ((AbstractIndex) index).setCoveredFields(coveredFields);
 
       if (index.getType() != IndexType.PRIMARY_KEY) {
         AbstractIndex aIndex = ((AbstractIndex) index);
+        if (helper instanceof FunctionalIndexCreationHelper) {
+          aIndex.setCompositeKeyExpressions(
+              ((FunctionalIndexCreationHelper) helper).compositeKeyExpressions);
+        }
         aIndex.instantiateEvaluator(helper);
         waitBeforeUpdate();
         boolean indexCreatedSuccessfully = false;
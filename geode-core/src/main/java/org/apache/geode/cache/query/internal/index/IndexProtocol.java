@@ -183,6 +183,16 @@ public interface IndexProtocol extends Index {
 
   public int getSizeEstimate(Object key, int op, int matchLevel) throws TypeMismatchException;
 
+  /**
+   * Returns the estimated number of entries whose key lies between the given bounds, or -1 if this
+   * index can not estimate it.
+   *
+   * @param lowerBoundOperator greater than or greater than or equal
+   * @param upperBoundOperator less than or less than or equal
+   */
+  public int getSizeEstimate(Object lowerBoundKey, int lowerBoundOperator, Object upperBoundKey,
+      int upperBoundOperator, int matchLevel) throws TypeMismatchException;
+
   public boolean isMatchingWithIndexExpression(CompiledValue condnExpr, String condnExprStr,
       ExecutionContext context)
       throws AmbiguousNameException, TypeMismatchException, NameResolutionException;
@@ -0,0 +1,452 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * An equi-depth histogram of the keys of a range index, used to estimate how many entries a range
+ * condition selects. Each bucket of the histogram holds about as many entries as the others and
+ * records its largest key, so an estimate is never off by more than the entries of one bucket,
+ * however unevenly the keys are spread, and it works for keys that are not numbers.
+ *
+ * The histogram is built by scanning the keys of the index and is rebuilt once the index has changed
+ * by a fraction of the entries it was built from. Only the first histogram of an index with no more
+ * than {@link #MAX_SYNCHRONOUS_KEYS} keys is built by the thread that asks for an estimate. Larger
+ * indexes and all rebuilds are scanned by a background thread, and estimates come from the previous
+ * histogram, or can not be made, until it is done.
+ *
+ * @since Geode 1.4
+ */
+class KeyHistogram {
+
+  /** The number of buckets a histogram aims for; it has at most twice as many */
+  static final int NUM_BUCKETS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.INDEX_HISTOGRAM_BUCKETS", 64);
+
+  /** The fraction of the entries that has to change before the histogram is rebuilt */
+  private static final double REBUILD_FRACTION = 0.1;
+
+  /** The fewest changes that cause a rebuild, so that small indexes are not scanned too often */
+  private static final int MIN_CHANGES_TO_REBUILD = 100;
+
+  /** The most keys a query thread scans to build the first histogram of an index */
+  static final int MAX_SYNCHRONOUS_KEYS = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "Query.INDEX_HISTOGRAM_SYNCHRONOUS_KEYS", 10000);
+
+  private static final Logger logger = LogService.getLogger();
+
+  /** Builds the histograms that are too large to be built by a query thread, one at a time */
+  private static final ExecutorService BACKGROUND_BUILDER = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(
+        LoggingThreadGroup.createThreadGroup("Index Histogram Builder Thread Group", logger), r,
+        "Index Histogram Builder");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Scans the keys of an index.
+   */
+  interface KeyScanner {
+    /**
+     * Passes the keys of the index to the given builder, in ascending order, until it is full.
+     */
+    void scan(Builder builder);
+  }
+
+  private final KeyScanner scanner;
+
+  private final Executor backgroundBuilder;
+
+  private final int maxSynchronousKeys;
+
+  private final AtomicLong changes = new AtomicLong();
+
+  private final AtomicBoolean building = new AtomicBoolean();
+
+  private volatile Buckets buckets;
+
+  /** Incremented when the histogram is discarded, so that a scan started before is not used */
+  private int generation;
+
+  KeyHistogram(KeyScanner scanner) {
+    this(scanner, BACKGROUND_BUILDER, MAX_SYNCHRONOUS_KEYS);
+  }
+
+  KeyHistogram(KeyScanner scanner, Executor backgroundBuilder, int maxSynchronousKeys) {
+    this.scanner = scanner;
+    this.backgroundBuilder = backgroundBuilder;
+    this.maxSynchronousKeys = maxSynchronousKeys;
+  }
+
+  /**
+   * Records that the given number of entries of the index have changed.
+   */
+  void changed(int numChanges) {
+    this.changes.addAndGet(numChanges);
+  }
+
+  /**
+   * Discards the histogram, for when the index is emptied.
+   */
+  synchronized void clear() {
+    this.generation++;
+    this.buckets = null;
+    this.changes.set(0);
+  }
+
+  /**
+   * Returns the estimated number of entries whose key satisfies {@code key operator bound}, or -1
+   * if it can not be estimated.
+   *
+   * @param operator one of the less or greater than operators
+   */
+  int estimate(Object bound, int operator) {
+    Buckets b = getBuckets();
+    if (b == null) {
+      return -1;
+    }
+    try {
+      switch (operator) {
+        case OQLLexerTokenTypes.TOK_LT:
+          return toInt(b.countBelow(bound, false));
+        case OQLLexerTokenTypes.TOK_LE:
+          return toInt(b.countBelow(bound, true));
+        case OQLLexerTokenTypes.TOK_GT:
+          return toInt(b.total - b.countBelow(bound, true));
+        case OQLLexerTokenTypes.TOK_GE:
+          return toInt(b.total - b.countBelow(bound, false));
+        default:
+          return -1;
+      }
+    } catch (RuntimeException ignore) {
+      // the key is not comparable to the keys of the index
+      return -1;
+    }
+  }
+
+  /**
+   * Returns the estimated number of entries whose key lies between the given bounds, or -1 if it
+   * can not be estimated.
+   *
+   * @param lowerBoundOperator greater than or greater than or equal
+   * @param upperBoundOperator less than or less than or equal
+   */
+  int estimate(Object lowerBound, int lowerBoundOperator, Object upperBound,
+      int upperBoundOperator) {
+    Buckets b = getBuckets();
+    if (b == null) {
+      return -1;
+    }
+    try {
+      long upper = b.countBelow(upperBound, upperBoundOperator == OQLLexerTokenTypes.TOK_LE);
+      long lower = b.countBelow(lowerBound, lowerBoundOperator == OQLLexerTokenTypes.TOK_GT);
+      return toInt(Math.max(0, upper - lower));
+    } catch (RuntimeException ignore) {
+      // a key is not comparable to the keys of the index
+      return -1;
+    }
+  }
+
+  private static int toInt(long count) {
+    return (int) Math.min(count, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the current buckets, and starts rebuilding them if the index has changed enough. Null
+   * if they have not been built yet.
+   */
+  private Buckets getBuckets() {
+    Buckets b = this.buckets;
+    if (b != null && this.changes.get() < Math.max(MIN_CHANGES_TO_REBUILD,
+        (long) (b.total * REBUILD_FRACTION))) {
+      return b;
+    }
+    if (!this.building.compareAndSet(false, true)) {
+      return b;
+    }
+    int startGeneration;
+    synchronized (this) {
+      startGeneration = this.generation;
+    }
+    boolean scheduled = false;
+    try {
+      if (b == null) {
+        Buckets built = build(startGeneration, this.maxSynchronousKeys);
+        if (built != null) {
+          return built;
+        }
+      }
+      this.backgroundBuilder.execute(() -> {
+        try {
+          build(startGeneration, Integer.MAX_VALUE);
+        } catch (RuntimeException e) {
+          // the index is being changed in a way the scan can not follow; try again later
+          logger.debug("Could not build the key histogram of an index", e);
+        } finally {
+          this.building.set(false);
+        }
+      });
+      scheduled = true;
+    } catch (RejectedExecutionException ignore) {
+      // the histogram is rebuilt by a later estimate
+    } finally {
+      if (!scheduled) {
+        this.building.set(false);
+      }
+    }
+    return b;
+  }
+
+  /**
+   * Scans the keys of the index and makes the buckets built from them the current ones, unless the
+   * histogram has been cleared since the given generation.
+   *
+   * @return the buckets, or null if the index has more than the given number of keys
+   */
+  private Buckets build(int startGeneration, int maxKeys) {
+    // changes made during the scan may or may not be seen by it
+    this.changes.set(0);
+    Builder builder = new Builder(maxKeys);
+    this.scanner.scan(builder);
+    if (builder.isFull()) {
+      return null;
+    }
+    Buckets b = builder.build();
+    synchronized (this) {
+      if (this.generation == startGeneration) {
+        this.buckets = b;
+      }
+    }
+    return b;
+  }
+
+  /**
+   * Collects the keys of an index into buckets of about equal depth without knowing the number of
+   * entries up front. A bucket is closed once it holds {@code depth} entries; when there are twice
+   * {@link #NUM_BUCKETS} buckets, the depth is doubled and neighbouring buckets are merged.
+   */
+  static class Builder {
+    private final Comparator comparator = TypeUtils.getExtendedNumericComparator();
+
+    private final int maxKeys;
+
+    private int numKeys;
+
+    private Object[] upperKeys = new Object[2 * NUM_BUCKETS];
+
+    private long[] counts = new long[2 * NUM_BUCKETS];
+
+    private long[] upperKeyCounts = new long[2 * NUM_BUCKETS];
+
+    private int numBuckets;
+
+    private long depth = 1;
+
+    private long currentCount;
+
+    private Object firstKey;
+
+    private Object lastKey;
+
+    private long lastKeyCount;
+
+    private long total;
+
+    Builder() {
+      this(Integer.MAX_VALUE);
+    }
+
+    Builder(int maxKeys) {
+      this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Returns true once more keys than the builder takes have been added. The scan can stop then.
+     */
+    boolean isFull() {
+      return this.numKeys > this.maxKeys;
+    }
+
+    /**
+     * Adds a key of the index and the number of entries it maps to. Keys have to be added in
+     * ascending order.
+     *
+     * @return false if the builder is full
+     */
+    boolean add(Object key, int numEntries) {
+      if (numEntries <= 0) {
+        return true;
+      }
+      if (++this.numKeys > this.maxKeys) {
+        this.numKeys = this.maxKeys + 1;
+        return false;
+      }
+      if (this.firstKey == null) {
+        this.firstKey = key;
+      }
+      this.lastKey = key;
+      this.lastKeyCount = numEntries;
+      this.currentCount += numEntries;
+      this.total += numEntries;
+      if (this.currentCount >= this.depth) {
+        closeBucket();
+      }
+      return true;
+    }
+
+    private void closeBucket() {
+      this.upperKeys[this.numBuckets] = this.lastKey;
+      this.counts[this.numBuckets] = this.currentCount;
+      this.upperKeyCounts[this.numBuckets] = this.lastKeyCount;
+      this.numBuckets++;
+      this.currentCount = 0;
+      while (this.numBuckets == this.upperKeys.length) {
+        this.depth *= 2;
+        mergeBuckets();
+      }
+    }
+
+    /**
+     * Merges neighbouring buckets as long as they hold no more than {@code depth} entries
+     * together. Buckets of keys that have more entries than that on their own are left alone, so
+     * that the entries of a frequent key are not spread over the keys of a wide bucket.
+     */
+    private void mergeBuckets() {
+      int merged = 0;
+      for (int i = 1; i < this.numBuckets; i++) {
+        if (this.counts[merged] + this.counts[i] <= this.depth) {
+          this.counts[merged] += this.counts[i];
+        } else {
+          merged++;
+          this.counts[merged] = this.counts[i];
+        }
+        this.upperKeys[merged] = this.upperKeys[i];
+        this.upperKeyCounts[merged] = this.upperKeyCounts[i];
+      }
+      this.numBuckets = merged + 1;
+      Arrays.fill(this.upperKeys, this.numBuckets, this.upperKeys.length, null);
+    }
+
+    Buckets build() {
+      if (this.currentCount > 0) {
+        closeBucket();
+      }
+      long[] cumulativeCounts = new long[this.numBuckets];
+      long cumulative = 0;
+      for (int i = 0; i < this.numBuckets; i++) {
+        cumulative += this.counts[i];
+        cumulativeCounts[i] = cumulative;
+      }
+      return new Buckets(this.comparator, this.firstKey,
+          Arrays.copyOf(this.upperKeys, this.numBuckets), cumulativeCounts,
+          Arrays.copyOf(this.upperKeyCounts, this.numBuckets), this.total);
+    }
+  }
+
+  /**
+   * The buckets of a histogram, which never change once built.
+   */
+  static class Buckets {
+    private final Comparator comparator;
+
+    private final Object firstKey;
+
+    /** The largest key of each bucket */
+    private final Object[] upperKeys;
+
+    /** The number of entries with keys up to and including the largest key of each bucket */
+    private final long[] cumulativeCounts;
+
+    /** The number of entries with the largest key of each bucket */
+    private final long[] upperKeyCounts;
+
+    final long total;
+
+    Buckets(Comparator comparator, Object firstKey, Object[] upperKeys, long[] cumulativeCounts,
+        long[] upperKeyCounts, long total) {
+      this.comparator = comparator;
+      this.firstKey = firstKey;
+      this.upperKeys = upperKeys;
+      this.cumulativeCounts = cumulativeCounts;
+      this.upperKeyCounts = upperKeyCounts;
+      this.total = total;
+    }
+
+    /**
+     * Returns the estimated number of entries whose key is less than (or equal to) the given key.
+     */
+    long countBelow(Object key, boolean inclusive) {
+      if (this.upperKeys.length == 0 || this.comparator.compare(key, this.firstKey) < 0) {
+        return 0;
+      }
+      // find the first bucket whose largest key is not less than the key
+      int low = 0;
+      int high = this.upperKeys.length - 1;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (this.comparator.compare(this.upperKeys[mid], key) < 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      int cmp = this.comparator.compare(this.upperKeys[low], key);
+      if (cmp < 0) {
+        return this.total;
+      }
+      if (cmp == 0) {
+        return inclusive ? this.cumulativeCounts[low]
+            : this.cumulativeCounts[low] - this.upperKeyCounts[low];
+      }
+      long below = low == 0 ? 0 : this.cumulativeCounts[low - 1];
+      long inBucket = this.cumulativeCounts[low] - below - this.upperKeyCounts[low];
+      Object lowerKey = low == 0 ? this.firstKey : this.upperKeys[low - 1];
+      return below + (long) (inBucket * fractionBelow(lowerKey, key, this.upperKeys[low]));
+    }
+
+    /**
+     * Returns the fraction of a bucket that lies below the given key, assuming evenly spread
+     * numbers or, for other keys, that the key is in the middle of the bucket.
+     */
+    private static double fractionBelow(Object lowerKey, Object key, Object upperKey) {
+      if (lowerKey instanceof Number && key instanceof Number && upperKey instanceof Number) {
+        double lower = ((Number) lowerKey).doubleValue();
+        double upper = ((Number) upperKey).doubleValue();
+        if (upper > lower) {
+          double fraction = (((Number) key).doubleValue() - lower) / (upper - lower);
+          return Math.max(0, Math.min(1, fraction));
+        }
+      }
+      return 0.5;
+    }
+  }
+}
@@ -44,6 +44,7 @@ import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.persistence.query.CloseableIterator;
+import org.apache.geode.internal.offheap.MemoryAllocator;
 
 /**
  * The in-memory index storage
@@ -83,17 +84,33 @@ public class MemoryIndexStore implements IndexStore {
   // new collection
   private final Object TRANSITIONING_TOKEN = new IndexElemArray(1);
 
+  /**
+   * The off-heap memory used for index keys that map to more than one entry, or null if they are
+   * kept in heap collections.
+   */
+  private final MemoryAllocator offHeapStore;
+
   MemoryIndexStore(Region region, InternalIndexStatistics internalIndexStats) {
-    this(region, internalIndexStats, GemFireCacheImpl.getInstance());
+    this(region, internalIndexStats, false);
+  }
+
+  /**
+   * @param offHeapEntries true if the entries of an index key that maps to more than one entry
+   *        should be kept in the off-heap memory of the cache. See {@link OffHeapIndexEntrySet}.
+   */
+  MemoryIndexStore(Region region, InternalIndexStatistics internalIndexStats,
+      boolean offHeapEntries) {
+    this(region, internalIndexStats, GemFireCacheImpl.getInstance(), offHeapEntries);
   }
 
   private MemoryIndexStore(Region region, InternalIndexStatistics internalIndexStats,
-      InternalCache cache) {
+      InternalCache cache, boolean offHeapEntries) {
     this.region = region;
+    this.offHeapStore = offHeapEntries ? cache.getOffHeapStore() : null;
     RegionAttributes ra = region.getAttributes();
     // Initialize the reverse-map if in-place modification is set by the
-    // application.
-    if (IndexManager.isObjectModificationInplace()) {
+    // application or the indexes are maintained asynchronously.
+    if (IndexManager.isReverseMapRequired(region)) {
       this.entryToValuesMap = new ConcurrentHashMap(ra.getInitialCapacity(), ra.getLoadFactor(),
           ra.getConcurrencyLevel());
     }
@@ -111,7 +128,7 @@ public class MemoryIndexStore implements IndexStore {
       }
 
       // Check if reverse-map is present.
-      if (IndexManager.isObjectModificationInplace()) {
+      if (this.entryToValuesMap != null) {
         // If reverse map get the old index key from reverse map.
         if (this.entryToValuesMap.containsKey(re)) {
           oldKey = this.entryToValuesMap.get(re);
@@ -152,6 +169,29 @@ public class MemoryIndexStore implements IndexStore {
         } else if (regionEntries == null) {
           internalIndexStats.incNumKeys(1);
           numIndexKeys.incrementAndGet();
+        } else if (regionEntries instanceof RegionEntry && this.offHeapStore != null) {
+          OffHeapIndexEntrySet set =
+              new OffHeapIndexEntrySet((LocalRegion) this.region, this.offHeapStore);
+          set.add((RegionEntry) regionEntries);
+          set.add(re);
+          if (!this.valueToEntriesMap.replace(indexKey, regionEntries, set)) {
+            set.release();
+            retry = true;
+          }
+        } else if (regionEntries instanceof OffHeapIndexEntrySet) {
+          OffHeapIndexEntrySet set = (OffHeapIndexEntrySet) regionEntries;
+          // Same as for the ConcurrentHashSet below. A released set has already been removed
+          // from the map by basicRemoveMapping.
+          synchronized (set) {
+            if (set.isReleased()) {
+              retry = true;
+            } else {
+              set.add(re);
+            }
+          }
+          if (!retry && regionEntries != this.valueToEntriesMap.get(indexKey)) {
+            retry = true;
+          }
         } else if (regionEntries instanceof RegionEntry) {
           IndexElemArray elemArray = new IndexElemArray();
           if (DefaultQuery.testHook != null) {
@@ -237,7 +277,7 @@ public class MemoryIndexStore implements IndexStore {
             basicRemoveMapping(oldKey, re, false);
           }
 
-          if (IndexManager.isObjectModificationInplace()) {
+          if (this.entryToValuesMap != null) {
             this.entryToValuesMap.put(re, indexKey);
           }
         }
@@ -288,7 +328,7 @@ public class MemoryIndexStore implements IndexStore {
     // We do NOT need to synchronize here as different RegionEntries will be
     // operating concurrently i.e. different keys in entryToValuesMap which
     // is a concurrent map.
-    if (found && IndexManager.isObjectModificationInplace()) {
+    if (found && this.entryToValuesMap != null) {
       this.entryToValuesMap.remove(re);
     }
   }
@@ -353,6 +393,9 @@ public class MemoryIndexStore implements IndexStore {
                   if (valueToEntriesMap.remove(newKey, entries)) {
                     numIndexKeys.decrementAndGet();
                     internalIndexStats.incNumKeys(-1);
+                    if (entries instanceof OffHeapIndexEntrySet) {
+                      ((OffHeapIndexEntrySet) entries).release();
+                    }
                   }
                 }
               }
@@ -369,7 +412,7 @@ public class MemoryIndexStore implements IndexStore {
     if (found) {
       // Update stats if entry was actually removed
       internalIndexStats.incNumValues(-1);
-    } else if (!found && !possiblyAlreadyRemoved && !IndexManager.isObjectModificationInplace()
+    } else if (!found && !possiblyAlreadyRemoved && this.entryToValuesMap == null
         && key != null) {
       // if there is an inplace-modification find old key by iterating
       // over fwd map and then remove the mapping
@@ -387,7 +430,7 @@ public class MemoryIndexStore implements IndexStore {
 
   private Object convertToIndexKey(Object key, RegionEntry entry) throws TypeMismatchException {
     Object newKey;
-    if (IndexManager.isObjectModificationInplace() && this.entryToValuesMap.containsKey(entry)) {
+    if (this.entryToValuesMap != null && this.entryToValuesMap.containsKey(entry)) {
       newKey = this.entryToValuesMap.get(entry);
     } else {
       newKey = TypeUtils.indexKeyFor(key);
@@ -541,14 +584,28 @@ public class MemoryIndexStore implements IndexStore {
 
   @Override
   public boolean clear() {
+    if (this.offHeapStore != null) {
+      for (Object regionEntries : this.valueToEntriesMap.values()) {
+        if (regionEntries instanceof OffHeapIndexEntrySet) {
+          ((OffHeapIndexEntrySet) regionEntries).release();
+        }
+      }
+    }
     this.valueToEntriesMap.clear();
-    if (IndexManager.isObjectModificationInplace()) {
+    if (this.entryToValuesMap != null) {
       this.entryToValuesMap.clear();
     }
     numIndexKeys.set(0);
     return true;
   }
 
+  /**
+   * Returns true if the entries of keys that map to more than one entry are kept off-heap.
+   */
+  boolean hasOffHeapEntries() {
+    return this.offHeapStore != null;
+  }
+
   @Override
   public int size(Object key) {
     Object obj = valueToEntriesMap.get(key);
@@ -564,6 +621,24 @@ public class MemoryIndexStore implements IndexStore {
     return numIndexKeys.get();
   }
 
+  /**
+   * Passes the keys of this store, other than null and UNDEFINED, and the number of entries each
+   * maps to, in ascending order of the keys, to the given histogram builder until it is full.
+   */
+  void scanKeys(KeyHistogram.Builder builder) {
+    for (Object o : valueToEntriesMap.entrySet()) {
+      Map.Entry entry = (Map.Entry) o;
+      Object key = entry.getKey();
+      if (key == IndexManager.NULL || key == QueryService.UNDEFINED) {
+        continue;
+      }
+      Object value = entry.getValue();
+      if (!builder.add(key, value instanceof RegionEntry ? 1 : ((Collection) value).size())) {
+        return;
+      }
+    }
+  }
+
   private class MemoryIndexStoreKeyIterator implements Iterator<IndexStoreEntry> {
 
     private final Map valuesToEntriesMap;
@@ -776,6 +851,7 @@ public class MemoryIndexStore implements IndexStore {
     private RegionEntry regionEntry;
     private boolean updateInProgress;
     private Object value;
+    private boolean valueRead;
     private long iteratorStartTime;
 
     private MemoryIndexStoreEntry(long iteratorStartTime) {
@@ -786,7 +862,9 @@ public class MemoryIndexStore implements IndexStore {
       this.deserializedIndexKey = deserializedIndexKey;
       this.regionEntry = regionEntry;
       this.updateInProgress = regionEntry.isUpdateInProgress();
-      this.value = getTargetObject(regionEntry);
+      // the value is read when it is asked for, covering indexes may not need it
+      this.value = null;
+      this.valueRead = false;
     }
 
     @Override
@@ -796,6 +874,10 @@ public class MemoryIndexStore implements IndexStore {
 
     @Override
     public Object getDeserializedValue() {
+      if (!valueRead) {
+        value = getTargetObject(regionEntry);
+        valueRead = true;
+      }
       return value;
     }
 
@@ -0,0 +1,381 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.AbstractCollection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.offheap.AddressableMemoryManager;
+import org.apache.geode.internal.offheap.MemoryAllocator;
+import org.apache.geode.internal.offheap.StoredObject;
+
+/**
+ * The region entries that map to a single index key of a {@link MemoryIndexStore} whose entry
+ * collections are kept off-heap. An entry whose region key is an Integer or a Long is stored as
+ * that primitive key in an open addressing hash table allocated from the cache's off-heap memory,
+ * so it costs eight bytes instead of a heap reference plus a hash set node. The entry itself is
+ * looked up in the region when iterating. Entries with any other kind of region key are kept in a
+ * heap set.
+ *
+ * All access is synchronized on this set. Iterators work on a snapshot taken when they are created
+ * and skip entries that have been destroyed since. {@link #release()} must be called once the set
+ * has been removed from the index to free its off-heap memory.
+ *
+ * @since Geode 1.4
+ */
+class OffHeapIndexEntrySet extends AbstractCollection<RegionEntry> {
+
+  /** A slot that has never been used. The region key 0 is tracked by {@link #containsZero}. */
+  private static final long EMPTY = 0L;
+
+  /**
+   * A slot whose key has been removed. The region key Long.MIN_VALUE is tracked by
+   * {@link #containsMinValue}.
+   */
+  private static final long REMOVED = Long.MIN_VALUE;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private static final RegionEntry[] NO_ENTRIES = new RegionEntry[0];
+
+  private final LocalRegion region;
+
+  private final MemoryAllocator allocator;
+
+  private StoredObject table;
+
+  private long tableAddress;
+
+  private int capacity;
+
+  /** The number of slots that are not {@link #EMPTY} */
+  private int usedSlots;
+
+  /** The number of keys in the table */
+  private int tableSize;
+
+  private boolean containsZero;
+
+  private boolean containsMinValue;
+
+  /** Integer or Long once the first primitive key has been added */
+  private Class<?> keyClass;
+
+  private Set<RegionEntry> heapEntries;
+
+  private boolean released;
+
+  OffHeapIndexEntrySet(LocalRegion region, MemoryAllocator allocator) {
+    this.region = region;
+    this.allocator = allocator;
+  }
+
+  @Override
+  public synchronized boolean add(RegionEntry entry) {
+    if (this.released) {
+      return false;
+    }
+    Object key = entry.getKey();
+    if (this.keyClass == null && (key instanceof Integer || key instanceof Long)) {
+      this.keyClass = key.getClass();
+    }
+    if (isPrimitiveKey(key)) {
+      return addKey(((Number) key).longValue());
+    }
+    if (this.heapEntries == null) {
+      this.heapEntries = new HashSet<>();
+    }
+    return this.heapEntries.add(entry);
+  }
+
+  @Override
+  public synchronized boolean remove(Object o) {
+    if (this.released || !(o instanceof RegionEntry)) {
+      return false;
+    }
+    Object key = ((RegionEntry) o).getKey();
+    if (isPrimitiveKey(key)) {
+      return removeKey(((Number) key).longValue());
+    }
+    return this.heapEntries != null && this.heapEntries.remove(o);
+  }
+
+  @Override
+  public synchronized boolean contains(Object o) {
+    if (this.released || !(o instanceof RegionEntry)) {
+      return false;
+    }
+    Object key = ((RegionEntry) o).getKey();
+    if (isPrimitiveKey(key)) {
+      return containsKey(((Number) key).longValue());
+    }
+    return this.heapEntries != null && this.heapEntries.contains(o);
+  }
+
+  @Override
+  public synchronized int size() {
+    return primitiveSize() + (this.heapEntries == null ? 0 : this.heapEntries.size());
+  }
+
+  @Override
+  public synchronized boolean isEmpty() {
+    return size() == 0;
+  }
+
+  synchronized boolean isReleased() {
+    return this.released;
+  }
+
+  /**
+   * Frees the off-heap memory of this set. Nothing can be added to it afterwards.
+   */
+  synchronized void release() {
+    if (this.table != null) {
+      this.table.release();
+      this.table = null;
+    }
+    this.released = true;
+    this.heapEntries = null;
+    this.capacity = 0;
+    this.usedSlots = 0;
+    this.tableSize = 0;
+    this.containsZero = false;
+    this.containsMinValue = false;
+  }
+
+  @Override
+  public synchronized Iterator<RegionEntry> iterator() {
+    long[] keys = new long[primitiveSize()];
+    int count = 0;
+    if (this.containsZero) {
+      keys[count++] = 0L;
+    }
+    if (this.containsMinValue) {
+      keys[count++] = Long.MIN_VALUE;
+    }
+    for (int i = 0; i < this.capacity; i++) {
+      long slot = readSlot(i);
+      if (slot != EMPTY && slot != REMOVED) {
+        keys[count++] = slot;
+      }
+    }
+    RegionEntry[] entries =
+        this.heapEntries == null ? NO_ENTRIES : this.heapEntries.toArray(NO_ENTRIES);
+    return new SnapshotIterator(keys, this.keyClass, entries);
+  }
+
+  private boolean isPrimitiveKey(Object key) {
+    return key != null && key.getClass() == this.keyClass;
+  }
+
+  private int primitiveSize() {
+    return this.tableSize + (this.containsZero ? 1 : 0) + (this.containsMinValue ? 1 : 0);
+  }
+
+  private boolean addKey(long key) {
+    if (key == EMPTY) {
+      boolean added = !this.containsZero;
+      this.containsZero = true;
+      return added;
+    }
+    if (key == REMOVED) {
+      boolean added = !this.containsMinValue;
+      this.containsMinValue = true;
+      return added;
+    }
+    if (this.table == null) {
+      allocateTable(INITIAL_CAPACITY);
+    } else if (this.usedSlots + 1 > this.capacity * LOAD_FACTOR) {
+      // rehashing also drops the removed slots
+      rehash(HashCommon.arraySize(this.tableSize + 1, LOAD_FACTOR));
+    }
+    int mask = this.capacity - 1;
+    int i = (int) HashCommon.mix(key) & mask;
+    int firstRemoved = -1;
+    long slot;
+    while ((slot = readSlot(i)) != EMPTY) {
+      if (slot == key) {
+        return false;
+      }
+      if (slot == REMOVED && firstRemoved == -1) {
+        firstRemoved = i;
+      }
+      i = (i + 1) & mask;
+    }
+    if (firstRemoved != -1) {
+      writeSlot(firstRemoved, key);
+    } else {
+      writeSlot(i, key);
+      this.usedSlots++;
+    }
+    this.tableSize++;
+    return true;
+  }
+
+  private boolean removeKey(long key) {
+    if (key == EMPTY) {
+      boolean removed = this.containsZero;
+      this.containsZero = false;
+      return removed;
+    }
+    if (key == REMOVED) {
+      boolean removed = this.containsMinValue;
+      this.containsMinValue = false;
+      return removed;
+    }
+    int i = findSlot(key);
+    if (i == -1) {
+      return false;
+    }
+    // Mark the slot so that probing for the keys after it still works. Removed slots are reused
+    // by later adds and dropped the next time the table is rehashed.
+    writeSlot(i, REMOVED);
+    this.tableSize--;
+    return true;
+  }
+
+  private boolean containsKey(long key) {
+    if (key == EMPTY) {
+      return this.containsZero;
+    }
+    if (key == REMOVED) {
+      return this.containsMinValue;
+    }
+    return findSlot(key) != -1;
+  }
+
+  private int findSlot(long key) {
+    if (this.table == null) {
+      return -1;
+    }
+    int mask = this.capacity - 1;
+    int i = (int) HashCommon.mix(key) & mask;
+    long slot;
+    while ((slot = readSlot(i)) != EMPTY) {
+      if (slot == key) {
+        return i;
+      }
+      i = (i + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void allocateTable(int newCapacity) {
+    int size = newCapacity << 3;
+    this.table = this.allocator.allocate(size);
+    this.tableAddress = this.table.getAddressForReadingData(0, size);
+    AddressableMemoryManager.fill(this.tableAddress, size, (byte) 0);
+    this.capacity = newCapacity;
+    this.usedSlots = 0;
+  }
+
+  private void rehash(int newCapacity) {
+    StoredObject oldTable = this.table;
+    long oldAddress = this.tableAddress;
+    int oldCapacity = this.capacity;
+    allocateTable(newCapacity);
+    int mask = newCapacity - 1;
+    for (int j = 0; j < oldCapacity; j++) {
+      long key = AddressableMemoryManager.readLong(oldAddress + ((long) j << 3));
+      if (key != EMPTY && key != REMOVED) {
+        int i = (int) HashCommon.mix(key) & mask;
+        while (readSlot(i) != EMPTY) {
+          i = (i + 1) & mask;
+        }
+        writeSlot(i, key);
+        this.usedSlots++;
+      }
+    }
+    oldTable.release();
+  }
+
+  private long readSlot(int i) {
+    return AddressableMemoryManager.readLong(this.tableAddress + ((long) i << 3));
+  }
+
+  private void writeSlot(int i, long key) {
+    AddressableMemoryManager.writeLong(this.tableAddress + ((long) i << 3), key);
+  }
+
+  /**
+   * Iterates over the region entries of a snapshot of this set, looking up the entries stored as
+   * primitive keys in the region.
+   */
+  private class SnapshotIterator implements Iterator<RegionEntry> {
+    private final long[] keys;
+
+    private final Class<?> keyClass;
+
+    private final RegionEntry[] entries;
+
+    private int keyIndex;
+
+    private int entryIndex;
+
+    private RegionEntry next;
+
+    SnapshotIterator(long[] keys, Class<?> keyClass, RegionEntry[] entries) {
+      this.keys = keys;
+      this.keyClass = keyClass;
+      this.entries = entries;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (this.next == null && this.keyIndex < this.keys.length) {
+        long key = this.keys[this.keyIndex++];
+        // not a conditional expression, which would unbox both branches to a long
+        Object regionKey;
+        if (this.keyClass == Integer.class) {
+          regionKey = Integer.valueOf((int) key);
+        } else {
+          regionKey = Long.valueOf(key);
+        }
+        RegionEntry entry = region.getRegionEntry(regionKey);
+        if (entry != null && !entry.isRemoved()) {
+          this.next = entry;
+        }
+      }
+      if (this.next == null && this.entryIndex < this.entries.length) {
+        this.next = this.entries[this.entryIndex++];
+      }
+      return this.next != null;
+    }
+
+    @Override
+    public RegionEntry next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      RegionEntry result = this.next;
+      this.next = null;
+      return result;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
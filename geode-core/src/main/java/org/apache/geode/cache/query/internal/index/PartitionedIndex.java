@@ -92,14 +92,6 @@ public class PartitionedIndex extends AbstractIndex {
         null);
     this.type = iType;
     this.imports = imports;
-
-    if (iType == IndexType.HASH) {
-      if (!getRegion().getAttributes().getIndexMaintenanceSynchronous()) {
-        throw new UnsupportedOperationException(
-            LocalizedStrings.DefaultQueryService_HASH_INDEX_CREATION_IS_NOT_SUPPORTED_FOR_ASYNC_MAINTENANCE
-                .toLocalizedString());
-      }
-    }
   }
 
   /**
@@ -66,6 +66,17 @@ public class RangeIndex extends AbstractIndex {
   final ConcurrentNavigableMap valueToEntriesMap =
       new ConcurrentSkipListMap(TypeUtils.getExtendedNumericComparator());
 
+  /** Histogram of the keys in valueToEntriesMap, for estimating the size of range lookups */
+  private final KeyHistogram keyHistogram = new KeyHistogram(builder -> {
+    for (Object o : this.valueToEntriesMap.entrySet()) {
+      Map.Entry entry = (Map.Entry) o;
+      if (!builder.add(entry.getKey(),
+          ((RegionEntryToValuesMap) entry.getValue()).getNumValues())) {
+        return;
+      }
+    }
+  });
+
   // Map for RegionEntries=>value of indexedExpression (reverse map)
   private final RegionEntryToValuesMap entryToValuesMap;
 
@@ -115,6 +126,11 @@ public class RangeIndex extends AbstractIndex {
     return false;
   }
 
+  @Override
+  KeyHistogram getKeyHistogram() {
+    return this.keyHistogram;
+  }
+
   @Override
   void instantiateEvaluator(IndexCreationHelper indexCreationHelper) {
     this.evaluator = new IMQEvaluator(indexCreationHelper);
@@ -180,6 +196,7 @@ public class RangeIndex extends AbstractIndex {
     }
 
     this.internalIndexStats.incNumUpdates();
+    this.keyHistogram.changed(1);
   }
 
   public void addSavedMappings(RegionEntry entry) throws IMQException {
@@ -486,6 +503,7 @@ public class RangeIndex extends AbstractIndex {
       }
     }
     this.internalIndexStats.incNumUpdates();
+    this.keyHistogram.changed(1);
   }
 
   /**
@@ -555,6 +573,7 @@ public class RangeIndex extends AbstractIndex {
       this.entryToValuesMap.remove(entry);
     }
     this.internalIndexStats.incNumUpdates();
+    this.keyHistogram.changed(1);
   }
 
   // Asif TODO: Provide explanation of the method. Test this method
@@ -676,11 +695,17 @@ public class RangeIndex extends AbstractIndex {
           break;
         case OQLLexerTokenTypes.TOK_LE:
         case OQLLexerTokenTypes.TOK_LT:
-          if (matchLevel <= 0 && key instanceof Number) {
-            int totalSize = valueToEntriesMapSize;// this.valueToEntriesMap.size();
+          if (matchLevel <= 0) {
             if (RangeIndex.testHook != null) {
               RangeIndex.testHook.hook(1);
             }
+            size = estimateFromHistogram(key, operator);
+            if (size >= 0) {
+              break;
+            }
+          }
+          if (matchLevel <= 0 && key instanceof Number) {
+            int totalSize = valueToEntriesMapSize;// this.valueToEntriesMap.size();
             if (totalSize > 1) {
               Number keyAsNum = (Number) key;
               int x = 0;
@@ -715,11 +740,17 @@ public class RangeIndex extends AbstractIndex {
 
         case OQLLexerTokenTypes.TOK_GE:
         case OQLLexerTokenTypes.TOK_GT:
-          if (matchLevel <= 0 && key instanceof Number) {
-            int totalSize = valueToEntriesMapSize;// this.valueToEntriesMap.size();
+          if (matchLevel <= 0) {
             if (testHook != null) {
               testHook.hook(2);
             }
+            size = estimateFromHistogram(key, operator);
+            if (size >= 0) {
+              break;
+            }
+          }
+          if (matchLevel <= 0 && key instanceof Number) {
+            int totalSize = valueToEntriesMapSize;// this.valueToEntriesMap.size();
             if (totalSize > 1) {
               Number keyAsNum = (Number) key;
               int x = 0;
@@ -1158,6 +1189,7 @@ public class RangeIndex extends AbstractIndex {
     this.entryToValuesMap.clear();
     this.nullMappedEntries.clear();
     this.undefinedMappedEntries.clear();
+    this.keyHistogram.clear();
     int numKeys = (int) this.internalIndexStats.getNumberOfKeys();
     if (numKeys > 0) {
       this.internalIndexStats.incNumKeys(-numKeys);
@@ -2110,6 +2110,7 @@ public class BucketRegion extends DistributedRegion implements Bucket {
       this.partitionedRegion.getPrStats().incDataStoreEntryCount(-sizeBeforeClear);
       prDs.updateMemoryStats(-oldMemValue);
     }
+    this.partitionedRegion.incModificationCount();
   }
 
   @Override
@@ -2126,18 +2127,21 @@ public class BucketRegion extends DistributedRegion implements Bucket {
   @Override
   void updateSizeOnPut(Object key, int oldSize, int newSize) {
     updateBucket2Size(oldSize, newSize, SizeOp.UPDATE);
+    this.partitionedRegion.incModificationCount();
   }
 
   @Override
   void updateSizeOnCreate(Object key, int newSize) {
     this.partitionedRegion.getPrStats().incDataStoreEntryCount(1);
     updateBucket2Size(0, newSize, SizeOp.CREATE);
+    this.partitionedRegion.incModificationCount();
   }
 
   @Override
   void updateSizeOnRemove(Object key, int oldSize) {
     this.partitionedRegion.getPrStats().incDataStoreEntryCount(-1);
     updateBucket2Size(oldSize, 0, SizeOp.DESTROY);
+    this.partitionedRegion.incModificationCount();
   }
 
   @Override
@@ -76,6 +76,8 @@ public class CachePerfStats {
   protected static final int queryResultsHashCollisionsId;
   protected static final int queryResultsHashCollisionProbeTimeId;
   protected static final int partitionedRegionQueryRetriesId;
+  protected static final int queryResultCacheHitsId;
+  protected static final int queryResultCacheMissesId;
 
   protected static final int txSuccessLifeTimeId;
   protected static final int txFailedLifeTimeId;
@@ -238,6 +240,10 @@ public class CachePerfStats {
         "Total time spent probing the hashtable in an OQL result set due to hash code collisions, includes reads, writes, and rehashes";
     final String partitionedRegionOQLQueryRetriesDesc =
         "Total number of times an OQL Query on a Partitioned Region had to be retried";
+    final String queryResultCacheHitsDesc =
+        "Total number of times the result of a query was found in the query result cache";
+    final String queryResultCacheMissesDesc =
+        "Total number of times the result of a cacheable query was not found in the query result cache or was no longer valid";
     final String txSuccessLifeTimeDesc =
         "The total amount of time, in nanoseconds, spent in a transaction before a successful commit. The time measured starts at transaction begin and ends when commit is called.";
     final String txFailedLifeTimeDesc =
@@ -414,6 +420,9 @@ public class CachePerfStats {
                 queryResultsHashCollisionProbeTimeDesc, "nanoseconds"),
             f.createLongCounter("partitionedRegionQueryRetries",
                 partitionedRegionOQLQueryRetriesDesc, "retries"),
+            f.createLongCounter("queryResultCacheHits", queryResultCacheHitsDesc, "operations"),
+            f.createLongCounter("queryResultCacheMisses", queryResultCacheMissesDesc,
+                "operations"),
 
             f.createIntCounter("txCommits", txCommitsDesc, "commits"),
             f.createIntCounter("txCommitChanges", txCommitChangesDesc, "changes"),
@@ -558,6 +567,8 @@ public class CachePerfStats {
     queryResultsHashCollisionsId = type.nameToId("queryResultsHashCollisions");
     queryResultsHashCollisionProbeTimeId = type.nameToId("queryResultsHashCollisionProbeTime");
     partitionedRegionQueryRetriesId = type.nameToId("partitionedRegionQueryRetries");
+    queryResultCacheHitsId = type.nameToId("queryResultCacheHits");
+    queryResultCacheMissesId = type.nameToId("queryResultCacheMisses");
 
     txSuccessLifeTimeId = type.nameToId("txSuccessLifeTime");
     txFailedLifeTimeId = type.nameToId("txFailedLifeTime");
@@ -1482,6 +1493,22 @@ public class CachePerfStats {
     return this.stats.getLong(partitionedRegionQueryRetriesId);
   }
 
+  public void incQueryResultCacheHits() {
+    this.stats.incLong(queryResultCacheHitsId, 1);
+  }
+
+  public long getQueryResultCacheHits() {
+    return this.stats.getLong(queryResultCacheHitsId);
+  }
+
+  public void incQueryResultCacheMisses() {
+    this.stats.incLong(queryResultCacheMissesId, 1);
+  }
+
+  public long getQueryResultCacheMisses() {
+    return this.stats.getLong(queryResultCacheMissesId);
+  }
+
   public QueueStatHelper getEvictionQueueStatHelper() {
     return new QueueStatHelper() {
       public void add() {
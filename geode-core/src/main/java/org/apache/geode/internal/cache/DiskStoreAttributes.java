@@ -18,6 +18,8 @@
 package org.apache.geode.internal.cache;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.UUID;
 
@@ -42,6 +44,7 @@ public class DiskStoreAttributes implements Serializable, DiskStore {
 
   public long maxOplogSizeInBytes;
   public long timeInterval;
+  public long groupCommitMaxLatency;
 
   public int[] diskDirSizes;
 
@@ -61,12 +64,35 @@ public class DiskStoreAttributes implements Serializable, DiskStore {
     this.timeInterval = DiskStoreFactory.DEFAULT_TIME_INTERVAL;
     this.writeBufferSize = DiskStoreFactory.DEFAULT_WRITE_BUFFER_SIZE;
     this.queueSize = DiskStoreFactory.DEFAULT_QUEUE_SIZE;
+    this.groupCommitMaxLatency = DiskStoreFactory.DEFAULT_GROUP_COMMIT_MAX_LATENCY;
     this.diskDirs = DiskStoreFactory.DEFAULT_DISK_DIRS;
     this.diskDirSizes = DiskStoreFactory.DEFAULT_DISK_DIR_SIZES;
     this.diskUsageWarningPct = DiskStoreFactory.DEFAULT_DISK_USAGE_WARNING_PERCENTAGE;
     this.diskUsageCriticalPct = DiskStoreFactory.DEFAULT_DISK_USAGE_CRITICAL_PERCENTAGE;
   }
 
+  /**
+   * Reads the fields one by one so that attributes serialized before groupCommitMaxLatency existed
+   * get its default instead of zero, which would turn group commit on.
+   */
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    this.allowForceCompaction = fields.get("allowForceCompaction", false);
+    this.autoCompact = fields.get("autoCompact", false);
+    this.compactionThreshold = fields.get("compactionThreshold", 0);
+    this.queueSize = fields.get("queueSize", 0);
+    this.writeBufferSize = fields.get("writeBufferSize", 0);
+    this.maxOplogSizeInBytes = fields.get("maxOplogSizeInBytes", 0L);
+    this.timeInterval = fields.get("timeInterval", 0L);
+    this.groupCommitMaxLatency = fields.get("groupCommitMaxLatency",
+        DiskStoreFactory.DEFAULT_GROUP_COMMIT_MAX_LATENCY);
+    this.diskDirSizes = (int[]) fields.get("diskDirSizes", null);
+    this.diskDirs = (File[]) fields.get("diskDirs", null);
+    this.name = (String) fields.get("name", null);
+    this.diskUsageWarningPct = fields.get("diskUsageWarningPct", 0f);
+    this.diskUsageCriticalPct = fields.get("diskUsageCriticalPct", 0f);
+  }
+
   public UUID getDiskStoreUUID() {
     throw new UnsupportedOperationException("Not Implemented!");
   }
@@ -173,6 +199,15 @@ public class DiskStoreAttributes implements Serializable, DiskStore {
     return this.writeBufferSize;
   }
 
+  /*
+   * (non-Javadoc)
+   *
+   * @see org.apache.geode.cache.DiskStore#getGroupCommitMaxLatency()
+   */
+  public long getGroupCommitMaxLatency() {
+    return this.groupCommitMaxLatency;
+  }
+
   public void flush() {
     // nothing needed
   }
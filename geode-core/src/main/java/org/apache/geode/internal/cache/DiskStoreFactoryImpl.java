@@ -51,6 +51,7 @@ public class DiskStoreFactoryImpl implements DiskStoreFactory {
     setTimeInterval(attrs.getTimeInterval());
     setWriteBufferSize(attrs.getWriteBufferSize());
     setQueueSize(attrs.getQueueSize());
+    setGroupCommitMaxLatency(attrs.getGroupCommitMaxLatency());
     setDiskDirs(cloneArray(attrs.getDiskDirs()));
     setDiskDirsAndSizes(cloneArray(attrs.getDiskDirs()), cloneArray(attrs.getDiskDirSizes()));
     setDiskUsageWarningPercentage(attrs.getDiskUsageWarningPercentage());
@@ -298,6 +299,11 @@ public class DiskStoreFactoryImpl implements DiskStoreFactory {
     return this;
   }
 
+  public DiskStoreFactory setGroupCommitMaxLatency(long groupCommitMaxLatency) {
+    this.attrs.groupCommitMaxLatency = groupCommitMaxLatency;
+    return this;
+  }
+
   // used by hyda
   public DiskStoreAttributes getDiskStoreAttributes() {
     return this.attrs;
@@ -190,6 +190,18 @@ public class DiskStoreImpl implements DiskStore {
   final boolean RECOVER_LRU_VALUES =
       getBoolean(DiskStoreImpl.RECOVER_LRU_VALUES_PROPERTY_NAME, false);
 
+  public static final String RECOVERY_PARALLELISM_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryParallelism";
+
+  /**
+   * The number of threads used to read krfs and rebuild the recovered entries of different regions
+   * (or buckets) concurrently. A value of 1 (the default) recovers the oplogs one at a time on the
+   * recovering thread. Made non static so tests can set it.
+   *
+   * @since Geode 1.4
+   */
+  int RECOVERY_PARALLELISM = Integer.getInteger(RECOVERY_PARALLELISM_PROPERTY_NAME, 1);
+
   public static boolean getBoolean(String sysProp, boolean def) {
     return Boolean.valueOf(System.getProperty(sysProp, Boolean.valueOf(def).toString()));
   }
@@ -410,6 +422,7 @@ public class DiskStoreImpl implements DiskStore {
     this.timeInterval = props.getTimeInterval();
     this.queueSize = props.getQueueSize();
     this.writeBufferSize = props.getWriteBufferSize();
+    this.groupCommitMaxLatency = props.getGroupCommitMaxLatency();
     this.diskDirs = props.getDiskDirs();
     this.diskDirSizes = props.getDiskDirSizes();
     this.warningPercent = props.getDiskUsageWarningPercentage();
@@ -546,6 +559,12 @@ public class DiskStoreImpl implements DiskStore {
     if (getWriteBufferSize() != props.getWriteBufferSize()) {
       logger.debug("WriteBufferSize {} != {}", getWriteBufferSize(), props.getWriteBufferSize());
     }
+    if (getGroupCommitMaxLatency() != props.getGroupCommitMaxLatency()) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("GroupCommitMaxLatency {} != {}", getGroupCommitMaxLatency(),
+            props.getGroupCommitMaxLatency());
+      }
+    }
     if (!Arrays.equals(getDiskDirs(), props.getDiskDirs())) {
       if (logger.isDebugEnabled()) {
         logger.debug("DiskDirs {} != {}", Arrays.toString(getDiskDirs()),
@@ -566,6 +585,7 @@ public class DiskStoreImpl implements DiskStore {
         && getName().equals(props.getName()) && getQueueSize() == props.getQueueSize()
         && getTimeInterval() == props.getTimeInterval()
         && getWriteBufferSize() == props.getWriteBufferSize()
+        && getGroupCommitMaxLatency() == props.getGroupCommitMaxLatency()
         && Arrays.equals(getDiskDirs(), props.getDiskDirs())
         && Arrays.equals(getDiskDirSizes(), props.getDiskDirSizes());
   }
@@ -3345,6 +3365,7 @@ public class DiskStoreImpl implements DiskStore {
   private final long timeInterval;
   private final int queueSize;
   private final int writeBufferSize;
+  private final long groupCommitMaxLatency;
   private final File[] diskDirs;
   private final int[] diskDirSizes;
   private volatile float warningPercent;
@@ -3383,6 +3404,17 @@ public class DiskStoreImpl implements DiskStore {
     return this.writeBufferSize;
   }
 
+  public long getGroupCommitMaxLatency() {
+    return this.groupCommitMaxLatency;
+  }
+
+  /**
+   * Returns true if synchronous oplog writes are forced to disk using group commit.
+   */
+  boolean isGroupCommitEnabled() {
+    return this.groupCommitMaxLatency >= 0;
+  }
+
   public File[] getDiskDirs() {
     return this.diskDirs;
   }
@@ -49,6 +49,9 @@ public class DiskStoreStats {
   private static final int compactsInProgressId;
   private static final int writesInProgressId;
   private static final int flushesInProgressId;
+  private static final int groupCommitsId;
+  private static final int groupCommitTimeId;
+  private static final int groupCommittedWritesId;
   private static final int compactTimeId;
   private static final int compactsId;
   private static final int oplogRecoveriesId;
@@ -169,6 +172,14 @@ public class DiskStoreStats {
                 "current number of oplog writes that are in progress", "writes"),
             f.createIntGauge("flushesInProgress",
                 "current number of oplog flushes that are in progress", "flushes"),
+            f.createLongCounter("groupCommits",
+                "Total number of times synchronous oplog writes were forced to disk by a group commit",
+                "commits"),
+            f.createLongCounter("groupCommitTime",
+                "Total amount of time, in nanoseconds, spent flushing and forcing group commits",
+                "nanoseconds"),
+            f.createLongCounter("groupCommittedWrites",
+                "Total number of synchronous oplog writes forced to disk by group commits", "ops"),
             f.createLongCounter("compactTime",
                 "Total amount of time, in nanoseconds, spent compacting oplogs", "nanoseconds"),
             f.createIntCounter("compacts", "Total number of completed oplog compacts", "compacts"),
@@ -209,6 +220,9 @@ public class DiskStoreStats {
     compactsInProgressId = type.nameToId("compactsInProgress");
     writesInProgressId = type.nameToId("writesInProgress");
     flushesInProgressId = type.nameToId("flushesInProgress");
+    groupCommitsId = type.nameToId("groupCommits");
+    groupCommitTimeId = type.nameToId("groupCommitTime");
+    groupCommittedWritesId = type.nameToId("groupCommittedWrites");
     compactTimeId = type.nameToId("compactTime");
     compactsId = type.nameToId("compacts");
     oplogRecoveriesId = type.nameToId("oplogRecoveries");
@@ -371,6 +385,28 @@ public class DiskStoreStats {
     this.stats.incLong(flushTimeId, end - start);
   }
 
+  /**
+   * Invoked after a group commit forced the given number of synchronous writes to disk
+   *
+   * @param start the timestamp returned by {@link #startFlush}
+   * @param writes the number of synchronous writes covered by the commit
+   */
+  public void endGroupCommit(long start, long writes) {
+    this.stats.incInt(flushesInProgressId, -1);
+    long end = DistributionStats.getStatTime();
+    this.stats.incLong(groupCommitsId, 1);
+    this.stats.incLong(groupCommitTimeId, end - start);
+    this.stats.incLong(groupCommittedWritesId, writes);
+  }
+
+  public long getGroupCommits() {
+    return this.stats.getLong(groupCommitsId);
+  }
+
+  public long getGroupCommittedWrites() {
+    return this.stats.getLong(groupCommittedWritesId);
+  }
+
   public long getFlushes() {
     return this.stats.getLong(flushesId);
   }
@@ -135,6 +135,7 @@ import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.DefaultQueryService;
 import org.apache.geode.cache.query.internal.InternalQueryService;
 import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.QueryResultCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.cq.CqServiceProvider;
 import org.apache.geode.cache.server.CacheServer;
@@ -533,6 +534,11 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
 
   private final Object queryMonitorLock = new Object();
 
+  /**
+   * The cache of query results, or null if {@link QueryResultCache#SIZE_PROPERTY} is not set
+   */
+  private final QueryResultCache queryResultCache;
+
   private final PersistentMemberManager persistentMemberManager;
 
   private ClientMetadataService clientMetadataService = null;
@@ -873,6 +879,10 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
       this.cachePerfStats = new CachePerfStats(system);
       CachePerfStats.enableClockStats = this.system.getConfig().getEnableTimeStatistics();
 
+      int queryResultCacheSize = Integer.getInteger(QueryResultCache.SIZE_PROPERTY, 0);
+      this.queryResultCache =
+          queryResultCacheSize > 0 ? new QueryResultCache(this, queryResultCacheSize) : null;
+
       this.transactionManager = new TXManagerImpl(this.cachePerfStats, this);
       this.dm.addMembershipListener(this.transactionManager);
 
@@ -4526,6 +4536,11 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
     return this.queryMonitor;
   }
 
+  @Override
+  public QueryResultCache getQueryResultCache() {
+    return this.queryResultCache;
+  }
+
   /**
    * Simple class to allow waiters for register interest. Has at most one thread that ever calls
    * wait.
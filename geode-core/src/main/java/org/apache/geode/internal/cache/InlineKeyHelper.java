@@ -27,7 +27,7 @@ public class InlineKeyHelper {
   /**
    * The maximum number of longs any of region entry subclasses use to store the string key inline.
    */
-  public static final int MAX_LONGS_USED_FOR_STRING_KEY = 2;
+  public static final int MAX_LONGS_USED_FOR_STRING_KEY = 3;
 
   /**
    * Given the number of longs used to encode the inline string return the maximum number of
@@ -41,6 +41,7 @@ import org.apache.geode.cache.client.internal.ClientMetadataService;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.internal.InternalQueryService;
 import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.QueryResultCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.server.CacheServer;
 import org.apache.geode.cache.wan.GatewayReceiver;
@@ -255,6 +256,11 @@ public interface InternalCache extends Cache, Extensible<Cache>, CacheTime {
 
   QueryMonitor getQueryMonitor();
 
+  /**
+   * Returns the cache of query results, or null if query results are not cached
+   */
+  QueryResultCache getQueryResultCache();
+
   void close(String reason, Throwable systemFailureCause, boolean keepAlive, boolean keepDS);
 
   JmxManagerAdvisor getJmxManagerAdvisor();
@@ -44,6 +44,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
@@ -136,6 +137,7 @@ import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.DefaultQueryService;
 import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.QueryResultCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.index.IndexCreationData;
 import org.apache.geode.cache.query.internal.index.IndexManager;
@@ -575,6 +577,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     this.regionName = regionName;
     this.parentRegion = parentRegion;
     this.fullPath = calcFullPath(regionName, parentRegion);
+    this.countModifications = cache.getQueryResultCache() != null;
 
     String myName = getFullPath();
     if (internalRegionArgs.getPartitionedRegion() != null) {
@@ -2433,7 +2436,8 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
             // load entries during initialization only for non overflow regions
             indexes.add(
                 qs.createIndex(icd.getIndexName(), icd.getIndexType(), icd.getIndexExpression(),
-                    fromClause, icd.getIndexImportString(), !isOverflowToDisk));
+                    fromClause, icd.getIndexImportString(), !isOverflowToDisk, null,
+                    icd.getCoveredFields()));
           }
 
         } catch (Exception ex) {
@@ -2665,6 +2669,10 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
         this.reinitialized_old = true;
       }
       this.cache.setRegionByPath(getFullPath(), null);
+      QueryResultCache queryResultCache = this.cache.getQueryResultCache();
+      if (queryResultCache != null) {
+        queryResultCache.removeResultsOf(this);
+      }
 
       getEventTracker().stop();
 
@@ -3150,6 +3158,15 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
    */
   private final AtomicInteger tombstoneCount = new AtomicInteger();
 
+  /**
+   * the number of changes applied to the entries of this region, used to tell whether a query
+   * result computed from them is still valid
+   */
+  private final LongAdder modificationCount = new LongAdder();
+
+  /** whether changes are counted, which they only need to be while query results are cached */
+  private final boolean countModifications;
+
   /** a boolean for issuing a client/server configuration mismatch message */
   private boolean concurrencyMessageIssued;
 
@@ -10708,7 +10725,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   }
 
   void updateSizeOnClearRegion(int sizeBeforeClear) {
-    // Only needed by BucketRegion
+    incModificationCount();
   }
 
   /**
@@ -10728,15 +10745,32 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   }
 
   void updateSizeOnPut(Object key, int oldSize, int newSize) {
-    // Only needed by BucketRegion
+    incModificationCount();
   }
 
   void updateSizeOnCreate(Object key, int newSize) {
-    // Only needed by BucketRegion
+    incModificationCount();
   }
 
   void updateSizeOnRemove(Object key, int oldSize) {
-    // Only needed by BucketRegion
+    incModificationCount();
+  }
+
+  void incModificationCount() {
+    if (this.countModifications) {
+      this.modificationCount.increment();
+    }
+  }
+
+  /**
+   * Returns the number of creates, updates, invalidates, destroys and clears applied to the entries
+   * of this region in this member. For a partitioned region this counts the changes applied to its
+   * local buckets. Changes are only counted while query results are cached, so this is 0 otherwise.
+   *
+   * @since Geode 1.4
+   */
+  public long getModificationCount() {
+    return this.modificationCount.sum();
   }
 
   // TODO: return value is never used
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -545,6 +546,29 @@ public class Oplog implements CompactableOplog, Flushable {
 
   final ByteBuffer[] bbArray = new ByteBuffer[2];
 
+  /**
+   * Guards the group commit state of this oplog. Never acquired while holding {@link #lock}.
+   */
+  private final Object groupCommitLock = new Object();
+
+  /**
+   * The number of synchronous records appended to this oplog that need a group commit. Only
+   * modified while holding {@link #lock}.
+   */
+  private long groupCommitAppendSeq = 0;
+
+  /**
+   * The highest append sequence that has been forced to disk. Only modified while holding
+   * {@link #groupCommitLock}, but also read by {@link #forceBeforeClose} while holding
+   * {@link #lock}.
+   */
+  private volatile long groupCommitSyncedSeq = 0;
+
+  /**
+   * True while a thread is leading a group commit. Guarded by {@link #groupCommitLock}.
+   */
+  private boolean groupCommitInProgress = false;
+
   private boolean lockedForKRFcreate = false;
 
   /**
@@ -1675,8 +1699,14 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private OplogEntryIdMap skippedKeyBytes;
 
+  /**
+   * Reads the krf of this oplog. If <code>deferred</code> is not null then the live entries and
+   * versions found in the krf are only collected into it and are applied later by
+   * {@link #applyKrfRecords}.
+   */
   private boolean readKrf(OplogEntryIdSet deletedIds, boolean recoverValues,
-      boolean recoverValuesSync, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog) {
+      boolean recoverValuesSync, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog,
+      KrfRecords deferred) {
     File f = new File(this.diskFile.getPath() + KRF_FILE_EXT);
     if (!f.exists()) {
       return false;
@@ -1744,7 +1774,7 @@ public class Oplog implements CompactableOplog, Flushable {
 
         readGemfireVersionRecord(dis, f);
         readTotalCountRecord(dis, f);
-        readRVVRecord(dis, f, false, latestOplog);
+        readRVVRecord(dis, f, false, latestOplog, deferred);
         long lastOffset = 0;
         byte[] keyBytes = DataSerializer.readByteArray(dis);
         while (keyBytes != null) {
@@ -1766,7 +1796,7 @@ public class Oplog implements CompactableOplog, Flushable {
               userBits = EntryBits.setWithVersions(userBits, false);
             } else {
               // Update the RVV with the new entry
-              if (drs != null) {
+              if (drs != null && deferred == null) {
                 drs.recordRecoveredVersionTag(tag);
               }
             }
@@ -1792,6 +1822,10 @@ public class Oplog implements CompactableOplog, Flushable {
             }
             this.stats.incRecoveryRecordsSkipped();
             incSkipped();
+            if (deferred != null && drs != null && tag != null) {
+              deferred.getRegion(drId, drs).add(null, null, userBits, valueLength, oplogKeyId,
+                  oplogOffset, tag);
+            }
           } else {
             if (EntryBits.isAnyInvalid(userBits)) {
               if (EntryBits.isInvalid(userBits)) {
@@ -1810,6 +1844,12 @@ public class Oplog implements CompactableOplog, Flushable {
                     LocalizedStrings.Oplog_DUPLICATE_CREATE.toLocalizedString(oplogKeyId));
               }
             }
+            if (deferred != null) {
+              deferred.getRegion(drId, drs).add(key, valueBytes, userBits, valueLength,
+                  oplogKeyId, oplogOffset, tag);
+              keyBytes = DataSerializer.readByteArray(dis);
+              continue;
+            }
             DiskEntry de = drs.getDiskEntry(key);
             if (de == null) {
               if (logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY)) {
@@ -2162,6 +2202,11 @@ public class Oplog implements CompactableOplog, Flushable {
 
   private void readRVVRecord(DataInput dis, File f, boolean gcRVV, boolean latestOplog)
       throws IOException {
+    readRVVRecord(dis, f, gcRVV, latestOplog, null);
+  }
+
+  private void readRVVRecord(DataInput dis, File f, boolean gcRVV, boolean latestOplog,
+      KrfRecords deferred) throws IOException {
     final boolean isPersistRecoveryDebugEnabled = logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY);
 
     long numRegions = InternalDataSerializer.readUnsignedVL(dis);
@@ -2203,7 +2248,9 @@ public class Oplog implements CompactableOplog, Flushable {
         }
       } else {
         boolean rvvTrusted = DataSerializer.readBoolean(dis);
-        if (drs != null) {
+        if (drs != null && deferred != null) {
+          deferred.getRegion(drId, drs).rvvTrusted = rvvTrusted;
+        } else if (drs != null) {
           if (latestOplog) {
             // only set rvvtrust based on the newest oplog recovered
             drs.setRVVTrusted(rvvTrusted);
@@ -2220,7 +2267,10 @@ public class Oplog implements CompactableOplog, Flushable {
           // for each member, read the member id and version
           long memberId = InternalDataSerializer.readUnsignedVL(dis);
           RegionVersionHolder versionHolder = new RegionVersionHolder(dis);
-          if (drs != null) {
+          if (drs != null && deferred != null) {
+            Object member = getParent().getDiskInitFile().getCanonicalObject((int) memberId);
+            deferred.getRegion(drId, drs).addVersionHolder((VersionSource) member, versionHolder);
+          } else if (drs != null) {
             Object member = getParent().getDiskInitFile().getCanonicalObject((int) memberId);
             drs.recordRecoveredVersonHolder((VersionSource) member, versionHolder, latestOplog);
             if (isPersistRecoveryDebugEnabled) {
@@ -2272,7 +2322,7 @@ public class Oplog implements CompactableOplog, Flushable {
       // if we have a KRF then read it and delay reading the CRF.
       // Unless we are in synchronous recovery mode
       if (!readKrf(deletedIds, recoverValues, recoverValuesSync, oplogsNeedingValueRecovery,
-          latestOplog)) {
+          latestOplog, null)) {
         logger.info(LocalizedMessage.create(LocalizedStrings.DiskRegion_RECOVERING_OPLOG_0_1_2,
             new Object[] {toString(), crfFile.getAbsolutePath(), getParent().getName()}));
         byteCount = readCrf(deletedIds, recoverValues, latestOplog);
@@ -2306,6 +2356,224 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Reads the krf of this oplog without adding any of its entries to the recovering regions. This
+   * allows the krfs of several oplogs to be read concurrently. The returned records must then be
+   * applied, region by region and newest oplog first, with {@link #applyKrfRecords} and finished
+   * with {@link #finishKrfRecovery}.
+   *
+   * <p>
+   * Unlike {@link #recoverCrf} these methods do not lock the compactor themselves, since they are
+   * called by different recovery threads. The caller must hold {@link #lockCompactor} from before
+   * the krf is read until its recovery is finished.
+   *
+   * @return the records read from the krf or null if this oplog does not have a krf that can be
+   *         recovered; in that case {@link #recoverCrf} must be used instead.
+   */
+  KrfRecords readKrfRecords(OplogEntryIdSet deletedIds, boolean latestOplog) {
+    // crf might not exist; but drf always will
+    this.diskFile = new File(this.drf.f.getParentFile(),
+        oplogSet.getPrefix() + getParent().getName() + "_" + this.oplogId);
+
+    KrfRecords records = new KrfRecords(this, latestOplog);
+    if (this.crf.f == null) {
+      this.haveRecoveredCrf = true;
+      return records;
+    }
+
+    this.kvMap = new OplogEntryIdMap();
+    this.skippedKeyBytes = new OplogEntryIdMap();
+    try {
+      if (this.haveRecoveredCrf && isDeleted()) {
+        return records;
+      }
+      if (!readKrf(deletedIds, false, false, null, latestOplog, records)) {
+        // leave haveRecoveredCrf alone so that recoverCrf will read the crf
+        return null;
+      }
+      this.haveRecoveredCrf = true;
+      records.recovered = true;
+      return records;
+    } finally {
+      this.kvMap = null;
+      this.skippedKeyBytes = null;
+    }
+  }
+
+  /**
+   * Adds the entries and versions of region <code>drId</code> read by {@link #readKrfRecords} to
+   * that region. The records of a given region must be applied newest oplog first but different
+   * regions may be applied concurrently.
+   */
+  void applyKrfRecords(KrfRecords krfRecords, long drId) {
+    KrfRegionRecords regionRecords = krfRecords.regions.get(drId);
+    if (regionRecords == null) {
+      return;
+    }
+    DiskRecoveryStore drs = regionRecords.drs;
+    if (krfRecords.latestOplog) {
+      // only set rvvtrust based on the newest oplog recovered
+      drs.setRVVTrusted(regionRecords.rvvTrusted);
+    }
+    for (int i = 0; i < regionRecords.rvvMembers.size(); i++) {
+      drs.recordRecoveredVersonHolder(regionRecords.rvvMembers.get(i),
+          regionRecords.rvvHolders.get(i), krfRecords.latestOplog);
+    }
+    final Version version = getProductVersionIfOld();
+    final ByteArrayDataInput in = new ByteArrayDataInput();
+    for (KrfRecord record : regionRecords.records) {
+      if (record.tag != null) {
+        // Update the RVV with the new entry
+        drs.recordRecoveredVersionTag(record.tag);
+      }
+      if (record.key == null) {
+        // the record was skipped but its version still belongs in the RVV
+        continue;
+      }
+      DiskEntry de = drs.getDiskEntry(record.key);
+      if (de == null) {
+        if (logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY)) {
+          logger.trace(LogMarker.PERSIST_RECOVERY,
+              "readNewEntry oplogKeyId=<{}> drId={} userBits={} oplogOffset={} valueLen={}",
+              record.oplogKeyId, drId, record.userBits, record.oplogOffset, record.valueLength);
+        }
+        DiskEntry.RecoveredEntry re =
+            createRecoveredEntry(record.valueBytes, record.valueLength, record.userBits,
+                getOplogId(), record.oplogOffset, record.oplogKeyId, false, version, in);
+        if (record.tag != null) {
+          re.setVersionTag(record.tag);
+        }
+        initRecoveredEntry(drs.getDiskRegionView(), drs.initializeRecoveredEntry(record.key, re));
+        drs.getDiskRegionView().incRecoveredEntryCount();
+        this.stats.incRecoveredEntryCreates();
+        krfRecords.entryCount.incrementAndGet();
+      } else if (logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY)) {
+        logger.trace(LogMarker.PERSIST_RECOVERY,
+            "ignore readNewEntry because getOplogId()={} != curdid.getOplogId()={} for drId={} key={}",
+            getOplogId(), de.getDiskId().getOplogId(), drId, record.key);
+      }
+    }
+  }
+
+  /**
+   * Completes the recovery of this oplog once all of the records read by {@link #readKrfRecords}
+   * have been applied.
+   *
+   * @return the number of bytes recovered
+   */
+  long finishKrfRecovery(KrfRecords krfRecords, boolean recoverValues,
+      boolean alreadyRecoveredOnce, Set<Oplog> oplogsNeedingValueRecovery) {
+    if (!krfRecords.recovered) {
+      return 0L;
+    }
+    long byteCount = this.crf.f.length();
+    getParent().incDeadRecordCount(getRecordsSkipped());
+    if (!alreadyRecoveredOnce) {
+      setRecoveredCrfSize(byteCount);
+      this.dirHolder.incrementTotalOplogSize(byteCount);
+    }
+    if (recoverValues && krfRecords.entryCount.get() > 0) {
+      oplogsNeedingValueRecovery.add(this);
+    }
+    return byteCount;
+  }
+
+  /**
+   * The contents of a krf read by {@link #readKrfRecords} that have not yet been applied to the
+   * recovering regions.
+   */
+  static class KrfRecords {
+    private final Oplog oplog;
+
+    private final boolean latestOplog;
+
+    private final Map<Long, KrfRegionRecords> regions = new HashMap<>();
+
+    private final AtomicInteger entryCount = new AtomicInteger();
+
+    private boolean recovered;
+
+    KrfRecords(Oplog oplog, boolean latestOplog) {
+      this.oplog = oplog;
+      this.latestOplog = latestOplog;
+    }
+
+    Oplog getOplog() {
+      return this.oplog;
+    }
+
+    Set<Long> getRegionIds() {
+      return this.regions.keySet();
+    }
+
+    private KrfRegionRecords getRegion(long drId, DiskRecoveryStore drs) {
+      KrfRegionRecords result = this.regions.get(drId);
+      if (result == null) {
+        result = new KrfRegionRecords(drs);
+        this.regions.put(drId, result);
+      }
+      return result;
+    }
+  }
+
+  private static class KrfRegionRecords {
+    private final DiskRecoveryStore drs;
+
+    private boolean rvvTrusted;
+
+    private final List<VersionSource> rvvMembers = new ArrayList<>();
+
+    private final List<RegionVersionHolder> rvvHolders = new ArrayList<>();
+
+    private final List<KrfRecord> records = new ArrayList<>();
+
+    KrfRegionRecords(DiskRecoveryStore drs) {
+      this.drs = drs;
+    }
+
+    void addVersionHolder(VersionSource member, RegionVersionHolder holder) {
+      this.rvvMembers.add(member);
+      this.rvvHolders.add(holder);
+    }
+
+    void add(Object key, byte[] valueBytes, byte userBits, int valueLength, long oplogKeyId,
+        long oplogOffset, VersionTag tag) {
+      this.records.add(
+          new KrfRecord(key, valueBytes, userBits, valueLength, oplogKeyId, oplogOffset, tag));
+    }
+  }
+
+  /**
+   * A single krf entry. The key is null if the entry was skipped and is only kept for its version
+   * tag.
+   */
+  private static class KrfRecord {
+    private final Object key;
+
+    private final byte[] valueBytes;
+
+    private final byte userBits;
+
+    private final int valueLength;
+
+    private final long oplogKeyId;
+
+    private final long oplogOffset;
+
+    private final VersionTag tag;
+
+    KrfRecord(Object key, byte[] valueBytes, byte userBits, int valueLength, long oplogKeyId,
+        long oplogOffset, VersionTag tag) {
+      this.key = key;
+      this.valueBytes = valueBytes;
+      this.userBits = userBits;
+      this.valueLength = valueLength;
+      this.oplogKeyId = oplogKeyId;
+      this.oplogOffset = oplogOffset;
+      this.tag = tag;
+    }
+  }
+
   private boolean offlineCompactPhase2 = false;
 
   private boolean isPhase1() {
@@ -3317,6 +3585,7 @@ public class Oplog implements CompactableOplog, Flushable {
     // No need to get the backup lock prior to synchronizing (correct lock order) since the
     // synchronized block does not attempt to get the backup lock (incorrect lock order)
     synchronized (this.lock/* crf */) {
+      forceBeforeClose(this.crf);
       unpreblow(this.crf, getMaxCrfSize());
       if (!this.crf.RAFClosed) {
         try {
@@ -3335,6 +3604,7 @@ public class Oplog implements CompactableOplog, Flushable {
     // No need to get the backup lock prior to synchronizing (correct lock order) since the
     // synchronized block does not attempt to get the backup lock (incorrect lock order)
     synchronized (this.lock/* drf */) {
+      forceBeforeClose(this.drf);
       unpreblow(this.drf, getMaxDrfSize());
       if (!this.drf.RAFClosed) {
         try {
@@ -3577,6 +3847,8 @@ public class Oplog implements CompactableOplog, Flushable {
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    final boolean groupCommit = !async && getParent().isGroupCommitEnabled();
+    long groupCommitSeq = 0;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicCreate KRF_DEBUG");
@@ -3644,7 +3916,10 @@ public class Oplog implements CompactableOplog, Flushable {
           id.setOplogId(getOplogId());
           // do the io while holding lock so that switch can set doneAppending
           // Write the data to the opLog for the synch mode
-          startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+          startPosForSynchOp = writeOpLogBytes(this.crf, async, !groupCommit);
+          if (groupCommit) {
+            groupCommitSeq = nextGroupCommitSeq();
+          }
           // if (this.crf.currSize != startPosForSynchOp) {
           // assert false;
           // }
@@ -3707,6 +3982,9 @@ public class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(this != getOplogSet().getChild());
       getOplogSet().getChild().basicCreate(dr, entry, value, userBits, async);
     } else {
+      if (groupCommitSeq != 0) {
+        awaitGroupCommit(groupCommitSeq);
+      }
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -3835,6 +4113,7 @@ public class Oplog implements CompactableOplog, Flushable {
           closeRAF();
           // I think at this point the drf no longer needs to be open
           synchronized (Oplog.this.lock/* drf */) {
+            forceBeforeClose(Oplog.this.drf);
             if (!Oplog.this.drf.RAFClosed) {
               try {
                 Oplog.this.drf.channel.close();
@@ -4609,6 +4888,8 @@ public class Oplog implements CompactableOplog, Flushable {
     long startPosForSynchOp = -1L;
     int adjustment = 0;
     Oplog emptyOplog = null;
+    final boolean groupCommit = !async && getParent().isGroupCommitEnabled();
+    long groupCommitSeq = 0;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicModify KRF_DEBUG");
@@ -4639,7 +4920,10 @@ public class Oplog implements CompactableOplog, Flushable {
             long oldOplogId;
             // do the io while holding lock so that switch can set doneAppending
             // Write the data to the opLog for the synch mode
-            startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.crf, async, !groupCommit);
+            if (groupCommit) {
+              groupCommitSeq = nextGroupCommitSeq();
+            }
             this.crf.currSize = temp;
             startPosForSynchOp += getOpStateValueOffset();
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES)) {
@@ -4717,6 +5001,9 @@ public class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(getOplogSet().getChild() != this);
       getOplogSet().getChild().basicModify(dr, entry, value, userBits, async, calledByCompactor);
     } else {
+      if (groupCommitSeq != 0) {
+        awaitGroupCommit(groupCommitSeq);
+      }
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -5060,6 +5347,8 @@ public class Oplog implements CompactableOplog, Flushable {
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
     Oplog emptyOplog = null;
+    final boolean groupCommit = !async && getParent().isGroupCommitEnabled();
+    long groupCommitSeq = 0;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicRemove KRF_DEBUG");
@@ -5107,7 +5396,10 @@ public class Oplog implements CompactableOplog, Flushable {
             // before we flush the crf.
             // However we can't have removes by async if we are doing a sync write
             // because we might be killed right after we do this write.
-            startPosForSynchOp = writeOpLogBytes(this.drf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.drf, async, !groupCommit);
+            if (groupCommit) {
+              groupCommitSeq = nextGroupCommitSeq();
+            }
             setHasDeletes(true);
             if (logger.isDebugEnabled(LogMarker.PERSIST_WRITES)) {
               logger.debug("basicRemove: id=<{}> key=<{}> drId={} oplog#{}", abs(id.getKeyId()),
@@ -5146,6 +5438,9 @@ public class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(getOplogSet().getChild() != this);
       getOplogSet().getChild().basicRemove(dr, entry, async, isClear);
     } else {
+      if (groupCommitSeq != 0) {
+        awaitGroupCommit(groupCommitSeq);
+      }
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -5278,6 +5573,122 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Reserves the group commit sequence of a synchronous record that has just been appended to this
+   * oplog's write buffers. Must be called while holding {@link #lock}.
+   */
+  private long nextGroupCommitSeq() {
+    return ++this.groupCommitAppendSeq;
+  }
+
+  /**
+   * Blocks until the synchronous record with the given group commit sequence has been forced to
+   * disk. Must not be called while holding {@link #lock}.
+   * <p>
+   * The first waiting thread becomes the leader. It optionally waits for the disk store's group
+   * commit max latency so that more writers can append, flushes both write buffers under
+   * {@link #lock} and then forces the crf and drf outside of it, so that other writers keep
+   * appending while the sync is in progress. Every record appended before the flush is covered by
+   * that single sync; writers that arrive during it are committed by the next leader.
+   */
+  private void awaitGroupCommit(long seq) throws InterruptedException {
+    long previousSyncedSeq;
+    synchronized (this.groupCommitLock) {
+      while (this.groupCommitSyncedSeq < seq && this.groupCommitInProgress) {
+        this.groupCommitLock.wait();
+      }
+      if (this.groupCommitSyncedSeq >= seq) {
+        return;
+      }
+      this.groupCommitInProgress = true;
+      previousSyncedSeq = this.groupCommitSyncedSeq;
+    }
+    long syncedSeq = 0;
+    try {
+      long maxLatency = getParent().getGroupCommitMaxLatency();
+      if (maxLatency > 0) {
+        Thread.sleep(maxLatency);
+      }
+      long start = getStats().startFlush();
+      long flushedSeq;
+      try {
+        synchronized (this.lock) {
+          flushedSeq = this.groupCommitAppendSeq;
+          flush(this.drf, false);
+          flush(this.crf, false);
+        }
+        force(this.drf, flushedSeq);
+        force(this.crf, flushedSeq);
+      } catch (IOException ex) {
+        getParent().getCancelCriterion().checkCancelInProgress(ex);
+        throw new DiskAccessException(
+            LocalizedStrings.Oplog_FAILED_WRITING_KEY_TO_0.toLocalizedString(
+                this.diskFile.getPath()),
+            ex, getParent());
+      }
+      getStats().endGroupCommit(start, flushedSeq - previousSyncedSeq);
+      syncedSeq = flushedSeq;
+    } finally {
+      synchronized (this.groupCommitLock) {
+        if (syncedSeq > this.groupCommitSyncedSeq) {
+          this.groupCommitSyncedSeq = syncedSeq;
+        }
+        this.groupCommitInProgress = false;
+        this.groupCommitLock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Forces the content and meta data of the given file to disk. Unlike {@link #flush(OplogFile,
+   * boolean)} this does not hold {@link #lock} so appends can continue while the sync is running.
+   * If the file has been closed since the records up to the given group commit sequence were
+   * flushed to it, they are only durable if {@link #forceBeforeClose} forced them.
+   *
+   * @throws IOException if the file was closed without forcing the records
+   */
+  private void force(OplogFile olf, long seq) throws IOException {
+    if (!olf.RAFClosed) {
+      try {
+        olf.channel.force(true);
+        return;
+      } catch (ClosedChannelException ex) {
+        // See flush(OplogFile, boolean) for how the channel can be closed underneath us.
+        if (!olf.RAFClosed) {
+          throw ex;
+        }
+      }
+    }
+    if (olf.groupCommitClosedSeq < seq) {
+      throw new IOException(
+          "The oplog file " + olf.f + " was closed before its group committed writes were forced");
+    }
+  }
+
+  /**
+   * Flushes and forces a file that is about to be closed if it may hold group committed records
+   * that have not been forced yet, so that the writers waiting for them are never acknowledged for
+   * records that did not reach the disk. If that fails the waiters fail too. Must be called while
+   * holding {@link #lock}.
+   */
+  private void forceBeforeClose(OplogFile olf) {
+    if (olf.RAFClosed) {
+      return;
+    }
+    long appendSeq = this.groupCommitAppendSeq;
+    if (appendSeq > this.groupCommitSyncedSeq) {
+      try {
+        flush(olf, false);
+        olf.channel.force(true);
+      } catch (IOException ex) {
+        logger.warn(LocalizedMessage.create(LocalizedStrings.Oplog_Close_Failed,
+            olf.f.getAbsolutePath()), ex);
+        return;
+      }
+    }
+    olf.groupCommitClosedSeq = appendSeq;
+  }
+
   public void flushAll() {
     flushAll(false);
   }
@@ -5377,6 +5788,7 @@ public class Oplog implements CompactableOplog, Flushable {
       if (this.crf.RAFClosed) {
         return false;
       } else {
+        forceBeforeClose(this.crf);
         try {
           this.crf.raf.close();
         } catch (IOException ignore) {
@@ -6052,11 +6464,11 @@ public class Oplog implements CompactableOplog, Flushable {
 
   private final Lock compactorLock = new ReentrantLock();
 
-  private void lockCompactor() {
+  void lockCompactor() {
     this.compactorLock.lock();
   }
 
-  private void unlockCompactor() {
+  void unlockCompactor() {
     this.compactorLock.unlock();
   }
 
@@ -6412,6 +6824,11 @@ public class Oplog implements CompactableOplog, Flushable {
     public long currSize;
     public long bytesFlushed;
     public boolean unpreblown;
+    /**
+     * The group commit sequence of the last record that was forced to disk when this file was
+     * closed.
+     */
+    public volatile long groupCommitClosedSeq;
   }
 
   private static class KRFile {
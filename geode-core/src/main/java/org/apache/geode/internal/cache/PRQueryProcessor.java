@@ -22,21 +22,22 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.InternalGemFireException;
-import org.apache.geode.cache.CacheRuntimeException;
 import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
@@ -44,12 +45,9 @@ import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.internal.CompiledSelect;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.ExecutionContext;
-import org.apache.geode.cache.query.internal.IndexTrackingQueryObserver;
 import org.apache.geode.cache.query.internal.NWayMergeResults;
 import org.apache.geode.cache.query.internal.QueryExecutionContext;
 import org.apache.geode.cache.query.internal.QueryMonitor;
-import org.apache.geode.cache.query.internal.QueryObserver;
-import org.apache.geode.cache.query.internal.QueryObserverHolder;
 import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.Assert;
@@ -62,20 +60,38 @@ import org.apache.geode.internal.logging.LogService;
 
 /**
  * This class takes the responsibility of executing the query on a data store for the buckets
- * specified in bucketList. It contains a {@code PRQueryExecutor} thread-pool executor that takes a
- * {@code Callable} task identified by {@code PartitionedRegion}, queryString and bucketId.
+ * specified in bucketList. The buckets are either queried by the calling thread or, if
+ * {@link #NUM_THREADS} is more than one, scanned in parallel by the {@code PRQueryExecutor}
+ * fork join pool.
  *
- * The QueryTasks add results directly to a results queue. The BucketQueryResult is used not only to
- * indicate completion, and holds an exception if there one occurred while processing a query.
+ * The results of each query on buckets are added to the result collector. The results of ordered
+ * queries, which are queried one bucket at a time, are merged into a single ordered result.
  */
 public class PRQueryProcessor {
   private static final Logger logger = LogService.getLogger();
 
-  static final int BUCKET_QUERY_TIMEOUT = 60;
-
+  /**
+   * The number of threads that scan the local buckets of a query in parallel. With the default of
+   * one, the buckets are scanned by the thread executing the query.
+   */
   public static final int NUM_THREADS =
       getInteger(DistributionConfig.GEMFIRE_PREFIX + "PRQueryProcessor.numThreads", 1);
 
+  /**
+   * The number of tasks the buckets are split into for each thread, so that threads that are done
+   * early can steal the buckets of others
+   */
+  private static final int TASKS_PER_THREAD = 4;
+
+  /**
+   * The number of seconds the thread executing a query waits for the buckets to be scanned, unless
+   * the query is canceled by the {@link QueryMonitor} before
+   */
+  static final int MAX_SCAN_WAIT = 300;
+
+  /** How often, in milliseconds, a thread waiting for the buckets checks if its query is canceled */
+  private static final long CANCEL_CHECK_INTERVAL = 100;
+
   /* For Test purpose */
   public static int TEST_NUM_THREADS = 0;
 
@@ -93,6 +109,7 @@ public class PRQueryProcessor {
       List<Integer> buckets) {
     Assert.assertTrue(!buckets.isEmpty(), "bucket list can not be empty. ");
     this._prds = prDS;
+    this.pr = prDS.getPartitionedRegion();
     this._bucketsToQuery = buckets;
     prDS.partitionedRegion.getCache().getLocalQueryService();
     this.query = query;
@@ -140,83 +157,65 @@ public class PRQueryProcessor {
     return this.resultType.isStructType();
   }
 
+  /**
+   * Scans the buckets with a fork join pool. The buckets are split into ranges until each range is
+   * small enough for the pool to balance the work between its threads, idle threads stealing the
+   * ranges that are not yet scanned. The thread executing the query is monitored by the
+   * {@link QueryMonitor} and the threads of the pool share its cancellation status, so a canceled
+   * query stops scanning buckets. The executing thread stops waiting once the query is canceled, or
+   * after {@link #MAX_SCAN_WAIT} seconds.
+   */
   private void executeWithThreadPool(Collection<Collection> resultCollector)
       throws QueryException, InterruptedException, ForceReattemptException {
     if (Thread.interrupted())
       throw new InterruptedException();
 
-    java.util.List callableTasks = buildCallableTaskList(resultCollector);
-    ExecutorService execService = PRQueryExecutor.getExecutorService();
-
-    boolean reattemptNeeded = false;
-    ForceReattemptException fre = null;
+    ForkJoinPool execService = PRQueryExecutor.getExecutorService();
+    CompiledSelect cs = this.query.getSimpleSelect();
+    boolean isOrdered = cs != null && cs.isOrderBy();
+    int limit = this.query.getLimit(parameters);
 
-    if (callableTasks != null && !callableTasks.isEmpty()) {
-      List futures = null;
-      try {
-        futures = execService.invokeAll(callableTasks, 300, TimeUnit.SECONDS);
-      } catch (RejectedExecutionException rejectedExecutionEx) {
-        throw rejectedExecutionEx;
+    QueryMonitor queryMonitor = null;
+    if (GemFireCacheImpl.getInstance() != null) {
+      queryMonitor = GemFireCacheImpl.getInstance().getQueryMonitor();
+    }
+    try {
+      if (queryMonitor != null) {
+        queryMonitor.monitorQueryThread(Thread.currentThread(), this.query);
       }
-
-      if (futures != null) {
-        Iterator itr = futures.iterator();
-        while (itr.hasNext() && !execService.isShutdown() && !execService.isTerminated()) {
-          // this._prds.partitionedRegion.checkReadiness();
-          Future fut = (Future) itr.next();
-          QueryTask.BucketQueryResult bqr = null;
-
-          try {
-            bqr = (QueryTask.BucketQueryResult) fut.get(BUCKET_QUERY_TIMEOUT, TimeUnit.SECONDS);
-            // if (retry.booleanValue()) {
-            // reattemptNeeded = true;
-            // fre = (ForceReattemptException)bqr.getException();
-            // } else {
-            bqr.handleAndThrowException(); // handles an exception if there was one,
-            // otherwise, the results have already been added to the resultQueue
-            // }
-            if (bqr.retry) {
-              reattemptNeeded = true;
-            }
-
-          } catch (TimeoutException e) {
-            throw new InternalGemFireException(
-                LocalizedStrings.PRQueryProcessor_TIMED_OUT_WHILE_EXECUTING_QUERY_TIME_EXCEEDED_0
-                    .toLocalizedString(BUCKET_QUERY_TIMEOUT),
-                e);
-          } catch (ExecutionException ee) {
-            Throwable cause = ee.getCause();
-            if (cause instanceof QueryException) {
-              throw (QueryException) cause;
-            } else {
-              throw new InternalGemFireException(
-                  LocalizedStrings.PRQueryProcessor_GOT_UNEXPECTED_EXCEPTION_WHILE_EXECUTING_QUERY_ON_PARTITIONED_REGION_BUCKET
-                      .toLocalizedString(),
-                  cause);
-            }
-          }
-        }
-
-        CompiledSelect cs = this.query.getSimpleSelect();
-
-        if (cs != null && (cs.isOrderBy() || cs.isGroupBy())) {
-          ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache());
-          int limit = this.query.getLimit(parameters);
-          Collection mergedResults = coalesceOrderedResults(resultCollector, context, cs, limit);
-          resultCollector.clear();
-          resultCollector.add(mergedResults);
-        }
+      // ordered results are merged per bucket, so each bucket is queried on its own
+      int bucketsPerTask = isOrdered ? 1
+          : Math.max(1, this._bucketsToQuery.size()
+              / (execService.getParallelism() * TASKS_PER_THREAD));
+      BucketScan scan = new BucketScan(resultCollector, bucketsPerTask,
+          isLimitedPerResult(cs) ? limit : -1, QueryMonitor.getQueryExecutionStatus());
+      ForkJoinTask<Void> task =
+          execService.submit(scan.new BucketRangeTask(0, this._bucketsToQuery.size()));
+      scan.await(task);
+      scan.throwFailure();
+    } catch (RejectedExecutionException e) {
+      this.pr.checkReadiness();
+      throw e;
+    } finally {
+      if (queryMonitor != null) {
+        queryMonitor.stopMonitoringQueryThread(Thread.currentThread(), this.query);
       }
     }
 
-    if (execService == null || execService.isShutdown() || execService.isTerminated()) {
-      this._prds.partitionedRegion.checkReadiness();
-    }
-
-    if (reattemptNeeded) {
-      throw fre;
+    if (isOrdered) {
+      ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache());
+      Collection mergedResults = coalesceOrderedResults(resultCollector, context, cs, limit);
+      resultCollector.clear();
+      resultCollector.add(mergedResults);
     }
+  }
 
+  /**
+   * Returns true if every result of the select counts towards its limit, so that buckets do not
+   * have to be scanned once enough results were found.
+   */
+  private static boolean isLimitedPerResult(CompiledSelect cs) {
+    return cs != null && !cs.isDistinct() && !cs.isCount() && !cs.isOrderBy() && !cs.isGroupBy();
   }
 
   /**
@@ -366,10 +365,20 @@ public class PRQueryProcessor {
   private void executeQueryOnBuckets(Collection<Collection> resultCollector,
       ExecutionContext context)
       throws ForceReattemptException, QueryInvocationTargetException, QueryException {
+    executeQueryOnBuckets(resultCollector, context, true);
+  }
+
+  /**
+   * @param monitor whether the current thread has to be monitored by the {@link QueryMonitor}
+   * @return the results of the query on the buckets
+   */
+  private Collection executeQueryOnBuckets(Collection<Collection> resultCollector,
+      ExecutionContext context, boolean monitor)
+      throws ForceReattemptException, QueryInvocationTargetException, QueryException {
     // Check if QueryMonitor is enabled, if so add query to be monitored.
     QueryMonitor queryMonitor = null;
     context.setCqQueryContext(query.isCqQuery());
-    if (GemFireCacheImpl.getInstance() != null) {
+    if (monitor && GemFireCacheImpl.getInstance() != null) {
       queryMonitor = GemFireCacheImpl.getInstance().getQueryMonitor();
     }
 
@@ -388,6 +397,7 @@ public class PRQueryProcessor {
         resultCollector.add((Collection) results);
       }
       isIndexUsedForLocalQuery = ((QueryExecutionContext) context).isIndexUsed();
+      return (Collection) results;
 
     } catch (BucketMovedException bme) {
       if (logger.isDebugEnabled()) {
@@ -412,15 +422,6 @@ public class PRQueryProcessor {
     }
   }
 
-  private List buildCallableTaskList(Collection<Collection> resultsColl) {
-    List callableTasks = new ArrayList();
-    for (Iterator itr = _bucketsToQuery.iterator(); itr.hasNext();) {
-      Integer bId = (Integer) itr.next();
-      callableTasks.add(new QueryTask(this.query, this.parameters, _prds, bId, resultsColl));
-    }
-    return callableTasks;
-  }
-
   public boolean isIndexUsed() {
     return isIndexUsedForLocalQuery;
   }
@@ -434,14 +435,13 @@ public class PRQueryProcessor {
   }
 
   /**
-   * A ThreadPool ( Fixed Size ) with an executor service to execute the query execution spread over
-   * buckets.
-   *
-   *
+   * A fork join pool, with the configured parallelism, that scans the buckets of queries in
+   * parallel. The pool is sized when it is created and only replaced once the cache has shut it
+   * down, since queries of other threads may be using it.
    */
   static class PRQueryExecutor {
 
-    private static ExecutorService execService = null;
+    private static ForkJoinPool execService = null;
 
     /**
      * Closes the executor service. This is called from
@@ -458,8 +458,8 @@ public class PRQueryProcessor {
         execService.shutdownNow();
     }
 
-    static synchronized ExecutorService getExecutorService() {
-      if (execService == null) {
+    static synchronized ForkJoinPool getExecutorService() {
+      if (execService == null || execService.isShutdown()) {
         initializeExecutorService();
       }
       assert execService != null;
@@ -467,12 +467,17 @@ public class PRQueryProcessor {
     }
 
     /**
-     * Creates the Executor Service.
+     * Creates the Executor Service. Its threads are only started once buckets are scanned.
      */
     static synchronized void initializeExecutorService() {
       if (execService == null || execService.isShutdown() || execService.isTerminated()) {
-        int numThreads = (TEST_NUM_THREADS > 1 ? TEST_NUM_THREADS : NUM_THREADS);
-        execService = Executors.newFixedThreadPool(numThreads);
+        int numThreads = Math.max(1, TEST_NUM_THREADS > 1 ? TEST_NUM_THREADS : NUM_THREADS);
+        execService = new ForkJoinPool(numThreads, pool -> {
+          ForkJoinWorkerThread thread =
+              ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+          thread.setName("PRQueryProcessor Thread " + thread.getPoolIndex());
+          return thread;
+        }, null, false);
       }
     }
   }
@@ -520,97 +525,121 @@ public class PRQueryProcessor {
   }
 
   /**
-   * Implementation of call-able task to execute query on a bucket region. This task will be
-   * generated by the PRQueryProcessor.
-   *
+   * The state shared by the tasks scanning the buckets of a query: the first failure, after which
+   * the buckets that are not yet scanned are skipped, and the number of results found so far.
    */
-  @SuppressWarnings("synthetic-access")
-  private class QueryTask implements Callable {
-    private final DefaultQuery query;
-    private final Object[] parameters;
-    private final PartitionedRegionDataStore _prDs;
-    private final Integer _bucketId;
-    private final Collection<Collection> resultColl;
-
-    public QueryTask(DefaultQuery query, Object[] parameters, PartitionedRegionDataStore prDS,
-        Integer bucketId, final Collection<Collection> rColl) {
-      this.query = query;
-      this._prDs = prDS;
-      this._bucketId = bucketId;
-      this.resultColl = rColl;
-      this.parameters = parameters;
+  private class BucketScan {
+    private final Collection<Collection> resultCollector;
+    private final int bucketsPerTask;
+    private final int limit;
+    private final AtomicBoolean queryExecutionStatus;
+    private final AtomicInteger numResults = new AtomicInteger();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    /**
+     * @param limit the number of results after which no more buckets are scanned, or -1
+     * @param queryExecutionStatus the cancellation status of the thread executing the query
+     */
+    BucketScan(Collection<Collection> resultCollector, int bucketsPerTask, int limit,
+        AtomicBoolean queryExecutionStatus) {
+      this.resultCollector = resultCollector;
+      this.bucketsPerTask = bucketsPerTask;
+      this.limit = limit;
+      this.queryExecutionStatus = queryExecutionStatus;
     }
 
-    public Object call() throws Exception {
-      BucketQueryResult bukResult = new BucketQueryResult(this._bucketId);
-      boolean retry = false;
-      try {
-        // Add indexInfo of this thread to result collector
-        QueryObserver observer = QueryObserverHolder.getInstance();
-        if (observer != null && observer instanceof IndexTrackingQueryObserver) {
-          // ((IndexTrackingQueryObserver)observer).setIndexInfo(resultColl.getIndexInfoMap());
-        }
+    private boolean isDone() {
+      return this.failure.get() != null || query.isCanceled()
+          || (this.limit >= 0 && this.numResults.get() >= this.limit);
+    }
 
-        List<Integer> bucketList = Collections.singletonList(this._bucketId);
+    void scan(List<Integer> buckets) {
+      if (isDone()) {
+        return;
+      }
+      AtomicBoolean previousStatus = QueryMonitor.setQueryExecutionStatus(queryExecutionStatus);
+      try {
         ExecutionContext context =
-            new QueryExecutionContext(this.parameters, pr.getCache(), this.query);
-        context.setBucketList(bucketList);
-        executeQueryOnBuckets(this.resultColl, context);
-        // executeSequentially(this.resultColl, bucketList);
-        // success
-        // doBucketQuery(bId, this._prDs, this.query, this.parameters, this.resultColl);
-      } catch (ForceReattemptException fre) {
-        bukResult.setException(fre);
-      } catch (QueryException e) {
-        bukResult.setException(e);
-      } catch (CacheRuntimeException cre) {
-        bukResult.setException(cre);
+            new QueryExecutionContext(parameters, pr.getCache(), query);
+        context.setBucketList(buckets);
+        Collection results = executeQueryOnBuckets(this.resultCollector, context, false);
+        this.numResults.addAndGet(results.size());
+      } catch (QueryException | ForceReattemptException | RuntimeException e) {
+        this.failure.compareAndSet(null, e);
+      } finally {
+        QueryMonitor.setQueryExecutionStatus(previousStatus);
       }
-      // Exception
-      return bukResult;
     }
 
     /**
-     * Encapsulates the result for the query on the bucket.
-     *
+     * Waits for the given scan of the buckets to be done, as long as the query is not canceled and
+     * at most {@link #MAX_SCAN_WAIT} seconds. Tasks that are still running when the wait ends stop
+     * before their next range of buckets.
      */
-    private class BucketQueryResult {
-
-      private int _buk;
-      private Exception _ex = null;
-      public boolean retry = false;
-
-      public BucketQueryResult(int bukId) {
-        this._buk = bukId;
-      }
-
-      public Exception getException() {
-        return _ex;
+    void await(ForkJoinTask<Void> task) throws InterruptedException {
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(MAX_SCAN_WAIT);
+      while (!query.isCanceled()) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          this.failure.compareAndSet(null, new InternalGemFireException(
+              LocalizedStrings.PRQueryProcessor_TIMED_OUT_WHILE_EXECUTING_QUERY_TIME_EXCEEDED_0
+                  .toLocalizedString(MAX_SCAN_WAIT)));
+          return;
+        }
+        try {
+          task.get(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(CANCEL_CHECK_INTERVAL)),
+              TimeUnit.NANOSECONDS);
+          return;
+        } catch (TimeoutException ignore) {
+          // check for cancellation and wait again
+        } catch (ExecutionException e) {
+          // the tasks record the exceptions of the queries, so this is an error
+          this.failure.compareAndSet(null, new InternalGemFireException(
+              LocalizedStrings.PRQueryProcessor_GOT_UNEXPECTED_EXCEPTION_WHILE_EXECUTING_QUERY_ON_PARTITIONED_REGION_BUCKET
+                  .toLocalizedString(),
+              e.getCause()));
+          return;
+        }
       }
+    }
 
-      public boolean exceptionOccurred() {
-        return _ex != null;
+    /**
+     * Throws the first exception a task failed with, or the exception the query was canceled with.
+     */
+    void throwFailure() throws QueryException, ForceReattemptException {
+      Exception e = this.failure.get();
+      if (e == null && query.isCanceled()) {
+        throw query.getQueryCanceledException();
       }
-
-      public void setException(Exception e) {
-        this._ex = e;
+      if (e instanceof QueryException) {
+        throw (QueryException) e;
+      } else if (e instanceof ForceReattemptException) {
+        throw (ForceReattemptException) e;
+      } else if (e != null) {
+        throw (RuntimeException) e;
       }
+    }
 
-      public Integer getBucketId() {
-        return valueOf(this._buk);
-      }
+    /**
+     * Scans a range of the buckets to query, splitting it in halves for other threads to steal as
+     * long as it has more than {@link #bucketsPerTask} buckets.
+     */
+    class BucketRangeTask extends RecursiveAction {
+      private final int from;
+      private final int to;
 
-      public boolean isReattemptNeeded() {
-        return this._ex instanceof ForceReattemptException;
+      BucketRangeTask(int from, int to) {
+        this.from = from;
+        this.to = to;
       }
 
-      public void handleAndThrowException() throws QueryException {
-        if (_ex != null) {
-          if (_ex instanceof QueryException) {
-            throw (QueryException) _ex;
-          } else if (_ex instanceof CacheRuntimeException) {
-            throw (CacheRuntimeException) _ex;
-          }
+      @Override
+      protected void compute() {
+        if (this.to - this.from <= bucketsPerTask) {
+          scan(_bucketsToQuery.subList(this.from, this.to));
+        } else {
+          int middle = (this.from + this.to) >>> 1;
+          invokeAll(new BucketRangeTask(this.from, middle), new BucketRangeTask(middle, this.to));
         }
       }
     }
@@ -1826,6 +1826,27 @@ public class PartitionedRegion extends LocalRegion
     }
   }
 
+  /**
+   * Executes a query on the given buckets of this PartitionedRegion, wherever they are hosted.
+   * Unlike {@link #executeQuery}, which only queries the given buckets if they are local, this lets
+   * a query be run over the whole region a few buckets at a time.
+   *
+   * @see DefaultQuery#executeStreaming(Object[])
+   *
+   * @since Geode 1.4
+   */
+  public Object executeQueryOnBuckets(DefaultQuery query, Object[] parameters,
+      Set<Integer> bucketIds) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    for (;;) {
+      try {
+        return doExecuteQueryOnBuckets(query, parameters, new HashSet<Integer>(bucketIds));
+      } catch (ForceReattemptException ignore) {
+        // fall through and loop
+      }
+    }
+  }
+
   /**
    * If ForceReattemptException is thrown then the caller must loop and call us again.
    *
@@ -1862,7 +1883,12 @@ public class PartitionedRegion extends LocalRegion
       } catch (NoSuchElementException ignore) {
       }
     }
+    return doExecuteQueryOnBuckets(query, parameters, allBuckets);
+  }
 
+  private Object doExecuteQueryOnBuckets(DefaultQuery query, Object[] parameters,
+      HashSet<Integer> allBuckets) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException, ForceReattemptException {
     if (allBuckets.size() == 0) {
       if (logger.isDebugEnabled()) {
         logger.debug("No bucket storage allocated. PR has no data yet.");
@@ -8250,6 +8276,20 @@ public class PartitionedRegion extends LocalRegion
       String indexedExpression, String fromClause, String imports, boolean loadEntries,
       boolean sendMessage) throws ForceReattemptException, IndexCreationException,
       IndexNameConflictException, IndexExistsException {
+    return createIndex(remotelyOriginated, indexType, indexName, indexedExpression, fromClause,
+        imports, loadEntries, sendMessage, null);
+  }
+
+  /**
+   * Creates an index on this region whose bucket indexes keep the given fields of the indexed
+   * values alongside their keys.
+   *
+   * @param coveredFields the fields of the indexed values to keep, null for none
+   */
+  public Index createIndex(boolean remotelyOriginated, IndexType indexType, String indexName,
+      String indexedExpression, String fromClause, String imports, boolean loadEntries,
+      boolean sendMessage, String[] coveredFields) throws ForceReattemptException,
+      IndexCreationException, IndexNameConflictException, IndexExistsException {
     // Check if its remote request and this vm is an accessor.
     if (remotelyOriginated && dataStore == null) {
       // This check makes sure that for some region this vm cannot create
@@ -8277,7 +8317,7 @@ public class PartitionedRegion extends LocalRegion
           indexName, this.getFullPath(), fromClause, remotelyOriginated);
     }
     IndexTask indexTask = new IndexTask(remotelyOriginated, indexType, indexName, indexedExpression,
-        fromClause, imports, loadEntries);
+        fromClause, imports, loadEntries, coveredFields);
 
     FutureTask<Index> indexFutureTask = new FutureTask<Index>(indexTask);
 
@@ -8318,6 +8358,7 @@ public class PartitionedRegion extends LocalRegion
             HashSet<IndexCreationData> singleIndexDefinition = new HashSet<IndexCreationData>();
             IndexCreationData icd = new IndexCreationData(indexName);
             icd.setIndexData(indexType, fromClause, indexedExpression, imports, loadEntries);
+            icd.setCoveredFields(coveredFields);
             singleIndexDefinition.add(icd);
 
             IndexCreationMsg.IndexCreationResponse response = null;
@@ -8455,7 +8496,7 @@ public class PartitionedRegion extends LocalRegion
       try {
         Index ind = this.createIndex(remotelyOriginated, icd.getIndexType(), icd.getIndexName(),
             icd.getIndexExpression(), icd.getIndexFromClause(), icd.getIndexImportString(), false,
-            false);
+            false, icd.getCoveredFields());
         // There could be nulls in the set if a node is accessor.
         // The index might have been created by the local node.
         if (ind != null) {
@@ -8610,6 +8651,7 @@ public class PartitionedRegion extends LocalRegion
       IndexCreationData icd = new IndexCreationData(prIndex.getName());
       icd.setIndexData(prIndex.getType(), prIndex.getFromClause(), prIndex.getIndexedExpression(),
           prIndex.getImports(), true);
+      icd.setCoveredFields(prIndex.getCoveredFields());
       indexDefinitions.add(icd);
     }
 
@@ -9520,8 +9562,11 @@ public class PartitionedRegion extends LocalRegion
 
     public boolean loadEntries;
 
+    private String[] coveredFields;
+
     IndexTask(boolean remotelyOriginated, IndexType indexType, String indexName,
-        String indexedExpression, String fromClaus, String imports, boolean loadEntries) {
+        String indexedExpression, String fromClaus, String imports, boolean loadEntries,
+        String[] coveredFields) {
       this.indexName = indexName;
       this.remotelyOriginated = remotelyOriginated;
       this.indexType = indexType;
@@ -9531,7 +9576,7 @@ public class PartitionedRegion extends LocalRegion
       // this.p_list = p_list;
       this.imports = imports;
       this.loadEntries = loadEntries;
-
+      this.coveredFields = coveredFields;
     }
 
     IndexTask(String indexName) {
@@ -9577,6 +9622,7 @@ public class PartitionedRegion extends LocalRegion
 
         prIndex = new PartitionedIndex(indexType, indexName, PartitionedRegion.this,
             indexedExpression, fromClause, imports);
+        prIndex.setCoveredFields(coveredFields);
       }
 
       hasPartitionedIndex = true;
@@ -9599,6 +9645,8 @@ public class PartitionedRegion extends LocalRegion
       // imports can be null
       PartitionedIndex parIndex = new PartitionedIndex(indexType, indexName, PartitionedRegion.this,
           indexedExpression, fromClause, imports);
+      // bucket indexes keep the covered fields of their partitioned index
+      parIndex.setCoveredFields(coveredFields);
 
       // In cases where we have no data yet (creation from cache xml), it would leave the populated
       // flag to false Not really an issue as a put will trigger bucket index creation which should
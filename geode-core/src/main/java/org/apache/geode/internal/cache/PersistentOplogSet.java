@@ -26,6 +26,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -44,6 +52,7 @@ import org.apache.geode.internal.cache.persistence.OplogType;
 import org.apache.geode.internal.cache.versions.RegionVersionVector;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
 import org.apache.geode.internal.sequencelog.EntryLogger;
@@ -454,24 +463,20 @@ public class PersistentOplogSet implements OplogSet {
       }
       parent.incDeadRecordCount(deletedIds.size());
       // now figure out live entries
-      latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        long startOpLogRead = parent.getStats().startOplogRead();
-        long bytesRead = oplog.recoverCrf(deletedIds,
-            // @todo make recoverValues per region
-            recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
-            oplogsNeedingValueRecovery, latestOplog);
-        latestOplog = false;
-        if (!this.alreadyRecoveredOnce.get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
-        }
-        byteCount += bytesRead;
-        parent.getStats().endOplogRead(startOpLogRead, bytesRead);
-
-        // Callback to the disk regions to indicate the oplog is recovered
-        // Used for offline export
-        for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
-          drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+      if (parent.RECOVERY_PARALLELISM > 1 && !recoverValuesSync()
+          && !parent.isOfflineCompacting()) {
+        byteCount += recoverCrfsInParallel(oplogSet, deletedIds, oplogsNeedingValueRecovery);
+      } else {
+        latestOplog = true;
+        for (Oplog oplog : oplogSet) {
+          long startOpLogRead = parent.getStats().startOplogRead();
+          long bytesRead = oplog.recoverCrf(deletedIds,
+              // @todo make recoverValues per region
+              recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
+              oplogsNeedingValueRecovery, latestOplog);
+          latestOplog = false;
+          oplogCrfRecovered(oplog, startOpLogRead, bytesRead);
+          byteCount += bytesRead;
         }
       }
       long endOpLogRecovery = System.currentTimeMillis();
@@ -524,6 +529,147 @@ public class PersistentOplogSet implements OplogSet {
     return byteCount;
   }
 
+  /**
+   * Recovers the live entries of the given oplogs using {@link DiskStoreImpl#RECOVERY_PARALLELISM}
+   * threads. The krfs of all the oplogs are read concurrently and then the entries of each region
+   * (or bucket) are added to it, newest oplog first, concurrently with the other regions. Any
+   * oplog that can not be recovered from its krf causes the rest of the recovery to be done one
+   * oplog at a time, in the same order as a serial recovery.
+   *
+   * The compactor of every oplog is locked by this thread for the whole recovery, rather than by
+   * each recovery task, so that the tasks of different regions do not wait on each other.
+   *
+   * @return the number of bytes recovered
+   */
+  private long recoverCrfsInParallel(TreeSet<Oplog> oplogSet, final OplogEntryIdSet deletedIds,
+      Set<Oplog> oplogsNeedingValueRecovery) {
+    final ThreadGroup recoveryThreadGroup =
+        LoggingThreadGroup.createThreadGroup("Oplog Recovery Thread Group", logger);
+    final ThreadFactory recoveryThreadFactory =
+        GemfireCacheHelper.CreateThreadFactory(recoveryThreadGroup, "Oplog Recovery Task");
+    final int threads =
+        Math.min(parent.RECOVERY_PARALLELISM, oplogSet.size() + this.currentRecoveryMap.size());
+    ExecutorService recoveryPool = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(), recoveryThreadFactory);
+    for (Oplog oplog : oplogSet) {
+      oplog.lockCompactor();
+    }
+    try {
+      // read all of the krfs
+      List<Callable<Oplog.KrfRecords>> readTasks = new ArrayList<>(oplogSet.size());
+      boolean latestOplog = true;
+      for (final Oplog oplog : oplogSet) {
+        final boolean latest = latestOplog;
+        readTasks.add(new Callable<Oplog.KrfRecords>() {
+          @Override
+          public Oplog.KrfRecords call() {
+            return oplog.readKrfRecords(deletedIds, latest);
+          }
+        });
+        latestOplog = false;
+      }
+      final List<Oplog.KrfRecords> krfRecords = invokeRecoveryTasks(recoveryPool, readTasks);
+
+      // add the entries to the regions
+      final boolean applyInParallel = !krfRecords.contains(null);
+      if (applyInParallel) {
+        Set<Long> drIds = new HashSet<>();
+        for (Oplog.KrfRecords records : krfRecords) {
+          drIds.addAll(records.getRegionIds());
+        }
+        List<Callable<Void>> applyTasks = new ArrayList<>(drIds.size());
+        for (final Long drId : drIds) {
+          applyTasks.add(new Callable<Void>() {
+            @Override
+            public Void call() {
+              for (Oplog.KrfRecords records : krfRecords) {
+                records.getOplog().applyKrfRecords(records, drId);
+              }
+              return null;
+            }
+          });
+        }
+        invokeRecoveryTasks(recoveryPool, applyTasks);
+      }
+
+      long byteCount = 0;
+      latestOplog = true;
+      Iterator<Oplog.KrfRecords> recordsIterator = krfRecords.iterator();
+      for (Oplog oplog : oplogSet) {
+        Oplog.KrfRecords records = recordsIterator.next();
+        long startOpLogRead = parent.getStats().startOplogRead();
+        long bytesRead;
+        if (records == null) {
+          bytesRead = oplog.recoverCrf(deletedIds, recoverValues(), recoverValuesSync(),
+              this.alreadyRecoveredOnce.get(), oplogsNeedingValueRecovery, latestOplog);
+        } else {
+          if (!applyInParallel) {
+            for (Long drId : records.getRegionIds()) {
+              oplog.applyKrfRecords(records, drId);
+            }
+          }
+          bytesRead = oplog.finishKrfRecovery(records, recoverValues(),
+              this.alreadyRecoveredOnce.get(), oplogsNeedingValueRecovery);
+        }
+        latestOplog = false;
+        oplogCrfRecovered(oplog, startOpLogRead, bytesRead);
+        byteCount += bytesRead;
+      }
+      return byteCount;
+    } finally {
+      for (Oplog oplog : oplogSet) {
+        oplog.unlockCompactor();
+      }
+      recoveryPool.shutdown();
+    }
+  }
+
+  private <T> List<T> invokeRecoveryTasks(ExecutorService recoveryPool, List<Callable<T>> tasks) {
+    boolean interrupted = Thread.interrupted();
+    try {
+      List<Future<T>> futures = recoveryPool.invokeAll(tasks);
+      List<T> results = new ArrayList<>(futures.size());
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      interrupted = true;
+      throw new DiskAccessException(
+          LocalizedStrings.PersistentOplogSet_RECOVERY_OF_DISKSTORE_0_WAS_INTERRUPTED
+              .toLocalizedString(parent.getName()),
+          e, parent);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new DiskAccessException(cause.getMessage(), cause, parent);
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Called after the crf (or krf) of an oplog has been recovered.
+   */
+  private void oplogCrfRecovered(Oplog oplog, long startOpLogRead, long bytesRead) {
+    if (!this.alreadyRecoveredOnce.get()) {
+      updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+    }
+    parent.getStats().endOplogRead(startOpLogRead, bytesRead);
+
+    // Callback to the disk regions to indicate the oplog is recovered
+    // Used for offline export
+    for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
+      drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+    }
+  }
+
   protected boolean recoverValuesSync() {
     return parent.RECOVER_VALUES_SYNC;
   }
@@ -37,11 +37,12 @@ public class UserSpecifiedDiskStoreAttributes extends DiskStoreAttributes {
   private boolean hasTimeInterval = false;
   private boolean hasWriteBufferSize = false;
   private boolean hasQueueSize = false;
+  private boolean hasGroupCommitMaxLatency = false;
   private boolean hasDiskDirs = false;
   private boolean hasDiskDirSizes = false;
   private boolean hasDiskUsageWarningPercentage = false;
   private boolean hasDiskUsageCriticalPercentage = false;
-  private static final int HAS_COUNT = 11;
+  private static final int HAS_COUNT = 12;
 
   public boolean hasAutoCompact() {
     return hasAutoCompact;
@@ -71,6 +72,10 @@ public class UserSpecifiedDiskStoreAttributes extends DiskStoreAttributes {
     return hasQueueSize;
   }
 
+  public boolean hasGroupCommitMaxLatency() {
+    return hasGroupCommitMaxLatency;
+  }
+
   public boolean hasDiskDirs() {
     return hasDiskDirs;
   }
@@ -115,6 +120,10 @@ public class UserSpecifiedDiskStoreAttributes extends DiskStoreAttributes {
     this.hasQueueSize = hasQueueSize;
   }
 
+  public void setHasGroupCommitMaxLatency(boolean hasGroupCommitMaxLatency) {
+    this.hasGroupCommitMaxLatency = hasGroupCommitMaxLatency;
+  }
+
   public void setHasDiskDirs(boolean hasDiskDirs) {
     this.hasDiskDirs = hasDiskDirs;
   }
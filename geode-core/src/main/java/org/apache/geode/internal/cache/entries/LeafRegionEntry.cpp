@@ -23,7 +23,7 @@ package org.apache.geode.internal.cache.entries;
 #define KEY_TYPE long
 #elif defined(KEY_UUID)
 #define KEY_TYPE UUID
-#elif defined(KEY_STRING1) || defined(KEY_STRING2)
+#elif defined(KEY_STRING1) || defined(KEY_STRING2) || defined(KEY_STRING3)
 #define KEY_TYPE String
 #else
 #error the KEY_TYPE macro must be defined    
@@ -90,6 +90,7 @@ import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.Ha
  * key uuid: KEY_UUID
  * key string1: KEY_STRING1
  * key string2: KEY_STRING2
+ * key string3: KEY_STRING3
  */
 
 /**
@@ -199,6 +200,23 @@ public class LEAF_CLASS extends PARENT_CLASS {
    * bits2 encodes character data
    */
   private final long bits2;
+#elif defined(KEY_STRING3)
+  /**
+   * strlen is encoded in lowest 6 bits (max strlen is 63)<br>
+   * character encoding info is in bits 7 and 8<br>
+   * The other bits are used to encoded character data.
+   */
+  private final long bits1;
+
+  /**
+   * bits2 encodes character data
+   */
+  private final long bits2;
+
+  /**
+   * bits3 encodes character data
+   */
+  private final long bits3;
 #endif
 
   public LEAF_CLASS (final RegionEntryContext context, final KEY_TYPE key,
@@ -206,7 +224,7 @@ public class LEAF_CLASS extends PARENT_CLASS {
       @Retained
 #endif
       final Object value
-#if defined(KEY_STRING1) || defined(KEY_STRING2)
+#if defined(KEY_STRING1) || defined(KEY_STRING2) || defined(KEY_STRING3)
       , final boolean byteEncode
 #endif
       ) {
@@ -280,6 +298,45 @@ public class LEAF_CLASS extends PARENT_CLASS {
     tempBits1 |= key.length();
     this.bits1 = tempBits1;
     this.bits2 = tempBits2;
+#elif defined(KEY_STRING3)
+    // caller has already confirmed that key.length <= MAX_INLINE_STRING_KEY
+    long tempBits1 = 0L;
+    long tempBits2 = 0L;
+    long tempBits3 = 0L;
+    if (byteEncode) {
+      for (int i = key.length() - 1; i >= 0; i--) {
+        // Note: we know each byte is <= 0x7f so the "& 0xff" is not needed. But I added it in to
+        // keep findbugs happy.
+        if (i < 7) {
+          tempBits1 |= (byte)key.charAt(i) & 0xff;
+          tempBits1 <<= 8;
+        } else if (i < 15) {
+          tempBits2 <<= 8;
+          tempBits2 |= (byte)key.charAt(i) & 0xff;
+        } else {
+          tempBits3 <<= 8;
+          tempBits3 |= (byte)key.charAt(i) & 0xff;
+        }
+      }
+      tempBits1 |= 1<<6;
+    } else {
+      for (int i = key.length() - 1; i >= 0; i--) {
+        if (i < 3) {
+          tempBits1 |= key.charAt(i);
+          tempBits1 <<= 16;
+        } else if (i < 7) {
+          tempBits2 <<= 16;
+          tempBits2 |= key.charAt(i);
+        } else {
+          tempBits3 <<= 16;
+          tempBits3 |= key.charAt(i);
+        }
+      }
+    }
+    tempBits1 |= key.length();
+    this.bits1 = tempBits1;
+    this.bits2 = tempBits2;
+    this.bits3 = tempBits3;
 #endif
   }
 
@@ -942,6 +999,110 @@ public class LEAF_CLASS extends PARENT_CLASS {
     }
     return false;
   }
+#elif defined(KEY_STRING3)
+  private int getKeyLength() {
+    return (int) (this.bits1 & 0x003fL);
+  }
+
+  private int getEncoding() {
+    // 0 means encoded as char
+    // 1 means encoded as bytes that are all <= 0x7f;
+    return (int) (this.bits1 >> 6) & 0x03;
+  }
+
+  @Override
+  public Object getKey() {
+    int keyLength = getKeyLength();
+    char[] chars = new char[keyLength];
+    long tempBits1 = this.bits1;
+    long tempBits2 = this.bits2;
+    long tempBits3 = this.bits3;
+
+    if (getEncoding() == 1) {
+      for (int i = 0; i < keyLength; i++) {
+        if (i < 7) {
+          tempBits1 >>= 8;
+          chars[i] = (char) (tempBits1 & 0x00ff);
+        } else if (i < 15) {
+          chars[i] = (char) (tempBits2 & 0x00ff);
+          tempBits2 >>= 8;
+        } else {
+          chars[i] = (char) (tempBits3 & 0x00ff);
+          tempBits3 >>= 8;
+        }
+      }
+
+    } else {
+      for (int i = 0; i < keyLength; i++) {
+        if (i < 3) {
+          tempBits1 >>= 16;
+          chars[i] = (char) (tempBits1 & 0x00FFff);
+        } else if (i < 7) {
+          chars[i] = (char) (tempBits2 & 0x00FFff);
+          tempBits2 >>= 16;
+        } else {
+          chars[i] = (char) (tempBits3 & 0x00FFff);
+          tempBits3 >>= 16;
+        }
+      }
+    }
+    return new String(chars);
+  }
+
+  // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
+  
+  @Override
+  public boolean isKeyEqual(final Object key) {
+    if (key instanceof String) {
+      String stringKey = (String)key;
+      int keyLength = getKeyLength();
+      if (stringKey.length() == keyLength) {
+        long tempBits1 = this.bits1;
+        long tempBits2 = this.bits2;
+        long tempBits3 = this.bits3;
+
+        if (getEncoding() == 1) {
+          for (int i = 0; i < keyLength; i++) {
+            char character;
+            if (i < 7) {
+              tempBits1 >>= 8;
+              character = (char) (tempBits1 & 0x00ff);
+            } else if (i < 15) {
+              character = (char) (tempBits2 & 0x00ff);
+              tempBits2 >>= 8;
+            } else {
+              character = (char) (tempBits3 & 0x00ff);
+              tempBits3 >>= 8;
+            }
+            if (stringKey.charAt(i) != character) {
+              return false;
+            }
+          }
+
+        } else {
+          for (int i = 0; i < keyLength; i++) {
+            char character;
+            if (i < 3) {
+              tempBits1 >>= 16;
+              character = (char) (tempBits1 & 0x00FFff);
+            } else if (i < 7) {
+              character = (char) (tempBits2 & 0x00FFff);
+              tempBits2 >>= 16;
+            } else {
+              character = (char) (tempBits3 & 0x00FFff);
+              tempBits3 >>= 16;
+            }
+            if (stringKey.charAt(i) != character) {
+              return false;
+            }
+          }
+        }
+
+        return true;
+      }
+    }
+    return false;
+  }
 #endif
 
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
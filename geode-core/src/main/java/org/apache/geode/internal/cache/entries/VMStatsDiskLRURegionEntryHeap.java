@@ -49,8 +49,10 @@ public abstract class VMStatsDiskLRURegionEntryHeap extends VMStatsDiskLRURegion
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMStatsDiskLRURegionEntryHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMStatsDiskLRURegionEntryHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMStatsDiskLRURegionEntryHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -51,9 +51,12 @@ public abstract class VMStatsDiskLRURegionEntryOffHeap extends VMStatsDiskLRUReg
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMStatsDiskLRURegionEntryOffHeapStringKey1(context, skey, value,
                   byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMStatsDiskLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
+            } else {
+              return new VMStatsDiskLRURegionEntryOffHeapStringKey3(context, skey, value,
+                  byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -49,8 +49,10 @@ public abstract class VMStatsDiskRegionEntryHeap extends VMStatsDiskRegionEntry
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMStatsDiskRegionEntryHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMStatsDiskRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMStatsDiskRegionEntryHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -50,8 +50,10 @@ public abstract class VMStatsDiskRegionEntryOffHeap extends VMStatsDiskRegionEnt
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMStatsDiskRegionEntryOffHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMStatsDiskRegionEntryOffHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMStatsDiskRegionEntryOffHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
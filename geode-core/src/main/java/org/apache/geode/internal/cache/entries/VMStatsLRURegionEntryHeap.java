@@ -49,8 +49,10 @@ public abstract class VMStatsLRURegionEntryHeap extends VMStatsLRURegionEntry {
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMStatsLRURegionEntryHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMStatsLRURegionEntryHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMStatsLRURegionEntryHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
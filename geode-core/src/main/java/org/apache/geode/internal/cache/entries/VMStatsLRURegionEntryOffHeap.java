@@ -50,8 +50,10 @@ public abstract class VMStatsLRURegionEntryOffHeap extends VMStatsLRURegionEntry
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMStatsLRURegionEntryOffHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMStatsLRURegionEntryOffHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMStatsLRURegionEntryOffHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
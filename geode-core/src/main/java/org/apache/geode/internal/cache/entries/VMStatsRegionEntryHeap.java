@@ -48,8 +48,10 @@ public abstract class VMStatsRegionEntryHeap extends VMStatsRegionEntry {
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMStatsRegionEntryHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMStatsRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMStatsRegionEntryHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
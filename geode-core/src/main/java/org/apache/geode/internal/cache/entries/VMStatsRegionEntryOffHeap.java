@@ -50,8 +50,10 @@ public abstract class VMStatsRegionEntryOffHeap extends VMStatsRegionEntry
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMStatsRegionEntryOffHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMStatsRegionEntryOffHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMStatsRegionEntryOffHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
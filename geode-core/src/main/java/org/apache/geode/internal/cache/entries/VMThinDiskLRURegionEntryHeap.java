@@ -49,8 +49,10 @@ public abstract class VMThinDiskLRURegionEntryHeap extends VMThinDiskLRURegionEn
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMThinDiskLRURegionEntryHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMThinDiskLRURegionEntryHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMThinDiskLRURegionEntryHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -51,9 +51,12 @@ public abstract class VMThinDiskLRURegionEntryOffHeap extends VMThinDiskLRURegio
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMThinDiskLRURegionEntryOffHeapStringKey1(context, skey, value,
                   byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMThinDiskLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
+            } else {
+              return new VMThinDiskLRURegionEntryOffHeapStringKey3(context, skey, value,
+                  byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -49,8 +49,10 @@ public abstract class VMThinDiskRegionEntryHeap extends VMThinDiskRegionEntry {
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMThinDiskRegionEntryHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMThinDiskRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMThinDiskRegionEntryHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -50,8 +50,10 @@ public abstract class VMThinDiskRegionEntryOffHeap extends VMThinDiskRegionEntry
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMThinDiskRegionEntryOffHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMThinDiskRegionEntryOffHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMThinDiskRegionEntryOffHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -49,8 +49,10 @@ public abstract class VMThinLRURegionEntryHeap extends VMThinLRURegionEntry {
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMThinLRURegionEntryHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMThinLRURegionEntryHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMThinLRURegionEntryHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -50,8 +50,10 @@ public abstract class VMThinLRURegionEntryOffHeap extends VMThinLRURegionEntry
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMThinLRURegionEntryOffHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMThinLRURegionEntryOffHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMThinLRURegionEntryOffHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -48,8 +48,10 @@ public abstract class VMThinRegionEntryHeap extends VMThinRegionEntry {
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VMThinRegionEntryHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VMThinRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VMThinRegionEntryHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
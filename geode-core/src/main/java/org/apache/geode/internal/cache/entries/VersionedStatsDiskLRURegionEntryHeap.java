@@ -51,9 +51,12 @@ public abstract class VersionedStatsDiskLRURegionEntryHeap
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VersionedStatsDiskLRURegionEntryHeapStringKey1(context, skey, value,
                   byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VersionedStatsDiskLRURegionEntryHeapStringKey2(context, skey, value,
                   byteEncoded);
+            } else {
+              return new VersionedStatsDiskLRURegionEntryHeapStringKey3(context, skey, value,
+                  byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
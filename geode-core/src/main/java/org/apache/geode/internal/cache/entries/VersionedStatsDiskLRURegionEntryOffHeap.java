@@ -52,9 +52,12 @@ public abstract class VersionedStatsDiskLRURegionEntryOffHeap
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VersionedStatsDiskLRURegionEntryOffHeapStringKey1(context, skey, value,
                   byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VersionedStatsDiskLRURegionEntryOffHeapStringKey2(context, skey, value,
                   byteEncoded);
+            } else {
+              return new VersionedStatsDiskLRURegionEntryOffHeapStringKey3(context, skey, value,
+                  byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -50,9 +50,12 @@ public abstract class VersionedStatsDiskRegionEntryHeap extends VersionedStatsDi
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VersionedStatsDiskRegionEntryHeapStringKey1(context, skey, value,
                   byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VersionedStatsDiskRegionEntryHeapStringKey2(context, skey, value,
                   byteEncoded);
+            } else {
+              return new VersionedStatsDiskRegionEntryHeapStringKey3(context, skey, value,
+                  byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -50,9 +50,12 @@ public abstract class VersionedStatsLRURegionEntryHeap extends VersionedStatsLRU
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VersionedStatsLRURegionEntryHeapStringKey1(context, skey, value,
                   byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VersionedStatsLRURegionEntryHeapStringKey2(context, skey, value,
                   byteEncoded);
+            } else {
+              return new VersionedStatsLRURegionEntryHeapStringKey3(context, skey, value,
+                  byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -49,8 +49,10 @@ public abstract class VersionedStatsRegionEntryHeap extends VersionedStatsRegion
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VersionedStatsRegionEntryHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VersionedStatsRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VersionedStatsRegionEntryHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
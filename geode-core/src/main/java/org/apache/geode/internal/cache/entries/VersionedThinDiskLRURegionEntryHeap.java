@@ -50,9 +50,12 @@ public abstract class VersionedThinDiskLRURegionEntryHeap extends VersionedThinD
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VersionedThinDiskLRURegionEntryHeapStringKey1(context, skey, value,
                   byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VersionedThinDiskLRURegionEntryHeapStringKey2(context, skey, value,
                   byteEncoded);
+            } else {
+              return new VersionedThinDiskLRURegionEntryHeapStringKey3(context, skey, value,
+                  byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
@@ -50,9 +50,12 @@ public abstract class VersionedThinDiskRegionEntryHeap extends VersionedThinDisk
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VersionedThinDiskRegionEntryHeapStringKey1(context, skey, value,
                   byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VersionedThinDiskRegionEntryHeapStringKey2(context, skey, value,
                   byteEncoded);
+            } else {
+              return new VersionedThinDiskRegionEntryHeapStringKey3(context, skey, value,
+                  byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
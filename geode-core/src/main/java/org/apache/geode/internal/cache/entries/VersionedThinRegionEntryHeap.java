@@ -49,8 +49,10 @@ public abstract class VersionedThinRegionEntryHeap extends VersionedThinRegionEn
             final boolean byteEncoded = info;
             if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
               return new VersionedThinRegionEntryHeapStringKey1(context, skey, value, byteEncoded);
-            } else {
+            } else if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(2, byteEncoded)) {
               return new VersionedThinRegionEntryHeapStringKey2(context, skey, value, byteEncoded);
+            } else {
+              return new VersionedThinRegionEntryHeapStringKey3(context, skey, value, byteEncoded);
             }
           }
         } else if (keyClass == UUID.class) {
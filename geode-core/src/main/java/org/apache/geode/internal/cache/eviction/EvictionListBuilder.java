@@ -28,6 +28,12 @@ public class EvictionListBuilder {
   private final boolean EVICTION_SCAN_ASYNC =
       SystemPropertyHelper.getProductBooleanProperty(SystemPropertyHelper.EVICTION_SCAN_ASYNC);
 
+  private final boolean EVICTION_CLOCK_HAND =
+      SystemPropertyHelper.getProductBooleanProperty(SystemPropertyHelper.EVICTION_CLOCK_HAND);
+
+  private final boolean EVICTION_TINY_LFU =
+      SystemPropertyHelper.getProductBooleanProperty(SystemPropertyHelper.EVICTION_TINY_LFU);
+
   private EvictionAlgorithm algorithm;
   private Object region;
   private EvictionController controller;
@@ -61,6 +67,10 @@ public class EvictionListBuilder {
     } else {
       if (EVICTION_SCAN_ASYNC) {
         return new LRUListWithAsyncSorting(getEvictionStats(), getBucketRegion());
+      } else if (EVICTION_TINY_LFU) {
+        return new WindowTinyLFUList(getEvictionStats(), getBucketRegion());
+      } else if (EVICTION_CLOCK_HAND) {
+        return new LRUListWithClockHand(getEvictionStats(), getBucketRegion());
       } else {
         return new LRUListWithSyncSorting(getEvictionStats(), getBucketRegion());
       }
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+/**
+ * A count-min sketch estimating how often keys have been seen, with four 4-bit counters per key
+ * packed into longs. Once the number of increments reaches ten times the width of the sketch all
+ * counters are halved, so that the estimates favor recent history. The sketch is not thread safe;
+ * {@link WindowTinyLFUList} only uses it while holding its lock.
+ */
+class FrequencySketch {
+
+  private static final long[] SEEDS =
+      {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  private static final int MAX_TABLE_LENGTH = 1 << 30;
+
+  private long[] table;
+
+  private int tableMask;
+
+  private int sampleSize;
+
+  private int additions;
+
+  FrequencySketch(int expectedSize) {
+    ensureCapacity(expectedSize);
+  }
+
+  /**
+   * Widens the sketch, dropping what it has counted so far, if it is too narrow for the given
+   * number of keys.
+   */
+  void ensureCapacity(int expectedSize) {
+    int length = tableLength(expectedSize);
+    if (this.table != null && this.table.length >= length) {
+      return;
+    }
+    this.table = new long[length];
+    this.tableMask = length - 1;
+    this.sampleSize = (int) Math.min(10L * length, Integer.MAX_VALUE);
+    this.additions = 0;
+  }
+
+  private static int tableLength(int expectedSize) {
+    if (expectedSize >= MAX_TABLE_LENGTH) {
+      return MAX_TABLE_LENGTH;
+    }
+    return Math.max(16, Integer.highestOneBit(Math.max(expectedSize - 1, 1)) << 1);
+  }
+
+  int width() {
+    return this.table.length;
+  }
+
+  /**
+   * Returns the estimated number of times the key has been seen, at most 15.
+   */
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((this.table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Counts another occurrence of the key.
+   */
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++this.additions == this.sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((this.table[index] & mask) != mask) {
+      this.table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Halves every counter.
+   */
+  private void reset() {
+    int oddCounters = 0;
+    for (int i = 0; i < this.table.length; i++) {
+      oddCounters += Long.bitCount(this.table[i] & ONE_MASK);
+      this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+    }
+    this.additions = (this.additions >>> 1) - (oddCounters >>> 2);
+  }
+
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & this.tableMask;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
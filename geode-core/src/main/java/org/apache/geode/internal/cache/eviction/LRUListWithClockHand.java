@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Optional;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * LRUListWithClockHand keeps the eviction list in a fixed circular order and picks the entry to
+ * evict with a clock hand instead of sorting the list. Using an entry only sets its recently used
+ * bit. When an entry is needed the hand moves on from where it last stopped, clearing the recently
+ * used bit of the entries it passes, and stops at the first entry whose bit was not set. Recently
+ * used entries stay where they are rather than being unlinked and appended again as
+ * {@link LRUListWithSyncSorting} does, so an eviction takes the list lock once instead of twice for
+ * every recently used entry it skips. New entries are added just behind the hand, which makes them
+ * the last ones it reaches.
+ */
+public class LRUListWithClockHand extends AbstractEvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  private final int maxEntries;
+
+  /**
+   * The next node the hand looks at, or null to start from the head of the list. Never a node that
+   * has been unlinked, see {@link #unlinkEntry}.
+   */
+  private EvictionNode hand;
+
+  LRUListWithClockHand(InternalEvictionStatistics stats, BucketRegion region) {
+    super(stats, region);
+    this.maxEntries = readMaxEntriesProperty();
+  }
+
+  private int readMaxEntriesProperty() {
+    Optional<Integer> optionalMaxEntries = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_SEARCH_MAX_ENTRIES);
+    return optionalMaxEntries.orElse(-1);
+  }
+
+  /**
+   * Remove and return the Entry that is considered least recently used.
+   */
+  @Override
+  public EvictableEntry getEvictableEntry() {
+    for (;;) {
+      EvictionNode evictionNode = unlinkNextUnusedEntry();
+      if (evictionNode == null) {
+        // the list is empty
+        return null;
+      }
+      // checked without holding the list lock since it synchronizes on the node
+      if (isEvictable(evictionNode)) {
+        return (EvictableEntry) evictionNode;
+      }
+    }
+  }
+
+  /**
+   * Moves the hand to the next entry that is not recently used, or that has been evicted already,
+   * and unlinks it.
+   */
+  private synchronized EvictionNode unlinkNextUnusedEntry() {
+    long numEvals = 0;
+    EvictionNode evictionNode = this.hand == null ? this.head.next() : this.hand;
+    // going around the list twice is enough since the first time clears all recently used bits
+    long maxEvals = 2L * size() + 1;
+    for (;;) {
+      if (evictionNode == this.tail) {
+        evictionNode = this.head.next();
+        if (evictionNode == this.tail) {
+          // hit the end of an empty list
+          this.hand = null;
+          this.stats.incEvaluations(numEvals);
+          return null;
+        }
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, "lru considering {}", evictionNode);
+      }
+
+      numEvals++;
+      if (evictionNode.isEvicted() || !evictionNode.isRecentlyUsed()) {
+        break;
+      }
+      if (numEvals >= maxEvals || (this.maxEntries > 0 && numEvals > this.maxEntries)) {
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+          logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage
+              .create(LocalizedStrings.NewLRUClockHand_GREEDILY_PICKING_AN_AVAILABLE_ENTRY));
+        }
+        this.stats.incGreedyReturns(1);
+        break;
+      }
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage
+            .create(LocalizedStrings.NewLRUClockHand_SKIPPING_RECENTLY_USED_ENTRY, evictionNode));
+      }
+      evictionNode.unsetRecentlyUsed();
+      evictionNode = evictionNode.next();
+    }
+
+    this.hand = evictionNode;
+    unlinkEntry(evictionNode);
+    this.stats.incEvaluations(numEvals);
+    return evictionNode;
+  }
+
+  /**
+   * Adds a new node just behind the hand, so that the hand reaches it only after going around the
+   * rest of the list.
+   */
+  @Override
+  public synchronized void appendEntry(EvictionNode evictionNode) {
+    EvictionNode next = this.hand;
+    if (next == null || evictionNode.next() != null) {
+      super.appendEntry(evictionNode);
+      return;
+    }
+
+    if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+      logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage
+          .create(LocalizedStrings.NewLRUClockHand_ADDING_ANODE_TO_LRU_LIST, evictionNode));
+    }
+
+    EvictionNode previous = next.previous();
+    evictionNode.setNext(next);
+    evictionNode.setPrevious(previous);
+    previous.setNext(evictionNode);
+    next.setPrevious(evictionNode);
+
+    incrementSize();
+  }
+
+  /**
+   * Moves the hand past a node before it is unlinked.
+   */
+  @Override
+  protected synchronized void unlinkEntry(EvictionNode evictionNode) {
+    if (evictionNode == this.hand) {
+      EvictionNode next = evictionNode.next();
+      this.hand = next == this.tail ? null : next;
+    }
+    super.unlinkEntry(evictionNode);
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector) {
+    synchronized (this) {
+      super.clear(regionVersionVector);
+      if (regionVersionVector == null) {
+        this.hand = null;
+      }
+    }
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // nothing needed
+  }
+}
@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * WindowTinyLFUList picks the entry to evict by how often entries are used as well as how recently.
+ * New entries are added to a small admission window, which is {@link AbstractEvictionList#head}
+ * to {@link AbstractEvictionList#tail}. Entries that overflow the window move to the probation
+ * segment of the main list, and probation entries that turn out to be recently used are promoted to
+ * the protected segment, whose overflow is demoted back to probation. An entry leaving the window
+ * is only kept if its estimated frequency, taken from a {@link FrequencySketch} of the keys, is
+ * higher than that of the entry at the head of probation; otherwise it is the one evicted. This
+ * keeps a scan of many entries that are used only once from flushing out the frequently used ones.
+ *
+ * Uses of an entry only set its recently used bit, so the sketch counts a key when it is added and
+ * each time the bit is found set while the entry moves through the list.
+ *
+ * The segment an entry is in is not recorded, so the window and protected sizes are not decremented
+ * when entries are destroyed. Instead they are recounted after as many destroys as they have
+ * entries, which keeps the cost of recounting constant per destroy.
+ */
+public class WindowTinyLFUList extends AbstractEvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  private static final int WINDOW_PERCENT = 1;
+
+  private static final int PROTECTED_PERCENT = 80;
+
+  private final EvictionNode probationHead = new GuardNode();
+
+  private final EvictionNode probationTail = new GuardNode();
+
+  private final EvictionNode protectedHead = new GuardNode();
+
+  private final EvictionNode protectedTail = new GuardNode();
+
+  private final FrequencySketch sketch = new FrequencySketch(0);
+
+  private int windowSize;
+
+  private int protectedSize;
+
+  private int windowDestroys;
+
+  private int protectedDestroys;
+
+  /** The number of entries looked at while finding the current victim */
+  private long evaluations;
+
+  WindowTinyLFUList(InternalEvictionStatistics stats, BucketRegion region) {
+    super(stats, region);
+    initMainList();
+  }
+
+  private synchronized void initMainList() {
+    this.probationHead.setNext(this.probationTail);
+    this.probationTail.setPrevious(this.probationHead);
+    this.protectedHead.setNext(this.protectedTail);
+    this.protectedTail.setPrevious(this.protectedHead);
+    this.windowSize = 0;
+    this.protectedSize = 0;
+    this.windowDestroys = 0;
+    this.protectedDestroys = 0;
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector) {
+    synchronized (this) {
+      super.clear(regionVersionVector);
+      if (regionVersionVector == null) {
+        initMainList();
+      }
+    }
+  }
+
+  /**
+   * Adds a new entry to the tail of the window.
+   */
+  @Override
+  public synchronized void appendEntry(EvictionNode evictionNode) {
+    if (evictionNode.next() != null) {
+      // already in the list
+      return;
+    }
+    super.appendEntry(evictionNode);
+    this.windowSize++;
+    this.sketch.ensureCapacity(size());
+    this.sketch.increment(keyOf(evictionNode));
+  }
+
+  @Override
+  protected synchronized boolean removeEntry(EvictionNode evictionNode) {
+    if (!super.removeEntry(evictionNode)) {
+      return false;
+    }
+    this.windowDestroys++;
+    this.protectedDestroys++;
+    return true;
+  }
+
+  /**
+   * Remove and return the Entry that is considered least valuable.
+   */
+  @Override
+  public EvictableEntry getEvictableEntry() {
+    for (;;) {
+      EvictionNode evictionNode = unlinkVictim();
+      if (evictionNode == null) {
+        // the list is empty
+        return null;
+      }
+      // checked without holding the list lock since it synchronizes on the node
+      if (isEvictable(evictionNode)) {
+        return (EvictableEntry) evictionNode;
+      }
+    }
+  }
+
+  private synchronized EvictionNode unlinkVictim() {
+    recountSegments();
+    int windowMax = Math.max(1, (int) ((long) size() * WINDOW_PERCENT / 100));
+    int protectedMax = (int) ((long) (size() - windowMax) * PROTECTED_PERCENT / 100);
+    this.evaluations = 0;
+
+    EvictionNode victim = findProbationVictim(protectedMax);
+    EvictionNode candidate = moveWindowOverflowToProbation(windowMax);
+    EvictionNode evictionNode;
+    if (victim == null && candidate == null) {
+      // the main list is empty so evict from the window
+      evictionNode = this.head.next();
+      if (evictionNode == this.tail) {
+        this.windowSize = 0;
+        this.stats.incEvaluations(this.evaluations);
+        return null;
+      }
+      this.windowSize--;
+    } else if (candidate == null || (victim != null && victim.isEvicted())) {
+      evictionNode = victim;
+    } else if (victim == null) {
+      evictionNode = candidate;
+    } else {
+      this.evaluations++;
+      int candidateFrequency = this.sketch.frequency(keyOf(candidate));
+      int victimFrequency = this.sketch.frequency(keyOf(victim));
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, "lru candidate {} with frequency {} against {} with {}",
+            candidate, candidateFrequency, victim, victimFrequency);
+      }
+      evictionNode = candidateFrequency > victimFrequency ? victim : candidate;
+    }
+
+    unlinkEntry(evictionNode);
+    this.stats.incEvaluations(this.evaluations);
+    return evictionNode;
+  }
+
+  /**
+   * Moves the entries the window has too many of to the tail of probation.
+   *
+   * @return the first entry moved, or null if the window was not full
+   */
+  private EvictionNode moveWindowOverflowToProbation(int windowMax) {
+    EvictionNode candidate = null;
+    while (this.windowSize > windowMax) {
+      EvictionNode evictionNode = this.head.next();
+      if (evictionNode == this.tail) {
+        this.windowSize = 0;
+        break;
+      }
+      this.evaluations++;
+      recordUse(evictionNode);
+      moveToTail(evictionNode, this.probationTail);
+      this.windowSize--;
+      if (candidate == null) {
+        candidate = evictionNode;
+      }
+    }
+    return candidate;
+  }
+
+  /**
+   * Returns the entry at the head of probation once recently used entries there have been promoted
+   * to the protected segment, or null if the main list is empty.
+   */
+  private EvictionNode findProbationVictim(int protectedMax) {
+    // going around the main list twice is enough since the first time clears all recently used bits
+    long maxEvals = 2L * size() + 1;
+    for (;;) {
+      EvictionNode evictionNode = this.probationHead.next();
+      if (evictionNode == this.probationTail) {
+        evictionNode = this.protectedHead.next();
+        if (evictionNode == this.protectedTail) {
+          return null;
+        }
+        // probation is empty so demote the head of the protected segment
+        moveToTail(evictionNode, this.probationTail);
+        this.protectedSize = Math.max(0, this.protectedSize - 1);
+        continue;
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, "lru considering {}", evictionNode);
+      }
+      this.evaluations++;
+      if (evictionNode.isEvicted() || !evictionNode.isRecentlyUsed()
+          || this.evaluations >= maxEvals) {
+        return evictionNode;
+      }
+
+      recordUse(evictionNode);
+      moveToTail(evictionNode, this.protectedTail);
+      this.protectedSize++;
+      while (this.protectedSize > protectedMax) {
+        EvictionNode demoted = this.protectedHead.next();
+        if (demoted == this.protectedTail) {
+          this.protectedSize = 0;
+          break;
+        }
+        moveToTail(demoted, this.probationTail);
+        this.protectedSize--;
+      }
+    }
+  }
+
+  /**
+   * Counts a use of the entry in the sketch if its recently used bit is set, and clears the bit.
+   */
+  private void recordUse(EvictionNode evictionNode) {
+    if (evictionNode.isRecentlyUsed()) {
+      evictionNode.unsetRecentlyUsed();
+      this.sketch.increment(keyOf(evictionNode));
+    }
+  }
+
+  /**
+   * Recounts the window and protected segments once there have been as many destroys, which may
+   * have removed entries from them, as the segments have entries.
+   */
+  private void recountSegments() {
+    if (this.windowDestroys > 0 && this.windowDestroys >= this.windowSize) {
+      this.windowSize = countEntries(this.head, this.tail);
+      this.windowDestroys = 0;
+    }
+    if (this.protectedDestroys > 0 && this.protectedDestroys >= this.protectedSize) {
+      this.protectedSize = countEntries(this.protectedHead, this.protectedTail);
+      this.protectedDestroys = 0;
+    }
+  }
+
+  private static int countEntries(EvictionNode head, EvictionNode tail) {
+    int count = 0;
+    for (EvictionNode evictionNode = head.next(); evictionNode != tail; evictionNode =
+        evictionNode.next()) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Moves an entry to the tail of a segment without changing the size of the list.
+   */
+  private static void moveToTail(EvictionNode evictionNode, EvictionNode tail) {
+    EvictionNode next = evictionNode.next();
+    EvictionNode previous = evictionNode.previous();
+    next.setPrevious(previous);
+    previous.setNext(next);
+
+    previous = tail.previous();
+    evictionNode.setNext(tail);
+    evictionNode.setPrevious(previous);
+    previous.setNext(evictionNode);
+    tail.setPrevious(evictionNode);
+  }
+
+  private static Object keyOf(EvictionNode evictionNode) {
+    if (evictionNode instanceof RegionEntry) {
+      Object key = ((RegionEntry) evictionNode).getKey();
+      if (key != null) {
+        return key;
+      }
+    }
+    return evictionNode;
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // nothing needed
+  }
+}
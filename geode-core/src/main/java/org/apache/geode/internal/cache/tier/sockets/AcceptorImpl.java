@@ -206,6 +206,17 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
   private final int acceptTimeout =
       Integer.getInteger(ACCEPT_TIMEOUT_PROPERTY_NAME, DEFAULT_ACCEPT_TIMEOUT_MS).intValue();
 
+  /**
+   * The name of a system property that, when true, makes the selector hand a client connection to
+   * the thread pool as soon as it is readable instead of once its whole request has been received.
+   * The pooled thread then reads the request off the socket itself, as it did before 1.4.
+   */
+  public static final String DISABLE_SELECTOR_FRAMING_PROPERTY_NAME =
+      "BridgeServer.disableSelectorFraming";
+
+  private final boolean selectorFraming =
+      !Boolean.getBoolean(DISABLE_SELECTOR_FRAMING_PROPERTY_NAME);
+
   /**
    * The mininum value of max-connections
    */
@@ -679,6 +690,14 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     return this.maxThreads > 0;
   }
 
+  /**
+   * Returns true if the selector receives the requests of client connections, handing them to the
+   * thread pool only once a whole request has arrived.
+   */
+  public boolean isSelectorFraming() {
+    return isSelector() && this.selectorFraming;
+  }
+
   /**
    * This system property is only used if max-threads == 0. This is for 5.0.2 backwards
    * compatibility.
@@ -938,7 +957,12 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
             tmpSel.selectNow(); // clear canceled key
             sc.registerWithSelector2(this.selector);
           } else {
-            if (tmpsk.isValid() && tmpsk.isReadable()) {
+            if (tmpsk.isValid() && tmpsk.isReadable() && !sc.readFramedMessage()) {
+              // still receiving the request
+              tmpsk.cancel();
+              this.tmpSel.selectNow(); // clear canceled key
+              sc.registerWithSelector2(this.selector);
+            } else if (tmpsk.isValid() && tmpsk.isReadable()) {
               // logger.info("DEBUG detected read event on " + sc);
               try {
                 tmpsk.cancel();
@@ -1095,6 +1119,10 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
             try {
               if (key.isValid() && key.isReadable()) {
                 // this is the only event we currently register for
+                if (!sc.readFramedMessage()) {
+                  // keep receiving the request until all of it has arrived
+                  continue;
+                }
                 try {
                   key.cancel();
                   this.selectorRegistrations.remove(sc);
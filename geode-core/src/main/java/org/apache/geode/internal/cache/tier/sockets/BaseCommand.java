@@ -99,7 +99,7 @@ public abstract class BaseCommand implements Command {
    * of them completes or fails. The bytes are computed based in the size sent in the incoming msg
    * header.
    */
-  private static final int MAX_INCOMING_DATA =
+  static final int MAX_INCOMING_DATA =
       Integer.getInteger("BridgeServer.MAX_INCOMING_DATA", -1);
 
   /**
@@ -110,9 +110,9 @@ public abstract class BaseCommand implements Command {
   private static final int MAX_INCOMING_MESSAGES =
       Integer.getInteger("BridgeServer.MAX_INCOMING_MSGS", -1);
 
-  private static final Semaphore INCOMING_DATA_LIMITER;
+  static final Semaphore INCOMING_DATA_LIMITER;
 
-  private static final Semaphore INCOMING_MSG_LIMITER;
+  static final Semaphore INCOMING_MSG_LIMITER;
 
   static {
     Semaphore semaphore;
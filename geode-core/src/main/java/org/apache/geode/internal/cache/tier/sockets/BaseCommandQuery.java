@@ -15,6 +15,7 @@
 package org.apache.geode.internal.cache.tier.sockets;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -29,6 +30,7 @@ import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.internal.CqEntry;
 import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.QueryResultStream;
 import org.apache.geode.cache.query.internal.cq.ServerCQ;
 import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
@@ -92,6 +94,16 @@ public abstract class BaseCommandQuery extends BaseCommand {
         securityService.authorize(Resource.DATA, Operation.READ, regionName.toString());
       }
 
+      if (sendResults && cqQuery == null && servConn.getPostAuthzRequest() == null
+          && ((DefaultQuery) query).isStreamable()) {
+        // the results need no post processing, so send them as they are produced
+        start = processStreamedQuery(msg, (DefaultQuery) query, queryString, regionNames, start,
+            servConn, params, securityService);
+        msg.clearParts();
+        stats.incWriteQueryResponseTime(DistributionStats.getStatTime() - start);
+        return true;
+      }
+
       // Execute query
       // startTime = GenericStats.getTime();
       // startTime = System.currentTimeMillis();
@@ -111,16 +123,7 @@ public abstract class BaseCommandQuery extends BaseCommand {
       // of the regions involved in the query have been destroyed
       // or not. If yes, throw an Exception.
       // This is a workaround/fix for Bug 36969
-      Iterator itr = regionNames.iterator();
-      while (itr.hasNext()) {
-        String regionName = (String) itr.next();
-        if (crHelper.getRegion(regionName) == null) {
-          throw new RegionDestroyedException(
-              LocalizedStrings.BaseCommand_REGION_DESTROYED_DURING_THE_EXECUTION_OF_THE_QUERY
-                  .toLocalizedString(),
-              regionName);
-        }
-      }
+      checkRegionsExist(regionNames, crHelper);
       AuthorizeRequestPP postAuthzRequest = servConn.getPostAuthzRequest();
       if (postAuthzRequest != null) {
         if (cqQuery == null) {
@@ -288,8 +291,102 @@ public abstract class BaseCommandQuery extends BaseCommand {
     return true;
   }
 
+  /**
+   * Executes a query whose results need no post processing and sends them to the client a chunk
+   * at a time, as they are produced, instead of collecting them all first.
+   *
+   * @return the time the first chunk of results was ready
+   */
+  private long processStreamedQuery(Message msg, DefaultQuery query, String queryString,
+      Set regionNames, long start, ServerConnection servConn, Object[] params,
+      final SecurityService securityService) throws Exception {
+    CacheServerStats stats = servConn.getCacheServerStats();
+    QueryResultStream results = query.executeStreaming(params != null ? params : new Object[0]);
+    try {
+      CollectionType collectionType = getCollectionType(results.getCollectionType());
+      boolean isStructs = collectionType.getElementType().isStructType();
+      // from 7.0, if the object is in the form of serialized byte array,
+      // send it as a part of ObjectPartList
+      boolean hasSerializedObjects = query.isKeepSerialized();
+
+      long oldStart = start;
+      start = DistributionStats.getStatTime();
+      stats.incProcessQueryTime(start - oldStart);
+
+      ChunkedMessage queryResponseMsg = servConn.getQueryResponseMessage();
+      queryResponseMsg.setMessageType(MessageType.RESPONSE);
+      queryResponseMsg.setTransactionId(msg.getTransactionId());
+      queryResponseMsg.sendHeader();
+
+      int numberOfChunks = 0;
+      boolean lastChunk = false;
+      while (!lastChunk) {
+        if (logger.isTraceEnabled()) {
+          logger.trace("{}: Creating chunk: {}", servConn.getName(), numberOfChunks);
+        }
+        Object chunk;
+        if (hasSerializedObjects) {
+          ObjectPartList serializedObjs = new ObjectPartList(MAXIMUM_CHUNK_SIZE, false);
+          while (serializedObjs.size() < MAXIMUM_CHUNK_SIZE && results.hasNext()) {
+            addToObjectPartList(serializedObjs, results.next(), collectionType, false, servConn,
+                isStructs, securityService);
+          }
+          chunk = serializedObjs;
+        } else {
+          List objs = new ArrayList(MAXIMUM_CHUNK_SIZE);
+          while (objs.size() < MAXIMUM_CHUNK_SIZE && results.hasNext()) {
+            Object result = results.next();
+            // instance check added to fix bug 40516.
+            if (isStructs && (result instanceof Struct)) {
+              objs.add(((Struct) result).getFieldValues());
+            } else {
+              objs.add(result);
+            }
+          }
+          chunk = objs.toArray();
+        }
+        lastChunk = !results.hasNext();
+        if (lastChunk) {
+          checkRegionsExist(regionNames, servConn.getCachedRegionHelper());
+        }
+        writeQueryResponseChunk(chunk, collectionType, lastChunk, servConn);
+        numberOfChunks++;
+        if (logger.isDebugEnabled()) {
+          logger.debug("{}: Sent chunk {} of streamed query response for query: {}",
+              servConn.getName(), numberOfChunks, queryString);
+        }
+      }
+      return start;
+    } finally {
+      results.close();
+    }
+  }
+
+  /**
+   * Throws a RegionDestroyedException if any of the given regions has been destroyed.
+   */
+  private void checkRegionsExist(Set regionNames, CachedRegionHelper crHelper) {
+    Iterator itr = regionNames.iterator();
+    while (itr.hasNext()) {
+      String regionName = (String) itr.next();
+      if (crHelper.getRegion(regionName) == null) {
+        throw new RegionDestroyedException(
+            LocalizedStrings.BaseCommand_REGION_DESTROYED_DURING_THE_EXECUTION_OF_THE_QUERY
+                .toLocalizedString(),
+            regionName);
+      }
+    }
+  }
+
   protected CollectionType getCollectionType(SelectResults results) {
-    return results.getCollectionType();
+    return getCollectionType(results.getCollectionType());
+  }
+
+  /**
+   * Returns the collection type the results of a query are sent to the client as.
+   */
+  protected CollectionType getCollectionType(CollectionType collectionType) {
+    return collectionType;
   }
 
   private boolean sendCqResultsWithKey(ServerConnection servConn) {
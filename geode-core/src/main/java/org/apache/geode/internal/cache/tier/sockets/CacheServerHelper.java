@@ -119,7 +119,15 @@ public class CacheServerHelper {
    * @return String
    */
   public static String fromUTF(byte[] bytearr) {
-    int utflen = bytearr.length;
+    return fromUTF(bytearr, bytearr.length);
+  }
+
+  /**
+   * Decodes the first utflen bytes of the given array like {@link #fromUTF(byte[])}.
+   *
+   * @since Geode 1.4
+   */
+  public static String fromUTF(byte[] bytearr, int utflen) {
     int c, char2, char3;
     int count = 0;
     int chararr_count = 0;
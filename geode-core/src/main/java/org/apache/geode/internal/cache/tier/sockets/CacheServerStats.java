@@ -203,6 +203,9 @@ public class CacheServerStats implements MessageStats {
   int receivedBytesId;
   int sentBytesId;
 
+  int partBufferPoolHitsId;
+  int partBufferPoolMissesId;
+
   int outOfOrderBatchIdsId;
   int abandonedWriteRequestsId;
   int abandonedReadRequestsId;
@@ -448,6 +451,11 @@ public class CacheServerStats implements MessageStats {
             "Total number of bytes received from clients.", "bytes"),
         statisticsFactory.createLongCounter("sentBytes", "Total number of bytes sent to clients.",
             "bytes"),
+        statisticsFactory.createLongCounter("partBufferPoolHits",
+            "Total number of request parts received into a reused pooled buffer.", "parts"),
+        statisticsFactory.createLongCounter("partBufferPoolMisses",
+            "Total number of request parts that needed a new buffer because the pool had none.",
+            "parts"),
         statisticsFactory.createIntGauge("messagesBeingReceived",
             "Current number of message being received off the network or being processed after reception.",
             "messages"),
@@ -590,6 +598,8 @@ public class CacheServerStats implements MessageStats {
 
     receivedBytesId = this.stats.nameToId("receivedBytes");
     sentBytesId = this.stats.nameToId("sentBytes");
+    partBufferPoolHitsId = this.stats.nameToId("partBufferPoolHits");
+    partBufferPoolMissesId = this.stats.nameToId("partBufferPoolMisses");
 
     messagesBeingReceivedId = this.stats.nameToId("messagesBeingReceived");
     messageBytesBeingReceivedId = this.stats.nameToId("messageBytesBeingReceived");
@@ -941,6 +951,14 @@ public class CacheServerStats implements MessageStats {
     this.stats.incLong(sentBytesId, v);
   }
 
+  public void incPartBufferPoolHits() {
+    this.stats.incLong(partBufferPoolHitsId, 1);
+  }
+
+  public void incPartBufferPoolMisses() {
+    this.stats.incLong(partBufferPoolMissesId, 1);
+  }
+
   public void incMessagesBeingReceived(int bytes) {
     stats.incInt(messagesBeingReceivedId, 1);
     if (bytes > 0) {
@@ -59,6 +59,12 @@ public class LegacyServerConnection extends ServerConnection {
         communicationMode, acceptor, securityService);
   }
 
+  @Override
+  protected boolean isMessageFramingSupported() {
+    // the handshake is read off the socket by the pooled thread
+    return !this.doHandshake;
+  }
+
   @Override
   protected boolean doHandShake(byte epType, int qSize) {
     try {
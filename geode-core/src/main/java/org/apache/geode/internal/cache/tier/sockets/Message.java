@@ -14,12 +14,15 @@
  */
 package org.apache.geode.internal.cache.tier.sockets;
 
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SocketChannel;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -88,14 +91,25 @@ public class Message {
 
   static final int DEFAULT_MAX_MESSAGE_SIZE = 1073741824;
 
+  /**
+   * Returns the largest message that may be sent, as set by {@link #MAX_MESSAGE_SIZE_PROPERTY}.
+   */
+  static int getMaxMessageSize() {
+    return Integer.getInteger(MAX_MESSAGE_SIZE_PROPERTY, DEFAULT_MAX_MESSAGE_SIZE);
+  }
+
   private static final Logger logger = LogService.getLogger();
 
   private static final int PART_HEADER_SIZE = 5; // 4 bytes for length, 1 byte for isObject
 
-  private static final int FIXED_LENGTH = 17;
+  static final int FIXED_LENGTH = 17;
 
   private static final ThreadLocal<ByteBuffer> tlCommBuffer = new ThreadLocal<>();
 
+  /** Read from once a framed request has been parsed, so that reading any further fails */
+  private static final ReadableByteChannel END_OF_FRAME =
+      Channels.newChannel(new ByteArrayInputStream(new byte[0]));
+
   // These two statics are fields shoved into the flags byte for transmission.
   // The MESSAGE_IS_RETRY bit is stripped out during deserialization but the other
   // is left in place
@@ -141,6 +155,12 @@ public class Message {
   private ByteBuffer cachedCommBuffer;
   protected Socket socket = null;
   private SocketChannel socketChannel = null;
+  /** The channel messages are read from, the socket channel unless reading a framed request */
+  private ReadableByteChannel inputChannel = null;
+  /** The request received by the selector thread that is being read, if any */
+  private MessageFramer.Frame frame = null;
+  /** The buffer of {@link #frame}, which is read instead of the comm buffer, if it has a payload */
+  private ByteBuffer framedPayload = null;
   private OutputStream outputStream = null;
   protected InputStream inputStream = null;
   private boolean messageModified = true;
@@ -166,7 +186,7 @@ public class Message {
    * Creates a new message with the given number of parts
    */
   public Message(int numberOfParts, Version destVersion) {
-    this.maxMessageSize = Integer.getInteger(MAX_MESSAGE_SIZE_PROPERTY, DEFAULT_MAX_MESSAGE_SIZE);
+    this.maxMessageSize = getMaxMessageSize();
     this.version = destVersion;
     Assert.assertTrue(destVersion != null, "Attempt to create an unversioned message");
     this.partsList = new Part[numberOfParts];
@@ -466,7 +486,9 @@ public class Message {
   }
 
   public ByteBuffer getCommBuffer() {
-    if (this.cachedCommBuffer != null) {
+    if (this.framedPayload != null) {
+      return this.framedPayload;
+    } else if (this.cachedCommBuffer != null) {
       return this.cachedCommBuffer;
     } else {
       return tlCommBuffer.get();
@@ -604,13 +626,16 @@ public class Message {
           commBuffer.put(part.getTypeCode());
           if (partLen <= commBuffer.remaining()) {
             part.writeTo(commBuffer);
+          } else if (this.socketChannel != null) {
+            // the part sends what is buffered along with itself
+            int bufferedBytes = commBuffer.position();
+            part.writeTo(this.socketChannel, commBuffer);
+            if (this.messageStats != null) {
+              this.messageStats.incSentBytes(bufferedBytes + partLen);
+            }
           } else {
             flushBuffer();
-            if (this.socketChannel != null) {
-              part.writeTo(this.socketChannel, commBuffer);
-            } else {
-              part.writeTo(this.outputStream, commBuffer);
-            }
+            part.writeTo(this.outputStream, commBuffer);
             if (this.messageStats != null) {
               this.messageStats.incSentBytes(partLen);
             }
@@ -650,7 +675,28 @@ public class Message {
   private void read() throws IOException {
     clearParts();
     // TODO: for server changes make sure sc is not null as this class also used by client
-    readHeaderAndPayload();
+    MessageFramer.Frame framedMessage =
+        this.serverConnection == null ? null : this.serverConnection.takeFramedMessage();
+    if (framedMessage == null) {
+      readHeaderAndPayload();
+      return;
+    }
+    // the selector has already received the request, or at least its header, so parse it from
+    // the buffer it was received into
+    if (this.messageStats != null) {
+      this.messageStats.incReceivedBytes(framedMessage.getBuffer().remaining());
+    }
+    ReadableByteChannel channel = this.inputChannel;
+    this.frame = framedMessage;
+    try {
+      readHeaderAndPayload();
+    } finally {
+      this.frame = null;
+      this.framedPayload = null;
+      this.inputChannel = channel;
+      // in case the message failed before taking over the permits of the request
+      framedMessage.release();
+    }
   }
 
   /**
@@ -665,10 +711,18 @@ public class Message {
     this.messageType = MessageType.INVALID;
 
     final int headerLength = getHeaderLength();
-    if (this.socketChannel != null) {
+    if (this.frame != null) {
+      ByteBuffer framedHeader = this.frame.getBuffer();
+      int limit = framedHeader.limit();
+      framedHeader.limit(headerLength);
+      cb.put(framedHeader);
+      framedHeader.limit(limit);
+      cb.flip();
+
+    } else if (this.inputChannel != null) {
       cb.limit(headerLength);
       do {
-        int bytesRead = this.socketChannel.read(cb);
+        int bytesRead = this.inputChannel.read(cb);
         if (bytesRead == -1) {
           throw new EOFException(
               LocalizedStrings.Message_THE_CONNECTION_HAS_BEEN_RESET_WHILE_READING_THE_HEADER
@@ -723,7 +777,10 @@ public class Message {
     }
     this.readHeader = true;
 
-    if (this.messageLimiter != null) {
+    if (this.messageLimiter != null && this.frame != null && this.frame.hasMessagePermit()) {
+      // acquired by the selector thread before it received the payload
+      this.frame.messagePermitTaken();
+    } else if (this.messageLimiter != null) {
       for (;;) {
         this.serverConnection.getCachedRegionHelper().checkCancelInProgress(null);
         boolean interrupted = Thread.interrupted();
@@ -757,7 +814,11 @@ public class Message {
             .toLocalizedString(new Object[] {len, this.maxIncomingMessageLength}));
       }
 
-      if (this.dataLimiter != null) {
+      if (this.dataLimiter != null && this.frame != null && this.frame.hasDataPermits()) {
+        // acquired by the selector thread before it received the payload
+        this.frame.dataPermitsTaken();
+        this.payloadLength = len;
+      } else if (this.dataLimiter != null) {
         for (;;) {
           if (this.serverConnection != null) {
             this.serverConnection.getCachedRegionHelper().checkCancelInProgress(null);
@@ -802,6 +863,11 @@ public class Message {
     this.flags = bits;
     this.messageType = type;
 
+    if (this.frame != null && this.frame.hasPayload()) {
+      // read the parts straight from the buffer the selector thread received them into
+      this.framedPayload = this.frame.getBuffer();
+      this.inputChannel = END_OF_FRAME;
+    }
     readPayloadFields(numParts, len);
 
     // Set the header and payload fields only after receiving all the
@@ -850,11 +916,18 @@ public class Message {
     }
 
     final ByteBuffer cb = getCommBuffer();
-    cb.clear();
-    cb.flip();
+    if (this.framedPayload == null) {
+      cb.clear();
+      cb.flip();
+    }
 
     int readSecurePart = checkAndSetSecurityPart();
 
+    // only the parts of client requests are pooled; the server releases them in clear()
+    PartBufferPool pool = this.serverConnection == null ? null : PartBufferPool.getInstance();
+    CacheServerStats poolStats = this.messageStats instanceof CacheServerStats
+        ? (CacheServerStats) this.messageStats : null;
+
     int bytesRemaining = len;
     for (int i = 0; i < numParts + readSecurePart
         || readSecurePart == 1 && cb.remaining() > 0; i++) {
@@ -872,9 +945,10 @@ public class Message {
       int partLen = cb.getInt();
       byte partType = cb.get();
       byte[] partBytes = null;
+      boolean pooled = pool != null && i < numParts && pool.isPooled(partLen);
 
       if (partLen > 0) {
-        partBytes = new byte[partLen];
+        partBytes = pooled ? pool.allocate(partLen, poolStats) : new byte[partLen];
         int alreadyReadBytes = cb.remaining();
         if (alreadyReadBytes > 0) {
           if (partLen < alreadyReadBytes) {
@@ -887,14 +961,14 @@ public class Message {
         int off = alreadyReadBytes;
         int remaining = partLen - off;
         while (remaining > 0) {
-          if (this.socketChannel != null) {
+          if (this.inputChannel != null) {
             int bytesThisTime = remaining;
             cb.clear();
             if (bytesThisTime > cb.capacity()) {
               bytesThisTime = cb.capacity();
             }
             cb.limit(bytesThisTime);
-            int res = this.socketChannel.read(cb);
+            int res = this.inputChannel.read(cb);
             if (res != -1) {
               cb.flip();
               bytesRemaining -= res;
@@ -926,7 +1000,11 @@ public class Message {
           }
         }
       }
-      part.init(partBytes, partType);
+      if (pooled) {
+        part.initPooled(partBytes, partLen, partType, pool);
+      } else {
+        part.init(partBytes, partType);
+      }
     }
   }
 
@@ -964,14 +1042,14 @@ public class Message {
     }
     int bytesRead = 0;
 
-    if (this.socketChannel != null) {
+    if (this.inputChannel != null) {
       int remaining = commBuffer.remaining();
       if (remaining > bytesRemaining) {
         remaining = bytesRemaining;
         commBuffer.limit(commBuffer.position() + bytesRemaining);
       }
       while (remaining > 0) {
-        int res = this.socketChannel.read(commBuffer);
+        int res = this.inputChannel.read(commBuffer);
         if (res != -1) {
           remaining -= res;
           bytesRead += res;
@@ -1063,6 +1141,7 @@ public class Message {
     Assert.assertTrue(socket != null);
     this.socket = socket;
     this.socketChannel = socket.getChannel();
+    this.inputChannel = this.socketChannel;
     this.inputStream = is;
     this.outputStream = os;
     this.cachedCommBuffer = bb;
@@ -1077,6 +1156,7 @@ public class Message {
   public void unsetComms() {
     this.socket = null;
     this.socketChannel = null;
+    this.inputChannel = null;
     this.inputStream = null;
     this.outputStream = null;
     this.cachedCommBuffer = null;
@@ -0,0 +1,351 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.Semaphore;
+
+import org.apache.geode.internal.i18n.LocalizedStrings;
+
+/**
+ * Collects the bytes of the next client request of a {@link ServerConnection} as they arrive on
+ * its non-blocking channel. The selector thread feeds it with {@link #read} each time the channel
+ * is readable and only hands the connection to a pooled thread once the whole request has been
+ * received, so pooled threads never wait on a slow client in the middle of a message. The pooled
+ * thread then parses the request from the {@link Frame} returned by {@link #takeMessage()} instead
+ * of the socket.
+ *
+ * The payload of a request is only buffered if it is no longer than {@link #MAX_FRAME_LENGTH} and
+ * the permits the request needs from the incoming message and data limiters can be acquired without
+ * waiting. Otherwise the connection is handed over once the header has arrived, and the pooled
+ * thread waits for the limiters and reads the payload off the socket as it would without framing.
+ *
+ * A framer is used by the selector thread and by the pooled thread processing its connection, but
+ * never by both at the same time. It may be closed by any thread.
+ *
+ * @since Geode 1.4
+ */
+class MessageFramer {
+
+  /**
+   * The size of the buffer kept between requests, which is handed back by {@link Frame#release()}
+   * once a request has been parsed. Larger requests get a buffer of their own.
+   */
+  static final int DEFAULT_BUFFER_SIZE = 1024;
+
+  /**
+   * The largest payload that the selector thread will buffer. The payload of a larger request is
+   * read by the pooled thread.
+   */
+  static final int MAX_FRAME_LENGTH =
+      Integer.getInteger("BridgeServer.MAX_FRAMED_MESSAGE_LENGTH", 1024 * 1024);
+
+  private static final int PAYLOAD_LENGTH_OFFSET = 4;
+
+  private final int maxMessageLength;
+
+  private final int maxFrameLength;
+
+  private final Semaphore dataLimiter;
+
+  private final Semaphore messageLimiter;
+
+  private ByteBuffer buffer;
+
+  /** The length of the request being received, or -1 if its header has not been received yet */
+  private int frameLength = -1;
+
+  /** The data permits held for the request being received */
+  private int dataPermits;
+
+  /** True if a message permit is held for the request being received */
+  private boolean messagePermit;
+
+  private IOException failure;
+
+  /**
+   * @param maxMessageLength the largest payload that will be buffered, or zero or less for no limit
+   * @param dataLimiter the limiter of the bytes of the requests being received, or null
+   * @param messageLimiter the limiter of the number of requests being received, or null
+   */
+  MessageFramer(int maxMessageLength, Semaphore dataLimiter, Semaphore messageLimiter) {
+    this(maxMessageLength, MAX_FRAME_LENGTH, dataLimiter, messageLimiter);
+  }
+
+  MessageFramer(int maxMessageLength, int maxFrameLength, Semaphore dataLimiter,
+      Semaphore messageLimiter) {
+    this.maxMessageLength = maxMessageLength;
+    this.maxFrameLength = maxFrameLength;
+    this.dataLimiter = dataLimiter;
+    this.messageLimiter = messageLimiter;
+  }
+
+  /**
+   * Reads as much of the current request as is available without blocking.
+   *
+   * @return true if the request, or just its header, has been received or reading it failed, in
+   *         which case the failure is thrown by {@link #takeMessage()}
+   */
+  synchronized boolean read(ReadableByteChannel channel) {
+    if (isComplete()) {
+      return true;
+    }
+    if (this.buffer == null) {
+      this.buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+    }
+    try {
+      for (;;) {
+        int end = this.frameLength < 0 ? Message.FIXED_LENGTH : this.frameLength;
+        int needed = end - this.buffer.position();
+        if (needed == 0) {
+          if (this.frameLength >= 0) {
+            return true;
+          }
+          int payloadLength = this.buffer.getInt(PAYLOAD_LENGTH_OFFSET);
+          if (!isFramed(payloadLength) || !acquirePermits(payloadLength)) {
+            // leave it to the pooled thread to reject the header or read the payload
+            this.frameLength = Message.FIXED_LENGTH;
+            return true;
+          }
+          this.frameLength = Message.FIXED_LENGTH + payloadLength;
+          if (this.frameLength > this.buffer.capacity()) {
+            ByteBuffer newBuffer = ByteBuffer.allocate(this.frameLength);
+            this.buffer.flip();
+            newBuffer.put(this.buffer);
+            this.buffer = newBuffer;
+          }
+          continue;
+        }
+        // never read past the end of this request
+        this.buffer.limit(this.buffer.position() + needed);
+        int bytesRead = channel.read(this.buffer);
+        if (bytesRead == -1) {
+          throw new EOFException(this.frameLength < 0
+              ? LocalizedStrings.Message_THE_CONNECTION_HAS_BEEN_RESET_WHILE_READING_THE_HEADER
+                  .toLocalizedString()
+              : LocalizedStrings.Message_THE_CONNECTION_HAS_BEEN_RESET_WHILE_READING_THE_PAYLOAD
+                  .toLocalizedString());
+        }
+        if (bytesRead == 0) {
+          return false;
+        }
+      }
+    } catch (IOException e) {
+      releasePermits();
+      this.failure = e;
+      return true;
+    }
+  }
+
+  private boolean isFramed(int payloadLength) {
+    return payloadLength >= 0 && payloadLength <= this.maxFrameLength
+        && (this.maxMessageLength <= 0 || payloadLength <= this.maxMessageLength);
+  }
+
+  /**
+   * Acquires the permits that {@link Message} would acquire before reading the payload, without
+   * waiting for them.
+   *
+   * @return true if the permits have been acquired
+   */
+  private boolean acquirePermits(int payloadLength) {
+    if (this.messageLimiter != null) {
+      if (!this.messageLimiter.tryAcquire(1)) {
+        return false;
+      }
+      this.messagePermit = true;
+    }
+    if (this.dataLimiter != null && payloadLength > 0) {
+      if (!this.dataLimiter.tryAcquire(payloadLength)) {
+        releasePermits();
+        return false;
+      }
+      this.dataPermits = payloadLength;
+    }
+    return true;
+  }
+
+  private void releasePermits() {
+    if (this.messagePermit) {
+      this.messagePermit = false;
+      this.messageLimiter.release(1);
+    }
+    if (this.dataPermits > 0) {
+      this.dataLimiter.release(this.dataPermits);
+      this.dataPermits = 0;
+    }
+  }
+
+  /**
+   * Returns true if a request, or the failure to read it, is waiting to be taken.
+   */
+  synchronized boolean isComplete() {
+    return this.failure != null
+        || this.frameLength >= 0 && this.buffer.position() == this.frameLength;
+  }
+
+  /**
+   * Returns the request that has been received and gets ready for the next one. The caller takes
+   * over the buffer and any permits held for the request until it releases the frame.
+   *
+   * @return null if no request has been received
+   * @throws IOException if reading the request failed
+   */
+  synchronized Frame takeMessage() throws IOException {
+    if (this.failure != null) {
+      IOException e = this.failure;
+      reset();
+      throw e;
+    }
+    if (!isComplete()) {
+      return null;
+    }
+    this.buffer.flip();
+    Frame frame = new Frame(this, this.buffer, this.messagePermit ? this.messageLimiter : null,
+        this.dataPermits > 0 ? this.dataLimiter : null, this.dataPermits);
+    this.messagePermit = false;
+    this.dataPermits = 0;
+    // the buffer belongs to the frame until it is released
+    this.buffer = null;
+    reset();
+    return frame;
+  }
+
+  /**
+   * Takes back the buffer of a released frame, so that the next request is received into it
+   * instead of a new one.
+   */
+  synchronized void recycle(ByteBuffer buffer) {
+    if (this.buffer == null && buffer.capacity() == DEFAULT_BUFFER_SIZE) {
+      buffer.clear();
+      this.buffer = buffer;
+    }
+  }
+
+  /**
+   * Drops the request being received and releases its permits.
+   */
+  synchronized void close() {
+    releasePermits();
+    this.buffer = null;
+    reset();
+  }
+
+  private void reset() {
+    this.failure = null;
+    this.frameLength = -1;
+    if (this.buffer != null) {
+      if (this.buffer.capacity() > DEFAULT_BUFFER_SIZE) {
+        // don't hold on to the memory of large requests while the connection is idle
+        this.buffer = null;
+      } else {
+        this.buffer.clear();
+      }
+    }
+  }
+
+  /**
+   * A request received by a {@link MessageFramer}.
+   */
+  static class Frame {
+
+    private MessageFramer framer;
+
+    private final ByteBuffer buffer;
+
+    private Semaphore messageLimiter;
+
+    private Semaphore dataLimiter;
+
+    private final int dataPermits;
+
+    Frame(MessageFramer framer, ByteBuffer buffer, Semaphore messageLimiter,
+        Semaphore dataLimiter, int dataPermits) {
+      this.framer = framer;
+      this.buffer = buffer;
+      this.messageLimiter = messageLimiter;
+      this.dataLimiter = dataLimiter;
+      this.dataPermits = dataPermits;
+    }
+
+    /**
+     * Returns the bytes of the request, from its header to the end of its payload, or to the end of
+     * the header if the payload has to be read off the socket.
+     */
+    ByteBuffer getBuffer() {
+      return this.buffer;
+    }
+
+    /**
+     * Returns true if the payload has been received along with the header.
+     */
+    boolean hasPayload() {
+      return this.buffer.limit() > Message.FIXED_LENGTH
+          || this.buffer.getInt(PAYLOAD_LENGTH_OFFSET) == 0;
+    }
+
+    /**
+     * Returns true if the permits of the request have been acquired from the message limiter.
+     */
+    boolean hasMessagePermit() {
+      return this.messageLimiter != null;
+    }
+
+    /**
+     * Returns true if the permits of the request have been acquired from the data limiter.
+     */
+    boolean hasDataPermits() {
+      return this.dataLimiter != null;
+    }
+
+    /**
+     * Called once the message permit has been handed over to the {@link Message} reading the
+     * request, which releases it when it is cleared.
+     */
+    void messagePermitTaken() {
+      this.messageLimiter = null;
+    }
+
+    /**
+     * Called once the data permits have been handed over to the {@link Message} reading the
+     * request, which releases them when it is cleared.
+     */
+    void dataPermitsTaken() {
+      this.dataLimiter = null;
+    }
+
+    /**
+     * Releases the permits that have not been handed over and gives the buffer back to the framer.
+     * The frame must not be used afterwards.
+     */
+    void release() {
+      if (this.messageLimiter != null) {
+        this.messageLimiter.release(1);
+        this.messageLimiter = null;
+      }
+      if (this.dataLimiter != null) {
+        this.dataLimiter.release(this.dataPermits);
+        this.dataLimiter = null;
+      }
+      if (this.framer != null) {
+        this.framer.recycle(this.buffer);
+        this.framer = null;
+      }
+    }
+  }
+}
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -38,8 +39,8 @@ import org.apache.geode.internal.offheap.StoredObject;
  */
 public class Part {
 
-  private static final byte BYTE_CODE = 0;
-  private static final byte OBJECT_CODE = 1;
+  static final byte BYTE_CODE = 0;
+  static final byte OBJECT_CODE = 1;
 
   private Version version;
 
@@ -60,7 +61,20 @@ public class Part {
   /** Is the payload (<code>part</code>) a serialized object? */
   private byte typeCode;
 
+  /**
+   * A buffer from {@link #pool} holding the payload of a received part instead of {@link #part}.
+   * Only the first {@link #pooledLength} bytes of it belong to the payload. It is copied to an
+   * exact byte[] before anything that could keep a reference to it gets hold of the payload, and
+   * given back to the pool when this part is cleared.
+   */
+  private byte[] pooledBuffer;
+
+  private int pooledLength;
+
+  private PartBufferPool pool;
+
   public void init(byte[] v, byte tc) {
+    releasePooledBuffer();
     if (tc == EMPTY_BYTEARRAY_CODE) {
       this.part = EMPTY_BYTE_ARRAY;
     } else {
@@ -69,7 +83,43 @@ public class Part {
     this.typeCode = tc;
   }
 
+  /**
+   * Initializes this part with a payload received into a buffer of the given pool.
+   *
+   * @param buffer a buffer returned by {@link PartBufferPool#allocate}
+   * @param length the number of bytes of the payload at the start of the buffer
+   * @since Geode 1.4
+   */
+  void initPooled(byte[] buffer, int length, byte tc, PartBufferPool pool) {
+    releasePooledBuffer();
+    this.part = null;
+    this.pooledBuffer = buffer;
+    this.pooledLength = length;
+    this.pool = pool;
+    this.typeCode = tc;
+  }
+
+  /**
+   * Moves the payload out of the pooled buffer, if any, into a byte[] of its own.
+   */
+  private void unpool() {
+    if (this.pooledBuffer != null) {
+      this.part = Arrays.copyOf(this.pooledBuffer, this.pooledLength);
+      releasePooledBuffer();
+    }
+  }
+
+  private void releasePooledBuffer() {
+    if (this.pooledBuffer != null) {
+      this.pool.release(this.pooledBuffer);
+      this.pooledBuffer = null;
+      this.pooledLength = 0;
+      this.pool = null;
+    }
+  }
+
   public void clear() {
+    releasePooledBuffer();
     if (this.part != null) {
       if (this.part instanceof HeapDataOutputStream) {
         ((HeapDataOutputStream) this.part).close();
@@ -80,6 +130,9 @@ public class Part {
   }
 
   public boolean isNull() {
+    if (this.pooledBuffer != null) {
+      return isObject() && this.pooledLength == 1 && this.pooledBuffer[0] == DSCODE.NULL;
+    }
     if (this.part == null) {
       return true;
     }
@@ -101,6 +154,7 @@ public class Part {
   }
 
   public void setPartState(byte[] b, boolean isObject) {
+    releasePooledBuffer();
     if (isObject) {
       this.typeCode = OBJECT_CODE;
     } else if (b != null && b.length == 0) {
@@ -113,6 +167,7 @@ public class Part {
   }
 
   public void setPartState(HeapDataOutputStream os, boolean isObject) {
+    releasePooledBuffer();
     if (isObject) {
       this.typeCode = OBJECT_CODE;
       this.part = os;
@@ -126,6 +181,7 @@ public class Part {
   }
 
   public void setPartState(StoredObject so, boolean isObject) {
+    releasePooledBuffer();
     if (isObject) {
       this.typeCode = OBJECT_CODE;
     } else if (so.getDataSize() == 0) {
@@ -151,7 +207,9 @@ public class Part {
    * form.
    */
   public int getLength() {
-    if (this.part == null) {
+    if (this.pooledBuffer != null) {
+      return this.pooledLength;
+    } else if (this.part == null) {
       return 0;
     } else if (this.part instanceof byte[]) {
       return ((byte[]) this.part).length;
@@ -163,12 +221,15 @@ public class Part {
   }
 
   public String getString() {
-    if (this.part == null) {
+    if (this.pooledBuffer == null && this.part == null) {
       return null;
     }
     if (!isBytes()) {
       Assert.assertTrue(false, "expected String part to be of type BYTE, part =" + this.toString());
     }
+    if (this.pooledBuffer != null) {
+      return CacheServerHelper.fromUTF(this.pooledBuffer, this.pooledLength);
+    }
     return CacheServerHelper.fromUTF((byte[]) this.part);
   }
 
@@ -180,8 +241,7 @@ public class Part {
       Assert.assertTrue(false,
           "expected int length to be 4 but it was " + getLength() + "; part = " + this.toString());
     }
-    byte[] bytes = getSerializedForm();
-    return decodeInt(bytes, 0);
+    return decodeInt(getBytes(), 0);
   }
 
   public static int decodeInt(byte[] bytes, int offset) {
@@ -192,6 +252,7 @@ public class Part {
   private static final Map<Integer, byte[]> CACHED_INTS = new ConcurrentHashMap<Integer, byte[]>();
 
   public void setInt(int v) {
+    releasePooledBuffer();
     byte[] bytes = CACHED_INTS.get(v);
     if (bytes == null) {
       bytes = new byte[4];
@@ -218,6 +279,7 @@ public class Part {
   }
 
   public void setLong(long v) {
+    releasePooledBuffer();
     byte[] bytes = new byte[8];
     bytes[0] = (byte) ((v & 0xFF00000000000000l) >> 56);
     bytes[1] = (byte) ((v & 0x00FF000000000000l) >> 48);
@@ -239,7 +301,7 @@ public class Part {
       Assert.assertTrue(false,
           "expected long length to be 8 but it was " + getLength() + "; part = " + this.toString());
     }
-    byte[] bytes = getSerializedForm();
+    byte[] bytes = getBytes();
     return ((((long) bytes[0]) << 56) & 0xFF00000000000000l)
         | ((((long) bytes[1]) << 48) & 0x00FF000000000000l)
         | ((((long) bytes[2]) << 40) & 0x0000FF0000000000l)
@@ -249,7 +311,16 @@ public class Part {
         | ((((long) bytes[6]) << 8) & 0x000000000000FF00l) | (bytes[7] & 0x00000000000000FFl);
   }
 
+  /**
+   * Returns the payload of this received part, which may be the start of a pooled buffer. The
+   * caller must not keep a reference to it.
+   */
+  private byte[] getBytes() {
+    return this.pooledBuffer != null ? this.pooledBuffer : getSerializedForm();
+  }
+
   public byte[] getSerializedForm() {
+    unpool();
     if (this.part == null) {
       return null;
     } else if (this.part instanceof byte[]) {
@@ -260,6 +331,11 @@ public class Part {
   }
 
   public Object getObject(boolean unzip) throws IOException, ClassNotFoundException {
+    if (this.pooledBuffer != null && !unzip && !isBytes()
+        && isCopiedWhenDeserialized(this.pooledBuffer[0])) {
+      return CacheServerHelper.deserialize(this.pooledBuffer, this.version, false);
+    }
+    unpool();
     if (isBytes()) {
       return this.part;
     } else {
@@ -275,6 +351,32 @@ public class Part {
     return getObject(false);
   }
 
+  /**
+   * Returns true if the object serialized with the given DSCODE never refers to the bytes it is
+   * deserialized from, unlike a PdxInstance for example, so it can be deserialized straight from a
+   * pooled buffer.
+   */
+  private static boolean isCopiedWhenDeserialized(byte dscode) {
+    switch (dscode) {
+      case DSCODE.STRING:
+      case DSCODE.STRING_BYTES:
+      case DSCODE.HUGE_STRING:
+      case DSCODE.HUGE_STRING_BYTES:
+      case DSCODE.NULL_STRING:
+      case DSCODE.INTEGER:
+      case DSCODE.LONG:
+      case DSCODE.SHORT:
+      case DSCODE.BYTE:
+      case DSCODE.BOOLEAN:
+      case DSCODE.CHARACTER:
+      case DSCODE.FLOAT:
+      case DSCODE.DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
   public Object getStringOrObject() throws IOException, ClassNotFoundException {
     if (isObject()) {
       return getObject();
@@ -291,6 +393,7 @@ public class Part {
    * @param buf the buffer to use if any data needs to be copied to one
    */
   public void writeTo(OutputStream out, ByteBuffer buf) throws IOException {
+    unpool();
     if (getLength() > 0) {
       if (this.part instanceof byte[]) {
         byte[] bytes = (byte[]) this.part;
@@ -325,6 +428,7 @@ public class Part {
    * checked the length of this part and it will fit into "buf".
    */
   public void writeTo(ByteBuffer buf) {
+    unpool();
     if (getLength() > 0) {
       if (this.part instanceof byte[]) {
         buf.put((byte[]) this.part);
@@ -353,29 +457,26 @@ public class Part {
   /**
    * Write the contents of this part to the specified socket channel using the specified byte
    * buffer. This is only called for parts that will not fit into the commBuffer so they need to be
-   * written directly to the socket. Precondition: buf contains nothing that needs to be sent
+   * written directly to the socket. Anything already in buf, usually the header of this part, is
+   * sent first without being flushed on its own: a byte[] fills up the rest of buf and an off-heap
+   * value is sent along with it by a single gathering write straight from off-heap memory.
    */
   public void writeTo(SocketChannel sc, ByteBuffer buf) throws IOException {
+    unpool();
     if (getLength() > 0) {
-      final int BUF_MAX = buf.capacity();
       if (this.part instanceof byte[]) {
         final byte[] bytes = (byte[]) this.part;
         int off = 0;
         int len = bytes.length;
-        buf.clear();
         while (len > 0) {
           int bytesThisTime = len;
-          if (bytesThisTime > BUF_MAX) {
-            bytesThisTime = BUF_MAX;
+          if (bytesThisTime > buf.remaining()) {
+            bytesThisTime = buf.remaining();
           }
           buf.put(bytes, off, bytesThisTime);
           len -= bytesThisTime;
           off += bytesThisTime;
-          buf.flip();
-          while (buf.remaining() > 0) {
-            sc.write(buf);
-          }
-          buf.clear();
+          flushBuffer(sc, buf);
         }
       } else if (this.part instanceof StoredObject) {
         // instead of copying the StoredObject to buf try to create a direct ByteBuffer and
@@ -383,17 +484,19 @@ public class Part {
         StoredObject c = (StoredObject) this.part;
         ByteBuffer bb = c.createDirectByteBuffer();
         if (bb != null) {
+          buf.flip();
+          ByteBuffer[] buffers = {buf, bb};
           while (bb.remaining() > 0) {
-            sc.write(bb);
+            sc.write(buffers);
           }
+          buf.clear();
         } else {
           int len = c.getDataSize();
           long addr = c.getAddressForReadingData(0, len);
-          buf.clear();
           while (len > 0) {
             int bytesThisTime = len;
-            if (bytesThisTime > BUF_MAX) {
-              bytesThisTime = BUF_MAX;
+            if (bytesThisTime > buf.remaining()) {
+              bytesThisTime = buf.remaining();
             }
             len -= bytesThisTime;
             while (bytesThisTime > 0) {
@@ -401,19 +504,26 @@ public class Part {
               addr++;
               bytesThisTime--;
             }
-            buf.flip();
-            while (buf.remaining() > 0) {
-              sc.write(buf);
-            }
-            buf.clear();
+            flushBuffer(sc, buf);
           }
         }
       } else {
+        flushBuffer(sc, buf);
         HeapDataOutputStream hdos = (HeapDataOutputStream) this.part;
         hdos.sendTo(sc, buf);
         hdos.rewind();
       }
+    } else {
+      flushBuffer(sc, buf);
+    }
+  }
+
+  private static void flushBuffer(SocketChannel sc, ByteBuffer buf) throws IOException {
+    buf.flip();
+    while (buf.remaining() > 0) {
+      sc.write(buf);
     }
+    buf.clear();
   }
 
   private static String typeCodeToString(byte c) {
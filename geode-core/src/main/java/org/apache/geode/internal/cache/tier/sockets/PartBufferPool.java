@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * A pool of the byte arrays that a cache server receives the parts of client requests into. Arrays
+ * come in power of two size classes from {@link #MIN_BUFFER_SIZE} to {@link #MAX_BUFFER_SIZE}
+ * bytes, so an array handed out by {@link #allocate} is usually longer than asked for. Parts
+ * larger than the largest size class are not pooled.
+ *
+ * An array must be given back with {@link #release} once nothing refers to it anymore. Each size
+ * class keeps at most {@link #POOL_SIZE_PROPERTY} free arrays; released arrays beyond that are
+ * left to the garbage collector.
+ *
+ * Since a server thread usually releases the arrays of a request before it reads the next one, each
+ * thread keeps up to {@link #THREAD_CACHE_SIZE_PROPERTY} free arrays of every size class up to
+ * {@link #MAX_THREAD_CACHED_BUFFER_SIZE} bytes for itself, and only goes to the shared queue of a
+ * size class, which takes a lock, when its own arrays are used up or full.
+ *
+ * @see Part#initPooled
+ * @since Geode 1.4
+ */
+class PartBufferPool {
+
+  /**
+   * The name of a system property that sets the number of free arrays kept per size class. Zero
+   * disables the pool.
+   */
+  static final String POOL_SIZE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "BridgeServer.PART_BUFFER_POOL_SIZE";
+
+  static final int DEFAULT_POOL_SIZE = 64;
+
+  /**
+   * The name of a system property that sets the number of free arrays each thread keeps per size
+   * class. Zero disables the thread caches.
+   */
+  static final String THREAD_CACHE_SIZE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "BridgeServer.PART_BUFFER_THREAD_CACHE_SIZE";
+
+  static final int DEFAULT_THREAD_CACHE_SIZE = 4;
+
+  /** The largest arrays kept by the thread caches */
+  static final int MAX_THREAD_CACHED_BUFFER_SIZE = 4 * 1024;
+
+  static final int MIN_BUFFER_SIZE = 64;
+
+  static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+  private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+
+  private static final int MAX_THREAD_CACHED_SIZE_CLASS = sizeClass(MAX_THREAD_CACHED_BUFFER_SIZE);
+
+  private static final PartBufferPool INSTANCE =
+      new PartBufferPool(Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE),
+          Integer.getInteger(THREAD_CACHE_SIZE_PROPERTY, DEFAULT_THREAD_CACHE_SIZE));
+
+  private final ArrayBlockingQueue<byte[]>[] sizeClasses;
+
+  private final int threadCacheSize;
+
+  private final ThreadLocal<ThreadCache> threadCaches;
+
+  PartBufferPool(int poolSize) {
+    this(poolSize, 0);
+  }
+
+  @SuppressWarnings("unchecked")
+  PartBufferPool(int poolSize, int threadCacheSize) {
+    if (poolSize <= 0) {
+      this.sizeClasses = null;
+      this.threadCacheSize = 0;
+      this.threadCaches = null;
+      return;
+    }
+    int numSizeClasses = Integer.numberOfTrailingZeros(MAX_BUFFER_SIZE) - MIN_SHIFT + 1;
+    this.sizeClasses = new ArrayBlockingQueue[numSizeClasses];
+    for (int i = 0; i < numSizeClasses; i++) {
+      this.sizeClasses[i] = new ArrayBlockingQueue<>(poolSize);
+    }
+    this.threadCacheSize = threadCacheSize;
+    this.threadCaches = threadCacheSize > 0 ? ThreadLocal.withInitial(ThreadCache::new) : null;
+  }
+
+  /**
+   * Returns the pool used by the cache servers of this JVM, or null if pooling is disabled.
+   */
+  static PartBufferPool getInstance() {
+    return INSTANCE.isEnabled() ? INSTANCE : null;
+  }
+
+  boolean isEnabled() {
+    return this.sizeClasses != null;
+  }
+
+  /**
+   * Returns true if parts of the given length are taken from this pool.
+   */
+  boolean isPooled(int length) {
+    return isEnabled() && length > 0 && length <= MAX_BUFFER_SIZE;
+  }
+
+  /**
+   * Returns an array of at least the given length, reusing a released one if there is one.
+   *
+   * @param stats the stats to record the pool hit or miss in, or null
+   */
+  byte[] allocate(int length, CacheServerStats stats) {
+    int sizeClass = sizeClass(length);
+    ThreadCache threadCache = getThreadCache(sizeClass);
+    byte[] buffer = threadCache == null ? null : threadCache.poll(sizeClass);
+    if (buffer == null) {
+      buffer = this.sizeClasses[sizeClass].poll();
+    }
+    if (buffer != null) {
+      if (stats != null) {
+        stats.incPartBufferPoolHits();
+      }
+      return buffer;
+    }
+    if (stats != null) {
+      stats.incPartBufferPoolMisses();
+    }
+    return new byte[MIN_BUFFER_SIZE << sizeClass];
+  }
+
+  /**
+   * Gives back an array returned by {@link #allocate}.
+   */
+  void release(byte[] buffer) {
+    int sizeClass = sizeClass(buffer.length);
+    ThreadCache threadCache = getThreadCache(sizeClass);
+    if (threadCache == null || !threadCache.offer(sizeClass, buffer)) {
+      this.sizeClasses[sizeClass].offer(buffer);
+    }
+  }
+
+  private ThreadCache getThreadCache(int sizeClass) {
+    if (this.threadCaches == null || sizeClass > MAX_THREAD_CACHED_SIZE_CLASS) {
+      return null;
+    }
+    return this.threadCaches.get();
+  }
+
+  private static int sizeClass(int length) {
+    if (length <= MIN_BUFFER_SIZE) {
+      return 0;
+    }
+    return 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_SHIFT;
+  }
+
+  /**
+   * The free arrays a thread keeps for itself, last released first.
+   */
+  private class ThreadCache {
+
+    private final byte[][][] buffers =
+        new byte[MAX_THREAD_CACHED_SIZE_CLASS + 1][PartBufferPool.this.threadCacheSize][];
+
+    private final int[] counts = new int[MAX_THREAD_CACHED_SIZE_CLASS + 1];
+
+    byte[] poll(int sizeClass) {
+      int count = this.counts[sizeClass];
+      if (count == 0) {
+        return null;
+      }
+      count--;
+      this.counts[sizeClass] = count;
+      byte[] buffer = this.buffers[sizeClass][count];
+      this.buffers[sizeClass][count] = null;
+      return buffer;
+    }
+
+    boolean offer(int sizeClass, byte[] buffer) {
+      int count = this.counts[sizeClass];
+      if (count == PartBufferPool.this.threadCacheSize) {
+        return false;
+      }
+      this.buffers[sizeClass][count] = buffer;
+      this.counts[sizeClass] = count + 1;
+      return true;
+    }
+  }
+}
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
@@ -153,6 +154,8 @@ public abstract class ServerConnection implements Runnable {
   // private InputStream in = null;
   // private OutputStream out = null;
   private ByteBuffer commBuffer;
+  /** Receives requests on the selector thread; null unless the acceptor frames requests */
+  private final MessageFramer messageFramer;
   protected final CachedRegionHelper crHelper;
   protected String name = null;
 
@@ -278,6 +281,10 @@ public abstract class ServerConnection implements Runnable {
 
     this.stats = stats;
     this.acceptor = (AcceptorImpl) acceptor;
+    this.messageFramer = this.acceptor != null && this.acceptor.isSelectorFraming()
+        ? new MessageFramer(Message.getMaxMessageSize(), BaseCommand.INCOMING_DATA_LIMITER,
+            BaseCommand.INCOMING_MSG_LIMITER)
+        : null;
     this.crHelper = helper;
     this.logWriter = (InternalLogWriter) internalCache.getLoggerI18n();
     this.securityLogWriter = (InternalLogWriter) internalCache.getSecurityLoggerI18n();
@@ -839,6 +846,9 @@ public abstract class ServerConnection implements Runnable {
       }
       this.terminated = true;
     }
+    if (this.messageFramer != null) {
+      this.messageFramer.close();
+    }
     boolean clientDeparted = false;
     boolean unregisterClient = false;
     setNotProcessingMessage();
@@ -1219,6 +1229,40 @@ public abstract class ServerConnection implements Runnable {
     getSelectableChannel().register(s, SelectionKey.OP_READ, this);
   }
 
+  /**
+   * Called by the selector thread when this connection is readable. Reads as much of the next
+   * request as is available without blocking.
+   *
+   * @return true if this connection should be handed to a pooled thread, either because its whole
+   *         request has been received or because its requests are not received by the selector
+   */
+  boolean readFramedMessage() {
+    if (this.messageFramer == null || !isMessageFramingSupported()) {
+      return true;
+    }
+    return this.messageFramer.read((ReadableByteChannel) getSelectableChannel());
+  }
+
+  /**
+   * Returns the request received by {@link #readFramedMessage()}, if any.
+   *
+   * @throws IOException if receiving the request failed
+   */
+  MessageFramer.Frame takeFramedMessage() throws IOException {
+    if (this.messageFramer == null) {
+      return null;
+    }
+    return this.messageFramer.takeMessage();
+  }
+
+  /**
+   * Returns true if the next message read by this connection is a request that can be received by
+   * the selector thread.
+   */
+  protected boolean isMessageFramingSupported() {
+    return false;
+  }
+
   /**
    * Switch this guy to blocking mode so we can use oldIO to read and write msgs.
    */
@@ -21,7 +21,6 @@ import java.util.Set;
 import org.apache.geode.cache.operations.QueryOperationContext;
 import org.apache.geode.cache.query.QueryInvalidException;
 import org.apache.geode.cache.query.QueryService;
-import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
 import org.apache.geode.cache.query.types.CollectionType;
@@ -137,7 +136,7 @@ public class Query651 extends BaseCommandQuery {
     }
   }
 
-  protected CollectionType getCollectionType(SelectResults selectResults) {
-    return new CollectionTypeImpl(List.class, selectResults.getCollectionType().getElementType());
+  protected CollectionType getCollectionType(CollectionType collectionType) {
+    return new CollectionTypeImpl(List.class, collectionType.getElementType());
   }
 }
@@ -19,7 +19,6 @@ package org.apache.geode.internal.cache.tier.sockets.command;
 
 import java.util.List;
 
-import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.internal.types.CollectionTypeImpl;
 import org.apache.geode.cache.query.types.CollectionType;
 import org.apache.geode.internal.cache.tier.Command;
@@ -33,7 +32,7 @@ public class QueryGeode10 extends Query {
     return singleton;
   }
 
-  protected CollectionType getCollectionType(SelectResults selectResults) {
-    return selectResults.getCollectionType();
+  protected CollectionType getCollectionType(CollectionType collectionType) {
+    return collectionType;
   }
 }
@@ -17,7 +17,6 @@
  */
 package org.apache.geode.internal.cache.tier.sockets.command;
 
-import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.types.CollectionType;
 import org.apache.geode.internal.cache.tier.Command;
 
@@ -29,7 +28,7 @@ public class QueryWithParametersGeode10 extends Query651 {
     return singleton;
   }
 
-  protected CollectionType getCollectionType(SelectResults selectResults) {
-    return selectResults.getCollectionType();
+  protected CollectionType getCollectionType(CollectionType collectionType) {
+    return collectionType;
   }
 }
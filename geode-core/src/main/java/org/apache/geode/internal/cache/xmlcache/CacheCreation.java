@@ -84,6 +84,7 @@ import org.apache.geode.cache.query.RegionNotFoundException;
 import org.apache.geode.cache.query.internal.InternalQueryService;
 import org.apache.geode.cache.query.internal.MethodInvocationAuthorizer;
 import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.QueryResultCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.server.CacheServer;
 import org.apache.geode.cache.snapshot.CacheSnapshotService;
@@ -1078,6 +1079,11 @@ public class CacheCreation implements InternalCache {
     throw new UnsupportedOperationException(LocalizedStrings.SHOULDNT_INVOKE.toLocalizedString());
   }
 
+  @Override
+  public QueryResultCache getQueryResultCache() {
+    throw new UnsupportedOperationException(LocalizedStrings.SHOULDNT_INVOKE.toLocalizedString());
+  }
+
   @Override
   public void close(final String reason, final Throwable systemFailureCause,
       final boolean keepAlive, final boolean keepDS) {
@@ -1808,6 +1814,17 @@ public class CacheCreation implements InternalCache {
 
     }
 
+    @Override
+    public Index createIndex(String indexName, String indexedExpression, String regionPath,
+        String imports, String[] coveredFields) throws IndexInvalidException,
+        IndexNameConflictException, IndexExistsException, RegionNotFoundException,
+        UnsupportedOperationException {
+      IndexCreationData indexData = (IndexCreationData) createIndex(indexName,
+          IndexType.FUNCTIONAL, indexedExpression, regionPath, imports);
+      indexData.setCoveredFields(coveredFields);
+      return indexData;
+    }
+
     @Override
     public Index createKeyIndex(String indexName, String indexedExpression, String regionPath)
         throws IndexInvalidException, IndexNameConflictException, IndexExistsException,
@@ -567,6 +567,12 @@ public abstract class CacheXml implements EntityResolver2, ErrorHandler {
   protected static final String EXPRESSION = "expression";
   /** The name of the <code>import</code> attribute */
   protected static final String IMPORTS = "imports";
+  /**
+   * The name of the <code>covered-fields</code> index attribute
+   *
+   * @since Geode 1.4
+   */
+  protected static final String COVERED_FIELDS = "covered-fields";
   /** The name of the <code>field</code> attribute */
   protected static final String FIELD = "field";
   /** The name of the <code>cache-transaction-manager</code> element */
@@ -603,6 +609,13 @@ public abstract class CacheXml implements EntityResolver2, ErrorHandler {
   /** name of the disk store property for disk usage critical percentage */
   public static final String DISK_USAGE_CRITICAL_PERCENTAGE = "disk-usage-critical-percentage";
 
+  /**
+   * name of the disk store property for the group commit max latency
+   *
+   * @since Geode 1.4
+   */
+  public static final String GROUP_COMMIT_MAX_LATENCY = "group-commit-max-latency";
+
   /** Name of region property specifying the cloning **/
   public static final String CLONING_ENABLED = "cloning-enabled";
 
@@ -98,6 +98,7 @@ import org.apache.geode.cache.execute.Function;
 import org.apache.geode.cache.execute.FunctionService;
 import org.apache.geode.cache.partition.PartitionListener;
 import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.internal.index.AbstractIndex;
 import org.apache.geode.cache.query.internal.index.HashIndex;
 import org.apache.geode.cache.query.internal.index.PrimaryKeyIndex;
 import org.apache.geode.cache.server.CacheServer;
@@ -1125,6 +1126,16 @@ public class CacheXmlGenerator extends CacheXml implements XMLReader {
                 String.valueOf(ds.getDiskUsageCriticalPercentage()));
         }
       }
+
+      if (this.version.compareTo(CacheXmlVersion.GEODE_1_0) >= 0) {
+        if ((!(ds instanceof DiskStoreAttributesCreation)
+            || ((DiskStoreAttributesCreation) ds).hasGroupCommitMaxLatency())) {
+          if (generateDefaults() || ds
+              .getGroupCommitMaxLatency() != DiskStoreFactory.DEFAULT_GROUP_COMMIT_MAX_LATENCY)
+            atts.addAttribute("", "", GROUP_COMMIT_MAX_LATENCY, "",
+                String.valueOf(ds.getGroupCommitMaxLatency()));
+        }
+      }
     } finally {
       handler.startElement("", DISK_STORE, DISK_STORE, atts);
 
@@ -1724,6 +1735,7 @@ public class CacheXmlGenerator extends CacheXml implements XMLReader {
       return;
     }
     AttributesImpl atts = new AttributesImpl();
+    String[] coveredFields = null;
 
     if (index instanceof IndexCreationData) {
       IndexCreationData indexData = (IndexCreationData) index;
@@ -1743,6 +1755,7 @@ public class CacheXmlGenerator extends CacheXml implements XMLReader {
       }
       atts.addAttribute("", "", FROM_CLAUSE, "", indexData.getIndexFromClause());
       atts.addAttribute("", "", EXPRESSION, "", indexData.getIndexExpression());
+      coveredFields = indexData.getCoveredFields();
     } else {
       atts.addAttribute("", "", NAME, "", index.getName());
       if (index instanceof PrimaryKeyIndex) {
@@ -1757,6 +1770,12 @@ public class CacheXmlGenerator extends CacheXml implements XMLReader {
       }
       atts.addAttribute("", "", FROM_CLAUSE, "", index.getFromClause());
       atts.addAttribute("", "", EXPRESSION, "", index.getIndexedExpression());
+      if (index instanceof AbstractIndex) {
+        coveredFields = ((AbstractIndex) index).getCoveredFields();
+      }
+    }
+    if (coveredFields != null && this.version.compareTo(CacheXmlVersion.GEODE_1_0) >= 0) {
+      atts.addAttribute("", "", COVERED_FIELDS, "", String.join(",", coveredFields));
     }
     handler.startElement("", INDEX, INDEX, atts);
 
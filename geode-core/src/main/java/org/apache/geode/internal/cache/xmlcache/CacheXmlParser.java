@@ -1005,6 +1005,11 @@ public class CacheXmlParser extends CacheXml implements ContentHandler {
       attrs.setQueueSize(parseInt(queueSize));
     }
 
+    String groupCommitMaxLatency = atts.getValue(GROUP_COMMIT_MAX_LATENCY);
+    if (groupCommitMaxLatency != null) {
+      attrs.setGroupCommitMaxLatency(parseLong(groupCommitMaxLatency));
+    }
+
     String warnPct = atts.getValue(DISK_USAGE_WARNING_PERCENTAGE);
     if (warnPct != null) {
       attrs.setDiskUsageWarningPercentage(parseFloat(warnPct));
@@ -1770,6 +1775,10 @@ public class CacheXmlParser extends CacheXml implements ContentHandler {
         }
       }
     }
+    String coveredFields = atts.getValue(COVERED_FIELDS);
+    if (coveredFields != null) {
+      icd.setCoveredFields(coveredFields.trim().split("\\s*,\\s*"));
+    }
     this.stack.push(icd);
   }
 
@@ -62,6 +62,7 @@ public class DiskStoreAttributesCreation extends UserSpecifiedDiskStoreAttribute
     this.timeInterval = attrs.getTimeInterval();
     this.writeBufferSize = attrs.getWriteBufferSize();
     this.queueSize = attrs.getQueueSize();
+    this.groupCommitMaxLatency = attrs.getGroupCommitMaxLatency();
     this.diskDirs = attrs.getDiskDirs();
     this.diskDirSizes = attrs.getDiskDirSizes();
 
@@ -216,6 +217,12 @@ public class DiskStoreAttributesCreation extends UserSpecifiedDiskStoreAttribute
           LocalizedStrings.DiskStoreAttributesCreation_QUEUESIZE_OF_0_IS_NOT_THE_SAME_THIS_1_OTHER_2
               .toLocalizedString(new Object[] {name, this.queueSize, other.getQueueSize()}));
     }
+    if (this.groupCommitMaxLatency != other.getGroupCommitMaxLatency()) {
+      throw new RuntimeException(
+          LocalizedStrings.DiskStoreAttributesCreation_GROUPCOMMITMAXLATENCY_OF_0_IS_NOT_THE_SAME_THIS_1_OTHER_2
+              .toLocalizedString(new Object[] {name, this.groupCommitMaxLatency,
+                  other.getGroupCommitMaxLatency()}));
+    }
     if (!equal(this.diskDirs, other.getDiskDirs())) {
       throw new RuntimeException(
           LocalizedStrings.DiskStoreAttributesCreation_DISK_DIRS_OF_0_ARE_NOT_THE_SAME
@@ -278,6 +285,11 @@ public class DiskStoreAttributesCreation extends UserSpecifiedDiskStoreAttribute
     this.setHasQueueSize(true);
   }
 
+  public void setGroupCommitMaxLatency(long groupCommitMaxLatency) {
+    this.groupCommitMaxLatency = groupCommitMaxLatency;
+    this.setHasGroupCommitMaxLatency(true);
+  }
+
   public void setDiskDirs(File[] diskDirs) {
     checkIfDirectoriesExist(diskDirs);
     this.diskDirs = diskDirs;
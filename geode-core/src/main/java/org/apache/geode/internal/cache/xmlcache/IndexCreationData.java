@@ -36,6 +36,7 @@ class IndexCreationData implements Index {
   private String fromClause = null;
   private String expression = null;
   private String importStr = null;
+  private String[] coveredFields = null;
 
   IndexCreationData(String name) {
     this.name = name;
@@ -55,6 +56,14 @@ class IndexCreationData implements Index {
     this.importStr = importStr;
   }
 
+  void setCoveredFields(String[] coveredFields) {
+    this.coveredFields = coveredFields;
+  }
+
+  String[] getCoveredFields() {
+    return this.coveredFields;
+  }
+
   void setPrimaryKeyIndexData(String field) {
     this.expression = field;
   }
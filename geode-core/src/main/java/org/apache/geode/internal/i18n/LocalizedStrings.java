@@ -7713,6 +7713,11 @@ public class LocalizedStrings {
       new StringId(6664, "{0}: Providing synchronization event for key={1}; timestamp={2}: {3}");
   public static final StringId AbstractGatewaySender_ENQUEUEING_SYNCHRONIZATION_EVENT =
       new StringId(6665, "{0}: Enqueueing synchronization event: {1}");
+  public static final StringId DiskStoreAttributesCreation_GROUPCOMMITMAXLATENCY_OF_0_IS_NOT_THE_SAME_THIS_1_OTHER_2 =
+      new StringId(6666,
+          "GroupCommitMaxLatency of disk store {0} is not the same: this:  {1}  other:  {2}");
+  public static final StringId PersistentOplogSet_RECOVERY_OF_DISKSTORE_0_WAS_INTERRUPTED =
+      new StringId(6667, "Recovery of disk store {0} was interrupted");
 
   /** Testing strings, messageId 90000-99999 **/
 
@@ -63,6 +63,29 @@ public class SystemPropertyHelper {
 
   public static final String EVICTION_SEARCH_MAX_ENTRIES = "lru.maxSearchEntries";
 
+  /**
+   * Setting this to "true" makes eviction pick entries with a clock hand that moves around the
+   * eviction list instead of sorting the list. It is ignored if {@link #EVICTION_SCAN_ASYNC} is
+   * also set. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.LRUListWithClockHand}.
+   *
+   * @since Geode 1.4.0
+   */
+  @Experimental
+  public static final String EVICTION_CLOCK_HAND = "EvictionClockHand";
+
+  /**
+   * Setting this to "true" makes eviction of LRU regions take into account how often entries are
+   * used, which keeps entries read only once by a scan from pushing out frequently used ones. It is
+   * ignored if {@link #EVICTION_SCAN_ASYNC} is also set and takes precedence over
+   * {@link #EVICTION_CLOCK_HAND}. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.WindowTinyLFUList}.
+   *
+   * @since Geode 1.4.0
+   */
+  @Experimental
+  public static final String EVICTION_TINY_LFU = "EvictionTinyLFU";
+
   /**
    * This method will try to look up "geode." and "gemfire." versions of the system property. It
    * will check and prefer "geode." setting first, then try to check "gemfire." setting.
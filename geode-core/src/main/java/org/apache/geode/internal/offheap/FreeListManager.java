@@ -15,6 +15,7 @@
 package org.apache.geode.internal.offheap;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -48,6 +49,21 @@ public class FreeListManager {
       new ConcurrentSkipListSet<OffHeapStoredObject>();
   private final AtomicLong allocatedSize = new AtomicLong(0L);
 
+  /**
+   * The number of free chunks of each cached size that a thread keeps for its own allocations, or
+   * zero if threads do not cache free chunks.
+   */
+  private final int threadCacheSize;
+  /**
+   * The number of tiny free lists, starting with the smallest, whose chunks are cached by threads.
+   */
+  private final int threadCacheLists;
+  private final ThreadLocal<ThreadCache> threadCache = new ThreadLocal<ThreadCache>();
+  /**
+   * The caches of all the threads, so that defragmentation can take their chunks back.
+   */
+  private final Set<ThreadCache> threadCaches = ConcurrentHashMap.newKeySet();
+
   private int getNearestTinyMultiple(int size) {
     return (size - 1) / TINY_MULTIPLE;
   }
@@ -117,6 +133,9 @@ public class FreeListManager {
         tinyFree += cl.computeTotalSize();
       }
     }
+    for (ThreadCache cache : this.threadCaches) {
+      tinyFree += cache.computeTotalSize();
+    }
     return tinyFree;
   }
 
@@ -136,8 +155,15 @@ public class FreeListManager {
   private final MemoryAllocatorImpl ma;
 
   public FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs) {
+    this(ma, slabs, THREAD_CACHE_SIZE);
+  }
+
+  public FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs, int threadCacheSize) {
     this.ma = ma;
     this.slabs = slabs;
+    this.threadCacheSize = threadCacheSize;
+    this.threadCacheLists = threadCacheSize > 0 ? Math
+        .min(getNearestTinyMultiple(MAX_THREAD_CACHED_CHUNK_SIZE) + 1, TINY_FREE_LIST_COUNT) : 0;
     long total = 0;
     Fragment[] tmp = new Fragment[slabs.length];
     for (int i = 0; i < slabs.length; i++) {
@@ -316,6 +342,17 @@ public class FreeListManager {
     verifyHugeMultiple(HUGE_MULTIPLE);
   }
   public static final int MAX_TINY = TINY_MULTIPLE * TINY_FREE_LIST_COUNT;
+  /**
+   * The number of free chunks of each small size that each thread keeps for its own allocations
+   * before it returns them to the shared free lists. Threads allocate and free these chunks without
+   * synchronizing with other threads. Zero, the default, disables the thread caches.
+   */
+  public static final int THREAD_CACHE_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_THREAD_CACHE_SIZE", 0);
+  /**
+   * The size, including the header, of the largest chunk kept in the thread caches.
+   */
+  static final int MAX_THREAD_CACHED_CHUNK_SIZE = 1024;
 
   /**
    * Return true if the two chunks have been combined into one. If low and high are adjacent to each
@@ -576,6 +613,7 @@ public class FreeListManager {
   }
 
   private void collectFreeChunks(List<LongStack> l) {
+    collectThreadCachedChunks(l);
     collectFreeFragmentChunks(l);
     collectFreeHugeChunks(l);
     collectFreeTinyChunks(l);
@@ -616,6 +654,20 @@ public class FreeListManager {
     }
   }
 
+  private void collectThreadCachedChunks(List<LongStack> l) {
+    OffHeapStoredObjectAddressStack result = new OffHeapStoredObjectAddressStack();
+    for (Iterator<ThreadCache> it = this.threadCaches.iterator(); it.hasNext();) {
+      ThreadCache cache = it.next();
+      cache.drainTo(result);
+      if (!cache.isOwnerAlive()) {
+        it.remove();
+      }
+    }
+    if (!result.isEmpty()) {
+      l.add(result);
+    }
+  }
+
   private void collectFreeTinyChunks(List<LongStack> l) {
     for (int i = 0; i < this.tinyFreeLists.length(); i++) {
       OffHeapStoredObjectAddressStack cl = this.tinyFreeLists.get(i);
@@ -693,8 +745,14 @@ public class FreeListManager {
   }
 
   private OffHeapStoredObject allocateTiny(int size, boolean useFragments) {
-    return basicAllocate(getNearestTinyMultiple(size), TINY_MULTIPLE, 0, this.tinyFreeLists,
-        useFragments);
+    int idx = getNearestTinyMultiple(size);
+    if (idx < this.threadCacheLists) {
+      long memAddr = getThreadCache().poll(idx);
+      if (memAddr != 0L) {
+        return reuseChunk(memAddr);
+      }
+    }
+    return basicAllocate(idx, TINY_MULTIPLE, 0, this.tinyFreeLists, useFragments);
   }
 
   private OffHeapStoredObject basicAllocate(int idx, int multiple, int offset,
@@ -703,10 +761,7 @@ public class FreeListManager {
     if (clq != null) {
       long memAddr = clq.poll();
       if (memAddr != 0) {
-        OffHeapStoredObject result = new OffHeapStoredObject(memAddr);
-        checkDataIntegrity(result);
-        result.readyForAllocation();
-        return result;
+        return reuseChunk(memAddr);
       }
     }
     if (useFragments) {
@@ -716,6 +771,23 @@ public class FreeListManager {
     }
   }
 
+  private OffHeapStoredObject reuseChunk(long memAddr) {
+    OffHeapStoredObject result = new OffHeapStoredObject(memAddr);
+    checkDataIntegrity(result);
+    result.readyForAllocation();
+    return result;
+  }
+
+  private ThreadCache getThreadCache() {
+    ThreadCache cache = this.threadCache.get();
+    if (cache == null) {
+      cache = new ThreadCache(this.threadCacheLists, this.threadCacheSize);
+      this.threadCache.set(cache);
+      this.threadCaches.add(cache);
+    }
+    return cache;
+  }
+
   private OffHeapStoredObject allocateHuge(int size, boolean useFragments) {
     // sizeHolder is a fake Chunk used to search our sorted hugeChunkSet.
     OffHeapStoredObject sizeHolder = new SearchMarker(size);
@@ -791,7 +863,11 @@ public class FreeListManager {
   }
 
   private void freeTiny(long addr, int cSize) {
-    basicFree(addr, getNearestTinyMultiple(cSize), this.tinyFreeLists);
+    int idx = getNearestTinyMultiple(cSize);
+    if (idx < this.threadCacheLists && getThreadCache().offer(idx, addr)) {
+      return;
+    }
+    basicFree(addr, idx, this.tinyFreeLists);
   }
 
   private void basicFree(long addr, int idx,
@@ -866,6 +942,9 @@ public class FreeListManager {
         addr = OffHeapStoredObject.getNext(addr);
       }
     }
+    for (ThreadCache cache : this.threadCaches) {
+      cache.addFreeBlocks(sma, value);
+    }
     return value;
   }
 
@@ -963,6 +1042,84 @@ public class FreeListManager {
     }
   }
 
+  /**
+   * The free tiny chunks a thread keeps for its own allocations, by free list. Only its owner and
+   * defragmentation use a cache, so its lock is almost never contended.
+   */
+  private static class ThreadCache {
+    private final Thread owner = Thread.currentThread();
+    private final long[][] chunks;
+    private final int[] counts;
+    private final int size;
+
+    ThreadCache(int freeListCount, int size) {
+      this.chunks = new long[freeListCount][];
+      this.counts = new int[freeListCount];
+      this.size = size;
+    }
+
+    /**
+     * Removes and returns a chunk of the given free list, or returns {@code 0L} if there is none.
+     */
+    synchronized long poll(int idx) {
+      int count = this.counts[idx];
+      if (count == 0) {
+        return 0L;
+      }
+      this.counts[idx] = --count;
+      return this.chunks[idx][count];
+    }
+
+    /**
+     * Adds a chunk to the given free list and returns true, or returns false if the list is full.
+     */
+    synchronized boolean offer(int idx, long addr) {
+      int count = this.counts[idx];
+      if (count == this.size) {
+        return false;
+      }
+      long[] list = this.chunks[idx];
+      if (list == null) {
+        list = new long[this.size];
+        this.chunks[idx] = list;
+      }
+      list[count] = addr;
+      this.counts[idx] = count + 1;
+      return true;
+    }
+
+    synchronized void drainTo(OffHeapStoredObjectAddressStack stack) {
+      for (int idx = 0; idx < this.counts.length; idx++) {
+        for (int i = 0; i < this.counts[idx]; i++) {
+          stack.offer(this.chunks[idx][i]);
+        }
+        this.counts[idx] = 0;
+      }
+    }
+
+    synchronized long computeTotalSize() {
+      long result = 0;
+      for (int idx = 0; idx < this.counts.length; idx++) {
+        for (int i = 0; i < this.counts[idx]; i++) {
+          result += OffHeapStoredObject.getSize(this.chunks[idx][i]);
+        }
+      }
+      return result;
+    }
+
+    synchronized void addFreeBlocks(MemoryAllocatorImpl ma, List<MemoryBlock> blocks) {
+      for (int idx = 0; idx < this.counts.length; idx++) {
+        for (int i = 0; i < this.counts[idx]; i++) {
+          blocks.add(new MemoryBlockNode(ma, new TinyMemoryBlock(this.chunks[idx][i], idx)));
+        }
+      }
+    }
+
+    boolean isOwnerAlive() {
+      return this.owner.isAlive();
+    }
+  }
+
   long getTotalMemory() {
     return this.totalSlabSize;
   }
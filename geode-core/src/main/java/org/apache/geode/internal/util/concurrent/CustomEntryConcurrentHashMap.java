@@ -56,6 +56,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 import org.apache.geode.CancelException;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
@@ -479,12 +480,22 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
      */
     final ReentrantReadWriteLock listUpdateLock;
 
+    /**
+     * Write locked along with {@link #listUpdateLock} while the
+     * {@link org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry#getNextEntry()}
+     * links are updated, so that {@link #get} and {@link #containsKey} can first walk a list
+     * optimistically without writing to the shared read lock state, and only take the read lock
+     * if the list was updated meanwhile.
+     */
+    final StampedLock listUpdateSequence;
+
     // End GemStone addition
 
     Segment(final int initialCapacity, final float lf, final HashEntryCreator<K, V> entryCreator) {
       this.loadFactor = lf;
       this.entryCreator = entryCreator;
       this.listUpdateLock = new ReentrantReadWriteLock();
+      this.listUpdateSequence = new StampedLock();
       setTable(Segment.<K, V>newEntryArray(initialCapacity));
     }
 
@@ -553,6 +564,24 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
 
     V get(final Object key, final int hash) {
       if (this.count != 0) { // read-volatile
+        // GemStone change to walk the list optimistically first
+        final long stamp = this.listUpdateSequence.tryOptimisticRead();
+        if (stamp != 0) {
+          HashEntry<K, V> e = getFirst(hash);
+          while (e != null && this.listUpdateSequence.validate(stamp)) {
+            if (e.getEntryHash() == hash && equalityKeyCompare(key, e)) {
+              final V v = e.getMapValue();
+              if (v != null && this.listUpdateSequence.validate(stamp)) {
+                return v;
+              }
+              break;
+            }
+            e = e.getNextEntry();
+          }
+          if (e == null && this.listUpdateSequence.validate(stamp)) {
+            return null;
+          }
+        }
         // GemStone change to acquire the read lock on list updates
         final ReentrantReadWriteLock.ReadLock listLock = this.listUpdateLock.readLock();
         listLock.lock();
@@ -607,6 +636,20 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
 
     boolean containsKey(final Object key, final int hash) {
       if (this.count != 0) { // read-volatile
+        // GemStone change to walk the list optimistically first
+        final long stamp = this.listUpdateSequence.tryOptimisticRead();
+        if (stamp != 0) {
+          HashEntry<K, V> e = getFirst(hash);
+          while (e != null && this.listUpdateSequence.validate(stamp)) {
+            if (e.getEntryHash() == hash && equalityKeyCompare(key, e)) {
+              return true;
+            }
+            e = e.getNextEntry();
+          }
+          if (e == null && this.listUpdateSequence.validate(stamp)) {
+            return false;
+          }
+        }
         // GemStone change to acquire the read lock on list updates
         final ReentrantReadWriteLock.ReadLock listLock = this.listUpdateLock.readLock();
         listLock.lock();
@@ -901,6 +944,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
             // take the listUpdate write lock before updating the next refs
             final ReentrantReadWriteLock.WriteLock listWriteLock = this.listUpdateLock.writeLock();
             listWriteLock.lock();
+            final long stamp = this.listUpdateSequence.writeLock();
             try {
               if (newFirst != null) {
                 this.table[i] = newFirst; // deliberately using volatile write
@@ -913,6 +957,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
                 newTable[k] = p;
               }
             } finally {
+              this.listUpdateSequence.unlockWrite(stamp);
               listWriteLock.unlock();
             }
             /*
@@ -974,6 +1019,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
             // the underlying RegionEntry that may be used elsewhere
             final ReentrantReadWriteLock.WriteLock listWriteLock = this.listUpdateLock.writeLock();
             listWriteLock.lock();
+            final long stamp = this.listUpdateSequence.writeLock();
             try {
               if (p == null) {
                 tab[index] = e.getNextEntry();
@@ -981,6 +1027,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
                 p.setNextEntry(e.getNextEntry());
               }
             } finally {
+              this.listUpdateSequence.unlockWrite(stamp);
               listWriteLock.unlock();
             }
             /*
@@ -80,6 +80,14 @@ public interface DiskStoreMXBean {
    */
   int getQueueSize();
 
+  /**
+   * Returns the maximum number of milliseconds a synchronous write waits to be committed together
+   * with other writes, or a negative value if group commit is disabled.
+   *
+   * @since Geode 1.4
+   */
+  long getGroupCommitMaxLatency();
+
   /**
    * Returns the total number of bytes of space this DiskStore has used.
    */
@@ -95,6 +95,11 @@ public class DiskStoreMBean extends NotificationBroadcasterSupport implements Di
     return bridge.getQueueSize();
   }
 
+  @Override
+  public long getGroupCommitMaxLatency() {
+    return bridge.getGroupCommitMaxLatency();
+  }
+
   @Override
   public long getTimeInterval() {
     return bridge.getTimeInterval();
@@ -54,6 +54,8 @@ public class DiskStoreMBeanBridge {
 
   private int queueSize;
 
+  private long groupCommitMaxLatency;
+
   private MBeanStatsMonitor monitor;
 
   private StatsRate diskReadsRate;
@@ -89,6 +91,7 @@ public class DiskStoreMBeanBridge {
     this.writeBufferSize = diskStore.getWriteBufferSize();
     this.maxOpLogSize = diskStore.getMaxOplogSize();
     this.queueSize = diskStore.getQueueSize();
+    this.groupCommitMaxLatency = diskStore.getGroupCommitMaxLatency();
     this.isAutoCompact = diskStore.getAutoCompact();
     this.isForceCompactionAllowed = diskStore.getAllowForceCompaction();
     this.directoryHolders = diskStore.getDirectoryHolders();
@@ -179,6 +182,10 @@ public class DiskStoreMBeanBridge {
     return queueSize;
   }
 
+  public long getGroupCommitMaxLatency() {
+    return groupCommitMaxLatency;
+  }
+
   /** Statistics **/
 
   public DiskStoreMBeanBridge() {
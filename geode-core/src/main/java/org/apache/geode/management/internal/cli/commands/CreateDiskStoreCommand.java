@@ -75,7 +75,10 @@ public class CreateDiskStoreCommand implements GfshCommand {
           help = CliStrings.CREATE_DISK_STORE__DISK_USAGE_WARNING_PCT__HELP) float diskUsageWarningPercentage,
       @CliOption(key = CliStrings.CREATE_DISK_STORE__DISK_USAGE_CRITICAL_PCT,
           unspecifiedDefaultValue = "99",
-          help = CliStrings.CREATE_DISK_STORE__DISK_USAGE_CRITICAL_PCT__HELP) float diskUsageCriticalPercentage) {
+          help = CliStrings.CREATE_DISK_STORE__DISK_USAGE_CRITICAL_PCT__HELP) float diskUsageCriticalPercentage,
+      @CliOption(key = CliStrings.CREATE_DISK_STORE__GROUP_COMMIT_MAX_LATENCY,
+          unspecifiedDefaultValue = "-1",
+          help = CliStrings.CREATE_DISK_STORE__GROUP_COMMIT_MAX_LATENCY__HELP) long groupCommitMaxLatency) {
 
 
     DiskStoreAttributes diskStoreAttributes = new DiskStoreAttributes();
@@ -86,6 +89,7 @@ public class CreateDiskStoreCommand implements GfshCommand {
     diskStoreAttributes.queueSize = queueSize;
     diskStoreAttributes.timeInterval = timeInterval;
     diskStoreAttributes.writeBufferSize = writeBufferSize;
+    diskStoreAttributes.groupCommitMaxLatency = groupCommitMaxLatency;
 
     File[] directories = new File[directoriesAndSizes.length];
     int[] sizes = new int[directoriesAndSizes.length];
@@ -63,7 +63,10 @@ public class CreateIndexCommand implements GfshCommand {
 
       @CliOption(key = {CliStrings.GROUP, CliStrings.GROUPS},
           optionContext = ConverterHint.MEMBERGROUP,
-          help = CliStrings.CREATE_INDEX__GROUP__HELP) final String[] group) {
+          help = CliStrings.CREATE_INDEX__GROUP__HELP) final String[] group,
+
+      @CliOption(key = CliStrings.CREATE_INDEX__COVERED_FIELDS,
+          help = CliStrings.CREATE_INDEX__COVERED_FIELDS__HELP) final String[] coveredFields) {
 
     Result result;
     final Set<DistributedMember> targetMembers = findMembers(group, memberNameOrID);
@@ -73,6 +76,7 @@ public class CreateIndexCommand implements GfshCommand {
     }
 
     IndexInfo indexInfo = new IndexInfo(indexName, indexedExpression, regionPath, indexType);
+    indexInfo.setCoveredFields(coveredFields);
     List<CliFunctionResult> functionResults =
         executeAndGetFunctionResult(createIndexFunction, indexInfo, targetMembers);
     result = ResultBuilder.buildResult(functionResults);
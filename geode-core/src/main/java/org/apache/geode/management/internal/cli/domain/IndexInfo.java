@@ -31,6 +31,7 @@ public class IndexInfo implements Serializable {
   private String regionPath = null;
   private IndexType indexType = IndexType.FUNCTIONAL;
   private boolean ifExists;
+  private String[] coveredFields;
 
   public IndexInfo(String indexName) {
     this.indexName = indexName;
@@ -101,6 +102,14 @@ public class IndexInfo implements Serializable {
     this.ifExists = ifExists;
   }
 
+  public String[] getCoveredFields() {
+    return coveredFields;
+  }
+
+  public void setCoveredFields(String[] coveredFields) {
+    this.coveredFields = coveredFields;
+  }
+
   public String toString() {
     StringBuffer sb = new StringBuffer();
     sb.append("Index Name : ");
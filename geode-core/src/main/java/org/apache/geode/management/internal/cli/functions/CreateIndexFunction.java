@@ -55,7 +55,8 @@ public class CreateIndexFunction extends FunctionAdapter implements InternalEnti
 
       switch (indexInfo.getIndexType()) {
         case FUNCTIONAL:
-          queryService.createIndex(indexName, indexedExpression, fromClause);
+          queryService.createIndex(indexName, indexedExpression, fromClause, null,
+              indexInfo.getCoveredFields());
           break;
         case PRIMARY_KEY:
           queryService.createKeyIndex(indexName, indexedExpression, fromClause);
@@ -715,6 +715,10 @@ public class CliStrings {
       "disk-usage-critical-percentage";
   public static final String CREATE_DISK_STORE__DISK_USAGE_CRITICAL_PCT__HELP =
       "Critical percentage for disk volume usage.";
+  public static final String CREATE_DISK_STORE__GROUP_COMMIT_MAX_LATENCY =
+      "group-commit-max-latency";
+  public static final String CREATE_DISK_STORE__GROUP_COMMIT_MAX_LATENCY__HELP =
+      "For synchronous writes. The maximum number of milliseconds a write waits to be forced to disk together with other writes. The default of -1 disables group commit.";
   public static final String CREATE_DISK_STORE__ERROR_WHILE_CREATING_REASON_0 =
       "An error occurred while creating the disk store: \"{0}\"";
 
@@ -737,6 +741,9 @@ public class CliStrings {
       "Type of the index. Valid values are: range and key. Deprecated : hash has been deprecated since Apache Geode 1.4.0";
   public static final String CREATE_INDEX__GROUP__HELP =
       "Group of members in which the index will be created.";
+  public static final String CREATE_INDEX__COVERED_FIELDS = "covered-fields";
+  public static final String CREATE_INDEX__COVERED_FIELDS__HELP =
+      "Fields of the indexed values that a range index keeps alongside its keys, so that queries projecting only those fields are answered from the index.";
   public static final String CREATE_INDEX__INVALID__INDEX__TYPE__MESSAGE =
       "Invalid index type,value must be one of the following: range, key and hash. Deprecated : hash has been deprecated since Apache Geode 1.4.0";
   public static final String CREATE_INDEX__SUCCESS__MSG =
@@ -922,4 +922,24 @@ public class PdxReaderImpl implements InternalPdxReader, java.io.Serializable {
     }
     return new PdxString(bytes, offset);
   }
+
+  /**
+   * Compares the value of a String field with a PdxString directly on the serialized bytes, without
+   * creating a PdxString for the field.
+   *
+   * @return the sign of the comparison, or null if the field is null or the serialized bytes are
+   *         not held in an array
+   */
+  public Integer compareStringField(PdxField ft, PdxString value) {
+    ByteSource buffer = dis.getBuffer();
+    if (!buffer.hasArray()) {
+      return null;
+    }
+    byte[] bytes = buffer.array();
+    int offset = getPositionForField(ft) + buffer.arrayOffset();
+    if (bytes[offset] == DSCODE.NULL || bytes[offset] == DSCODE.NULL_STRING) {
+      return null;
+    }
+    return Integer.signum(PdxString.compare(bytes, offset, value));
+  }
 }
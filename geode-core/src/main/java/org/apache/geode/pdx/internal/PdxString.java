@@ -55,7 +55,7 @@ public class PdxString implements Comparable<PdxString>, Sendable {
     this.offset = calcOffset(header, 0);
   }
 
-  private int calcOffset(int header, int offset) {
+  private static int calcOffset(int header, int offset) {
     offset++; // increment offset for the header byte
     // length is stored as short for small strings
     if (header == DSCODE.STRING_BYTES || header == DSCODE.STRING) {
@@ -71,8 +71,12 @@ public class PdxString implements Comparable<PdxString>, Sendable {
   }
 
   private int getLength() {
+    return getLength(this.bytes, this.header, this.offset);
+  }
+
+  private static int getLength(byte[] bytes, byte header, int offset) {
     int length = 0;
-    int lenOffset = this.offset;
+    int lenOffset = offset;
     if (header == DSCODE.STRING_BYTES || header == DSCODE.STRING) {
       lenOffset -= 2;
       byte a = bytes[lenOffset];
@@ -97,34 +101,36 @@ public class PdxString implements Comparable<PdxString>, Sendable {
       int diff = this.toString().compareTo(o.toString());
       return diff;
     }
-    int len1 = this.getLength();
+    return compareBytes(this.bytes, this.offset, this.getLength(), o);
+  }
+
+  /**
+   * Compares the String serialized at the given offset of the given bytes with a PdxString, as
+   * {@link #compareTo} would, without creating a PdxString for the serialized one.
+   */
+  static int compare(byte[] bytes, int offset, PdxString o) {
+    byte header = bytes[offset];
+    if (header != o.header) {
+      return new PdxString(bytes, offset).compareTo(o);
+    }
+    int start = calcOffset(header, offset);
+    return compareBytes(bytes, start, getLength(bytes, header, start), o);
+  }
+
+  private static int compareBytes(byte[] bytes, int offset, int length, PdxString o) {
     int len2 = o.getLength();
-    int n = Math.min(len1, len2);
+    int n = Math.min(length, len2);
 
-    int i = this.offset;
+    int i = offset;
     int j = o.offset;
-
-    if (i == j) {
-      int k = i;
-      int lim = n + i;
-      while (k < lim) {
-        byte c1 = bytes[k];
-        byte c2 = o.bytes[k];
-        if (c1 != c2) {
-          return c1 - c2;
-        }
-        k++;
-      }
-    } else {
-      while (n-- != 0) {
-        byte c1 = bytes[i++];
-        byte c2 = o.bytes[j++];
-        if (c1 != c2) {
-          return c1 - c2;
-        }
+    while (n-- != 0) {
+      byte c1 = bytes[i++];
+      byte c2 = o.bytes[j++];
+      if (c1 != c2) {
+        return c1 - c2;
       }
     }
-    return len1 - len2;
+    return length - len2;
   }
 
   public int hashCode() {
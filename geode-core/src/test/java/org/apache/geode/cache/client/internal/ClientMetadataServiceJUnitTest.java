@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.client.internal.ClientPartitionAdvisor.PrimaryServerTable;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.BucketServerLocation66;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegionHelper;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class ClientMetadataServiceJUnitTest {
+
+  private static final int NUM_BUCKETS = 4;
+
+  private static final String REGION_PATH = "/region";
+
+  private final ServerLocation server1 = new ServerLocation("localhost", 40401);
+
+  private final ServerLocation server2 = new ServerLocation("localhost", 40402);
+
+  private ClientMetadataService cms;
+
+  private ClientPartitionAdvisor advisor;
+
+  private LocalRegion region;
+
+  @Before
+  public void setUp() throws Exception {
+    this.cms = new ClientMetadataService(mock(Cache.class));
+    this.advisor = new ClientPartitionAdvisor(NUM_BUCKETS, null, null, null);
+    this.cms.getClientPRMetadata_TEST_ONLY().put(REGION_PATH, this.advisor);
+    this.region = mock(LocalRegion.class);
+    when(this.region.getFullPath()).thenReturn(REGION_PATH);
+  }
+
+  @Test
+  public void primaryServerTableIsCachedUntilLocationsChange() throws Exception {
+    setPrimary(0, this.server1);
+    setPrimary(1, this.server2);
+
+    PrimaryServerTable table = this.advisor.getPrimaryServerTable();
+    assertSame(table, this.advisor.getPrimaryServerTable());
+    assertEquals(2, table.getNumServers());
+    assertEquals(this.server1, table.getServer(table.getServerIndex(0)));
+    assertEquals(this.server2, table.getServer(table.getServerIndex(1)));
+    assertEquals(-1, table.getServerIndex(2));
+    assertEquals(-1, table.getServerIndex(-1));
+    assertEquals(-1, table.getServerIndex(NUM_BUCKETS));
+
+    setPrimary(2, this.server1);
+    table = this.advisor.getPrimaryServerTable();
+    assertEquals(this.server1, table.getServer(table.getServerIndex(2)));
+
+    this.advisor.removeBucketServerLocation(this.server2);
+    table = this.advisor.getPrimaryServerTable();
+    assertEquals(1, table.getNumServers());
+    assertEquals(-1, table.getServerIndex(1));
+  }
+
+  @Test
+  public void keysAreGroupedByPrimaryServer() throws Exception {
+    for (int bucketId = 0; bucketId < NUM_BUCKETS; bucketId++) {
+      setPrimary(bucketId, bucketId % 2 == 0 ? this.server1 : this.server2);
+    }
+    List keys = new ArrayList();
+    for (int i = 0; i < 100; i++) {
+      keys.add(i);
+    }
+
+    Map<ServerLocation, List> serverToKeys = this.cms.groupByPrimaryServer(keys, this.region);
+
+    assertEquals(2, serverToKeys.size());
+    int numKeys = 0;
+    for (Map.Entry<ServerLocation, List> entry : serverToKeys.entrySet()) {
+      int previous = -1;
+      for (Object key : entry.getValue()) {
+        int bucketId = PartitionedRegionHelper.getHashKey(key, NUM_BUCKETS);
+        assertEquals(bucketId % 2 == 0 ? this.server1 : this.server2, entry.getKey());
+        assertTrue("keys keep their order", (Integer) key > previous);
+        previous = (Integer) key;
+        numKeys++;
+      }
+    }
+    assertEquals(keys.size(), numKeys);
+  }
+
+  @Test
+  public void keysWithoutKnownPrimaryAreAddedToSmallestGroup() throws Exception {
+    setPrimary(0, this.server1);
+    setPrimary(1, this.server1);
+    setPrimary(2, this.server2);
+    List keys = new ArrayList();
+    for (int i = 0; i < 100; i++) {
+      keys.add(i);
+    }
+
+    Map<ServerLocation, List> serverToKeys = this.cms.groupByPrimaryServer(keys, this.region);
+
+    int numKeys = 0;
+    for (Object key : serverToKeys.get(this.server2)) {
+      int bucketId = PartitionedRegionHelper.getHashKey(key, NUM_BUCKETS);
+      assertTrue(bucketId == 2 || bucketId == 3);
+      numKeys++;
+    }
+    numKeys += serverToKeys.get(this.server1).size();
+    assertEquals(keys.size(), numKeys);
+  }
+
+  @Test
+  public void noGroupsWithoutKnownPrimaries() throws Exception {
+    assertNull(this.cms.groupByPrimaryServer(Arrays.asList(1, 2, 3), this.region));
+
+    setPrimary(0, this.server1);
+    this.advisor.removeBucketServerLocation(this.server1);
+    assertNull(this.cms.groupByPrimaryServer(Arrays.asList(1, 2, 3), this.region));
+  }
+
+  private void setPrimary(int bucketId, ServerLocation server) {
+    List<BucketServerLocation66> locations = new ArrayList<BucketServerLocation66>();
+    locations.add(new BucketServerLocation66(bucketId, server.getPort(), server.getHostName(), true,
+        (byte) 0, new String[0]));
+    this.advisor.updateBucketServerLocations(bucketId, locations, this.cms);
+  }
+}
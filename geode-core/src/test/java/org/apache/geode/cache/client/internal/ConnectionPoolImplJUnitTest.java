@@ -20,7 +20,12 @@ import static org.junit.Assert.*;
 
 import java.net.InetSocketAddress;
 import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
 import org.junit.Before;
@@ -29,15 +34,19 @@ import org.junit.experimental.categories.Category;
 
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
 import org.apache.geode.cache.client.Pool;
 import org.apache.geode.cache.client.PoolFactory;
 import org.apache.geode.cache.client.PoolManager;
 import org.apache.geode.cache.client.ServerConnectivityException;
+import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.cache.server.CacheServer;
 import org.apache.geode.distributed.DistributedSystem;
 import org.apache.geode.distributed.internal.ServerLocation;
 import org.apache.geode.internal.AvailablePort;
 import org.apache.geode.internal.AvailablePortHelper;
+import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.test.junit.categories.ClientServerTest;
 import org.apache.geode.test.junit.categories.IntegrationTest;
 
@@ -236,6 +245,47 @@ public class ConnectionPoolImplJUnitTest {
     }
   }
 
+  @Test
+  public void testExecutePipelined() throws Exception {
+    Region<Object, Object> region =
+        cache.createRegionFactory(RegionShortcut.REPLICATE).create("region");
+    Region<Object, Object> destroyedRegion =
+        cache.createRegionFactory(RegionShortcut.REPLICATE).create("destroyedRegion");
+    for (int i = 0; i < 100; i++) {
+      region.put(i, "value" + i);
+    }
+    CacheServer server = cache.addCacheServer();
+    server.setPort(port);
+    server.start();
+
+    PoolImpl pool =
+        (PoolImpl) PoolManager.createFactory().addServer("localhost", port).create("pool1");
+
+    List<Op> ops = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      ops.add(new GetOp.GetOpImpl((LocalRegion) region, i, null, false, null));
+    }
+    // an op that fails on the server must not affect the ops after it
+    ops.add(50, new GetOp.GetOpImpl((LocalRegion) destroyedRegion, 0, null, false, null));
+    destroyedRegion.destroyRegion();
+
+    List<CompletableFuture<Object>> futures = pool.executePipelined(ops);
+
+    assertEquals(101, futures.size());
+    for (int i = 0; i < 101; i++) {
+      if (i == 50) {
+        try {
+          futures.get(i).get(30, TimeUnit.SECONDS);
+          fail("expected the get from the destroyed region to fail");
+        } catch (ExecutionException expected) {
+          assertTrue(expected.getCause() instanceof ServerOperationException);
+        }
+      } else {
+        assertEquals("value" + (i < 50 ? i : i - 1), futures.get(i).get(30, TimeUnit.SECONDS));
+      }
+    }
+  }
+
   @Test
   public void testCreatePool() throws Exception {
     CacheServer server1 = cache.addCacheServer();
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.junit.Assert.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.client.ServerOperationException;
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.QueryResultStream;
+import org.apache.geode.cache.server.CacheServer;
+import org.apache.geode.internal.AvailablePortHelper;
+import org.apache.geode.internal.cache.CacheServerImpl;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.BaseCommand;
+import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Tests streamed queries between a pool and cache servers in the same VM.
+ */
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class QueryOpStreamingJUnitTest {
+
+  private static final int ENTRIES = 1000;
+
+  private static final String QUERY = "select v.id from /region v";
+
+  /** The id of the value that fails to be read, or -1 */
+  private static volatile int failingId = -1;
+
+  /** When set, the first value read closes the server connection the query was received on */
+  private static final AtomicBoolean closeConnections = new AtomicBoolean();
+
+  private static volatile Cache cache;
+
+  private PoolImpl pool;
+
+  @Before
+  public void setUp() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    cache = new CacheFactory(props).create();
+    Region<Integer, Value> region =
+        cache.<Integer, Value>createRegionFactory(RegionShortcut.PARTITION).create("region");
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, new Value(i));
+    }
+    int[] ports = AvailablePortHelper.getRandomAvailableTCPPorts(2);
+    for (int port : ports) {
+      CacheServer server = cache.addCacheServer();
+      server.setPort(port);
+      server.start();
+    }
+    this.pool = (PoolImpl) PoolManager.createFactory().addServer("localhost", ports[0])
+        .addServer("localhost", ports[1]).setRetryAttempts(1).create("pool");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    failingId = -1;
+    closeConnections.set(false);
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+    cache = null;
+  }
+
+  @Test
+  public void resultsAreDeliveredInSeveralChunks() throws Exception {
+    CountingStreamingQueryOp op = new CountingStreamingQueryOp(QUERY);
+    List<Object> results = readAll(QueryOp.executeStreaming(this.pool, op));
+
+    assertEquals(ENTRIES, results.size());
+    assertEquals(ENTRIES, new HashSet<>(results).size());
+    assertTrue("only " + op.batches.get() + " chunks were received",
+        op.batches.get() >= ENTRIES / BaseCommand.MAXIMUM_CHUNK_SIZE);
+  }
+
+  @Test
+  public void failureAfterFirstChunkIsThrownByStream() throws Exception {
+    // the last bucket is queried last, after the first chunks have been sent
+    failingId = cache.getRegion("region").getAttributes().getPartitionAttributes()
+        .getTotalNumBuckets() - 1;
+    CountingStreamingQueryOp op = new CountingStreamingQueryOp(QUERY);
+    QueryResultStream stream = QueryOp.executeStreaming(this.pool, op);
+    int received = 0;
+    try {
+      while (stream.hasNext()) {
+        stream.next();
+        received++;
+      }
+      fail("expected ServerOperationException");
+    } catch (ServerOperationException expected) {
+      assertTrue(expected.getMessage(), expected.getMessage().contains("query"));
+    }
+    assertTrue("only " + received + " results were received before the failure",
+        received >= BaseCommand.MAXIMUM_CHUNK_SIZE);
+    assertTrue(stream.isClosed());
+  }
+
+  @Test
+  public void queryIsRetriedIfServerFailsBeforeFirstChunk() throws Exception {
+    closeConnections.set(true);
+    CountingStreamingQueryOp op = new CountingStreamingQueryOp(QUERY);
+    List<Object> results = readAll(QueryOp.executeStreaming(this.pool, op));
+
+    assertFalse("the connection was not closed", closeConnections.get());
+    assertEquals(ENTRIES, results.size());
+    assertEquals(ENTRIES, new HashSet<>(results).size());
+  }
+
+  private static List<Object> readAll(QueryResultStream stream) throws Exception {
+    List<Object> results = new ArrayList<>();
+    try {
+      while (stream.hasNext()) {
+        results.add(stream.next());
+      }
+    } finally {
+      stream.close();
+    }
+    return results;
+  }
+
+  private static void closeQueryConnection() {
+    for (CacheServer server : cache.getCacheServers()) {
+      for (ServerConnection connection : ((CacheServerImpl) server).getAcceptor()
+          .getAllServerConnectionList()) {
+        if (connection.getRequestMessage().getMessageType() == MessageType.QUERY) {
+          connection.cleanup();
+        }
+      }
+    }
+  }
+
+  /**
+   * Counts the chunks handed to the consumer.
+   */
+  private static class CountingStreamingQueryOp extends QueryOp.StreamingQueryOpImpl {
+    private final AtomicInteger batches = new AtomicInteger();
+
+    CountingStreamingQueryOp(String queryPredicate) {
+      super(queryPredicate);
+    }
+
+    @Override
+    public SelectResults nextBatch() throws QueryException {
+      SelectResults batch = super.nextBatch();
+      if (batch != null) {
+        this.batches.incrementAndGet();
+      }
+      return batch;
+    }
+  }
+
+  public static class Value implements Serializable {
+    private final int id;
+
+    public Value(int id) {
+      this.id = id;
+    }
+
+    public int getId() {
+      if (this.id == failingId) {
+        throw new IllegalStateException("Failed to read " + this.id);
+      }
+      if (closeConnections.compareAndSet(true, false)) {
+        closeQueryConnection();
+      }
+      return this.id;
+    }
+  }
+}
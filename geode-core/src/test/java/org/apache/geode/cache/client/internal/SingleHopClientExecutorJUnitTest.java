@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class SingleHopClientExecutorJUnitTest {
+
+  @Test
+  public void invokeBoundedRunsAtMostMaxParallelismTasksAtATime() throws Exception {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    List<Callable> tasks = new ArrayList<Callable>();
+    for (int i = 0; i < 20; i++) {
+      final int result = i;
+      tasks.add(new Callable<Integer>() {
+        public Integer call() throws Exception {
+          int nowRunning = running.incrementAndGet();
+          maxRunning.accumulateAndGet(nowRunning, Math::max);
+          Thread.sleep(10);
+          running.decrementAndGet();
+          if (result == 7) {
+            throw new IllegalStateException("expected");
+          }
+          return result;
+        }
+      });
+    }
+
+    List<Future> futures = SingleHopClientExecutor.invokeBounded(tasks, 3);
+
+    assertEquals(tasks.size(), futures.size());
+    assertTrue("at most 3 tasks ran at a time but " + maxRunning.get() + " did",
+        maxRunning.get() <= 3);
+    for (int i = 0; i < futures.size(); i++) {
+      assertTrue(futures.get(i).isDone());
+      if (i == 7) {
+        try {
+          futures.get(i).get();
+          fail("expected the failure of the task");
+        } catch (ExecutionException expected) {
+          assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+      } else {
+        assertEquals(i, futures.get(i).get());
+      }
+    }
+  }
+}
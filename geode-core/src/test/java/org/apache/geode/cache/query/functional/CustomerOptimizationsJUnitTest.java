@@ -949,7 +949,7 @@ public class CustomerOptimizationsJUnitTest {
     final boolean[] expectedIndexUsed = new boolean[] {true};
     final boolean[] actualIndexUsed = new boolean[] {false};
 
-    final boolean[] expectedProjectionCallabck = new boolean[] {false};
+    final boolean[] expectedProjectionCallabck = new boolean[] {true};
     final boolean[] actualProjectionCallback = new boolean[] {false};
 
     final boolean[] expectedUnionCallback = {false};
@@ -976,6 +976,12 @@ public class CustomerOptimizationsJUnitTest {
         indexesUsed.add(index);
       }
 
+      public void beforeIndexLookup(Index index, int lowerBoundOperator, Object lowerBoundKey,
+          int upperBoundOperator, Object upperBoundKey, Set NotEqualKeys) {
+        actualIndexUsed[i] = true;
+        indexesUsed.add(index);
+      }
+
       public void beforeApplyingProjectionOnFilterEvaluatedResults(Object preProjectionApplied) {
         actualProjectionCallback[i] = true;
       }
@@ -995,7 +1001,8 @@ public class CustomerOptimizationsJUnitTest {
       assertEquals(expectedProjectionCallabck[i], actualProjectionCallback[i]);
     }
     assertEquals(indexesUsed.size(), 1);
-    assertEquals(((Index) indexesUsed.iterator().next()).getName(), "CreateTime");
+    // the range selects 7 portfolios and the IN condition 100, so the range index is used
+    assertEquals(((Index) indexesUsed.iterator().next()).getName(), "PortFolioID");
     CacheUtils.compareResultsOfWithAndWithoutIndex(sr, this);
   }
 
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.NameNotFoundException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+/**
+ * Verifies that attributes are read, and methods invoked, the same way through method handles as
+ * through reflection.
+ */
+@Category(UnitTest.class)
+public class AttributeDescriptorJUnitTest {
+
+  private static final MethodInvocationAuthorizer AUTHORIZER = (method, target) -> {
+  };
+
+  private final boolean useMethodHandles = DefaultQueryService.USE_METHOD_HANDLES;
+
+  @After
+  public void tearDown() {
+    DefaultQueryService.USE_METHOD_HANDLES = useMethodHandles;
+  }
+
+  @Test
+  public void readsAttributesWithMethodHandles() throws Exception {
+    DefaultQueryService.USE_METHOD_HANDLES = true;
+    verifyReads();
+  }
+
+  @Test
+  public void readsAttributesWithReflection() throws Exception {
+    DefaultQueryService.USE_METHOD_HANDLES = false;
+    verifyReads();
+  }
+
+  @Test
+  public void invokesMethodsWithMethodHandles() throws Exception {
+    DefaultQueryService.USE_METHOD_HANDLES = true;
+    verifyInvocations();
+  }
+
+  @Test
+  public void invokesMethodsWithReflection() throws Exception {
+    DefaultQueryService.USE_METHOD_HANDLES = false;
+    verifyInvocations();
+  }
+
+  private void verifyReads() throws Exception {
+    Holder holder = new Holder();
+    assertEquals(7, read("count", holder));
+    assertEquals("name", read("name", holder));
+    assertEquals(true, read("active", holder));
+    assertEquals("shared", read("shared", holder));
+    assertEquals(4, read("size", new Hidden()));
+    assertSame(QueryService.UNDEFINED, read("name", null));
+    try {
+      read("failing", holder);
+      fail("expected QueryInvocationTargetException");
+    } catch (QueryInvocationTargetException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+    try {
+      read("missing", holder);
+      fail("expected NameNotFoundException");
+    } catch (NameNotFoundException expected) {
+    }
+  }
+
+  private void verifyInvocations() throws Exception {
+    Holder holder = new Holder();
+    assertEquals("name!", invoke(holder, "append", "!"));
+    assertEquals(9, invoke(holder, "add", 2));
+    assertEquals(9L, invoke(holder, "addLong", 2));
+    assertEquals("a-b", invoke(holder, "join", "a", "b"));
+    assertEquals("shared", invoke(holder, "getShared"));
+    assertEquals(null, invoke(holder, "reset"));
+    try {
+      invoke(holder, "getFailing");
+      fail("expected QueryInvocationTargetException");
+    } catch (QueryInvocationTargetException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  private Object read(String attribute, Object target) throws Exception {
+    return new AttributeDescriptor(AUTHORIZER, attribute).read(target);
+  }
+
+  private Object invoke(Object target, String methodName, Object... args) throws Exception {
+    List argTypes = new ArrayList();
+    for (Object arg : args) {
+      argTypes.add(arg.getClass());
+    }
+    return new MethodDispatch(AUTHORIZER, target.getClass(), methodName, argTypes).invoke(target,
+        Arrays.asList(args));
+  }
+
+  public static class Holder {
+    public int count = 7;
+
+    public String getName() {
+      return "name";
+    }
+
+    public boolean active() {
+      return true;
+    }
+
+    public static String getShared() {
+      return "shared";
+    }
+
+    public Object getFailing() {
+      throw new IllegalStateException();
+    }
+
+    public String append(String suffix) {
+      return getName() + suffix;
+    }
+
+    public int add(Integer value) {
+      return count + value;
+    }
+
+    public long addLong(long value) {
+      return count + value;
+    }
+
+    public String join(Object first, String second) {
+      return first + "-" + second;
+    }
+
+    public void reset() {}
+  }
+
+  private static class Hidden {
+    public int getSize() {
+      return 4;
+    }
+  }
+}
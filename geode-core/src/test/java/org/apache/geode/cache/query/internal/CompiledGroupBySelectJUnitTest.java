@@ -14,10 +14,17 @@
  */
 package org.apache.geode.cache.query.internal;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -28,6 +35,8 @@ import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.CacheUtils;
 import org.apache.geode.cache.query.QueryInvalidException;
 import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.data.Portfolio;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.test.junit.categories.IntegrationTest;
@@ -48,6 +57,7 @@ public class CompiledGroupBySelectJUnitTest {
 
   @After
   public void tearDown() throws Exception {
+    CompiledGroupBySelect.HASH_GROUP_BY = true;
     CacheUtils.closeCache();
   }
 
@@ -154,4 +164,118 @@ public class CompiledGroupBySelectJUnitTest {
     }
   }
 
+  @Test
+  public void testHashGroupByGroupsMixedNumericKeysLikeSortedGroupBy() throws Exception {
+    Region region = createRegion("keyed", Object.class);
+    for (int i = 0; i < 30; i++) {
+      int key = i % 10;
+      Object mixedKey = i < 10 ? (Object) key : i < 20 ? (Object) (long) key : (Object) (short) key;
+      region.put(i, new Keyed(mixedKey, null, i));
+    }
+    region.put(30, new Keyed(1.0d, null, 100));
+    region.put(31, new Keyed(2.5d, null, 200));
+    region.put(32, new Keyed(2.5f, null, 300));
+
+    String queryStr = "select k.key, count(*), sum(k.amount) from /keyed k group by k.key";
+    Set<String> hashed = new HashSet<>(executeGrouped(queryStr, true));
+    assertEquals(new HashSet<>(executeGrouped(queryStr, false)), hashed);
+    assertEquals(11, hashed.size());
+    assertTrue(hashed.toString(), hashed.contains("1:4:133"));
+    assertTrue(hashed.toString(), hashed.contains("2.5:2:500"));
+  }
+
+  @Test
+  public void testHashGroupByGroupsNullAndUndefinedKeysLikeSortedGroupBy() throws Exception {
+    Region region = createRegion("keyed", Object.class);
+    for (int i = 0; i < 12; i++) {
+      Object key = i % 3 == 1 ? null : i % 2 == 0 ? (Object) 0 : (Object) 0L;
+      Keyed inner = i % 3 == 0 ? null : new Keyed(key, null, i);
+      region.put(i, new Keyed(i, inner, i));
+    }
+
+    String queryStr =
+        "select k.inner.key, count(*), sum(k.amount) from /keyed k group by k.inner.key";
+    Set<String> hashed = new HashSet<>(executeGrouped(queryStr, true));
+    assertEquals(new HashSet<>(executeGrouped(queryStr, false)), hashed);
+    assertEquals(3, hashed.size());
+    assertTrue(hashed.toString(), hashed.contains("null:4:22"));
+    assertTrue(hashed.toString(), hashed.contains("UNDEFINED:4:18"));
+    assertTrue(hashed.toString(), hashed.contains("0:4:26"));
+  }
+
+  @Test
+  public void testHashGroupByOrdersGroupsLikeSortedGroupBy() throws Exception {
+    Region region = createRegion("keyed", Object.class);
+    for (int i = 0; i < 40; i++) {
+      Object mixedKey = i % 2 == 0 ? (Object) (i % 5) : (Object) (long) (i % 5);
+      region.put(i, new Keyed(mixedKey, new Keyed("status" + i % 3, null, i), i));
+    }
+
+    String queryStr = "select k.key as key, k.inner.key as status, count(*) as cnt,"
+        + " sum(k.amount) as total from /keyed k group by key, status order by status desc, key";
+    List<String> hashed = executeGrouped(queryStr, true);
+    assertEquals(executeGrouped(queryStr, false), hashed);
+    assertEquals(15, hashed.size());
+    assertEquals("0:status2:3:60", hashed.get(0));
+    assertEquals("4:status0:3:72", hashed.get(14));
+
+    queryStr = "select k.key as key, count(*) as cnt from /keyed k group by key order by key desc"
+        + " limit 3";
+    hashed = executeGrouped(queryStr, true);
+    assertEquals(executeGrouped(queryStr, false), hashed);
+    assertEquals(3, hashed.size());
+    assertEquals("4:8", hashed.get(0));
+    assertEquals("2:8", hashed.get(2));
+  }
+
+  /**
+   * Executes a group by query with rows grouped by hashing or by sorting, and returns its rows in
+   * order with the group keys in the form they are grouped on.
+   */
+  private List<String> executeGrouped(String queryStr, boolean hashGroupBy) throws Exception {
+    CompiledGroupBySelect.HASH_GROUP_BY = hashGroupBy;
+    try {
+      SelectResults results =
+          (SelectResults) CacheUtils.getQueryService().newQuery(queryStr).execute();
+      List<String> rows = new ArrayList<>();
+      for (Object result : results) {
+        StringBuilder row = new StringBuilder();
+        for (Object field : ((Struct) result).getFieldValues()) {
+          if (row.length() > 0) {
+            row.append(':');
+          }
+          row.append(CompiledGroupBySelect.toGroupKey(field));
+        }
+        rows.add(row.toString());
+      }
+      return rows;
+    } finally {
+      CompiledGroupBySelect.HASH_GROUP_BY = true;
+    }
+  }
+
+  public static class Keyed implements Serializable {
+    private final Object key;
+    private final Keyed inner;
+    private final int amount;
+
+    public Keyed(Object key, Keyed inner, int amount) {
+      this.key = key;
+      this.inner = inner;
+      this.amount = amount;
+    }
+
+    public Object getKey() {
+      return this.key;
+    }
+
+    public Keyed getInner() {
+      return this.inner;
+    }
+
+    public int getAmount() {
+      return this.amount;
+    }
+  }
+
 }
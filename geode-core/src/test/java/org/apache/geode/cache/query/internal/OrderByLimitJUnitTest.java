@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.AttributesFactory;
+import org.apache.geode.cache.PartitionAttributesFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.CacheUtils;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class OrderByLimitJUnitTest {
+
+  private static final String[] QUERIES = {
+      "select * from /portfolio1 p order by p.ID desc",
+      "select distinct * from /portfolio1 p order by p.ID",
+      "select p.ID, p.status from /portfolio1 p order by p.status, p.ID desc",
+      "select distinct p.ID, p.status from /portfolio1 p where p.ID > 10 order by p.ID desc",
+      "select p.status from /portfolio1 p order by p.status desc",
+      "select distinct p.status from /portfolio1 p order by p.status",};
+
+  @Before
+  public void setUp() throws Exception {
+    CacheUtils.startCache();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    CacheUtils.closeCache();
+  }
+
+  @Test
+  public void boundedBagKeepsTheSmallestResults() {
+    SortedResultsBag<Integer> bag =
+        new SortedResultsBag<Integer>(Comparator.<Integer>naturalOrder(), true);
+    bag.setMaxSize(4);
+    for (Integer i : new Integer[] {7, 3, 9, 3, null, 1, 8, 3}) {
+      bag.add(i);
+    }
+    assertEquals(4, bag.size());
+    assertEquals(Arrays.asList(null, 1, 3, 3), bag.asList());
+  }
+
+  @Test
+  public void boundedBagDropsNullsEmittedLast() {
+    SortedResultsBag<Integer> bag =
+        new SortedResultsBag<Integer>(Comparator.<Integer>reverseOrder(), false);
+    bag.setMaxSize(2);
+    for (Integer i : new Integer[] {null, 4, null, 6, 5}) {
+      bag.add(i);
+    }
+    assertEquals(Arrays.asList(6, 5), bag.asList());
+  }
+
+  @Test
+  public void boundedSetReportsResultsThatAreDropped() {
+    SortedResultSet set = new SortedResultSet(Comparator.naturalOrder());
+    set.setMaxSize(2);
+    assertTrue(set.add(5));
+    assertTrue(set.add(2));
+    assertFalse(set.add(9));
+    assertFalse(set.add(2));
+    assertTrue(set.add(1));
+    assertEquals(Arrays.asList(1, 2), set.asList());
+  }
+
+  @Test
+  public void orderByWithLimitOnReplicatedRegion() throws Exception {
+    Region region = CacheUtils.createRegion("portfolio1", Portfolio.class);
+    populate(region);
+    verifyLimitedResults();
+  }
+
+  @Test
+  public void orderByWithLimitOnPartitionedRegion() throws Exception {
+    AttributesFactory factory = new AttributesFactory();
+    factory.setPartitionAttributes(new PartitionAttributesFactory().setTotalNumBuckets(7).create());
+    factory.setValueConstraint(Portfolio.class);
+    Region region = CacheUtils.createRegion("portfolio1", factory.create(), false);
+    populate(region);
+    verifyLimitedResults();
+  }
+
+  @Test
+  public void orderByWithLimitUsingAnIndex() throws Exception {
+    Region region = CacheUtils.createRegion("portfolio1", Portfolio.class);
+    populate(region);
+    CacheUtils.getQueryService().createIndex("idIndex", "p.ID", "/portfolio1 p");
+    verifyLimitedResults();
+  }
+
+  private void populate(Region region) {
+    for (int i = 0; i < 100; i++) {
+      region.put("" + i, new Portfolio(i));
+    }
+  }
+
+  /**
+   * Verifies that each query with a limit returns the leading results of the same query without
+   * one.
+   */
+  private void verifyLimitedResults() throws Exception {
+    for (String query : QUERIES) {
+      List all = ((SelectResults) CacheUtils.getQueryService().newQuery(query).execute()).asList();
+      for (int limit : new int[] {1, 5, 60, 200}) {
+        List limited = ((SelectResults) CacheUtils.getQueryService()
+            .newQuery(query + " limit " + limit).execute()).asList();
+        assertEquals(query + " limit " + limit, all.subList(0, Math.min(limit, all.size())),
+            limited);
+      }
+    }
+  }
+}
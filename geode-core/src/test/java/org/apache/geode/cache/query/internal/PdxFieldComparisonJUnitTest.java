@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.pdx.PdxInstanceFactory;
+import org.apache.geode.pdx.internal.PdxInstanceFactoryImpl;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Verifies the comparisons of PdxInstance fields with constants that are evaluated on the
+ * serialized bytes of the instances.
+ */
+@Category(IntegrationTest.class)
+public class PdxFieldComparisonJUnitTest {
+
+  private Cache cache;
+
+  private QueryService qs;
+
+  @Before
+  public void setUp() throws Exception {
+    cache = new CacheFactory().set(MCAST_PORT, "0").setPdxReadSerialized(true).create();
+    qs = cache.getQueryService();
+    Region region = cache.createRegionFactory(RegionShortcut.REPLICATE).create("positions");
+    for (int i = 0; i < 100; i++) {
+      PdxInstanceFactory factory = PdxInstanceFactoryImpl.newCreator("Position", false);
+      factory.writeByte("flag", (byte) (i % 3));
+      factory.writeShort("shares", (short) (i * 10));
+      factory.writeInt("id", i);
+      factory.writeLong("ts", 1000L * i);
+      factory.writeString("secId", i % 10 == 0 ? null : "SEC" + (i % 4));
+      factory.writeDouble("price", i / 2.0);
+      region.put(i, factory.create());
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    cache.close();
+  }
+
+  @Test
+  public void integralFieldsAreCompared() throws Exception {
+    assertEquals(1, count("p.id = 7"));
+    assertEquals(99, count("p.id <> 7"));
+    assertEquals(7, count("p.id < 7"));
+    assertEquals(8, count("p.id <= 7"));
+    assertEquals(92, count("p.id > 7"));
+    assertEquals(93, count("p.id >= 7"));
+    assertEquals(10, count("p.ts < 10000L"));
+    assertEquals(10, count("p.ts < 10000"));
+    assertEquals(50, count("p.shares >= 500"));
+    assertEquals(33, count("p.flag = 2"));
+    // compared with a value of another kind
+    assertEquals(50, count("p.price < 25"));
+    assertEquals(0, count("p.id = 7.5"));
+  }
+
+  @Test
+  public void stringFieldsAreCompared() throws Exception {
+    assertEquals(25, count("p.secId = 'SEC1'"));
+    assertEquals(80, count("p.secId <> 'SEC0'"));
+    assertEquals(45, count("p.secId > 'SEC1'"));
+    assertEquals(20, count("p.secId < 'SEC1'"));
+    assertEquals(10, count("p.secId = null"));
+    assertEquals(0, count("p.secId = 'SEC'"));
+  }
+
+  @Test
+  public void boundValuesAreCompared() throws Exception {
+    SelectResults results = (SelectResults) qs
+        .newQuery("select * from /positions p where p.secId = $1 and p.id > $2")
+        .execute(new Object[] {"SEC2", 50});
+    assertEquals(10, results.size());
+  }
+
+  private int count(String condition) throws Exception {
+    return ((SelectResults) qs.newQuery("select * from /positions p where " + condition)
+        .execute()).size();
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class QueryResultCacheJUnitTest {
+
+  @Rule
+  public final RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  private InternalCache cache;
+
+  @After
+  public void tearDown() {
+    QueryObserverHolder.reset();
+    if (cache != null) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void resultsAreNotCachedByDefault() {
+    createCache();
+    assertNull(cache.getQueryResultCache());
+  }
+
+  @Test
+  public void resultsAreCachedUntilTheRegionChanges() throws Exception {
+    System.setProperty(QueryResultCache.SIZE_PROPERTY, "10");
+    createCache();
+    Region region = createRegion(RegionShortcut.REPLICATE);
+    Query query = cache.getQueryService().newQuery("select * from /portfolios p where p.ID < 5");
+    CachePerfStats stats = cache.getCachePerfStats();
+
+    SelectResults results = (SelectResults) query.execute();
+    assertEquals(5, results.size());
+    assertSame(results, query.execute());
+    assertEquals(1, stats.getQueryResultCacheHits());
+    assertEquals(1, stats.getQueryResultCacheMisses());
+
+    region.put(3, new Portfolio(3));
+    results = verifyNotCached(query, results, 5);
+    region.invalidate(3);
+    results = verifyNotCached(query, results, 4);
+    region.destroy(2);
+    results = verifyNotCached(query, results, 3);
+    region.clear();
+    verifyNotCached(query, results, 0);
+    assertEquals(5, stats.getQueryResultCacheMisses());
+  }
+
+  @Test
+  public void modificationsAreNotCountedByDefault() {
+    createCache();
+    Region region = createRegion(RegionShortcut.REPLICATE);
+    region.put(3, new Portfolio(3));
+    assertEquals(0, ((LocalRegion) region).getModificationCount());
+  }
+
+  @Test
+  public void resultsAreNotCachedWhenCopyingOnRead() throws Exception {
+    System.setProperty(QueryResultCache.SIZE_PROPERTY, "10");
+    createCache();
+    cache.setCopyOnRead(true);
+    createRegion(RegionShortcut.REPLICATE);
+    Query query = cache.getQueryService().newQuery("select * from /portfolios p where p.ID < 5");
+
+    Object results = query.execute();
+    assertNotSame(results, query.execute());
+    assertEquals(0, cache.getQueryResultCache().size());
+  }
+
+  @Test
+  public void cachedResultsAreCountedAsExecutions() throws Exception {
+    System.setProperty(QueryResultCache.SIZE_PROPERTY, "10");
+    createCache();
+    createRegion(RegionShortcut.REPLICATE);
+    AtomicInteger started = new AtomicInteger();
+    AtomicInteger ended = new AtomicInteger();
+    QueryObserverHolder.setInstance(new QueryObserverAdapter() {
+      @Override
+      public void startQuery(Query query) {
+        started.incrementAndGet();
+      }
+
+      @Override
+      public void endQuery() {
+        ended.incrementAndGet();
+      }
+    });
+    Query query = cache.getQueryService().newQuery("select * from /portfolios p where p.ID < 5");
+
+    assertSame(query.execute(), query.execute());
+    assertEquals(1, cache.getCachePerfStats().getQueryResultCacheHits());
+    assertEquals(2, query.getStatistics().getNumExecutions());
+    assertEquals(2, started.get());
+    assertEquals(2, ended.get());
+  }
+
+  @Test
+  public void resultsAreCachedByBindParameters() throws Exception {
+    System.setProperty(QueryResultCache.SIZE_PROPERTY, "10");
+    createCache();
+    createRegion(RegionShortcut.REPLICATE);
+    Query query = cache.getQueryService().newQuery("select * from /portfolios p where p.ID < $1");
+
+    SelectResults three = (SelectResults) query.execute(new Object[] {3});
+    SelectResults seven = (SelectResults) query.execute(new Object[] {7});
+    assertEquals(3, three.size());
+    assertEquals(7, seven.size());
+    assertSame(three, query.execute(new Object[] {3}));
+    assertSame(seven, query.execute(new Object[] {7}));
+    // a new query with the same string shares the cached result
+    Query sameQuery =
+        cache.getQueryService().newQuery("select * from /portfolios p where p.ID < $1");
+    assertSame(three, sameQuery.execute(new Object[] {3}));
+  }
+
+  @Test
+  public void leastRecentlyUsedResultsAreDropped() throws Exception {
+    System.setProperty(QueryResultCache.SIZE_PROPERTY, "2");
+    createCache();
+    createRegion(RegionShortcut.REPLICATE);
+    Query query = cache.getQueryService().newQuery("select * from /portfolios p where p.ID < $1");
+
+    SelectResults one = (SelectResults) query.execute(new Object[] {1});
+    query.execute(new Object[] {2});
+    assertSame(one, query.execute(new Object[] {1}));
+    query.execute(new Object[] {3});
+    assertEquals(2, cache.getQueryResultCache().size());
+    assertSame(one, query.execute(new Object[] {1}));
+    assertEquals(2, cache.getQueryResultCache().size());
+  }
+
+  @Test
+  public void resultsOfPartitionedRegionsAreCachedUntilABucketChanges() throws Exception {
+    System.setProperty(QueryResultCache.SIZE_PROPERTY, "10");
+    createCache();
+    Region region = createRegion(RegionShortcut.PARTITION);
+    Query query = cache.getQueryService().newQuery("select * from /portfolios p where p.ID >= 5");
+
+    SelectResults results = (SelectResults) query.execute();
+    assertEquals(15, results.size());
+    assertSame(results, query.execute());
+    region.put(20, new Portfolio(20));
+    verifyNotCached(query, results, 16);
+  }
+
+  @Test
+  public void queriesWithMutableParametersAreNotCached() throws Exception {
+    System.setProperty(QueryResultCache.SIZE_PROPERTY, "10");
+    createCache();
+    Region region = createRegion(RegionShortcut.REPLICATE);
+    Query query = cache.getQueryService().newQuery("select * from $1 p where p.ID < 5");
+
+    Object results = query.execute(new Object[] {region.values()});
+    assertNotSame(results, query.execute(new Object[] {region.values()}));
+    assertEquals(0, cache.getQueryResultCache().size());
+    assertEquals(0, cache.getCachePerfStats().getQueryResultCacheMisses());
+  }
+
+  @Test
+  public void regionsWithAsynchronousIndexMaintenanceAreNotCached() throws Exception {
+    System.setProperty(QueryResultCache.SIZE_PROPERTY, "10");
+    createCache();
+    Region region = cache.createRegionFactory(RegionShortcut.REPLICATE)
+        .setIndexMaintenanceSynchronous(false).create("portfolios");
+    region.put(1, new Portfolio(1));
+    Query query = cache.getQueryService().newQuery("select * from /portfolios p where p.ID < 5");
+
+    Object results = query.execute();
+    assertNotSame(results, query.execute());
+    assertEquals(0, cache.getQueryResultCache().size());
+  }
+
+  @Test
+  public void resultsAreRemovedWhenTheirRegionIsDestroyed() throws Exception {
+    System.setProperty(QueryResultCache.SIZE_PROPERTY, "10");
+    createCache();
+    Region region = createRegion(RegionShortcut.REPLICATE);
+    Region partitioned = cache.createRegionFactory(RegionShortcut.PARTITION).create("partitioned");
+    partitioned.put(1, new Portfolio(1));
+    QueryService queryService = cache.getQueryService();
+    queryService.newQuery("select * from /portfolios p where p.ID < 5").execute();
+    queryService.newQuery("select * from /partitioned p where p.ID < 5").execute();
+    assertEquals(2, cache.getQueryResultCache().size());
+
+    region.destroyRegion();
+    assertEquals(1, cache.getQueryResultCache().size());
+    partitioned.destroyRegion();
+    assertEquals(0, cache.getQueryResultCache().size());
+  }
+
+  private SelectResults verifyNotCached(Query query, SelectResults previous, int expectedSize)
+      throws Exception {
+    SelectResults results = (SelectResults) query.execute();
+    assertNotSame(previous, results);
+    assertEquals(expectedSize, results.size());
+    assertSame(results, query.execute());
+    return results;
+  }
+
+  private void createCache() {
+    cache = (InternalCache) new CacheFactory().set(MCAST_PORT, "0").create();
+  }
+
+  private Region createRegion(RegionShortcut shortcut) {
+    Region region = cache.createRegionFactory(shortcut).create("portfolios");
+    for (int i = 0; i < 20; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    return region;
+  }
+}
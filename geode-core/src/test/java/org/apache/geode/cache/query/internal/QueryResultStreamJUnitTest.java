@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class QueryResultStreamJUnitTest {
+
+  @Test
+  public void resultsOfAllBatchesAreHandedOut() throws Exception {
+    TestSource source = new TestSource(3, 4);
+    QueryResultStream stream = new QueryResultStream(source, -1);
+
+    assertEquals(TypeUtils.OBJECT_TYPE, stream.getCollectionType().getElementType());
+    assertEquals(1, source.batches);
+    List results = new ArrayList();
+    while (stream.hasNext()) {
+      results.add(stream.next());
+    }
+
+    assertEquals(12, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(i, results.get(i));
+    }
+    assertTrue(stream.isClosed());
+    assertTrue(source.closed);
+  }
+
+  @Test
+  public void limitStopsBeforeLaterBatches() throws Exception {
+    TestSource source = new TestSource(10, 4);
+    QueryResultStream stream = new QueryResultStream(source, 6);
+
+    int count = 0;
+    while (stream.hasNext()) {
+      stream.next();
+      count++;
+    }
+
+    assertEquals(6, count);
+    assertEquals(2, source.batches);
+    assertTrue(source.closed);
+  }
+
+  @Test
+  public void closeStopsTheSource() throws Exception {
+    TestSource source = new TestSource(10, 4);
+    QueryResultStream stream = new QueryResultStream(source, -1);
+
+    stream.next();
+    stream.close();
+
+    assertFalse(stream.hasNext());
+    assertEquals(1, source.batches);
+    assertTrue(source.closed);
+  }
+
+  @Test
+  public void failureOfSourceClosesTheStream() throws Exception {
+    TestSource source = new TestSource(10, 4);
+    source.failAt = 2;
+    QueryResultStream stream = new QueryResultStream(source, -1);
+
+    try {
+      while (stream.hasNext()) {
+        stream.next();
+      }
+      fail("expected QueryInvocationTargetException");
+    } catch (QueryInvocationTargetException expected) {
+      // expected
+    }
+    assertTrue(stream.isClosed());
+    assertTrue(source.closed);
+  }
+
+  @Test
+  public void emptyBatchesAreSkipped() throws Exception {
+    TestSource source = new TestSource(3, 0);
+    QueryResultStream stream = new QueryResultStream(source, -1);
+
+    assertFalse(stream.hasNext());
+    assertEquals(3, source.batches);
+    assertNotNull(stream.getCollectionType());
+  }
+
+  private static class TestSource implements QueryResultStream.BatchSource {
+    private final int numBatches;
+
+    private final int batchSize;
+
+    int batches;
+
+    int failAt = -1;
+
+    boolean closed;
+
+    TestSource(int numBatches, int batchSize) {
+      this.numBatches = numBatches;
+      this.batchSize = batchSize;
+    }
+
+    @Override
+    public SelectResults nextBatch() throws QueryException {
+      assertFalse(this.closed);
+      if (this.batches == this.numBatches) {
+        return null;
+      }
+      if (this.batches == this.failAt) {
+        throw new QueryInvocationTargetException("failed");
+      }
+      ResultsBag batch = new ResultsBag();
+      batch.setElementType(TypeUtils.OBJECT_TYPE);
+      for (int i = 0; i < this.batchSize; i++) {
+        batch.add(this.batches * this.batchSize + i);
+      }
+      this.batches++;
+      return batch;
+    }
+
+    @Override
+    public void close() {
+      this.closed = true;
+    }
+  }
+}
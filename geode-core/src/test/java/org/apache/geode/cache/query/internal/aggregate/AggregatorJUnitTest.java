@@ -78,6 +78,29 @@ public class AggregatorJUnitTest {
     assertEquals(11, ((Number) sum.terminate()).intValue());
   }
 
+  @Test
+  public void testSumOfLongsIsExact() throws Exception {
+    Sum sum = new Sum();
+    sum.accumulate(Long.MAX_VALUE - 10);
+    sum.accumulate(new Integer(3));
+    sum.accumulate(new Short((short) 2));
+    assertEquals(Long.MAX_VALUE - 5, sum.terminate());
+  }
+
+  @Test
+  public void testSumSwitchesToDoubleOnOverflowOrFractions() throws Exception {
+    Sum sum = new Sum();
+    sum.accumulate(Long.MAX_VALUE);
+    sum.accumulate(Long.MAX_VALUE);
+    assertEquals(2.0 * Long.MAX_VALUE, ((Number) sum.terminate()).doubleValue(), 1e13);
+
+    sum = new Sum();
+    sum.accumulate(new Integer(1));
+    sum.accumulate(new Double(0.5));
+    sum.accumulate(new Integer(2));
+    assertEquals(3.5f, sum.terminate());
+  }
+
   @Test
   public void testSumDistinct() throws Exception {
     SumDistinct sum = new SumDistinct();
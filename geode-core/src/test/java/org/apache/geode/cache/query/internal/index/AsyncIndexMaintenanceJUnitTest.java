@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.cache.query.internal.index.IndexManager.IndexUpdaterThread;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Verifies the indexes of a region whose indexes are maintained asynchronously.
+ */
+@Category(IntegrationTest.class)
+public class AsyncIndexMaintenanceJUnitTest {
+
+  private Cache cache;
+
+  private Region region;
+
+  private QueryService qs;
+
+  @Before
+  public void setUp() throws Exception {
+    cache = new CacheFactory().set(MCAST_PORT, "0").create();
+    RegionFactory rf = cache.createRegionFactory(RegionShortcut.REPLICATE);
+    rf.setIndexMaintenanceSynchronous(false);
+    region = rf.create("portfolios");
+    qs = cache.getQueryService();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    cache.close();
+  }
+
+  @Test
+  public void compactRangeAndHashIndexesCanBeMaintainedAsynchronously() throws Exception {
+    Index idIndex = qs.createIndex("idIndex", "ID", "/portfolios");
+    Index statusIndex = qs.createHashIndex("statusIndex", "status", "/portfolios");
+    assertTrue(idIndex instanceof CompactRangeIndex);
+    assertTrue(statusIndex instanceof HashIndex);
+
+    for (int i = 0; i < 1000; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    waitUntilProcessed();
+
+    assertEquals(1000, idIndex.getStatistics().getNumberOfValues());
+    assertEquals(1000, statusIndex.getStatistics().getNumberOfValues());
+    assertEquals(100, query("select * from /portfolios where ID < 100").size());
+    assertEquals(500, query("select * from /portfolios where status = 'active'").size());
+  }
+
+  @Test
+  public void repeatedChangesOfAnEntryLeaveTheIndexConsistent() throws Exception {
+    Index idIndex = qs.createIndex("idIndex", "ID", "/portfolios");
+
+    for (int round = 0; round < 20; round++) {
+      for (int i = 0; i < 100; i++) {
+        region.put(i, new Portfolio(i + round * 100));
+        if (round % 3 == 2) {
+          region.destroy(i);
+        }
+      }
+    }
+    waitUntilProcessed();
+
+    // the last round put ids 1900 to 1999
+    assertEquals(100, idIndex.getStatistics().getNumberOfValues());
+    assertEquals(100, query("select * from /portfolios where ID >= 1900").size());
+    assertEquals(0, query("select * from /portfolios where ID < 1900").size());
+  }
+
+  @Test
+  public void queriesReturnTheCurrentValuesWhileUpdatesArePending() throws Exception {
+    qs.createIndex("idIndex", "ID", "/portfolios");
+
+    for (int i = 0; i < 1000; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    for (int i = 0; i < 1000; i++) {
+      region.put(i, new Portfolio(i + 1000));
+    }
+    // entries whose update is pending are evaluated again, so stale keys are filtered out
+    for (Object value : query("select * from /portfolios where ID < 1000")) {
+      assertTrue(((Portfolio) value).getID() < 1000);
+    }
+    waitUntilProcessed();
+    assertEquals(0, query("select * from /portfolios where ID < 1000").size());
+  }
+
+  private void waitUntilProcessed() throws InterruptedException {
+    IndexUpdaterThread updater = ((LocalRegion) region).getIndexManager().getUpdaterThread();
+    assertTrue(updater.waitUntilProcessed(60000));
+    assertTrue(updater.isDone());
+  }
+
+  private SelectResults query(String queryString) throws Exception {
+    return (SelectResults) qs.newQuery(queryString).execute();
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.junit.Assert.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Verifies that the conditions of an AND junction on the expressions of a composite index are
+ * answered with a single lookup of that index.
+ */
+@Category(IntegrationTest.class)
+public class CompositeIndexJUnitTest {
+
+  private Cache cache;
+
+  private QueryService qs;
+
+  @Before
+  public void setUp() throws Exception {
+    cache = new CacheFactory().set(MCAST_PORT, "0").create();
+    qs = cache.getQueryService();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    cache.close();
+  }
+
+  @Test
+  public void equalityAndRangeConditionsUseTheCompositeIndex() throws Exception {
+    Region region = createRegion(RegionShortcut.REPLICATE);
+    Index index = qs.createIndex("statusTs", "t.status, t.ts", "/trades t");
+    assertEquals(CompactRangeIndex.class, index.getClass());
+
+    assertEquals(5,
+        query("select * from /trades t where t.status = 'open' and t.ts >= 10 and t.ts < 20")
+            .size());
+    assertEquals(1, index.getStatistics().getTotalUses());
+    assertEquals(50,
+        query("select * from /trades t where t.ts > 100 and t.status = 'closed' and t.id > 2")
+            .size());
+    assertEquals(2, index.getStatistics().getTotalUses());
+    // only the leading expression is constrained
+    assertEquals(100,
+        query("select * from /trades t where t.status = 'open' and t.id >= 0").size());
+    assertEquals(3, index.getStatistics().getTotalUses());
+    // the conditions do not constrain the leading expression
+    assertEquals(10, query("select * from /trades t where t.ts < 10 and t.id >= 0").size());
+    assertEquals(3, index.getStatistics().getTotalUses());
+
+    region.put(11, new Trade(11, "open", 15));
+    region.destroy(12);
+    SelectResults results =
+        query("select t.id from /trades t where t.status = 'open' and t.ts >= 10 and t.ts < 20");
+    assertEquals(5, results.size());
+    assertTrue(results.contains(11));
+    assertFalse(results.contains(12));
+  }
+
+  @Test
+  public void boundsOfTheRangeAreHonored() throws Exception {
+    createRegion(RegionShortcut.REPLICATE);
+    qs.createIndex("statusTs", "t.status, t.ts", "/trades t");
+
+    assertEquals(0,
+        query("select * from /trades t where t.status = 'open' and t.ts > 20 and t.ts < 10")
+            .size());
+    assertEquals(2,
+        query("select * from /trades t where t.status = 'open' and t.ts > 10 and t.ts <= 14")
+            .size());
+    assertEquals(3,
+        query("select * from /trades t where t.status = 'open' and t.ts >= 10 and t.ts <= 14")
+            .size());
+    assertEquals(0,
+        query("select * from /trades t where t.status = 'pending' and t.ts >= 0").size());
+    SelectResults results = (SelectResults) qs
+        .newQuery("select * from /trades t where t.status = $1 and t.ts <= $2")
+        .execute(new Object[] {"closed", 9});
+    assertEquals(5, results.size());
+  }
+
+  @Test
+  public void orderByOnTheRangeExpressionIsAppliedByTheIndex() throws Exception {
+    createRegion(RegionShortcut.REPLICATE);
+    qs.createIndex("statusTs", "t.status, t.ts", "/trades t");
+
+    SelectResults results = query("select distinct * from /trades t "
+        + "where t.status = 'open' and t.ts > 150 order by t.ts desc");
+    assertEquals(24, results.size());
+    List<Integer> timestamps = new ArrayList<>();
+    for (Object trade : results) {
+      timestamps.add(((Trade) trade).getTs());
+    }
+    for (int i = 1; i < timestamps.size(); i++) {
+      assertTrue(timestamps.get(i - 1) > timestamps.get(i));
+    }
+  }
+
+  @Test
+  public void compositeIndexOnPartitionedRegion() throws Exception {
+    createRegion(RegionShortcut.PARTITION);
+    Index index = qs.createIndex("statusTs", "t.status, t.ts", "/trades t");
+
+    assertEquals(5,
+        query("select * from /trades t where t.status = 'open' and t.ts >= 10 and t.ts < 20")
+            .size());
+    assertTrue(index.getStatistics().getTotalUses() > 0);
+  }
+
+  private Region createRegion(RegionShortcut shortcut) {
+    Region region = cache.createRegionFactory(shortcut).create("trades");
+    for (int i = 0; i < 200; i++) {
+      region.put(i, new Trade(i, i % 2 == 0 ? "open" : "closed", i));
+    }
+    return region;
+  }
+
+  private SelectResults query(String queryString) throws Exception {
+    return (SelectResults) qs.newQuery(queryString).execute();
+  }
+
+  public static class Trade implements Serializable {
+    private final int id;
+    private final String status;
+    private final int ts;
+
+    public Trade(int id, String status, int ts) {
+      this.id = id;
+      this.status = status;
+      this.ts = ts;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public String getStatus() {
+      return status;
+    }
+
+    public int getTs() {
+      return ts;
+    }
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.distributed.ConfigurationProperties.CACHE_XML_FILE;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.IndexType;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.Struct;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.VersionedDataInputStream;
+import org.apache.geode.internal.cache.xmlcache.CacheXmlGenerator;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Verifies that queries whose projections only read the covered fields of a compact range index
+ * are answered from the index.
+ */
+@Category(IntegrationTest.class)
+public class CoveringIndexJUnitTest {
+
+  private static final AtomicInteger fieldReads = new AtomicInteger();
+
+  private static final String[] COVERED_FIELDS = {"id", "status"};
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Cache cache;
+
+  private Region region;
+
+  private QueryService qs;
+
+  @Before
+  public void setUp() throws Exception {
+    cache = new CacheFactory().set(MCAST_PORT, "0").create();
+    region = cache.createRegionFactory(RegionShortcut.REPLICATE).create("items");
+    qs = cache.getQueryService();
+    for (int i = 0; i < 100; i++) {
+      region.put(i, new Item(i, i % 2 == 0 ? "active" : "inactive"));
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    cache.close();
+  }
+
+  @Test
+  public void coveredProjectionsDoNotReadTheValues() throws Exception {
+    Index index = qs.createIndex("idIndex", "p.id", "/items p", null, COVERED_FIELDS);
+    assertTrue(index instanceof CompactRangeIndex);
+    assertArrayEquals(COVERED_FIELDS, ((CompactRangeIndex) index).getCoveredFields());
+
+    fieldReads.set(0);
+    SelectResults results = query("select p.id, p.status from /items p where p.id < 10");
+    assertEquals(10, results.size());
+    Set<Object> ids = new HashSet<>();
+    for (Object result : results) {
+      Struct struct = (Struct) result;
+      int id = (Integer) struct.get("id");
+      ids.add(id);
+      assertEquals(id % 2 == 0 ? "active" : "inactive", struct.get("status"));
+    }
+    assertEquals(10, ids.size());
+
+    results = query("select status from /items where id >= 95");
+    assertEquals(5, results.size());
+    assertTrue(results.contains("active"));
+    assertTrue(results.contains("inactive"));
+    assertEquals(0, fieldReads.get());
+
+    // a projection of a field that is not covered reads the values
+    results = query("select p.id, p.name from /items p where p.id < 10");
+    assertEquals(10, results.size());
+    assertTrue(fieldReads.get() > 0);
+  }
+
+  @Test
+  public void coveredValuesFollowTheEntries() throws Exception {
+    qs.createIndex("idIndex", "p.id", "/items p", null, COVERED_FIELDS);
+
+    region.put(3, new Item(3, "closed"));
+    region.destroy(4);
+    region.invalidate(5);
+
+    fieldReads.set(0);
+    SelectResults results = query("select p.id, p.status from /items p where p.id < 10");
+    assertEquals(8, results.size());
+    for (Object result : results) {
+      Struct struct = (Struct) result;
+      int id = (Integer) struct.get("id");
+      assertNotEquals(4, id);
+      assertNotEquals(5, id);
+      if (id == 3) {
+        assertEquals("closed", struct.get("status"));
+      }
+    }
+    assertEquals(0, fieldReads.get());
+  }
+
+  @Test
+  public void indexesWithoutCoveredFieldsReadTheValues() throws Exception {
+    qs.createIndex("statusIndex", "p.status", "/items p");
+
+    fieldReads.set(0);
+    SelectResults results = query("select p.id from /items p where p.status = 'active'");
+    assertEquals(50, results.size());
+    assertTrue(fieldReads.get() > 0);
+  }
+
+  @Test
+  public void bucketIndexesKeepTheCoveredFieldsOfThePartitionedIndex() throws Exception {
+    Region partitioned = cache.createRegionFactory(RegionShortcut.PARTITION).create("pitems");
+    for (int i = 0; i < 50; i++) {
+      partitioned.put(i, new Item(i, i % 2 == 0 ? "active" : "inactive"));
+    }
+    Index index = qs.createIndex("pidIndex", "p.id", "/pitems p", null, COVERED_FIELDS);
+    assertTrue(index instanceof PartitionedIndex);
+    assertArrayEquals(COVERED_FIELDS, ((PartitionedIndex) index).getCoveredFields());
+    // buckets created after the index get bucket indexes covering the same fields
+    for (int i = 50; i < 100; i++) {
+      partitioned.put(i, new Item(i, i % 2 == 0 ? "active" : "inactive"));
+    }
+    for (Object bucketIndex : ((PartitionedIndex) index).getBucketIndexes()) {
+      assertArrayEquals(COVERED_FIELDS, ((AbstractIndex) bucketIndex).getCoveredFields());
+    }
+
+    fieldReads.set(0);
+    SelectResults results = query("select p.id, p.status from /pitems p where p.id >= 90");
+    assertEquals(10, results.size());
+    assertEquals(0, fieldReads.get());
+  }
+
+  @Test
+  public void coveredFieldsAreKeptInCacheXml() throws Exception {
+    cache.createRegionFactory(RegionShortcut.REPLICATE).create("xmlitems");
+    qs.createIndex("xmlIndex", "p.id", "/xmlitems p", null, COVERED_FIELDS);
+    File cacheXml = temporaryFolder.newFile("cache.xml");
+    try (PrintWriter pw = new PrintWriter(new FileWriter(cacheXml))) {
+      CacheXmlGenerator.generate(cache, pw, true, false, false);
+    }
+    assertTrue(new String(Files.readAllBytes(cacheXml.toPath()))
+        .contains("covered-fields=\"id,status\""));
+    cache.close();
+
+    cache = new CacheFactory().set(MCAST_PORT, "0").set(CACHE_XML_FILE, cacheXml.getAbsolutePath())
+        .create();
+    Index index = cache.getQueryService().getIndex(cache.getRegion("xmlitems"), "xmlIndex");
+    assertArrayEquals(COVERED_FIELDS, ((AbstractIndex) index).getCoveredFields());
+  }
+
+  @Test
+  public void coveredFieldsAreSentWithTheIndexDefinition() throws Exception {
+    IndexCreationData icd = new IndexCreationData("idIndex");
+    icd.setIndexData(IndexType.FUNCTIONAL, "/items p", "p.id", null, true);
+    icd.setCoveredFields(COVERED_FIELDS);
+
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(icd, out);
+    IndexCreationData copy = DataSerializer.readObject(
+        new VersionedDataInputStream(new ByteArrayInputStream(out.toByteArray()), Version.CURRENT));
+    assertEquals("p.id", copy.getIndexExpression());
+    assertArrayEquals(COVERED_FIELDS, copy.getCoveredFields());
+
+    // members of older versions do not know about covered fields
+    out = new HeapDataOutputStream(Version.GEODE_130);
+    DataSerializer.writeObject(icd, out);
+    copy = DataSerializer.readObject(new VersionedDataInputStream(
+        new ByteArrayInputStream(out.toByteArray()), Version.GEODE_130));
+    assertEquals("p.id", copy.getIndexExpression());
+    assertNull(copy.getCoveredFields());
+  }
+
+  private SelectResults query(String queryString) throws Exception {
+    return (SelectResults) qs.newQuery(queryString).execute();
+  }
+
+  public static class Item implements Serializable {
+    private final int id;
+    private final String status;
+
+    public Item(int id, String status) {
+      this.id = id;
+      this.status = status;
+    }
+
+    public int getId() {
+      fieldReads.incrementAndGet();
+      return id;
+    }
+
+    public String getStatus() {
+      fieldReads.incrementAndGet();
+      return status;
+    }
+
+    public String getName() {
+      fieldReads.incrementAndGet();
+      return "item" + id;
+    }
+  }
+}
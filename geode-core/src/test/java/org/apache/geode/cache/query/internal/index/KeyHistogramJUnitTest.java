@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class KeyHistogramJUnitTest {
+
+  private final TreeMap<Object, Integer> keys = new TreeMap<>();
+
+  private final AtomicInteger scans = new AtomicInteger();
+
+  private final Queue<Runnable> backgroundTasks = new ArrayDeque<>();
+
+  private final KeyHistogram histogram = new KeyHistogram(builder -> {
+    scans.incrementAndGet();
+    for (Map.Entry<Object, Integer> entry : keys.entrySet()) {
+      if (!builder.add(entry.getKey(), entry.getValue())) {
+        return;
+      }
+    }
+  }, backgroundTasks::add, 10000);
+
+  @Test
+  public void emptyIndexEstimatesNoEntries() {
+    assertEquals(0, histogram.estimate(5, TOK_LT));
+    assertEquals(0, histogram.estimate(5, TOK_GE));
+  }
+
+  @Test
+  public void estimatesOfUniformKeysAreCloseToExact() {
+    for (int i = 0; i < 10000; i++) {
+      keys.put(i, 1);
+    }
+    assertWithin(1000, histogram.estimate(1000, TOK_LT), 10000 / KeyHistogram.NUM_BUCKETS);
+    assertWithin(9000, histogram.estimate(1000, TOK_GE), 10000 / KeyHistogram.NUM_BUCKETS);
+    assertEquals(0, histogram.estimate(-1, TOK_LT));
+    assertEquals(10000, histogram.estimate(10000, TOK_LT));
+    assertEquals(10000, histogram.estimate(9999, TOK_LE));
+    assertEquals(0, histogram.estimate(9999, TOK_GT));
+  }
+
+  @Test
+  public void estimatesOfSkewedKeysFollowTheEntries() {
+    // most of the entries have one of a few small keys, and a few have large ones
+    for (int i = 0; i < 10; i++) {
+      keys.put(i, 1000);
+    }
+    for (int i = 10; i < 10000; i++) {
+      keys.put(i * 100, 1);
+    }
+    int total = 10000 + 9990;
+    int below = histogram.estimate(10, TOK_LT);
+    assertWithin(10000, below, 2 * total / KeyHistogram.NUM_BUCKETS);
+    assertWithin(5000, histogram.estimate(5, TOK_LT), 2 * total / KeyHistogram.NUM_BUCKETS);
+    assertEquals(total, histogram.estimate(10, TOK_GE) + below);
+  }
+
+  @Test
+  public void estimatesBoundedRanges() {
+    for (int i = 0; i < 10000; i++) {
+      keys.put(i, 2);
+    }
+    assertWithin(2000, histogram.estimate(1000, TOK_GE, 2000, TOK_LT),
+        20000 / KeyHistogram.NUM_BUCKETS);
+    assertEquals(0, histogram.estimate(2000, TOK_GT, 1000, TOK_LT));
+  }
+
+  @Test
+  public void estimatesKeysThatAreNotNumbers() {
+    for (int i = 0; i < 1000; i++) {
+      keys.put(String.format("key%04d", i), 1);
+    }
+    assertWithin(250, histogram.estimate("key0250", TOK_LT), 2 * 1000 / KeyHistogram.NUM_BUCKETS);
+    assertEquals(0, histogram.estimate("a", TOK_LE));
+    assertEquals(1000, histogram.estimate("z", TOK_LE));
+  }
+
+  @Test
+  public void keysNotComparableToTheIndexKeysCanNotBeEstimated() {
+    keys.put("a", 1);
+    keys.put("b", 1);
+    assertEquals(-1, histogram.estimate(new Object(), TOK_LT));
+  }
+
+  @Test
+  public void rebuildsOnlyAfterEnoughChanges() {
+    for (int i = 0; i < 10000; i++) {
+      keys.put(i, 1);
+    }
+    histogram.estimate(10, TOK_LT);
+    assertEquals(1, scans.get());
+
+    for (int i = 10000; i < 10500; i++) {
+      keys.put(i, 1);
+      histogram.changed(1);
+    }
+    assertEquals(10000, histogram.estimate(20000, TOK_LT));
+    assertEquals(1, scans.get());
+
+    for (int i = 10500; i < 11000; i++) {
+      keys.put(i, 1);
+      histogram.changed(1);
+    }
+    assertEquals(10000, histogram.estimate(20000, TOK_LT));
+    assertEquals(1, scans.get());
+    assertEquals(1, backgroundTasks.size());
+
+    backgroundTasks.remove().run();
+    assertEquals(2, scans.get());
+    assertEquals(11000, histogram.estimate(20000, TOK_LT));
+
+    keys.clear();
+    histogram.clear();
+    assertEquals(0, histogram.estimate(20000, TOK_LT));
+    assertEquals(3, scans.get());
+  }
+
+  @Test
+  public void largeIndexIsScannedInTheBackground() {
+    for (int i = 0; i < 20000; i++) {
+      keys.put(i, 1);
+    }
+    assertEquals(-1, histogram.estimate(10, TOK_LT));
+    assertEquals(-1, histogram.estimate(10, TOK_LT));
+    assertEquals(1, backgroundTasks.size());
+
+    backgroundTasks.remove().run();
+    assertEquals(2, scans.get());
+    assertWithin(10000, histogram.estimate(10000, TOK_LT), 100);
+    assertTrue(backgroundTasks.isEmpty());
+  }
+
+  @Test
+  public void scanStartedBeforeClearIsNotUsed() {
+    for (int i = 0; i < 20000; i++) {
+      keys.put(i, 1);
+    }
+    histogram.estimate(10, TOK_LT);
+    histogram.clear();
+    backgroundTasks.remove().run();
+
+    keys.clear();
+    assertEquals(0, histogram.estimate(10, TOK_LT));
+  }
+
+  private static void assertWithin(int expected, int actual, int delta) {
+    assertTrue("expected " + expected + " +/- " + delta + " but was " + actual,
+        Math.abs(expected - actual) <= delta);
+  }
+}
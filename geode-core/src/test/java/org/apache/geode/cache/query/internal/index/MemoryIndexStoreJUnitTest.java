@@ -29,6 +29,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionAttributes;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.internal.index.AbstractIndex.InternalIndexStatistics;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
@@ -50,7 +51,11 @@ public class MemoryIndexStoreJUnitTest {
   protected void subclassPreSetup() {}
 
   protected Region createRegion() {
-    return mock(LocalRegion.class);
+    Region region = mock(LocalRegion.class);
+    RegionAttributes ra = mock(RegionAttributes.class);
+    when(region.getAttributes()).thenReturn(ra);
+    when(ra.getIndexMaintenanceSynchronous()).thenReturn(true);
+    return region;
   }
 
   @Before
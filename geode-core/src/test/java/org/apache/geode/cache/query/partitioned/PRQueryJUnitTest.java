@@ -14,10 +14,15 @@
  */
 package org.apache.geode.cache.query.partitioned;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -32,6 +37,8 @@ import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.data.PortfolioData;
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.cache.query.internal.QueryResultStream;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.cache.PartitionedRegionTestHelper;
 import org.apache.geode.test.junit.categories.IntegrationTest;
@@ -178,6 +185,56 @@ public class PRQueryJUnitTest {
    * @param region
    * @param data
    */
+  /**
+   * Tests that the results of a query on a PartitionedRegion can be streamed a few buckets at a
+   * time, that a LIMIT stops the stream and that queries that can not be streamed still work.
+   */
+  @Test
+  public void testStreamingQueryOnSingleDataStore() throws Exception {
+    Region region = PartitionedRegionTestHelper.createPartitionedRegion(regionName, "100", 0);
+    PortfolioData[] portfolios = new PortfolioData[100];
+    for (int j = 0; j < 100; j++) {
+      portfolios[j] = new PortfolioData(j);
+    }
+    try {
+      populateData(region, portfolios);
+      QueryService queryService = region.getCache().getQueryService();
+
+      DefaultQuery query = (DefaultQuery) queryService
+          .newQuery("select * from /" + region.getName() + " p where p.ID >= 10");
+      assertTrue(query.isStreamable());
+      QueryResultStream results = query.executeStreaming(new Object[0]);
+      Set ids = new HashSet();
+      while (results.hasNext()) {
+        ids.add(((PortfolioData) results.next()).getID());
+      }
+      assertEquals(90, ids.size());
+      assertTrue(results.isClosed());
+
+      query = (DefaultQuery) queryService
+          .newQuery("select p.ID from /" + region.getName() + " p where p.ID >= 10 limit 5");
+      results = query.executeStreaming(new Object[0]);
+      int count = 0;
+      while (results.hasNext()) {
+        results.next();
+        count++;
+      }
+      assertEquals(5, count);
+      assertTrue(results.isClosed());
+
+      query = (DefaultQuery) queryService
+          .newQuery("select p.ID from /" + region.getName() + " p where p.ID >= $1 order by p.ID");
+      assertFalse(query.isStreamable());
+      results = query.executeStreaming(new Object[] {10});
+      for (int id = 10; id < 100; id++) {
+        assertEquals(id, results.next());
+      }
+      assertFalse(results.hasNext());
+    } finally {
+      region.close();
+    }
+  }
+
   private void populateData(Region region, Object[] data) {
     for (int j = 0; j < data.length; j++) {
       region.put(new Integer(j), data[j]);
@@ -14,8 +14,11 @@
  */
 package org.apache.geode.cache.query.partitioned;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.Serializable;
 import java.util.HashMap;
 
 import org.junit.Before;
@@ -25,10 +28,14 @@ import org.junit.experimental.categories.Category;
 import org.apache.geode.LogWriter;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryExecutionTimeoutException;
 import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.data.PortfolioData;
 import org.apache.geode.internal.Assert;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.PRQueryProcessor;
+import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.PartitionedRegionTestHelper;
 import org.apache.geode.test.junit.categories.IntegrationTest;
 
@@ -137,6 +144,95 @@ public class PRQueryNumThreadsJUnitTest {
     }
   }
 
+  @Test
+  public void testLimitAndGroupByQueries() throws Exception {
+    Region region = PartitionedRegionTestHelper.createPartitionedRegion(regionName, "100", 0);
+    PortfolioData[] portfolios = new PortfolioData[100];
+    for (int j = 0; j < 100; j++) {
+      portfolios[j] = new PortfolioData(j);
+    }
+    PRQueryProcessor.TEST_NUM_THREADS = 10;
+    try {
+      populateData(region, portfolios);
+
+      String queryString = "select * from /" + region.getName() + " p where p.ID >= 0 limit 7";
+      Query query = region.getCache().getQueryService().newQuery(queryString);
+      SelectResults sr = (SelectResults) query.execute();
+      assertEquals(7, sr.size());
+
+      // consecutive ids are in different buckets, so every type spans buckets scanned by
+      // different threads
+      assertTrue(((PartitionedRegion) region).getDataStore().getAllLocalBucketIds()
+          .size() > PRQueryProcessor.TEST_NUM_THREADS);
+      queryString = "select p.getType() as t, count(*), sum(p.ID) from /" + region.getName()
+          + " p group by t order by t";
+      query = region.getCache().getQueryService().newQuery(queryString);
+      sr = (SelectResults) query.execute();
+      assertEquals(3, sr.size());
+      int[][] expected = {{34, 1683}, {33, 1617}, {33, 1650}};
+      int i = 0;
+      for (Object r : sr.asList()) {
+        Object[] fields = ((Struct) r).getFieldValues();
+        assertEquals("type" + i, fields[0]);
+        assertEquals(expected[i][0], ((Number) fields[1]).intValue());
+        assertEquals(expected[i][1], ((Number) fields[2]).intValue());
+        i++;
+      }
+
+      queryString = "select p.status, p.getType() as t, count(*) from /" + region.getName()
+          + " p where p.ID < 60 group by p.status, t";
+      query = region.getCache().getQueryService().newQuery(queryString);
+      sr = (SelectResults) query.execute();
+      assertEquals(6, sr.size());
+      for (Object r : sr.asList()) {
+        assertEquals(10, ((Number) ((Struct) r).getFieldValues()[2]).intValue());
+      }
+    } finally {
+      PRQueryProcessor.TEST_NUM_THREADS = 0;
+      region.close();
+    }
+  }
+
+  @Test
+  public void canceledQueryDoesNotWaitForTheBucketScan() throws Exception {
+    Region region = PartitionedRegionTestHelper.createPartitionedRegion(regionName, "100", 0);
+    GemFireCacheImpl cache = (GemFireCacheImpl) region.getCache();
+    for (int j = 0; j < 10; j++) {
+      region.put(j, new SlowValue(j == 0 ? 5000 : 0));
+    }
+    PRQueryProcessor.TEST_NUM_THREADS = 10;
+    cache.testMaxQueryExecutionTime = 1000;
+    try {
+      Query query = cache.getQueryService()
+          .newQuery("select * from /" + region.getName() + " p where p.isSlow()");
+      long start = System.currentTimeMillis();
+      try {
+        query.execute();
+        fail("Expected the query to be canceled");
+      } catch (QueryExecutionTimeoutException expected) {
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("query returned after " + elapsed + " ms", elapsed < 4000);
+      }
+    } finally {
+      cache.testMaxQueryExecutionTime = -1;
+      PRQueryProcessor.TEST_NUM_THREADS = 0;
+      region.close();
+    }
+  }
+
+  public static class SlowValue implements Serializable {
+    private final long sleepMillis;
+
+    public SlowValue(long sleepMillis) {
+      this.sleepMillis = sleepMillis;
+    }
+
+    public boolean isSlow() throws InterruptedException {
+      Thread.sleep(this.sleepMillis);
+      return this.sleepMillis > 0;
+    }
+  }
+
   /**
    * Populates the region with the Objects stores in the data Object array.
    *
@@ -17,6 +17,7 @@ package org.apache.geode.internal;
 import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
 import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Properties;
@@ -35,6 +36,7 @@ import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeapLongKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeapObjectKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeapStringKey1;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeapStringKey2;
+import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeapStringKey3;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryHeapUUIDKey;
 import org.apache.geode.test.junit.categories.IntegrationTest;
 
@@ -95,7 +97,15 @@ public class InlineKeyJUnitTest {
             lr.getRegionEntry(key) instanceof VMThinRegionEntryHeapStringKey2);
       }
 
-      key = getAsciiString(16);
+      for (int i = 16; i <= 23; i++) {
+        key = getAsciiString(i);
+        r.create(key, null);
+        assertEquals(true, r.containsKey(key));
+        assertTrue("expected string entry but was " + lr.getRegionEntry(key).getClass(),
+            lr.getRegionEntry(key) instanceof VMThinRegionEntryHeapStringKey3);
+      }
+
+      key = getAsciiString(24);
       r.create(key, null);
       assertEquals(true, r.containsKey(key));
       assertTrue("expected object entry but was " + lr.getRegionEntry(key).getClass(),
@@ -116,7 +126,15 @@ public class InlineKeyJUnitTest {
             lr.getRegionEntry(key) instanceof VMThinRegionEntryHeapStringKey2);
       }
 
-      key = getNonAsciiString(8);
+      for (int i = 8; i <= 11; i++) {
+        key = getNonAsciiString(i);
+        r.create(key, null);
+        assertEquals(true, r.containsKey(key));
+        assertTrue("expected string entry but was " + lr.getRegionEntry(key).getClass(),
+            lr.getRegionEntry(key) instanceof VMThinRegionEntryHeapStringKey3);
+      }
+
+      key = getNonAsciiString(12);
       r.create(key, null);
       assertEquals(true, r.containsKey(key));
       assertTrue("expected object entry but was " + lr.getRegionEntry(key).getClass(),
@@ -127,6 +145,30 @@ public class InlineKeyJUnitTest {
     }
   }
 
+  @Test
+  public void testInlineKeysKeepAllCharacters() {
+    GemFireCacheImpl gfc = createCache();
+    try {
+      Region r = gfc.createRegionFactory(RegionShortcut.LOCAL).setConcurrencyChecksEnabled(false)
+          .create("inlineKeyRegion");
+      LocalRegion lr = (LocalRegion) r;
+      String[] keys = {"abcdefghijklmnop", "abcdefghijklmnopqrstuvw",
+          "\u8881\u8882\u8883\u8884\u8885\u8886\u8887\u8888",
+          "\u8881\u8882\u8883\u8884\u8885\u8886\u8887\u8888\u8889\u888a\u888b"};
+      for (String key : keys) {
+        r.create(key, null);
+        assertTrue("expected string entry but was " + lr.getRegionEntry(key).getClass(),
+            lr.getRegionEntry(key) instanceof VMThinRegionEntryHeapStringKey3);
+        assertEquals(key, lr.getRegionEntry(key).getKey());
+        assertTrue(r.containsKey(key));
+        String lastCharChanged = key.substring(0, key.length() - 1) + 'x';
+        assertFalse(r.containsKey(lastCharChanged));
+      }
+    } finally {
+      closeCache(gfc);
+    }
+  }
+
   private static String getAsciiString(int len) {
     StringBuilder sb = new StringBuilder();
     char asciiChar = 'a';
@@ -180,5 +222,11 @@ public class InlineKeyJUnitTest {
     re2 = new VMThinRegionEntryHeapObjectKey(null, "123456789012345", null);
     // System.out.println("VMThinRegionEntryObjectKey=" + getMemSize(re2));
     assertTrue(getMemSize(re) < getMemSize(re2));
+
+    re = new VMThinRegionEntryHeapStringKey3(null, "12345678901234567890123", null, true);
+    // System.out.println("VMThinRegionEntryStringKey=" + getMemSize(re));
+    re2 = new VMThinRegionEntryHeapObjectKey(null, "12345678901234567890123", null);
+    // System.out.println("VMThinRegionEntryObjectKey=" + getMemSize(re2));
+    assertTrue(getMemSize(re) < getMemSize(re2));
   }
 }
@@ -23,9 +23,18 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.FilenameFilter;
+import java.io.PrintWriter;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
 
 import org.junit.After;
 import org.junit.Before;
@@ -41,6 +50,8 @@ import org.apache.geode.cache.DiskStoreFactory;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionShortcut;
 import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.internal.cache.xmlcache.CacheXmlGenerator;
+import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.test.junit.categories.IntegrationTest;
 
 /**
@@ -97,6 +108,8 @@ public class DiskStoreFactoryJUnitTest {
     assertEquals(DiskStoreFactory.DEFAULT_TIME_INTERVAL, ds.getTimeInterval());
     assertEquals(DiskStoreFactory.DEFAULT_WRITE_BUFFER_SIZE, ds.getWriteBufferSize());
     assertEquals(DiskStoreFactory.DEFAULT_QUEUE_SIZE, ds.getQueueSize());
+    assertEquals(DiskStoreFactory.DEFAULT_GROUP_COMMIT_MAX_LATENCY,
+        ds.getGroupCommitMaxLatency());
     if (!Arrays.equals(DiskStoreFactory.DEFAULT_DISK_DIRS, ds.getDiskDirs())) {
       fail("expected=" + Arrays.toString(DiskStoreFactory.DEFAULT_DISK_DIRS) + " had="
           + Arrays.toString(ds.getDiskDirs()));
@@ -183,6 +196,115 @@ public class DiskStoreFactoryJUnitTest {
     }
   }
 
+  @Test
+  public void testGroupCommitMaxLatency() {
+    DiskStoreFactory dsf = cache.createDiskStoreFactory();
+    String name = "testGroupCommitMaxLatency";
+    DiskStore ds = dsf.setGroupCommitMaxLatency(0).create(name);
+    assertEquals(0, ds.getGroupCommitMaxLatency());
+    name = "testGroupCommitMaxLatency2";
+    ds = dsf.setGroupCommitMaxLatency(5).create(name);
+    assertEquals(5, ds.getGroupCommitMaxLatency());
+  }
+
+  @Test
+  public void testGroupCommitMaxLatencyIsKeptInCacheXml() throws Exception {
+    String name = "testGroupCommitMaxLatencyIsKeptInCacheXml";
+    DiskStore diskStore = cache.createDiskStoreFactory().setGroupCommitMaxLatency(5).create(name);
+    File cacheXml = new File(name + ".xml");
+    try {
+      try (PrintWriter pw = new PrintWriter(new FileWriter(cacheXml))) {
+        CacheXmlGenerator.generate(cache, pw, true, false, false);
+      }
+      assertTrue(new String(Files.readAllBytes(cacheXml.toPath()))
+          .contains("group-commit-max-latency=\"5\""));
+      cache.close();
+
+      Properties xmlProps = new Properties();
+      xmlProps.putAll(props);
+      xmlProps.setProperty(CACHE_XML_FILE, cacheXml.getAbsolutePath());
+      cache = new CacheFactory(xmlProps).create();
+      assertEquals(5, cache.findDiskStore(name).getGroupCommitMaxLatency());
+      cache.findDiskStore(name).destroy();
+    } finally {
+      cacheXml.delete();
+      removeFiles(diskStore);
+    }
+  }
+
+  @Test
+  public void testGroupCommitWritesAreRecovered() {
+    DiskStoreFactory dsf = cache.createDiskStoreFactory();
+    String name = "testGroupCommitWritesAreRecovered";
+    DiskStore diskStore = dsf.setGroupCommitMaxLatency(0).create(name);
+    Region region = cache.createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setDiskStoreName(name).create("region");
+    for (int i = 0; i < 100; i++) {
+      region.put(i, "value" + i);
+    }
+    region.destroy(0);
+    DiskStoreStats stats = ((DiskStoreImpl) diskStore).getStats();
+    assertTrue(stats.getGroupCommits() > 0);
+    assertEquals(101, stats.getGroupCommittedWrites());
+    cache.close();
+
+    cache = createCache();
+    cache.createDiskStoreFactory().setGroupCommitMaxLatency(0).create(name);
+    region = cache.createRegionFactory(RegionShortcut.LOCAL_PERSISTENT).setDiskStoreName(name)
+        .create("region");
+    assertEquals(99, region.size());
+    assertEquals("value99", region.get(99));
+    region.destroyRegion();
+    removeFiles(diskStore);
+  }
+
+  @Test
+  public void testGroupCommitIsForcedWhenOplogIsSwitched() throws Exception {
+    DiskStoreFactory dsf = cache.createDiskStoreFactory();
+    String name = "testGroupCommitIsForcedWhenOplogIsSwitched";
+    DiskStoreImpl diskStore = (DiskStoreImpl) dsf.setGroupCommitMaxLatency(5000).create(name);
+    Region region = cache.createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setDiskStoreName(name).create("region");
+    Region puttingRegion = region;
+    Oplog oplog = diskStore.getPersistentOplogSet().getChild();
+    long oplogSize = oplog.getOplogSize();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // the put leads the group commit and waits for the max latency before forcing
+      Future<?> put = executor.submit(() -> puttingRegion.put("key", "value"));
+      Awaitility.await().atMost(30, TimeUnit.SECONDS)
+          .until(() -> oplog.getOplogSize() > oplogSize);
+      diskStore.forceRoll();
+      Awaitility.await().atMost(30, TimeUnit.SECONDS).until(() -> !oplog.isRAFOpen());
+      assertFalse(put.isDone());
+      put.get(30, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+    cache.close();
+
+    cache = createCache();
+    cache.createDiskStoreFactory().create(name);
+    region = cache.createRegionFactory(RegionShortcut.LOCAL_PERSISTENT).setDiskStoreName(name)
+        .create("region");
+    assertEquals("value", region.get("key"));
+    region.destroyRegion();
+    removeFiles(diskStore);
+  }
+
+  @Test
+  public void testDeserializedAttributesKeepGroupCommitMaxLatency() throws Exception {
+    DiskStoreAttributes attributes = new DiskStoreAttributes();
+    assertEquals(DiskStoreFactory.DEFAULT_GROUP_COMMIT_MAX_LATENCY,
+        ((DiskStoreAttributes) BlobHelper.deserializeBlob(BlobHelper.serializeToBlob(attributes)))
+            .getGroupCommitMaxLatency());
+    attributes.groupCommitMaxLatency = 5;
+    assertEquals(5,
+        ((DiskStoreAttributes) BlobHelper.deserializeBlob(BlobHelper.serializeToBlob(attributes)))
+            .getGroupCommitMaxLatency());
+  }
+
   @Test
   public void testTimeInterval() {
     DiskStoreFactory dsf = cache.createDiskStoreFactory();
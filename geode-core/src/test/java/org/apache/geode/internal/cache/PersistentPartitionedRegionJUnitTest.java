@@ -17,6 +17,7 @@ package org.apache.geode.internal.cache;
 import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
 import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
@@ -205,6 +206,59 @@ public class PersistentPartitionedRegionJUnitTest {
     assertEquals(1000, bucket.getDiskRegion().getStats().getNumEntriesInVM());
   }
 
+  @Test
+  public void testParallelRecovery() {
+    System.setProperty(DiskStoreImpl.RECOVERY_PARALLELISM_PROPERTY_NAME, "4");
+    try {
+      PartitionedRegion region = (PartitionedRegion) createRegion(-1, false, false, 13);
+      DiskStoreImpl diskStore = (DiskStoreImpl) cache.findDiskStore("disk");
+      char[] padding = new char[1024];
+      // the max oplog size is 1 MB so the creates alone fill several oplogs
+      for (int i = 0; i < 3000; i++) {
+        region.put(i, new String(padding) + i);
+      }
+      diskStore.forceRoll();
+      for (int i = 0; i < 3000; i += 2) {
+        region.put(i, "updated" + i);
+      }
+      diskStore.forceRoll();
+      for (int i = 0; i < 3000; i += 5) {
+        region.destroy(i);
+      }
+      diskStore.forceRoll();
+      for (int i = 1; i < 3000; i += 7) {
+        if (i % 5 != 0) {
+          region.invalidate(i);
+        }
+      }
+      cache.close();
+      // every oplog must have a krf for the entries to be recovered in parallel
+      int oplogCount = dir.list((d, name) -> name.endsWith(".crf")).length;
+      assertTrue("only " + oplogCount + " oplogs were left", oplogCount >= 4);
+      assertEquals(oplogCount, dir.list((d, name) -> name.endsWith(".krf")).length);
+
+      region = (PartitionedRegion) createRegion(-1, false, false, 13);
+      assertEquals(2400, region.size());
+      for (int i = 0; i < 3000; i++) {
+        Object expected;
+        if (i % 5 == 0) {
+          assertEquals(false, region.containsKey(i));
+          continue;
+        } else if (i % 7 == 1) {
+          expected = null;
+        } else if (i % 2 == 0) {
+          expected = "updated" + i;
+        } else {
+          expected = new String(padding) + i;
+        }
+        assertEquals(true, region.containsKey(i));
+        assertEquals(expected, region.get(i));
+      }
+    } finally {
+      System.clearProperty(DiskStoreImpl.RECOVERY_PARALLELISM_PROPERTY_NAME);
+    }
+  }
+
   @Test
   public void testValuesAreNotRecoveredForHeapLruRegions() {
     createLRURegionAndValidateRecovery(false, true, 10, 0);
@@ -334,6 +388,11 @@ public class PersistentPartitionedRegionJUnitTest {
   }
 
   private Region createRegion(int ttl, boolean isHeapEviction, boolean isEntryEviction) {
+    return createRegion(ttl, isHeapEviction, isEntryEviction, 1);
+  }
+
+  private Region createRegion(int ttl, boolean isHeapEviction, boolean isEntryEviction,
+      int numBuckets) {
     Properties props = new Properties();
     props.setProperty(MCAST_PORT, "0");
     props.setProperty(LOG_LEVEL, "info");
@@ -344,7 +403,7 @@ public class PersistentPartitionedRegionJUnitTest {
 
     RegionFactory<Object, Object> rf = cache.createRegionFactory()
         .setDataPolicy(DataPolicy.PERSISTENT_PARTITION).setDiskStoreName("disk");
-    rf.setPartitionAttributes(new PartitionAttributesFactory().setTotalNumBuckets(1).create());
+    rf.setPartitionAttributes(new PartitionAttributesFactory().setTotalNumBuckets(numBuckets).create());
     if (ttl > 0) {
       rf.setEntryTimeToLive(new ExpirationAttributes(ttl, ExpirationAction.DESTROY));
     }
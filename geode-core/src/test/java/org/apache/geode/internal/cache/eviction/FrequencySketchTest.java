@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class FrequencySketchTest {
+
+  @Test
+  public void unseenKeyHasZeroFrequency() {
+    FrequencySketch sketch = new FrequencySketch(64);
+    assertThat(sketch.frequency("key")).isZero();
+  }
+
+  @Test
+  public void countsIncrements() {
+    FrequencySketch sketch = new FrequencySketch(64);
+    IntStream.range(0, 5).forEach(i -> sketch.increment("key"));
+    assertThat(sketch.frequency("key")).isEqualTo(5);
+  }
+
+  @Test
+  public void frequencyIsAtMostFifteen() {
+    FrequencySketch sketch = new FrequencySketch(64);
+    IntStream.range(0, 20).forEach(i -> sketch.increment("key"));
+    assertThat(sketch.frequency("key")).isEqualTo(15);
+  }
+
+  @Test
+  public void frequentKeysAreDistinguishedFromRareOnes() {
+    FrequencySketch sketch = new FrequencySketch(1024);
+    IntStream.range(0, 1000).forEach(i -> sketch.increment(i));
+    IntStream.range(0, 10).forEach(i -> sketch.increment("hot"));
+    assertThat(sketch.frequency("hot")).isGreaterThan(sketch.frequency(500));
+  }
+
+  @Test
+  public void countsAreHalvedAfterSampleSize() {
+    FrequencySketch sketch = new FrequencySketch(16);
+    IntStream.range(0, 8).forEach(i -> sketch.increment("key"));
+    IntStream.range(0, 10 * sketch.width()).forEach(i -> sketch.increment(i));
+    assertThat(sketch.frequency("key")).isLessThan(8);
+  }
+
+  @Test
+  public void ensureCapacityWidensSketch() {
+    FrequencySketch sketch = new FrequencySketch(16);
+    assertThat(sketch.width()).isEqualTo(16);
+    sketch.ensureCapacity(1000);
+    assertThat(sketch.width()).isEqualTo(1024);
+    sketch.ensureCapacity(100);
+    assertThat(sketch.width()).isEqualTo(1024);
+  }
+}
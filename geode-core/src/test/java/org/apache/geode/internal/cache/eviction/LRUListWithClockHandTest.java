@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class LRUListWithClockHandTest {
+
+  @Rule
+  public RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  private BucketRegion bucketRegion;
+  private InternalEvictionStatistics stats;
+  private RegionEntryContext context;
+  private List<LRUTestEntry> nodes;
+
+  @Before
+  public void setup() {
+    bucketRegion = mock(BucketRegion.class);
+    stats = mock(InternalEvictionStatistics.class);
+    context = mock(RegionEntryContext.class);
+    nodes = new ArrayList<>();
+  }
+
+  @Test
+  public void evictingFromEmptyListTest() throws Exception {
+    LRUListWithClockHand list = new LRUListWithClockHand(stats, bucketRegion);
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void evictsEntriesInOrderOfAddition() throws Exception {
+    LRUListWithClockHand list = createList(5);
+    IntStream.range(0, 5).forEach(i -> assertThat(evictId(list)).isEqualTo(i));
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void doesNotEvictRecentlyUsedUntilHandComesAround() throws Exception {
+    LRUListWithClockHand list = createList(4);
+    nodes.get(0).setRecentlyUsed(context);
+    nodes.get(2).setRecentlyUsed(context);
+
+    assertThat(evictId(list)).isEqualTo(1);
+    assertThat(nodes.get(0).isRecentlyUsed()).isFalse();
+    assertThat(evictId(list)).isEqualTo(3);
+    assertThat(nodes.get(2).isRecentlyUsed()).isFalse();
+    assertThat(evictId(list)).isEqualTo(0);
+    assertThat(evictId(list)).isEqualTo(2);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void recentlyUsedEntriesStayInPlace() throws Exception {
+    LRUListWithClockHand list = createList(3);
+    nodes.get(0).setRecentlyUsed(context);
+
+    assertThat(evictId(list)).isEqualTo(1);
+    assertThat(list.head.next()).isSameAs(nodes.get(0));
+    assertThat(list.tail.previous()).isSameAs(nodes.get(2));
+  }
+
+  @Test
+  public void entriesAddedAfterEvictionAreReachedLast() throws Exception {
+    LRUListWithClockHand list = createList(4);
+    assertThat(evictId(list)).isEqualTo(0);
+    assertThat(evictId(list)).isEqualTo(1);
+    addEntry(list, 4);
+
+    assertThat(evictId(list)).isEqualTo(2);
+    assertThat(evictId(list)).isEqualTo(3);
+    assertThat(evictId(list)).isEqualTo(4);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void destroyingEntryAtHandMovesHand() throws Exception {
+    LRUListWithClockHand list = createList(4);
+    assertThat(evictId(list)).isEqualTo(0);
+    list.destroyEntry(nodes.get(1));
+
+    assertThat(list.size()).isEqualTo(2);
+    assertThat(evictId(list)).isEqualTo(2);
+    assertThat(evictId(list)).isEqualTo(3);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void doesNotEvictNodeThatIsEvicted() throws Exception {
+    LRUListWithClockHand list = createList(2);
+    nodes.get(0).setEvicted();
+
+    assertThat(evictId(list)).isEqualTo(1);
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void evictsRecentlyUsedWhenAllAreRecentlyUsed() throws Exception {
+    LRUListWithClockHand list = createList(3);
+    nodes.forEach(node -> node.setRecentlyUsed(context));
+
+    assertThat(evictId(list)).isEqualTo(0);
+    assertThat(nodes.get(1).isRecentlyUsed()).isFalse();
+    assertThat(nodes.get(2).isRecentlyUsed()).isFalse();
+  }
+
+  @Test
+  public void recentlyUsedNodeIsGreedilyEvictedAfterSearchMaxEntries() throws Exception {
+    System.setProperty("geode." + SystemPropertyHelper.EVICTION_SEARCH_MAX_ENTRIES, "1");
+    LRUListWithClockHand list = createList(3);
+    nodes.forEach(node -> node.setRecentlyUsed(context));
+
+    assertThat(evictId(list)).isEqualTo(1);
+    assertThat(nodes.get(2).isRecentlyUsed()).isTrue();
+  }
+
+  @Test
+  public void clearResetsHand() throws Exception {
+    LRUListWithClockHand list = createList(3);
+    assertThat(evictId(list)).isEqualTo(0);
+    list.clear(null);
+    nodes.clear();
+    assertThat(list.size()).isZero();
+
+    addEntry(list, 5);
+    addEntry(list, 6);
+    assertThat(evictId(list)).isEqualTo(5);
+    assertThat(evictId(list)).isEqualTo(6);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void doesNotEvictNodeInTransaction() throws Exception {
+    LRUListWithClockHand list = new LRUListWithClockHand(stats, bucketRegion);
+    LRUTestEntry nodeInTransaction = mock(LRUTestEntry.class);
+    when(nodeInTransaction.isInUseByTransaction()).thenReturn(true);
+    LRUTestEntry node = new LRUTestEntry(1);
+    list.appendEntry(nodeInTransaction);
+    list.appendEntry(node);
+    when(nodeInTransaction.next()).thenReturn(node);
+    when(nodeInTransaction.previous()).thenReturn(list.head);
+
+    assertThat(list.getEvictableEntry()).isSameAs(node);
+    assertThat(list.size()).isZero();
+  }
+
+  private LRUListWithClockHand createList(int size) {
+    LRUListWithClockHand list = new LRUListWithClockHand(stats, bucketRegion);
+    IntStream.range(0, size).forEach(i -> addEntry(list, i));
+    return list;
+  }
+
+  private void addEntry(LRUListWithClockHand list, int id) {
+    LRUTestEntry node = new LRUTestEntry(id);
+    nodes.add(node);
+    list.appendEntry(node);
+  }
+
+  private int evictId(LRUListWithClockHand list) {
+    return ((LRUTestEntry) list.getEvictableEntry()).id();
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class WindowTinyLFUListTest {
+
+  private BucketRegion bucketRegion;
+  private InternalEvictionStatistics stats;
+  private RegionEntryContext context;
+  private List<LRUTestEntry> nodes;
+  private WindowTinyLFUList list;
+
+  @Before
+  public void setup() {
+    bucketRegion = mock(BucketRegion.class);
+    stats = mock(InternalEvictionStatistics.class);
+    context = mock(RegionEntryContext.class);
+    nodes = new ArrayList<>();
+    list = new WindowTinyLFUList(stats, bucketRegion);
+  }
+
+  @Test
+  public void evictingFromEmptyListTest() throws Exception {
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void evictsUnusedEntriesInOrderOfAddition() throws Exception {
+    addEntries(0, 5);
+    IntStream.range(0, 5).forEach(i -> assertThat(evictId()).isEqualTo(i));
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void destroyedEntriesAreNotEvicted() throws Exception {
+    addEntries(0, 4);
+    list.destroyEntry(nodes.get(0));
+    list.destroyEntry(nodes.get(2));
+
+    assertThat(list.size()).isEqualTo(2);
+    assertThat(evictId()).isEqualTo(1);
+    assertThat(evictId()).isEqualTo(3);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void doesNotEvictNodeThatIsEvicted() throws Exception {
+    addEntries(0, 2);
+    nodes.get(0).setEvicted();
+
+    assertThat(evictId()).isEqualTo(1);
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void frequentlyUsedEntriesSurviveAScan() throws Exception {
+    addEntries(0, 100);
+    // use the first 100 entries while they move through the list
+    for (int round = 0; round < 3; round++) {
+      IntStream.range(0, 100).forEach(i -> nodes.get(i).setRecentlyUsed(context));
+      int firstId = 100 + 10 * round;
+      IntStream.range(firstId, firstId + 10).forEach(i -> {
+        addEntry(i);
+        evict();
+      });
+    }
+
+    // scan many entries that are only used once
+    Set<Integer> evicted = new HashSet<>();
+    IntStream.range(1000, 1500).forEach(i -> {
+      addEntry(i);
+      evicted.add(evictId());
+    });
+
+    long hotEntriesEvicted = evicted.stream().filter(id -> id < 100).count();
+    assertThat(hotEntriesEvicted).isLessThan(10);
+    assertThat(list.size()).isEqualTo(100);
+  }
+
+  @Test
+  public void clearEmptiesAllSegments() throws Exception {
+    addEntries(0, 100);
+    IntStream.range(0, 50).forEach(i -> evict());
+    list.clear(null);
+    nodes.clear();
+    assertThat(list.size()).isZero();
+    assertThat(list.getEvictableEntry()).isNull();
+
+    addEntries(200, 202);
+    assertThat(evictId()).isEqualTo(200);
+    assertThat(evictId()).isEqualTo(201);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  private void addEntries(int from, int to) {
+    IntStream.range(from, to).forEach(this::addEntry);
+  }
+
+  private void addEntry(int id) {
+    LRUTestEntry node = new LRUTestEntry(id);
+    nodes.add(node);
+    list.appendEntry(node);
+  }
+
+  private void evict() {
+    assertThat(list.getEvictableEntry()).isNotNull();
+  }
+
+  private int evictId() {
+    return ((LRUTestEntry) list.getEvictableEntry()).id();
+  }
+}
@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.util.concurrent.Semaphore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.CachedRegionHelper;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class MessageFramerJUnitTest {
+
+  private Pipe pipe;
+
+  private MessageFramer framer;
+
+  @Before
+  public void setUp() throws Exception {
+    this.pipe = Pipe.open();
+    this.pipe.source().configureBlocking(false);
+    this.framer = new MessageFramer(-1, null, null);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    this.pipe.sink().close();
+    this.pipe.source().close();
+  }
+
+  @Test
+  public void requestIsCompleteOnceAllOfItHasArrived() throws Exception {
+    byte[] request = createRequest("key", new byte[100]);
+
+    assertFalse(this.framer.read(this.pipe.source()));
+    write(request, 0, 10);
+    assertFalse(this.framer.read(this.pipe.source()));
+    assertNull(this.framer.takeMessage());
+    write(request, 10, request.length - 11);
+    assertFalse(this.framer.read(this.pipe.source()));
+    write(request, request.length - 1, 1);
+    assertTrue(this.framer.read(this.pipe.source()));
+    assertTrue(this.framer.isComplete());
+
+    Message message = parse(this.framer.takeMessage());
+    assertEquals(MessageType.PUT, message.getMessageType());
+    assertEquals("key", message.getPart(0).getString());
+    assertArrayEquals(new byte[100], message.getPart(1).getSerializedForm());
+    assertFalse(this.framer.isComplete());
+  }
+
+  @Test
+  public void framerDoesNotReadPastTheEndOfARequest() throws Exception {
+    byte[] first = createRequest("first", new byte[10]);
+    byte[] second = createRequest("second", new byte[5000]);
+    write(first, 0, first.length);
+    write(second, 0, second.length);
+
+    assertTrue(this.framer.read(this.pipe.source()));
+    assertEquals("first", parse(this.framer.takeMessage()).getPart(0).getString());
+    assertTrue(this.framer.read(this.pipe.source()));
+    assertEquals("second", parse(this.framer.takeMessage()).getPart(0).getString());
+    assertFalse(this.framer.read(this.pipe.source()));
+  }
+
+  @Test
+  public void bufferIsReusedOnceTheRequestHasBeenParsed() throws Exception {
+    byte[] first = createRequest("first", new byte[10]);
+    byte[] second = createRequest("second", new byte[10]);
+    write(first, 0, first.length);
+
+    assertTrue(this.framer.read(this.pipe.source()));
+    MessageFramer.Frame frame = this.framer.takeMessage();
+    ByteBuffer buffer = frame.getBuffer();
+    assertEquals("first", parse(frame).getPart(0).getString());
+
+    write(second, 0, second.length);
+    assertTrue(this.framer.read(this.pipe.source()));
+    frame = this.framer.takeMessage();
+    assertSame(buffer, frame.getBuffer());
+    assertEquals("second", parse(frame).getPart(0).getString());
+  }
+
+  @Test
+  public void endOfStreamIsThrownByTakeMessage() throws Exception {
+    byte[] request = createRequest("key", new byte[100]);
+    write(request, 0, 30);
+    this.pipe.sink().close();
+
+    assertTrue(this.framer.read(this.pipe.source()));
+    try {
+      this.framer.takeMessage();
+      fail("expected EOFException");
+    } catch (EOFException expected) {
+    }
+    assertFalse(this.framer.isComplete());
+  }
+
+  @Test
+  public void requestLargerThanMaximumIsLeftToMessageToReject() throws Exception {
+    this.framer = new MessageFramer(50, null, null);
+    byte[] request = createRequest("key", new byte[100]);
+    write(request, 0, request.length);
+
+    assertTrue(this.framer.read(this.pipe.source()));
+    MessageFramer.Frame frame = this.framer.takeMessage();
+    assertFalse(frame.hasPayload());
+    try {
+      parse(frame, 50);
+      fail("expected IOException");
+    } catch (IOException expected) {
+      assertTrue(expected.getMessage(), expected.getMessage().contains("exceeded max limit"));
+    }
+  }
+
+  @Test
+  public void oversizedDeclaredLengthIsNotBuffered() throws Exception {
+    ByteBuffer header = ByteBuffer.allocate(Message.FIXED_LENGTH);
+    header.putInt(MessageType.PUT).putInt(Integer.MAX_VALUE - Message.FIXED_LENGTH).putInt(2)
+        .putInt(0).put((byte) 0);
+    write(header.array(), 0, header.capacity());
+    write(new byte[100], 0, 100);
+
+    assertTrue(this.framer.read(this.pipe.source()));
+    MessageFramer.Frame frame = this.framer.takeMessage();
+    assertFalse(frame.hasPayload());
+    assertEquals(Message.FIXED_LENGTH, frame.getBuffer().remaining());
+    assertEquals(MessageFramer.DEFAULT_BUFFER_SIZE, frame.getBuffer().capacity());
+  }
+
+  @Test
+  public void payloadLargerThanMaximumFrameIsReadFromSocket() throws Exception {
+    this.framer = new MessageFramer(-1, 50, null, null);
+    byte[] request = createRequest("key", new byte[100]);
+    write(request, 0, request.length);
+
+    assertTrue(this.framer.read(this.pipe.source()));
+    MessageFramer.Frame frame = this.framer.takeMessage();
+    assertFalse(frame.hasPayload());
+    ByteBuffer payload = ByteBuffer.allocate(request.length - Message.FIXED_LENGTH);
+    this.pipe.source().read(payload);
+
+    Message message = parse(frame, -1, null, null, payload.array());
+    assertEquals("key", message.getPart(0).getString());
+    assertArrayEquals(new byte[100], message.getPart(1).getSerializedForm());
+  }
+
+  @Test
+  public void permitsAreHandedToMessage() throws Exception {
+    Semaphore dataLimiter = new Semaphore(1000);
+    Semaphore messageLimiter = new Semaphore(1);
+    this.framer = new MessageFramer(-1, dataLimiter, messageLimiter);
+    byte[] request = createRequest("key", new byte[100]);
+    write(request, 0, request.length);
+
+    assertTrue(this.framer.read(this.pipe.source()));
+    assertEquals(0, messageLimiter.availablePermits());
+    assertEquals(1000 - (request.length - Message.FIXED_LENGTH), dataLimiter.availablePermits());
+    MessageFramer.Frame frame = this.framer.takeMessage();
+    assertTrue(frame.hasPayload());
+
+    Message message = parse(frame, -1, dataLimiter, messageLimiter, new byte[0]);
+    assertEquals("key", message.getPart(0).getString());
+    assertEquals(0, messageLimiter.availablePermits());
+    message.clear();
+    assertEquals(1, messageLimiter.availablePermits());
+    assertEquals(1000, dataLimiter.availablePermits());
+  }
+
+  @Test
+  public void payloadIsNotBufferedWithoutPermits() throws Exception {
+    Semaphore dataLimiter = new Semaphore(50);
+    Semaphore messageLimiter = new Semaphore(1);
+    this.framer = new MessageFramer(-1, dataLimiter, messageLimiter);
+    byte[] request = createRequest("key", new byte[100]);
+    write(request, 0, request.length);
+
+    assertTrue(this.framer.read(this.pipe.source()));
+    assertEquals(1, messageLimiter.availablePermits());
+    assertEquals(50, dataLimiter.availablePermits());
+    MessageFramer.Frame frame = this.framer.takeMessage();
+    assertFalse(frame.hasPayload());
+    assertFalse(frame.hasMessagePermit());
+    assertFalse(frame.hasDataPermits());
+  }
+
+  @Test
+  public void closeReleasesPermits() throws Exception {
+    Semaphore dataLimiter = new Semaphore(1000);
+    Semaphore messageLimiter = new Semaphore(1);
+    this.framer = new MessageFramer(-1, dataLimiter, messageLimiter);
+    byte[] request = createRequest("key", new byte[100]);
+    write(request, 0, 30);
+
+    assertFalse(this.framer.read(this.pipe.source()));
+    assertEquals(0, messageLimiter.availablePermits());
+    this.framer.close();
+    assertEquals(1, messageLimiter.availablePermits());
+    assertEquals(1000, dataLimiter.availablePermits());
+  }
+
+  @Test
+  public void failedReadReleasesPermits() throws Exception {
+    Semaphore dataLimiter = new Semaphore(1000);
+    Semaphore messageLimiter = new Semaphore(1);
+    this.framer = new MessageFramer(-1, dataLimiter, messageLimiter);
+    byte[] request = createRequest("key", new byte[100]);
+    write(request, 0, 30);
+    this.pipe.sink().close();
+
+    assertTrue(this.framer.read(this.pipe.source()));
+    assertEquals(1, messageLimiter.availablePermits());
+    assertEquals(1000, dataLimiter.availablePermits());
+  }
+
+  private void write(byte[] bytes, int offset, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+    while (buffer.hasRemaining()) {
+      this.pipe.sink().write(buffer);
+    }
+  }
+
+  private byte[] createRequest(String key, byte[] value) throws IOException {
+    Socket socket = mock(Socket.class);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Message message = new Message(2, Version.CURRENT);
+    message.setComms(socket, null, out, ByteBuffer.allocate(1024), null);
+    message.setMessageType(MessageType.PUT);
+    message.addStringPart(key);
+    message.addBytesPart(value);
+    message.send();
+    return out.toByteArray();
+  }
+
+  private Message parse(MessageFramer.Frame frame) throws IOException {
+    return parse(frame, -1);
+  }
+
+  private Message parse(MessageFramer.Frame frame, int maxMessageLength) throws IOException {
+    return parse(frame, maxMessageLength, null, null, new byte[0]);
+  }
+
+  /**
+   * @param socketBytes the bytes that follow the frame on the socket
+   */
+  private Message parse(MessageFramer.Frame frame, int maxMessageLength, Semaphore dataLimiter,
+      Semaphore messageLimiter, byte[] socketBytes) throws IOException {
+    ServerConnection serverConnection = mock(ServerConnection.class);
+    when(serverConnection.takeFramedMessage()).thenReturn(frame);
+    when(serverConnection.getCachedRegionHelper()).thenReturn(mock(CachedRegionHelper.class));
+    Message message = new Message(2, Version.CURRENT);
+    message.setComms(mock(Socket.class), new ByteArrayInputStream(socketBytes), null,
+        ByteBuffer.allocate(1024), mock(MessageStats.class));
+    message.recv(serverConnection, maxMessageLength, dataLimiter, messageLimiter);
+    return message;
+  }
+}
@@ -17,14 +17,22 @@ package org.apache.geode.internal.cache.tier.sockets;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.offheap.StoredObject;
 import org.apache.geode.test.junit.categories.ClientServerTest;
 import org.apache.geode.test.junit.categories.UnitTest;
 
@@ -112,4 +120,50 @@ public class MessageJUnitTest {
     verify(mockPart1, times(2)).clear();
   }
 
+  @Test
+  public void partsLargerThanTheBufferAreSentOverSocketChannel() throws Exception {
+    byte[] heapValue = new byte[5000];
+    Arrays.fill(heapValue, (byte) 1);
+    ByteBuffer offHeapValue = ByteBuffer.allocateDirect(3000);
+    while (offHeapValue.hasRemaining()) {
+      offHeapValue.put((byte) 2);
+    }
+    offHeapValue.flip();
+    StoredObject storedObject = mock(StoredObject.class);
+    when(storedObject.hasRefCount()).thenReturn(true);
+    when(storedObject.getDataSize()).thenReturn(3000);
+    when(storedObject.createDirectByteBuffer()).thenReturn(offHeapValue);
+
+    try (ServerSocketChannel server = ServerSocketChannel.open()) {
+      server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      try (SocketChannel sender = SocketChannel.open(server.getLocalAddress());
+          SocketChannel receiver = server.accept()) {
+        Message message = new Message(3, Version.CURRENT);
+        message.setComms(mock(ServerConnection.class), sender.socket(),
+            ByteBuffer.allocateDirect(1024), mock(MessageStats.class));
+        message.setMessageType(MessageType.RESPONSE);
+        message.addStringPart("key");
+        message.addRawPart(heapValue, true);
+        message.addPartInAnyForm(storedObject, true);
+        message.send();
+
+        // the message header, three part headers of 5 bytes and the parts
+        ByteBuffer received = ByteBuffer.allocate(Message.FIXED_LENGTH + 3 * 5 + 3 + 5000 + 3000);
+        while (received.hasRemaining()) {
+          receiver.read(received);
+        }
+
+        Message parsed = new Message(3, Version.CURRENT);
+        parsed.setComms(mock(Socket.class),
+            new ByteArrayInputStream(received.array()), null, ByteBuffer.allocate(1024), null);
+        parsed.recv();
+        assertEquals("key", parsed.getPart(0).getString());
+        assertArrayEquals(heapValue, parsed.getPart(1).getSerializedForm());
+        byte[] offHeapBytes = new byte[3000];
+        Arrays.fill(offHeapBytes, (byte) 2);
+        assertArrayEquals(offHeapBytes, parsed.getPart(2).getSerializedForm());
+      }
+    }
+  }
+
 }
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.FutureTask;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class PartBufferPoolJUnitTest {
+
+  private PartBufferPool pool;
+
+  private CacheServerStats stats;
+
+  @Before
+  public void setUp() throws Exception {
+    this.pool = new PartBufferPool(2);
+    this.stats = mock(CacheServerStats.class);
+  }
+
+  @Test
+  public void allocateRoundsUpToSizeClass() throws Exception {
+    assertEquals(PartBufferPool.MIN_BUFFER_SIZE, this.pool.allocate(1, null).length);
+    assertEquals(PartBufferPool.MIN_BUFFER_SIZE, this.pool.allocate(64, null).length);
+    assertEquals(128, this.pool.allocate(65, null).length);
+    assertEquals(PartBufferPool.MAX_BUFFER_SIZE,
+        this.pool.allocate(PartBufferPool.MAX_BUFFER_SIZE, null).length);
+  }
+
+  @Test
+  public void releasedBufferIsReused() throws Exception {
+    byte[] buffer = this.pool.allocate(100, this.stats);
+    verify(this.stats).incPartBufferPoolMisses();
+    this.pool.release(buffer);
+
+    assertSame(buffer, this.pool.allocate(120, this.stats));
+    verify(this.stats).incPartBufferPoolHits();
+  }
+
+  @Test
+  public void poolKeepsAtMostPoolSizeBuffersPerSizeClass() throws Exception {
+    byte[] first = this.pool.allocate(10, null);
+    byte[] second = this.pool.allocate(10, null);
+    byte[] third = this.pool.allocate(10, null);
+    this.pool.release(first);
+    this.pool.release(second);
+    this.pool.release(third);
+
+    assertSame(first, this.pool.allocate(10, null));
+    assertSame(second, this.pool.allocate(10, null));
+    assertNotSame(third, this.pool.allocate(10, null));
+  }
+
+  @Test
+  public void threadCacheIsUsedBeforeSharedPool() throws Exception {
+    PartBufferPool pool = new PartBufferPool(1, 2);
+    byte[] first = pool.allocate(10, null);
+    byte[] second = pool.allocate(10, null);
+    byte[] third = pool.allocate(10, null);
+    pool.release(first);
+    pool.release(second);
+    pool.release(third);
+
+    // only the array that did not fit in the thread cache is shared with other threads
+    assertSame(third, allocateInOtherThread(pool, 10));
+    assertNotSame(third, allocateInOtherThread(pool, 10));
+    assertSame(second, pool.allocate(10, this.stats));
+    assertSame(first, pool.allocate(10, this.stats));
+    verify(this.stats, times(2)).incPartBufferPoolHits();
+  }
+
+  @Test
+  public void largeArraysAreNotKeptInThreadCache() throws Exception {
+    PartBufferPool pool = new PartBufferPool(1, 2);
+    byte[] buffer = pool.allocate(PartBufferPool.MAX_THREAD_CACHED_BUFFER_SIZE + 1, null);
+    pool.release(buffer);
+
+    assertSame(buffer,
+        allocateInOtherThread(pool, PartBufferPool.MAX_THREAD_CACHED_BUFFER_SIZE + 1));
+  }
+
+  @Test
+  public void onlyPartsUpToMaxBufferSizeArePooled() throws Exception {
+    assertFalse(this.pool.isPooled(0));
+    assertTrue(this.pool.isPooled(PartBufferPool.MAX_BUFFER_SIZE));
+    assertFalse(this.pool.isPooled(PartBufferPool.MAX_BUFFER_SIZE + 1));
+    assertFalse(new PartBufferPool(0).isPooled(10));
+  }
+
+  @Test
+  public void partDecodesPooledPayloadInPlace() throws Exception {
+    Part part = new Part();
+    initPooled(part, CacheServerHelper.toUTF("key"), Part.BYTE_CODE);
+    assertEquals("key", part.getString());
+    assertEquals(3, part.getLength());
+
+    initPooled(part, BlobHelper.serializeToBlob("value"), Part.OBJECT_CODE);
+    assertEquals("value", part.getObject());
+    assertFalse(part.isNull());
+
+    initPooled(part, BlobHelper.serializeToBlob(null), Part.OBJECT_CODE);
+    assertTrue(part.isNull());
+
+    byte[] intBytes = new byte[4];
+    Part.encodeInt(42, intBytes);
+    initPooled(part, intBytes, Part.BYTE_CODE);
+    assertEquals(42, part.getInt());
+  }
+
+  @Test
+  public void serializedFormIsCopiedOutOfPooledBuffer() throws Exception {
+    byte[] value = BlobHelper.serializeToBlob("value");
+    Part part = new Part();
+    byte[] buffer = initPooled(part, value, Part.OBJECT_CODE);
+
+    byte[] serializedForm = part.getSerializedForm();
+    assertNotSame(buffer, serializedForm);
+    assertArrayEquals(value, serializedForm);
+    // the buffer was given back as soon as it was copied
+    assertSame(buffer, this.pool.allocate(value.length, null));
+
+    part.clear();
+    assertNotSame(buffer, this.pool.allocate(value.length, null));
+  }
+
+  @Test
+  public void objectThatMayReferToItsBytesIsCopiedOutOfPooledBuffer() throws Exception {
+    byte[] value = BlobHelper.serializeToBlob(new byte[] {1, 2, 3});
+    Part part = new Part();
+    byte[] buffer = initPooled(part, value, Part.OBJECT_CODE);
+
+    assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) part.getObject());
+    assertSame(buffer, this.pool.allocate(value.length, null));
+  }
+
+  @Test
+  public void clearReleasesPooledBuffer() throws Exception {
+    Part part = new Part();
+    byte[] buffer = initPooled(part, CacheServerHelper.toUTF("key"), Part.BYTE_CODE);
+    part.getString();
+
+    part.clear();
+
+    assertTrue(part.isNull());
+    assertSame(buffer, this.pool.allocate(3, null));
+  }
+
+  private byte[] allocateInOtherThread(PartBufferPool pool, int length) throws Exception {
+    FutureTask<byte[]> allocate = new FutureTask<>(() -> pool.allocate(length, null));
+    new Thread(allocate).start();
+    return allocate.get();
+  }
+
+  private byte[] initPooled(Part part, byte[] payload, byte typeCode) {
+    byte[] buffer = this.pool.allocate(payload.length, null);
+    System.arraycopy(payload, 0, buffer, 0, payload.length);
+    part.initPooled(buffer, payload.length, typeCode, this.pool);
+    return buffer;
+  }
+}
@@ -22,6 +22,7 @@ import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.logging.log4j.Logger;
@@ -72,6 +73,11 @@ public class FreeListManagerTest {
     this.freeListManager = createFreeListManager(ma, new Slab[] {slab});
   }
 
+  private void setUpThreadCachingManager(int slabSize, int threadCacheSize) {
+    Slab slab = new SlabImpl(slabSize);
+    this.freeListManager = new TestableFreeListManager(ma, new Slab[] {slab}, 0, threadCacheSize);
+  }
+
   @Test
   public void usedMemoryIsZeroOnDefault() {
     setUpSingleSlabManager();
@@ -204,6 +210,66 @@ public class FreeListManagerTest {
         .isEqualTo(computeExpectedSize(dataSize) + computeExpectedSize(dataSize2));
   }
 
+  @Test
+  public void allocateTinyChunkFromThreadCacheReusesFreedChunk() {
+    setUpThreadCachingManager(DEFAULT_SLAB_SIZE, 2);
+    int dataSize = 10;
+
+    OffHeapStoredObject c = this.freeListManager.allocate(dataSize);
+    long address = c.getAddress();
+    OffHeapStoredObject.release(address, this.freeListManager);
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(computeExpectedSize(dataSize));
+    c = this.freeListManager.allocate(dataSize);
+
+    assertThat(c.getAddress()).isEqualTo(address);
+    validateChunkSizes(c, dataSize);
+    assertThat(this.freeListManager.getFreeTinyMemory()).isZero();
+  }
+
+  @Test
+  public void chunksThatDoNotFitInThreadCacheAreAllocatedByOtherThreads() throws Exception {
+    setUpThreadCachingManager(DEFAULT_SLAB_SIZE, 1);
+    int dataSize = 10;
+
+    OffHeapStoredObject c1 = this.freeListManager.allocate(dataSize);
+    OffHeapStoredObject c2 = this.freeListManager.allocate(dataSize);
+    OffHeapStoredObject.release(c1.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c2.getAddress(), this.freeListManager);
+    AtomicLong allocated = new AtomicLong();
+    Thread thread = new Thread(
+        () -> allocated.set(this.freeListManager.allocate(dataSize).getAddress()));
+    thread.start();
+    thread.join();
+
+    assertThat(allocated.get()).isEqualTo(c2.getAddress());
+    assertThat(this.freeListManager.allocate(dataSize).getAddress()).isEqualTo(c1.getAddress());
+  }
+
+  @Test
+  public void defragmentationReclaimsChunksCachedByThreads() throws Exception {
+    int slabSize = 4096;
+    int dataSize = 64 - OffHeapStoredObject.HEADER_SIZE;
+    setUpThreadCachingManager(slabSize, slabSize / 64);
+    Thread thread = new Thread(() -> {
+      List<OffHeapStoredObject> chunks = new ArrayList<>();
+      for (int i = 0; i < slabSize / 64; i++) {
+        chunks.add(this.freeListManager.allocate(dataSize));
+      }
+      for (OffHeapStoredObject chunk : chunks) {
+        OffHeapStoredObject.release(chunk.getAddress(), this.freeListManager);
+      }
+    });
+    thread.start();
+    thread.join();
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(slabSize);
+
+    OffHeapStoredObject c =
+        this.freeListManager.allocate(slabSize - OffHeapStoredObject.HEADER_SIZE);
+
+    validateChunkSizes(c, slabSize - OffHeapStoredObject.HEADER_SIZE);
+    assertThat(this.freeListManager.getFreeTinyMemory()).isZero();
+  }
+
   @Test
   public void freeHugeMemoryDefault() {
     setUpSingleSlabManager();
@@ -919,6 +985,12 @@ public class FreeListManagerTest {
       this.maxCombine = maxCombine;
     }
 
+    public TestableFreeListManager(MemoryAllocatorImpl ma, Slab[] slabs, int maxCombine,
+        int threadCacheSize) {
+      super(ma, slabs, threadCacheSize);
+      this.maxCombine = maxCombine;
+    }
+
     @Override
     protected Fragment createFragment(long addr, int size) {
       return new TestableFragment(addr, size);
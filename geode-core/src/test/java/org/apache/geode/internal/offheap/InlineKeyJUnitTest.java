@@ -36,6 +36,7 @@ import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapLongKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapObjectKey;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapStringKey1;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapStringKey2;
+import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapStringKey3;
 import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapUUIDKey;
 import org.apache.geode.test.junit.categories.IntegrationTest;
 
@@ -160,6 +161,18 @@ public class InlineKeyJUnitTest {
       key = "1234567890123456";
       r.create(key, null);
       assertEquals(true, r.containsKey(key));
+      assertTrue("expected string entry but was " + lr.getRegionEntry(key).getClass(),
+          lr.getRegionEntry(key) instanceof VMThinRegionEntryOffHeapStringKey3);
+      key = "12345678901234567890123";
+      r.create(key, null);
+      assertEquals(true, r.containsKey(key));
+      assertEquals(key, lr.getRegionEntry(key).getKey());
+      assertTrue("expected string entry but was " + lr.getRegionEntry(key).getClass(),
+          lr.getRegionEntry(key) instanceof VMThinRegionEntryOffHeapStringKey3);
+
+      key = "123456789012345678901234";
+      r.create(key, null);
+      assertEquals(true, r.containsKey(key));
       assertTrue("expected string object but was " + lr.getRegionEntry(key).getClass(),
           lr.getRegionEntry(key) instanceof VMThinRegionEntryOffHeapObjectKey);
 
@@ -203,5 +216,11 @@ public class InlineKeyJUnitTest {
     re2 = new VMThinRegionEntryOffHeapObjectKey(null, "123456789012345", null);
     // System.out.println("VMThinRegionEntryObjectKey=" + getMemSize(re2));
     assertTrue(getMemSize(re) < getMemSize(re2));
+
+    re = new VMThinRegionEntryOffHeapStringKey3(null, "12345678901234567890123", null, true);
+    // System.out.println("VMThinRegionEntryStringKey3=" + getMemSize(re));
+    re2 = new VMThinRegionEntryOffHeapObjectKey(null, "12345678901234567890123", null);
+    // System.out.println("VMThinRegionEntryObjectKey=" + getMemSize(re2));
+    assertTrue(getMemSize(re) < getMemSize(re2));
   }
 }
@@ -27,8 +27,11 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionFactory;
 import org.apache.geode.cache.query.*;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.distributed.ConfigurationProperties;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.test.junit.categories.IntegrationTest;
@@ -53,6 +56,7 @@ public class OffHeapIndexJUnitTest {
 
   @After
   public void tearDown() {
+    System.clearProperty(IndexManager.OFF_HEAP_INDEXES_PROPERTY);
     this.gfc.close();
     MemoryAllocatorImpl.freeOffHeapMemory();
     // TODO cleanup default disk store files
@@ -93,4 +97,87 @@ public class OffHeapIndexJUnitTest {
           expected.getMessage());
     }
   }
+
+  @Test
+  public void testIndexEntriesKeptOffHeap() throws Exception {
+    System.setProperty(IndexManager.OFF_HEAP_INDEXES_PROPERTY, "idx");
+    RegionFactory<Object, Object> rf = this.gfc.createRegionFactory();
+    rf.setOffHeap(true);
+    Region<Object, Object> r = rf.create("r");
+    QueryService qs = this.gfc.getQueryService();
+    Index idx = qs.createIndex("idx", "status", "/r");
+    for (int i = 0; i < 100; i++) {
+      r.put(i, new Portfolio(i));
+    }
+    OffHeapMemoryStats stats = this.gfc.getOffHeapStore().getStats();
+    // one hash table per index key on top of the values
+    assertEquals(102, stats.getObjects());
+    assertEquals(50, countStatus(qs, "active"));
+    assertEquals(50, countStatus(qs, "inactive"));
+
+    for (int i = 0; i < 10; i++) {
+      Portfolio p = new Portfolio(i);
+      p.status = "closed";
+      r.put(i, p);
+    }
+    for (int i = 10; i < 20; i++) {
+      r.destroy(i);
+    }
+    assertEquals(10, countStatus(qs, "closed"));
+    assertEquals(40, countStatus(qs, "active"));
+    assertEquals(40, countStatus(qs, "inactive"));
+    assertEquals(93, stats.getObjects());
+
+    // the table of an index key is freed once it has no entries left
+    for (int i = 0; i < 10; i++) {
+      r.destroy(i);
+    }
+    assertEquals(0, countStatus(qs, "closed"));
+    assertEquals(82, stats.getObjects());
+
+    qs.removeIndex(idx);
+    assertEquals(80, stats.getObjects());
+    assertEquals(40, countStatus(qs, "active"));
+  }
+
+  @Test
+  public void testIndexEntriesKeptOnHeapWhenNotConfigured() throws Exception {
+    RegionFactory<Object, Object> rf = this.gfc.createRegionFactory();
+    rf.setOffHeap(true);
+    Region<Object, Object> r = rf.create("r");
+    QueryService qs = this.gfc.getQueryService();
+    qs.createIndex("idx", "status", "/r");
+    for (int i = 0; i < 100; i++) {
+      r.put(i, new Portfolio(i));
+    }
+    assertEquals(100, this.gfc.getOffHeapStore().getStats().getObjects());
+    assertEquals(50, countStatus(qs, "active"));
+  }
+
+  @Test
+  public void testIndexEntriesWithNonPrimitiveKeys() throws Exception {
+    System.setProperty(IndexManager.OFF_HEAP_INDEXES_PROPERTY, "*");
+    RegionFactory<Object, Object> rf = this.gfc.createRegionFactory();
+    rf.setOffHeap(true);
+    Region<Object, Object> r = rf.create("r");
+    QueryService qs = this.gfc.getQueryService();
+    qs.createIndex("idx", "status", "/r");
+    for (int i = 0; i < 20; i++) {
+      r.put(i % 2 == 0 ? i : "key" + i, new Portfolio(i));
+    }
+    r.put(0L, new Portfolio(1));
+    assertEquals(10, countStatus(qs, "active"));
+    assertEquals(11, countStatus(qs, "inactive"));
+    for (int i = 0; i < 20; i++) {
+      r.destroy(i % 2 == 0 ? i : "key" + i);
+    }
+    assertEquals(0, countStatus(qs, "active"));
+    assertEquals(1, countStatus(qs, "inactive"));
+  }
+
+  private int countStatus(QueryService qs, String status) throws Exception {
+    Query query = qs.newQuery("select * from /r where status = $1");
+    SelectResults results = (SelectResults) query.execute(new Object[] {status});
+    return results.size();
+  }
 }
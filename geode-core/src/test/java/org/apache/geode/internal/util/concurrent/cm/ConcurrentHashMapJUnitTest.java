@@ -34,6 +34,7 @@ import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -689,4 +690,42 @@ public class ConcurrentHashMapJUnitTest extends JSR166TestCase { // TODO: reform
     entry1.setValue("XYZ");
     assertTrue(map.containsValue("XYZ")); // fails
   }
+
+  /**
+   * get and containsKey find existing keys while other keys are removed and the table is rehashed
+   */
+  @Test
+  public void testGetDuringConcurrentRehashAndRemove() throws InterruptedException {
+    final CustomEntryConcurrentHashMap map = new CustomEntryConcurrentHashMap(2, 0.75f, 1);
+    for (int i = 0; i < 100; i++) {
+      map.put(new Integer(i), new Integer(i));
+    }
+    final AtomicBoolean done = new AtomicBoolean();
+    Thread mutator = new Thread(new Runnable() {
+      public void run() {
+        for (int round = 0; round < 200; round++) {
+          for (int i = 100; i < 1100; i++) {
+            map.put(new Integer(i), new Integer(i));
+          }
+          for (int i = 100; i < 1100; i++) {
+            map.remove(new Integer(i));
+          }
+        }
+        done.set(true);
+      }
+    });
+    mutator.start();
+    try {
+      while (!done.get()) {
+        for (int i = 0; i < 100; i++) {
+          Integer key = new Integer(i);
+          assertEquals(key, map.get(key));
+          assertTrue(map.containsKey(key));
+        }
+      }
+    } finally {
+      done.set(true);
+      mutator.join();
+    }
+  }
 }
@@ -132,5 +132,20 @@ public class CreateIndexCommandTest {
     assertThat(indexTypeCaptor.getValue().getIndexType()).isEqualTo(IndexType.FUNCTIONAL);
   }
 
+  @Test
+  public void coveredFields() throws Exception {
+    DistributedMember member = mock(DistributedMember.class);
+    doReturn(Collections.singleton(member)).when(command).findMembers(any(), any());
+
+    ArgumentCaptor<IndexInfo> indexInfoCaptor = ArgumentCaptor.forClass(IndexInfo.class);
+    gfshParser.executeAndAssertThat(command,
+        "create index --name=abc --expression=p.id --region=/abc --covered-fields=id,status");
+
+    verify(command).executeAndGetFunctionResult(any(), indexInfoCaptor.capture(),
+        eq(Collections.singleton(member)));
+
+    assertThat(indexInfoCaptor.getValue().getCoveredFields()).containsExactly("id", "status");
+  }
+
 
 }
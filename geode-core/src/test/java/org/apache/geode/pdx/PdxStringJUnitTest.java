@@ -143,6 +143,28 @@ public class PdxStringJUnitTest {
     str1 = null;
   }
 
+  @Test
+  public void testCompareStringField() throws Exception {
+    PdxInstanceFactory pf = PdxInstanceFactoryImpl.newCreator("Portfolio", false);
+    pf.writeString("secId", "abc");
+    pf.writeString("nullId", null);
+    pf.writeString("utfId", "A" + "é" + "ñ");
+    PdxInstanceImpl pi = (PdxInstanceImpl) pf.create();
+
+    assertEquals(Integer.valueOf(0),
+        pi.compareStringField(pi.getPdxField("secId"), new PdxString("abc")));
+    assertEquals(Integer.valueOf(1),
+        pi.compareStringField(pi.getPdxField("secId"), new PdxString("ABC")));
+    assertEquals(Integer.valueOf(-1),
+        pi.compareStringField(pi.getPdxField("secId"), new PdxString("abcd")));
+    assertEquals(Integer.valueOf(-1), pi.compareStringField(pi.getPdxField("utfId"),
+        new PdxString("A" + "ê" + "ñ")));
+    // strings with different encodings
+    assertEquals(Integer.valueOf(1),
+        pi.compareStringField(pi.getPdxField("utfId"), new PdxString("A")));
+    assertNull(pi.compareStringField(pi.getPdxField("nullId"), new PdxString("abc")));
+  }
+
   @Test
   public void testToString() throws Exception {
     String s = "abc";